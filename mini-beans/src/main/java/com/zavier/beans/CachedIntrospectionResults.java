@@ -0,0 +1,276 @@
+package com.zavier.beans;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Internal class that caches reflective information about a Java class:
+ * its writable properties, candidate constructors and factory methods,
+ * lifecycle methods and the {@link MethodHandle}s derived from them.
+ * <p>同一个类的所有 bean 定义共享同一份结果，反射只做一次。结果保存在
+ * {@link ClassValue} 中，随类一起回收，不会阻止类加载器被回收。
+ * <p>返回的数组与集合是共享的，调用方不得修改
+ */
+public final class CachedIntrospectionResults {
+
+    private static final ClassValue<CachedIntrospectionResults> classCache = new ClassValue<CachedIntrospectionResults>() {
+        @Override
+        protected CachedIntrospectionResults computeValue(Class<?> beanClass) {
+            return new CachedIntrospectionResults(beanClass);
+        }
+    };
+
+    private static final MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+    /** Marker for cached lifecycle method misses */
+    private static final Object NO_METHOD = new Object();
+
+    private final Class<?> beanClass;
+
+    private volatile Constructor<?>[] constructors;
+
+    private volatile Method[] candidateMethods;
+
+    /** 首字母大写的属性名 --> setter，例如 "Name" --> setName(...) */
+    private volatile Map<String, List<Method>> writeMethods;
+
+    /** 方法名 --> 无参方法或 {@link #NO_METHOD} */
+    private final ConcurrentMap<String, Object> lifecycleMethods = new ConcurrentHashMap<String, Object>(4);
+
+    private final ConcurrentMap<Method, MethodHandle> methodHandles = new ConcurrentHashMap<Method, MethodHandle>(16);
+
+    /** 方法名 --> 适配为 {@code (Object)void} 的生命周期方法句柄或 {@link #NO_METHOD} */
+    private final ConcurrentMap<String, Object> lifecycleMethodHandles = new ConcurrentHashMap<String, Object>(4);
+
+    /** 无参构造器 --> 生成的 {@link Supplier} */
+    private final ConcurrentMap<Constructor<?>, Supplier<Object>> instanceSuppliers =
+            new ConcurrentHashMap<Constructor<?>, Supplier<Object>>(2);
+
+    /** 构造器 --> 接收参数数组的实例化函数 */
+    private final ConcurrentMap<Constructor<?>, Function<Object[], Object>> constructorInstantiators =
+            new ConcurrentHashMap<Constructor<?>, Function<Object[], Object>>(2);
+
+    private CachedIntrospectionResults(Class<?> beanClass) {
+        this.beanClass = beanClass;
+    }
+
+    /**
+     * Obtain the introspection results for the given bean class.
+     * @param beanClass the bean class to introspect
+     * @return the shared results for the class (never {@code null})
+     */
+    public static CachedIntrospectionResults forClass(Class<?> beanClass) {
+        return classCache.get(beanClass);
+    }
+
+    public Class<?> getBeanClass() {
+        return this.beanClass;
+    }
+
+    /**
+     * Return all declared constructors of the class.
+     */
+    public Constructor<?>[] getConstructors() {
+        Constructor<?>[] constructors = this.constructors;
+        if (constructors == null) {
+            constructors = this.beanClass.getDeclaredConstructors();
+            this.constructors = constructors;
+        }
+        return constructors;
+    }
+
+    /**
+     * Return the candidate factory methods of the class: all public methods,
+     * including inherited ones, followed by the other declared methods.
+     */
+    public Method[] getCandidateMethods() {
+        Method[] methods = this.candidateMethods;
+        if (methods == null) {
+            Set<Method> candidates = new LinkedHashSet<Method>(Arrays.asList(this.beanClass.getMethods()));
+            candidates.addAll(Arrays.asList(this.beanClass.getDeclaredMethods()));
+            methods = candidates.toArray(new Method[0]);
+            this.candidateMethods = methods;
+        }
+        return methods;
+    }
+
+    /**
+     * Return the public single-argument setter methods for the given property,
+     * e.g. {@code setName(..)} for property {@code "name"}.
+     * @return the setters, possibly overloaded (empty if the property is not writable)
+     */
+    public List<Method> getWriteMethods(String propertyName) {
+        Map<String, List<Method>> writeMethods = this.writeMethods;
+        if (writeMethods == null) {
+            writeMethods = introspectWriteMethods();
+            this.writeMethods = writeMethods;
+        }
+        List<Method> setters = writeMethods.get(
+                Character.toUpperCase(propertyName.charAt(0)) + propertyName.substring(1));
+        return (setters != null ? setters : Collections.<Method>emptyList());
+    }
+
+    private Map<String, List<Method>> introspectWriteMethods() {
+        Map<String, List<Method>> writeMethods = new HashMap<String, List<Method>>();
+        for (Method method : this.beanClass.getMethods()) {
+            String name = method.getName();
+            if (name.length() > 3 && name.startsWith("set") && method.getParameterCount() == 1 &&
+                    !Modifier.isStatic(method.getModifiers()) && !method.isBridge()) {
+                writeMethods.computeIfAbsent(name.substring(3), key -> new ArrayList<Method>(1)).add(method);
+            }
+        }
+        for (Map.Entry<String, List<Method>> entry : writeMethods.entrySet()) {
+            entry.setValue(Collections.unmodifiableList(entry.getValue()));
+        }
+        return writeMethods;
+    }
+
+    /**
+     * Find a no-arg instance method with the given name, such as an init or destroy method.
+     * <p>先查找公开方法（包括继承的），再沿父类查找非公开的声明方法
+     * @param methodName the name of the method
+     * @return the method, or {@code null} if none found
+     */
+    public Method getLifecycleMethod(String methodName) {
+        Object method = this.lifecycleMethods.get(methodName);
+        if (method == null) {
+            method = findLifecycleMethod(methodName);
+            this.lifecycleMethods.put(methodName, method != null ? method : NO_METHOD);
+        }
+        return (method != NO_METHOD ? (Method) method : null);
+    }
+
+    private Method findLifecycleMethod(String methodName) {
+        try {
+            Method method = this.beanClass.getMethod(methodName);
+            if (!Modifier.isStatic(method.getModifiers())) {
+                return method;
+            }
+        }
+        catch (NoSuchMethodException ex) {
+            // fall back to non-public methods
+        }
+        for (Class<?> clazz = this.beanClass; clazz != null; clazz = clazz.getSuperclass()) {
+            try {
+                Method method = clazz.getDeclaredMethod(methodName);
+                if (!Modifier.isStatic(method.getModifiers())) {
+                    return method;
+                }
+            }
+            catch (NoSuchMethodException ex) {
+                // continue with the superclass
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Return a method handle for the {@link #getLifecycleMethod lifecycle method}
+     * with the given name, adapted to {@code (Object)void} so that it can be
+     * invoked with {@link MethodHandle#invokeExact} on any instance of this class.
+     * @param methodName the name of the method
+     * @return the method handle, or {@code null} if no such method found
+     * @throws BeanInstantiationException if the method cannot be made accessible
+     */
+    public MethodHandle getLifecycleMethodHandle(String methodName) throws BeanInstantiationException {
+        Object handle = this.lifecycleMethodHandles.get(methodName);
+        if (handle == null) {
+            Method method = getLifecycleMethod(methodName);
+            handle = (method != null ?
+                    getMethodHandle(method).asType(MethodType.methodType(void.class, Object.class)) : NO_METHOD);
+            this.lifecycleMethodHandles.put(methodName, handle);
+        }
+        return (handle != NO_METHOD ? (MethodHandle) handle : null);
+    }
+
+    /**
+     * Return a direct method handle for the given method of this class,
+     * making the method accessible if necessary.
+     * @throws BeanInstantiationException if the method cannot be made accessible
+     */
+    public MethodHandle getMethodHandle(Method method) throws BeanInstantiationException {
+        MethodHandle handle = this.methodHandles.get(method);
+        if (handle == null) {
+            handle = unreflect(method);
+            this.methodHandles.put(method, handle);
+        }
+        return handle;
+    }
+
+    /**
+     * Return the shared instance supplier for the given no-arg constructor of
+     * this class, creating it through the given factory on first access.
+     * <p>生成的 lambda 类按构造器只生成一次，所有 bean 定义共享同一个实例
+     * @param ctor the constructor to invoke
+     * @param factory creates the supplier if none cached yet
+     * @return the cached supplier
+     */
+    public Supplier<Object> getInstanceSupplier(Constructor<?> ctor,
+                                                Function<Constructor<?>, Supplier<Object>> factory) {
+        Supplier<Object> supplier = this.instanceSuppliers.get(ctor);
+        if (supplier == null) {
+            supplier = factory.apply(ctor);
+            Supplier<Object> existing = this.instanceSuppliers.putIfAbsent(ctor, supplier);
+            if (existing != null) {
+                supplier = existing;
+            }
+        }
+        return supplier;
+    }
+
+    /**
+     * Return the shared instantiator for the given constructor of this class,
+     * creating it through the given factory on first access.
+     * @param ctor the constructor to invoke
+     * @param factory creates the instantiator if none cached yet
+     * @return the cached instantiator, taking the constructor arguments as an array
+     */
+    public Function<Object[], Object> getConstructorInstantiator(Constructor<?> ctor,
+            Function<Constructor<?>, Function<Object[], Object>> factory) {
+        Function<Object[], Object> instantiator = this.constructorInstantiators.get(ctor);
+        if (instantiator == null) {
+            instantiator = factory.apply(ctor);
+            Function<Object[], Object> existing = this.constructorInstantiators.putIfAbsent(ctor, instantiator);
+            if (existing != null) {
+                instantiator = existing;
+            }
+        }
+        return instantiator;
+    }
+
+    private MethodHandle unreflect(Method method) {
+        try {
+            if (!Modifier.isPublic(method.getModifiers()) ||
+                    !Modifier.isPublic(method.getDeclaringClass().getModifiers())) {
+                method.setAccessible(true);
+            }
+            return lookup.unreflect(method);
+        }
+        catch (IllegalAccessException | RuntimeException ex) {
+            throw new BeanInstantiationException(this.beanClass,
+                    "Is method '" + method.getName() + "' accessible?", ex);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CachedIntrospectionResults for [" + this.beanClass.getName() + "]";
+    }
+
+}
@@ -0,0 +1,149 @@
+package com.zavier.beans;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The default implementation of the {@link PropertyValues} interface.
+ * Allows simple manipulation of properties, and provides constructors
+ * to support deep copy and construction from a Map.
+ * <p>按添加顺序保存，同名属性后添加的覆盖先添加的
+ */
+public class MutablePropertyValues implements PropertyValues {
+
+    private final List<PropertyValue> propertyValueList;
+
+    /**
+     * Creates a new empty MutablePropertyValues object.
+     * <p>Property values can be added with the {@code add} method.
+     */
+    public MutablePropertyValues() {
+        this.propertyValueList = new ArrayList<PropertyValue>(0);
+    }
+
+    /**
+     * Deep copy constructor. Guarantees PropertyValue references
+     * are independent, although it can't deep copy objects currently
+     * referenced by individual PropertyValue objects.
+     * @param original the PropertyValues to copy
+     */
+    public MutablePropertyValues(PropertyValues original) {
+        if (original != null) {
+            PropertyValue[] pvs = original.getPropertyValues();
+            this.propertyValueList = new ArrayList<PropertyValue>(pvs.length);
+            for (PropertyValue pv : pvs) {
+                this.propertyValueList.add(new PropertyValue(pv.getName(), pv.getValue()));
+            }
+        }
+        else {
+            this.propertyValueList = new ArrayList<PropertyValue>(0);
+        }
+    }
+
+    /**
+     * Return the underlying List of PropertyValue objects in its raw form.
+     */
+    public List<PropertyValue> getPropertyValueList() {
+        return this.propertyValueList;
+    }
+
+    /**
+     * Return the number of PropertyValue entries in the list.
+     */
+    public int size() {
+        return this.propertyValueList.size();
+    }
+
+    /**
+     * Copy all given PropertyValues into this object. Guarantees PropertyValue
+     * references are independent.
+     * @param other the PropertyValues to copy
+     * @return this in order to allow for adding multiple property values in a chain
+     */
+    public MutablePropertyValues addPropertyValues(PropertyValues other) {
+        if (other != null) {
+            for (PropertyValue pv : other.getPropertyValues()) {
+                addPropertyValue(new PropertyValue(pv.getName(), pv.getValue()));
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Add a PropertyValue object, replacing any existing one for the
+     * corresponding property.
+     * @param pv the PropertyValue object to add
+     * @return this in order to allow for adding multiple property values in a chain
+     */
+    public MutablePropertyValues addPropertyValue(PropertyValue pv) {
+        for (int i = 0; i < this.propertyValueList.size(); i++) {
+            if (this.propertyValueList.get(i).getName().equals(pv.getName())) {
+                this.propertyValueList.set(i, pv);
+                return this;
+            }
+        }
+        this.propertyValueList.add(pv);
+        return this;
+    }
+
+    /**
+     * Add a PropertyValue object, replacing any existing one for the
+     * corresponding property.
+     * @param propertyName name of the property
+     * @param propertyValue value of the property
+     * @return this in order to allow for adding multiple property values in a chain
+     */
+    public MutablePropertyValues add(String propertyName, Object propertyValue) {
+        return addPropertyValue(new PropertyValue(propertyName, propertyValue));
+    }
+
+    /**
+     * Remove the given PropertyValue, if contained.
+     * @param propertyName name of the property
+     */
+    public void removePropertyValue(String propertyName) {
+        this.propertyValueList.removeIf(pv -> pv.getName().equals(propertyName));
+    }
+
+    @Override
+    public PropertyValue[] getPropertyValues() {
+        return this.propertyValueList.toArray(new PropertyValue[0]);
+    }
+
+    @Override
+    public PropertyValue getPropertyValue(String propertyName) {
+        for (PropertyValue pv : this.propertyValueList) {
+            if (pv.getName().equals(propertyName)) {
+                return pv;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public boolean contains(String propertyName) {
+        return (getPropertyValue(propertyName) != null);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.propertyValueList.isEmpty();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return (this == other || (other instanceof MutablePropertyValues &&
+                this.propertyValueList.equals(((MutablePropertyValues) other).propertyValueList)));
+    }
+
+    @Override
+    public int hashCode() {
+        return this.propertyValueList.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "PropertyValues: length=" + this.propertyValueList.size();
+    }
+
+}
@@ -0,0 +1,67 @@
+package com.zavier.beans;
+
+import java.util.Objects;
+
+/**
+ * Object to hold information and value for an individual bean property.
+ * <p>值保持解析时的原始形式（例如 {@link com.zavier.beans.factory.config.TypedStringValue}
+ * 或 {@link com.zavier.beans.factory.config.RuntimeBeanReference}），类型转换的结果
+ * 缓存在合并后的 bean 定义上，而不是这里
+ */
+public class PropertyValue {
+
+    private final String name;
+
+    private final Object value;
+
+    /**
+     * Create a new PropertyValue instance.
+     * @param name the name of the property (never {@code null})
+     * @param value the value of the property (possibly before type conversion)
+     */
+    public PropertyValue(String name, Object value) {
+        if (name == null) {
+            throw new IllegalArgumentException("Name must not be null");
+        }
+        this.name = name;
+        this.value = value;
+    }
+
+    /**
+     * Return the name of the property.
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Return the value of the property.
+     * <p>Note that type conversion will <i>not</i> have occurred here.
+     */
+    public Object getValue() {
+        return this.value;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof PropertyValue)) {
+            return false;
+        }
+        PropertyValue otherPv = (PropertyValue) other;
+        return (this.name.equals(otherPv.name) && Objects.equals(this.value, otherPv.value));
+    }
+
+    @Override
+    public int hashCode() {
+        return this.name.hashCode() * 29 + Objects.hashCode(this.value);
+    }
+
+    @Override
+    public String toString() {
+        return "bean property '" + this.name + "'";
+    }
+
+}
@@ -0,0 +1,127 @@
+package com.zavier.beans;
+
+import com.zavier.util.ClassUtils;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.Charset;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Converts String values from bean definitions into the type of the target
+ * property or constructor parameter.
+ * <p>转换器按目标类型查找一次后缓存：解析 bean 定义时先取得转换器，
+ * 字面值也只转换一次，之后每次创建实例直接使用转换结果
+ */
+public class SimpleTypeConverter {
+
+    private static final Map<Class<?>, Function<String, Object>> defaultConverters =
+            new ConcurrentHashMap<Class<?>, Function<String, Object>>(32);
+
+    static {
+        defaultConverters.put(String.class, value -> value);
+        defaultConverters.put(Object.class, value -> value);
+        defaultConverters.put(CharSequence.class, value -> value);
+        defaultConverters.put(Boolean.class, SimpleTypeConverter::toBoolean);
+        defaultConverters.put(Byte.class, value -> Byte.decode(value.trim()));
+        defaultConverters.put(Short.class, value -> Short.decode(value.trim()));
+        defaultConverters.put(Integer.class, value -> Integer.decode(value.trim()));
+        defaultConverters.put(Long.class, value -> Long.decode(value.trim()));
+        defaultConverters.put(Float.class, value -> Float.valueOf(value.trim()));
+        defaultConverters.put(Double.class, value -> Double.valueOf(value.trim()));
+        defaultConverters.put(Character.class, SimpleTypeConverter::toCharacter);
+        defaultConverters.put(BigInteger.class, value -> new BigInteger(value.trim()));
+        defaultConverters.put(BigDecimal.class, value -> new BigDecimal(value.trim()));
+        defaultConverters.put(Charset.class, value -> Charset.forName(value.trim()));
+        defaultConverters.put(Class.class, value -> {
+            try {
+                return ClassUtils.forName(value.trim(), ClassUtils.getDefaultClassLoader());
+            }
+            catch (ClassNotFoundException ex) {
+                throw new IllegalArgumentException("Class not found: " + value, ex);
+            }
+        });
+    }
+
+    private static final SimpleTypeConverter sharedInstance = new SimpleTypeConverter();
+
+    /**
+     * Return a shared default SimpleTypeConverter instance.
+     */
+    public static SimpleTypeConverter getSharedInstance() {
+        return sharedInstance;
+    }
+
+    /**
+     * Return the converter from String to the given type, if any.
+     * @param requiredType the type to convert to
+     * @return the converter, or {@code null} if Strings cannot be converted to the given type
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public Function<String, Object> getConverter(Class<?> requiredType) {
+        Class<?> type = (requiredType.isPrimitive() ? ClassUtils.resolvePrimitiveIfNecessary(requiredType) : requiredType);
+        Function<String, Object> converter = defaultConverters.get(type);
+        if (converter == null && type.isEnum()) {
+            Class<? extends Enum> enumType = (Class<? extends Enum>) type;
+            converter = defaultConverters.computeIfAbsent(type, k -> value -> Enum.valueOf(enumType, value.trim()));
+        }
+        return converter;
+    }
+
+    /**
+     * Convert the given String value to the given type.
+     * @param value the value to convert (may be {@code null})
+     * @param requiredType the type to convert to
+     * @return the converted value
+     * @throws TypeMismatchException if the value cannot be converted
+     */
+    public Object convert(String value, Class<?> requiredType) throws TypeMismatchException {
+        return convert(value, requiredType, getConverter(requiredType));
+    }
+
+    /**
+     * Convert the given String value with the given converter, as returned by
+     * {@link #getConverter}.
+     */
+    public Object convert(String value, Class<?> requiredType, Function<String, Object> converter)
+            throws TypeMismatchException {
+        if (value == null) {
+            if (requiredType.isPrimitive()) {
+                throw new TypeMismatchException(null, requiredType);
+            }
+            return null;
+        }
+        if (converter == null) {
+            throw new TypeMismatchException(value, requiredType);
+        }
+        try {
+            return converter.apply(value);
+        }
+        catch (RuntimeException ex) {
+            throw new TypeMismatchException(value, requiredType, ex);
+        }
+    }
+
+    private static Object toBoolean(String value) {
+        String text = value.trim().toLowerCase(Locale.ROOT);
+        if ("true".equals(text) || "on".equals(text) || "yes".equals(text) || "1".equals(text)) {
+            return Boolean.TRUE;
+        }
+        if ("false".equals(text) || "off".equals(text) || "no".equals(text) || "0".equals(text)) {
+            return Boolean.FALSE;
+        }
+        throw new IllegalArgumentException("Invalid boolean value [" + value + "]");
+    }
+
+    private static Object toCharacter(String value) {
+        if (value.length() != 1) {
+            throw new IllegalArgumentException("String [" + value + "] with length " +
+                    value.length() + " cannot be converted to char type");
+        }
+        return value.charAt(0);
+    }
+
+}
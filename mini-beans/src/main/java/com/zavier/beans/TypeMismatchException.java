@@ -0,0 +1,39 @@
+package com.zavier.beans;
+
+/**
+ * Exception thrown on a type mismatch when trying to set a bean property
+ * or constructor argument.
+ */
+public class TypeMismatchException extends BeansException {
+
+    private final Object value;
+
+    private final Class<?> requiredType;
+
+    public TypeMismatchException(Object value, Class<?> requiredType) {
+        this(value, requiredType, null);
+    }
+
+    public TypeMismatchException(Object value, Class<?> requiredType, Throwable cause) {
+        super("Failed to convert value of type '" + (value != null ? value.getClass().getName() : null) + "'" +
+                (requiredType != null ? " to required type '" + requiredType.getName() + "'" : "") +
+                (cause != null ? "; " + cause.getMessage() : ""), cause);
+        this.value = value;
+        this.requiredType = requiredType;
+    }
+
+    /**
+     * Return the offending value (may be {@code null}).
+     */
+    public Object getValue() {
+        return this.value;
+    }
+
+    /**
+     * Return the required target type, if any.
+     */
+    public Class<?> getRequiredType() {
+        return this.requiredType;
+    }
+
+}
@@ -0,0 +1,47 @@
+package com.zavier.beans.factory;
+
+import com.zavier.beans.BeansException;
+
+public class BeanCreationException extends BeansException {
+
+    /** Name of the bean that failed to be created. */
+    private String beanName;
+
+
+    /**
+     * Create a new {@code BeanCreationException}.
+     * @param msg the detail message
+     */
+    public BeanCreationException(String msg) {
+        super(msg);
+    }
+
+    /**
+     * Create a new {@code BeanCreationException}.
+     * @param beanName the name of the bean requested
+     * @param msg the detail message
+     */
+    public BeanCreationException(String beanName, String msg) {
+        super("Error creating bean with name '" + beanName + "': " + msg);
+        this.beanName = beanName;
+    }
+
+    /**
+     * Create a new {@code BeanCreationException}.
+     * @param beanName the name of the bean requested
+     * @param msg the detail message
+     * @param cause the root cause
+     */
+    public BeanCreationException(String beanName, String msg, Throwable cause) {
+        this(beanName, msg);
+        initCause(cause);
+    }
+
+    /**
+     * Return the name of the bean requested, if any.
+     */
+    public String getBeanName() {
+        return this.beanName;
+    }
+
+}
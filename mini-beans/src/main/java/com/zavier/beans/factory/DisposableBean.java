@@ -0,0 +1,18 @@
+package com.zavier.beans.factory;
+
+/**
+ * Interface to be implemented by beans that want to release resources on destruction.
+ * A {@link BeanFactory} will invoke the destroy method on individual destruction of a
+ * scoped bean, and on shutdown for all singletons.
+ * <p>除了由 bean 自身实现外，工厂也用它包装配置的 {@code destroy-method}
+ */
+public interface DisposableBean {
+
+    /**
+     * Invoked by the containing {@code BeanFactory} on destruction of a bean.
+     * @throws Exception in case of shutdown errors. Exceptions will get logged
+     * but not rethrown to allow other beans to release their resources as well.
+     */
+    void destroy() throws Exception;
+
+}
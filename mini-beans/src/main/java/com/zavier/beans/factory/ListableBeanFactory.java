@@ -0,0 +1,42 @@
+package com.zavier.beans.factory;
+
+/**
+ * Extension of the {@link BeanFactory} interface to be implemented by bean factories
+ * that can enumerate all their bean instances, rather than attempting bean lookup
+ * by name one by one as requested by clients.
+ */
+public interface ListableBeanFactory extends BeanFactory {
+
+    /**
+     * Check if this bean factory contains a bean definition with the given name.
+     * @param beanName the name of the bean to look for
+     */
+    boolean containsBeanDefinition(String beanName);
+
+    /**
+     * Return the number of beans defined in the factory.
+     */
+    int getBeanDefinitionCount();
+
+    /**
+     * Return the names of all beans defined in this factory.
+     */
+    String[] getBeanDefinitionNames();
+
+    /**
+     * Return the names of beans matching the given type (including subclasses),
+     * judging from the bean definitions. Abstract definitions are not considered.
+     * @param type the class or interface to match
+     * @return the names of beans matching the given object type, in a stable order
+     */
+    String[] getBeanNamesForType(Class<?> type);
+
+    /**
+     * Return the names of beans matching the given type (including subclasses).
+     * @param type the class or interface to match
+     * @param includeNonSingletons whether to include prototype or scoped beans too
+     * or just singletons
+     * @return the names of beans matching the given object type, in a stable order
+     */
+    String[] getBeanNamesForType(Class<?> type, boolean includeNonSingletons);
+}
@@ -0,0 +1,29 @@
+package com.zavier.beans.factory;
+
+import java.util.Arrays;
+
+public class NoUniqueBeanDefinitionException extends NoSuchBeanDefinitionException {
+
+    /** Names of all matching beans. */
+    private final String[] beanNamesFound;
+
+
+    /**
+     * Create a new {@code NoUniqueBeanDefinitionException}.
+     * @param type required type of the non-unique bean
+     * @param beanNamesFound the names of all matching beans
+     */
+    public NoUniqueBeanDefinitionException(Class<?> type, String... beanNamesFound) {
+        super(type, "expected single matching bean but found " + beanNamesFound.length + ": " +
+                String.join(",", Arrays.asList(beanNamesFound)));
+        this.beanNamesFound = beanNamesFound;
+    }
+
+    /**
+     * Return the names of all beans found when only one matching bean was expected.
+     */
+    public String[] getBeanNamesFound() {
+        return this.beanNamesFound;
+    }
+
+}
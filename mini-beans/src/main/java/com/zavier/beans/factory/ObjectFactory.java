@@ -0,0 +1,18 @@
+package com.zavier.beans.factory;
+
+import com.zavier.beans.BeansException;
+
+/**
+ * Defines a factory which can return an Object instance
+ * (possibly shared or independent) when invoked.
+ */
+public interface ObjectFactory<T> {
+
+    /**
+     * Return an instance (possibly shared or independent)
+     * of the object managed by this factory.
+     * @return the resulting instance
+     * @throws BeansException in case of creation errors
+     */
+    T getObject() throws BeansException;
+}
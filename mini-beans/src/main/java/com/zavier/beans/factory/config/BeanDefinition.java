@@ -1,5 +1,7 @@
 package com.zavier.beans.factory.config;
 
+import com.zavier.beans.MutablePropertyValues;
+
 public interface BeanDefinition {
 
     String SCOPE_SINGLETON = "singleton";
@@ -130,4 +132,32 @@ public interface BeanDefinition {
      */
     boolean isAbstract();
 
+    /**
+     * Return the constructor argument values for this bean.
+     * <p>The returned instance can be modified during bean factory post-processing.
+     * @return the ConstructorArgumentValues object (never {@code null})
+     */
+    ConstructorArgumentValues getConstructorArgumentValues();
+
+    /**
+     * Return if there are constructor argument values defined for this bean.
+     */
+    default boolean hasConstructorArgumentValues() {
+        return !getConstructorArgumentValues().isEmpty();
+    }
+
+    /**
+     * Return the property values to be applied to a new instance of the bean.
+     * <p>The returned instance can be modified during bean factory post-processing.
+     * @return the MutablePropertyValues object (never {@code null})
+     */
+    MutablePropertyValues getPropertyValues();
+
+    /**
+     * Return if there are property values defined for this bean.
+     */
+    default boolean hasPropertyValues() {
+        return !getPropertyValues().isEmpty();
+    }
+
 }
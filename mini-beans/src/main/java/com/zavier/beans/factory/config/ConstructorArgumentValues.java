@@ -0,0 +1,241 @@
+package com.zavier.beans.factory.config;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Holder for constructor argument values, typically as part of a bean definition.
+ * <p>Supports values for a specific index in the constructor argument list
+ * as well as for generic argument matches by type.
+ */
+public class ConstructorArgumentValues {
+
+    private final Map<Integer, ValueHolder> indexedArgumentValues = new LinkedHashMap<Integer, ValueHolder>();
+
+    private final List<ValueHolder> genericArgumentValues = new ArrayList<ValueHolder>();
+
+    /**
+     * Create a new empty ConstructorArgumentValues object.
+     */
+    public ConstructorArgumentValues() {
+    }
+
+    /**
+     * Deep copy constructor.
+     * @param original the ConstructorArgumentValues to copy
+     */
+    public ConstructorArgumentValues(ConstructorArgumentValues original) {
+        addArgumentValues(original);
+    }
+
+    /**
+     * Copy all given argument values into this object, using separate holder
+     * instances to keep the values independent from the original object.
+     * <p>Note: Identical ValueHolder instances will only be registered once,
+     * to allow for merging and re-merging of argument value definitions.
+     * @param other the ConstructorArgumentValues to copy
+     */
+    public void addArgumentValues(ConstructorArgumentValues other) {
+        if (other != null) {
+            for (Map.Entry<Integer, ValueHolder> entry : other.indexedArgumentValues.entrySet()) {
+                this.indexedArgumentValues.put(entry.getKey(), entry.getValue().copy());
+            }
+            for (ValueHolder valueHolder : other.genericArgumentValues) {
+                if (!this.genericArgumentValues.contains(valueHolder)) {
+                    this.genericArgumentValues.add(valueHolder.copy());
+                }
+            }
+        }
+    }
+
+    /**
+     * Add an argument value for the given index in the constructor argument list.
+     * @param index the index in the constructor argument list
+     * @param newValue the argument value in the form of a ValueHolder
+     */
+    public void addIndexedArgumentValue(int index, ValueHolder newValue) {
+        if (index < 0) {
+            throw new IllegalArgumentException("Index must not be negative");
+        }
+        this.indexedArgumentValues.put(index, newValue);
+    }
+
+    /**
+     * Check whether an argument value has been registered for the given index.
+     * @param index the index in the constructor argument list
+     */
+    public boolean hasIndexedArgumentValue(int index) {
+        return this.indexedArgumentValues.containsKey(index);
+    }
+
+    /**
+     * Return the map of indexed argument values.
+     * @return unmodifiable Map with Integer index as key and ValueHolder as value
+     */
+    public Map<Integer, ValueHolder> getIndexedArgumentValues() {
+        return Collections.unmodifiableMap(this.indexedArgumentValues);
+    }
+
+    /**
+     * Add a generic argument value to be matched by type or name (if available).
+     * <p>Note: A single generic argument value will just be used once,
+     * rather than matched multiple times.
+     * @param newValue the argument value in the form of a ValueHolder
+     */
+    public void addGenericArgumentValue(ValueHolder newValue) {
+        if (!this.genericArgumentValues.contains(newValue)) {
+            this.genericArgumentValues.add(newValue);
+        }
+    }
+
+    /**
+     * Return the list of generic argument values.
+     * @return unmodifiable List of ValueHolders
+     */
+    public List<ValueHolder> getGenericArgumentValues() {
+        return Collections.unmodifiableList(this.genericArgumentValues);
+    }
+
+    /**
+     * Return the number of argument values held in this instance,
+     * counting both indexed and generic argument values.
+     */
+    public int getArgumentCount() {
+        return (this.indexedArgumentValues.size() + this.genericArgumentValues.size());
+    }
+
+    /**
+     * Return if this holder does not contain any argument values,
+     * neither indexed ones nor generic ones.
+     */
+    public boolean isEmpty() {
+        return (this.indexedArgumentValues.isEmpty() && this.genericArgumentValues.isEmpty());
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof ConstructorArgumentValues)) {
+            return false;
+        }
+        ConstructorArgumentValues that = (ConstructorArgumentValues) other;
+        if (this.genericArgumentValues.size() != that.genericArgumentValues.size() ||
+                this.indexedArgumentValues.size() != that.indexedArgumentValues.size()) {
+            return false;
+        }
+        for (int i = 0; i < this.genericArgumentValues.size(); i++) {
+            if (!this.genericArgumentValues.get(i).contentEquals(that.genericArgumentValues.get(i))) {
+                return false;
+            }
+        }
+        for (Map.Entry<Integer, ValueHolder> entry : this.indexedArgumentValues.entrySet()) {
+            ValueHolder otherHolder = that.indexedArgumentValues.get(entry.getKey());
+            if (otherHolder == null || !entry.getValue().contentEquals(otherHolder)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hashCode = 7;
+        for (ValueHolder valueHolder : this.genericArgumentValues) {
+            hashCode = 31 * hashCode + valueHolder.contentHashCode();
+        }
+        hashCode = 29 * hashCode;
+        for (Map.Entry<Integer, ValueHolder> entry : this.indexedArgumentValues.entrySet()) {
+            hashCode = 31 * hashCode + (entry.getValue().contentHashCode() ^ entry.getKey().hashCode());
+        }
+        return hashCode;
+    }
+
+
+    /**
+     * Holder for a constructor argument value, with an optional type
+     * attribute indicating the target type of the actual constructor argument.
+     */
+    public static class ValueHolder {
+
+        private final Object value;
+
+        private final String type;
+
+        private final String name;
+
+        /**
+         * Create a new ValueHolder for the given value.
+         * @param value the argument value
+         */
+        public ValueHolder(Object value) {
+            this(value, null, null);
+        }
+
+        /**
+         * Create a new ValueHolder for the given value, type and name.
+         * @param value the argument value
+         * @param type the type of the constructor argument
+         * @param name the name of the constructor argument
+         */
+        public ValueHolder(Object value, String type, String name) {
+            this.value = value;
+            this.type = type;
+            this.name = name;
+        }
+
+        /**
+         * Return the value for the constructor argument.
+         */
+        public Object getValue() {
+            return this.value;
+        }
+
+        /**
+         * Return the type of the constructor argument.
+         */
+        public String getType() {
+            return this.type;
+        }
+
+        /**
+         * Return the name of the constructor argument.
+         */
+        public String getName() {
+            return this.name;
+        }
+
+        /**
+         * Create a copy of this ValueHolder: that is, an independent
+         * ValueHolder instance with the same contents.
+         */
+        public ValueHolder copy() {
+            return new ValueHolder(this.value, this.type, this.name);
+        }
+
+        /**
+         * Determine whether the content of this ValueHolder is equal
+         * to the content of the given other ValueHolder.
+         * <p>Note that ValueHolder does not implement {@code equals}
+         * directly, to allow for multiple ValueHolder instances with the
+         * same content to reside in the same Set.
+         */
+        private boolean contentEquals(ValueHolder other) {
+            return (this == other || (Objects.equals(this.value, other.value) &&
+                    Objects.equals(this.type, other.type) && Objects.equals(this.name, other.name)));
+        }
+
+        /**
+         * Determine the hash code of the content of this ValueHolder.
+         */
+        private int contentHashCode() {
+            return Objects.hash(this.value, this.type, this.name);
+        }
+    }
+
+}
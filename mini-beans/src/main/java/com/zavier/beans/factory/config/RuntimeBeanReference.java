@@ -0,0 +1,45 @@
+package com.zavier.beans.factory.config;
+
+/**
+ * Immutable placeholder class used for a property value object when it's
+ * a reference to another bean in the factory, to be resolved at runtime.
+ */
+public class RuntimeBeanReference {
+
+    private final String beanName;
+
+    /**
+     * Create a new RuntimeBeanReference to the given bean name.
+     * @param beanName name of the target bean
+     */
+    public RuntimeBeanReference(String beanName) {
+        if (beanName == null || beanName.isEmpty()) {
+            throw new IllegalArgumentException("'beanName' must not be empty");
+        }
+        this.beanName = beanName;
+    }
+
+    /**
+     * Return the target bean name.
+     */
+    public String getBeanName() {
+        return this.beanName;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return (this == other || (other instanceof RuntimeBeanReference &&
+                this.beanName.equals(((RuntimeBeanReference) other).beanName)));
+    }
+
+    @Override
+    public int hashCode() {
+        return this.beanName.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return '<' + this.beanName + '>';
+    }
+
+}
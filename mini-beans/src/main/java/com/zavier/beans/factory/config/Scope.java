@@ -0,0 +1,42 @@
+package com.zavier.beans.factory.config;
+
+import com.zavier.beans.factory.ObjectFactory;
+
+/**
+ * Strategy interface used by a bean factory, representing a target scope
+ * to hold bean instances in.
+ * <p>除 {@code singleton} 与 {@code prototype} 之外的作用域都通过此接口实现，
+ * 并以作用域名称注册到 bean 工厂
+ */
+public interface Scope {
+
+    /**
+     * Return the object with the given name from the underlying scope,
+     * {@link ObjectFactory#getObject() creating it} if not found in the
+     * underlying storage mechanism.
+     * @param name the name of the object to retrieve
+     * @param objectFactory the {@link ObjectFactory} to use to create the scoped
+     * object if it is not present in the underlying storage mechanism
+     * @return the desired object (never {@code null})
+     */
+    Object get(String name, ObjectFactory<?> objectFactory);
+
+    /**
+     * Remove the object with the given {@code name} from the underlying scope.
+     * <p>Returns {@code null} if no object was found.
+     * @param name the name of the object to remove
+     * @return the removed object, or {@code null} if no object was present
+     */
+    Object remove(String name);
+
+    /**
+     * Register a callback to be executed on destruction of the specified
+     * object in the scope (or at destruction of the entire scope, if the
+     * scope does not destroy individual objects but rather only terminates
+     * in its entirety).
+     * @param name the name of the object to execute the destruction callback for
+     * @param callback the destruction callback to be executed
+     */
+    void registerDestructionCallback(String name, Runnable callback);
+
+}
@@ -0,0 +1,37 @@
+package com.zavier.beans.factory.config;
+
+public interface SingletonBeanRegistry {
+
+    /**
+     * Register the given existing object as singleton in the bean registry,
+     * under the given bean name.
+     * @param beanName the name of the bean
+     * @param singletonObject the existing singleton object
+     */
+    void registerSingleton(String beanName, Object singletonObject);
+
+    /**
+     * Return the (raw) singleton object registered under the given name.
+     * <p>Only checks already instantiated singletons; does not return an Object
+     * for singleton bean definitions which have not been instantiated yet.
+     * @param beanName the name of the bean to look for
+     * @return the registered singleton object, or {@code null} if none found
+     */
+    Object getSingleton(String beanName);
+
+    /**
+     * Check if this registry contains a singleton instance with the given name.
+     * @param beanName the name of the bean to look for
+     */
+    boolean containsSingleton(String beanName);
+
+    /**
+     * Return the names of singleton beans registered in this registry.
+     */
+    String[] getSingletonNames();
+
+    /**
+     * Return the number of singleton beans registered in this registry.
+     */
+    int getSingletonCount();
+}
@@ -0,0 +1,74 @@
+package com.zavier.beans.factory.config;
+
+import java.util.Objects;
+
+/**
+ * Holder for a typed String value. Can be added to bean definitions
+ * in order to explicitly specify a target type for a String value,
+ * for example for collection elements.
+ * <p>未指定类型时按注入目标（setter 参数或构造器参数）的类型转换
+ */
+public class TypedStringValue {
+
+    private final String value;
+
+    private final String targetTypeName;
+
+    /**
+     * Create a new {@link TypedStringValue} for the given String value.
+     * @param value the String value
+     */
+    public TypedStringValue(String value) {
+        this(value, null);
+    }
+
+    /**
+     * Create a new {@link TypedStringValue} for the given String value
+     * and target type.
+     * @param value the String value
+     * @param targetTypeName the type to convert to, or {@code null} to
+     * convert to the type of the injection target
+     */
+    public TypedStringValue(String value, String targetTypeName) {
+        this.value = value;
+        this.targetTypeName = targetTypeName;
+    }
+
+    /**
+     * Return the String value.
+     */
+    public String getValue() {
+        return this.value;
+    }
+
+    /**
+     * Return the type to convert to, if explicitly specified.
+     */
+    public String getTargetTypeName() {
+        return this.targetTypeName;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof TypedStringValue)) {
+            return false;
+        }
+        TypedStringValue otherValue = (TypedStringValue) other;
+        return (Objects.equals(this.value, otherValue.value) &&
+                Objects.equals(this.targetTypeName, otherValue.targetTypeName));
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(this.value) * 29 + Objects.hashCode(this.targetTypeName);
+    }
+
+    @Override
+    public String toString() {
+        return "TypedStringValue: value [" + this.value + "], target type [" + this.targetTypeName + "]";
+    }
+
+}
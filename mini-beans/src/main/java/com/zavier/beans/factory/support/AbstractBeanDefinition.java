@@ -1,10 +1,19 @@
 package com.zavier.beans.factory.support;
 
+import com.zavier.beans.MutablePropertyValues;
 import com.zavier.beans.factory.config.AutowireCapableBeanFactory;
 import com.zavier.beans.factory.config.BeanDefinition;
+import com.zavier.beans.factory.config.ConstructorArgumentValues;
 import com.zavier.core.io.Resource;
 import com.zavier.util.ClassUtils;
 
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
 public abstract class AbstractBeanDefinition implements BeanDefinition {
     /**
      * Constant for the default scope name: "", equivalent to singleton status
@@ -88,6 +97,10 @@ public abstract class AbstractBeanDefinition implements BeanDefinition {
 
     private String[] dependsOn;
 
+    private ConstructorArgumentValues constructorArgumentValues;
+
+    private MutablePropertyValues propertyValues;
+
     private boolean autowireCandidate = true;
 
     private boolean primary = false;
@@ -111,6 +124,138 @@ public abstract class AbstractBeanDefinition implements BeanDefinition {
 
     private Resource resource;
 
+    /** Package-visible field for caching the generated no-arg instantiator */
+    volatile Supplier<Object> instanceSupplier;
+
+    /** Package-visible field for caching the resolved instantiators, keyed by argument types */
+    volatile Map<ArgumentTypes, Function<Object[], Object>> resolvedInstantiators;
+
+    /** Package-visible field for caching the most recently used instantiator together with its argument types */
+    volatile LastResolvedInstantiator lastResolvedInstantiator;
+
+    /** Package-visible field for caching the resolved property setters and converted values */
+    volatile PropertyInjector propertyInjector;
+
+    /** Package-visible field for caching the slot assigned by a {@link SimpleThreadScope} */
+    volatile SimpleThreadScope.BeanSlot threadScopeSlot;
+
+
+    /**
+     * Create a new AbstractBeanDefinition with default settings.
+     */
+    protected AbstractBeanDefinition() {
+    }
+
+    /**
+     * Create a new AbstractBeanDefinition as a deep copy of the given
+     * bean definition.
+     * @param original the original bean definition to copy from
+     */
+    protected AbstractBeanDefinition(BeanDefinition original) {
+        setParentName(original.getParentName());
+        setBeanClassName(original.getBeanClassName());
+        setScope(original.getScope());
+        setAbstract(original.isAbstract());
+        setLazyInit(original.isLazyInit());
+        setFactoryBeanName(original.getFactoryBeanName());
+        setFactoryMethodName(original.getFactoryMethodName());
+        setDependsOn(original.getDependsOn());
+        setAutowireCandidate(original.isAutowireCandidate());
+        setPrimary(original.isPrimary());
+        if (original.hasConstructorArgumentValues()) {
+            setConstructorArgumentValues(new ConstructorArgumentValues(original.getConstructorArgumentValues()));
+        }
+        if (original.hasPropertyValues()) {
+            setPropertyValues(new MutablePropertyValues(original.getPropertyValues()));
+        }
+
+        if (original instanceof AbstractBeanDefinition) {
+            AbstractBeanDefinition originalAbd = (AbstractBeanDefinition) original;
+            if (originalAbd.hasBeanClass()) {
+                setBeanClass(originalAbd.getBeanClass());
+            }
+            setAutowireMode(originalAbd.getAutowireMode());
+            setDependencyCheck(originalAbd.getDependencyCheck());
+            setInitMethodName(originalAbd.getInitMethodName());
+            setEnforceInitMethod(originalAbd.isEnforceInitMethod());
+            setDestroyMethodName(originalAbd.getDestroyMethodName());
+            setEnforceDestroyMethod(originalAbd.isEnforceDestroyMethod());
+            setSynthetic(originalAbd.isSynthetic());
+            setDescription(originalAbd.getDescription());
+            setResource(originalAbd.getResource());
+        }
+    }
+
+    /**
+     * Override settings in this bean definition (presumably a copied parent
+     * from a parent-child inheritance relationship) from the given bean
+     * definition (presumably the child).
+     * <ul>
+     * <li>Will override beanClass if specified in the given bean definition.
+     * <li>Will always take {@code abstract}, {@code scope},
+     * {@code lazyInit}, {@code autowireMode}, {@code dependencyCheck},
+     * and {@code dependsOn} from the given bean definition.
+     * <li>Will add constructorArgumentValues, propertyValues
+     * to the existing ones.
+     * <li>Will override factory bean, factory method, init method
+     * and destroy method if specified in the given bean definition.
+     * </ul>
+     */
+    public void overrideFrom(BeanDefinition other) {
+        if (other.getBeanClassName() != null) {
+            setBeanClassName(other.getBeanClassName());
+        }
+        if (other.getScope() != null && !SCOPE_DEFAULT.equals(other.getScope())) {
+            setScope(other.getScope());
+        }
+        setAbstract(other.isAbstract());
+        setLazyInit(other.isLazyInit());
+        if (other.getFactoryBeanName() != null) {
+            setFactoryBeanName(other.getFactoryBeanName());
+        }
+        if (other.getFactoryMethodName() != null) {
+            setFactoryMethodName(other.getFactoryMethodName());
+        }
+        setDependsOn(other.getDependsOn());
+        setAutowireCandidate(other.isAutowireCandidate());
+        setPrimary(other.isPrimary());
+        if (other.hasConstructorArgumentValues()) {
+            getConstructorArgumentValues().addArgumentValues(other.getConstructorArgumentValues());
+        }
+        if (other.hasPropertyValues()) {
+            getPropertyValues().addPropertyValues(other.getPropertyValues());
+        }
+
+        if (other instanceof AbstractBeanDefinition) {
+            AbstractBeanDefinition otherAbd = (AbstractBeanDefinition) other;
+            if (otherAbd.hasBeanClass()) {
+                setBeanClass(otherAbd.getBeanClass());
+            }
+            setAutowireMode(otherAbd.getAutowireMode());
+            setDependencyCheck(otherAbd.getDependencyCheck());
+            if (otherAbd.getInitMethodName() != null) {
+                setInitMethodName(otherAbd.getInitMethodName());
+                setEnforceInitMethod(otherAbd.isEnforceInitMethod());
+            }
+            if (otherAbd.getDestroyMethodName() != null) {
+                setDestroyMethodName(otherAbd.getDestroyMethodName());
+                setEnforceDestroyMethod(otherAbd.isEnforceDestroyMethod());
+            }
+            setSynthetic(otherAbd.isSynthetic());
+            if (otherAbd.getDescription() != null) {
+                setDescription(otherAbd.getDescription());
+            }
+            setResource(otherAbd.getResource());
+        }
+    }
+
+    /**
+     * Clone this bean definition.
+     * To be implemented by concrete subclasses.
+     * @return the cloned bean definition object
+     */
+    public abstract AbstractBeanDefinition cloneBeanDefinition();
+
     /**
      * Return whether this definition specifies a bean class.
      */
@@ -123,6 +268,7 @@ public abstract class AbstractBeanDefinition implements BeanDefinition {
      */
     public void setBeanClass(Class<?> beanClass) {
         this.beanClass = beanClass;
+        resetInstantiationCaches();
     }
 
     /**
@@ -146,6 +292,7 @@ public abstract class AbstractBeanDefinition implements BeanDefinition {
     @Override
     public void setBeanClassName(String beanClassName) {
         this.beanClass = beanClassName;
+        resetInstantiationCaches();
     }
 
     @Override
@@ -172,10 +319,68 @@ public abstract class AbstractBeanDefinition implements BeanDefinition {
             return null;
         }
         Class<?> resolvedClass = ClassUtils.forName(className, classLoader);
-        this.beanClass = resolvedClass;
+        if (this.beanClass != resolvedClass) {
+            this.beanClass = resolvedClass;
+            resetInstantiationCaches();
+        }
         return resolvedClass;
     }
 
+    /**
+     * Return the most recently used instantiator if the given arguments have
+     * the same types as last time. Checked before building an {@link ArgumentTypes} key.
+     */
+    Function<Object[], Object> getLastResolvedInstantiator(Object[] args) {
+        LastResolvedInstantiator last = this.lastResolvedInstantiator;
+        return (last != null && last.argumentTypes.matches(args) ? last.instantiator : null);
+    }
+
+    /**
+     * Return the instantiator resolved for the given argument types, if any.
+     */
+    Function<Object[], Object> getResolvedInstantiator(ArgumentTypes argumentTypes) {
+        Map<ArgumentTypes, Function<Object[], Object>> instantiators = this.resolvedInstantiators;
+        Function<Object[], Object> instantiator = (instantiators != null ? instantiators.get(argumentTypes) : null);
+        if (instantiator != null) {
+            this.lastResolvedInstantiator = new LastResolvedInstantiator(argumentTypes, instantiator);
+        }
+        return instantiator;
+    }
+
+    /**
+     * Cache the instantiator resolved for the given argument types.
+     * @return the instantiator to use, possibly one cached concurrently
+     */
+    Function<Object[], Object> cacheResolvedInstantiator(ArgumentTypes argumentTypes,
+                                                          Function<Object[], Object> instantiator) {
+        Map<ArgumentTypes, Function<Object[], Object>> instantiators = this.resolvedInstantiators;
+        if (instantiators == null) {
+            synchronized (this) {
+                instantiators = this.resolvedInstantiators;
+                if (instantiators == null) {
+                    instantiators = new ConcurrentHashMap<ArgumentTypes, Function<Object[], Object>>(4);
+                    this.resolvedInstantiators = instantiators;
+                }
+            }
+        }
+        Function<Object[], Object> existing = instantiators.putIfAbsent(argumentTypes, instantiator);
+        if (existing != null) {
+            instantiator = existing;
+        }
+        this.lastResolvedInstantiator = new LastResolvedInstantiator(argumentTypes, instantiator);
+        return instantiator;
+    }
+
+    /**
+     * 类发生变化时清除已生成的实例化器
+     */
+    private void resetInstantiationCaches() {
+        this.instanceSupplier = null;
+        this.resolvedInstantiators = null;
+        this.lastResolvedInstantiator = null;
+        this.propertyInjector = null;
+    }
+
     @Override
     public void setScope(String scope) {
         this.scope = scope;
@@ -200,6 +405,16 @@ public abstract class AbstractBeanDefinition implements BeanDefinition {
     }
 
 
+    /**
+     * Set if this bean is "abstract", i.e. not meant to be instantiated itself but
+     * rather just serving as parent for concrete child bean definitions.
+     * <p>Default is "false". Specify true to tell the bean factory to not try to
+     * instantiate that particular bean in any case.
+     */
+    public void setAbstract(boolean abstractBean) {
+        this.abstractFlag = abstractBean;
+    }
+
     /**
      * Return whether this bean is "abstract", i.e. not meant to be instantiated
      * itself but rather just serving as parent for concrete child bean definitions.
@@ -279,6 +494,58 @@ public abstract class AbstractBeanDefinition implements BeanDefinition {
         return this.dependsOn;
     }
 
+    /**
+     * Specify constructor argument values for this bean.
+     */
+    public void setConstructorArgumentValues(ConstructorArgumentValues constructorArgumentValues) {
+        this.constructorArgumentValues = constructorArgumentValues;
+    }
+
+    /**
+     * Return constructor argument values for this bean (never {@code null}).
+     */
+    @Override
+    public ConstructorArgumentValues getConstructorArgumentValues() {
+        if (this.constructorArgumentValues == null) {
+            this.constructorArgumentValues = new ConstructorArgumentValues();
+        }
+        return this.constructorArgumentValues;
+    }
+
+    /**
+     * Return if there are constructor argument values defined for this bean.
+     */
+    @Override
+    public boolean hasConstructorArgumentValues() {
+        return (this.constructorArgumentValues != null && !this.constructorArgumentValues.isEmpty());
+    }
+
+    /**
+     * Specify property values for this bean, if any.
+     */
+    public void setPropertyValues(MutablePropertyValues propertyValues) {
+        this.propertyValues = propertyValues;
+    }
+
+    /**
+     * Return property values for this bean (never {@code null}).
+     */
+    @Override
+    public MutablePropertyValues getPropertyValues() {
+        if (this.propertyValues == null) {
+            this.propertyValues = new MutablePropertyValues();
+        }
+        return this.propertyValues;
+    }
+
+    /**
+     * Return if there are property values defined for this bean.
+     */
+    @Override
+    public boolean hasPropertyValues() {
+        return (this.propertyValues != null && !this.propertyValues.isEmpty());
+    }
+
     /**
      * Set whether this bean is a candidate for getting autowired into some other bean.
      */
@@ -318,6 +585,7 @@ public abstract class AbstractBeanDefinition implements BeanDefinition {
     @Override
     public void setFactoryBeanName(String factoryBeanName) {
         this.factoryBeanName = factoryBeanName;
+        resetInstantiationCaches();
     }
 
     @Override
@@ -328,6 +596,7 @@ public abstract class AbstractBeanDefinition implements BeanDefinition {
     @Override
     public void setFactoryMethodName(String factoryMethodName) {
         this.factoryMethodName = factoryMethodName;
+        resetInstantiationCaches();
     }
 
     @Override
@@ -417,4 +686,108 @@ public abstract class AbstractBeanDefinition implements BeanDefinition {
         return this.synthetic;
     }
 
+    /**
+     * Set a human-readable description of this bean definition.
+     */
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    /**
+     * Return a human-readable description of this bean definition.
+     */
+    public String getDescription() {
+        return this.description;
+    }
+
+    /**
+     * Set the resource that this bean definition came from
+     * (for the purpose of showing context in case of errors).
+     */
+    public void setResource(Resource resource) {
+        this.resource = resource;
+    }
+
+    /**
+     * Return the resource that this bean definition came from.
+     */
+    public Resource getResource() {
+        return this.resource;
+    }
+
+    /**
+     * 比较定义的配置内容，不比较来源资源与描述：两次解析出相同配置的定义视为相等
+     */
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof AbstractBeanDefinition)) {
+            return false;
+        }
+        AbstractBeanDefinition that = (AbstractBeanDefinition) other;
+        return (getClass() == that.getClass() &&
+                Objects.equals(getBeanClassName(), that.getBeanClassName()) &&
+                Objects.equals(this.scope, that.scope) &&
+                this.abstractFlag == that.abstractFlag &&
+                this.lazyInit == that.lazyInit &&
+                this.autowireMode == that.autowireMode &&
+                this.dependencyCheck == that.dependencyCheck &&
+                Arrays.equals(this.dependsOn, that.dependsOn) &&
+                equivalentConstructorArguments(that) &&
+                equivalentPropertyValues(that) &&
+                this.autowireCandidate == that.autowireCandidate &&
+                this.primary == that.primary &&
+                Objects.equals(this.factoryBeanName, that.factoryBeanName) &&
+                Objects.equals(this.factoryMethodName, that.factoryMethodName) &&
+                Objects.equals(this.initMethodName, that.initMethodName) &&
+                this.enforceInitMethod == that.enforceInitMethod &&
+                Objects.equals(this.destroyMethodName, that.destroyMethodName) &&
+                this.enforceDestroyMethod == that.enforceDestroyMethod &&
+                this.synthetic == that.synthetic &&
+                Objects.equals(getParentName(), that.getParentName()));
+    }
+
+    private boolean equivalentConstructorArguments(AbstractBeanDefinition other) {
+        if (!hasConstructorArgumentValues()) {
+            return !other.hasConstructorArgumentValues();
+        }
+        return this.constructorArgumentValues.equals(other.constructorArgumentValues);
+    }
+
+    private boolean equivalentPropertyValues(AbstractBeanDefinition other) {
+        if (!hasPropertyValues()) {
+            return !other.hasPropertyValues();
+        }
+        return this.propertyValues.equals(other.propertyValues);
+    }
+
+    @Override
+    public int hashCode() {
+        int hashCode = Objects.hashCode(getBeanClassName());
+        hashCode = 29 * hashCode + Objects.hashCode(this.scope);
+        hashCode = 29 * hashCode + Objects.hashCode(getParentName());
+        hashCode = 29 * hashCode + Objects.hashCode(this.factoryBeanName);
+        hashCode = 29 * hashCode + Objects.hashCode(this.factoryMethodName);
+        return hashCode;
+    }
+
+
+
+    /**
+     * 最近一次使用的实例化器及其参数类型，整体替换以保证两者一致
+     */
+    static final class LastResolvedInstantiator {
+
+        final ArgumentTypes argumentTypes;
+
+        final Function<Object[], Object> instantiator;
+
+        LastResolvedInstantiator(ArgumentTypes argumentTypes, Function<Object[], Object> instantiator) {
+            this.argumentTypes = argumentTypes;
+            this.instantiator = instantiator;
+        }
+    }
+
 }
@@ -0,0 +1,62 @@
+package com.zavier.beans.factory.support;
+
+import java.util.Arrays;
+
+/**
+ * 参数类型签名，作为已解析构造器/工厂方法缓存的 key。
+ * {@code null} 参数记为 {@code null} 类型
+ */
+final class ArgumentTypes {
+
+    private final Class<?>[] types;
+
+    private final int hash;
+
+    ArgumentTypes(Object[] args) {
+        Class<?>[] types = new Class<?>[args.length];
+        for (int i = 0; i < args.length; i++) {
+            types[i] = (args[i] != null ? args[i].getClass() : null);
+        }
+        this.types = types;
+        this.hash = Arrays.hashCode(types);
+    }
+
+    /**
+     * 判断给定参数的类型是否与此签名一致，不分配任何对象
+     */
+    boolean matches(Object[] args) {
+        Class<?>[] types = this.types;
+        if (types.length != args.length) {
+            return false;
+        }
+        for (int i = 0; i < args.length; i++) {
+            if (types[i] != (args[i] != null ? args[i].getClass() : null)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof ArgumentTypes)) {
+            return false;
+        }
+        ArgumentTypes that = (ArgumentTypes) other;
+        return (this.hash == that.hash && Arrays.equals(this.types, that.types));
+    }
+
+    @Override
+    public int hashCode() {
+        return this.hash;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(this.types);
+    }
+
+}
@@ -3,9 +3,16 @@ package com.zavier.beans.factory.support;
 import com.zavier.beans.factory.NoSuchBeanDefinitionException;
 import com.zavier.beans.factory.config.BeanDefinition;
 
+import java.util.Map;
+
 public interface BeanDefinitionRegistry {
     void registerBeanDefinition(String beanName, BeanDefinition beanDefinition);
 
+    /**
+     * 批量注册一组定义：要么全部注册成功，要么一个也不注册
+     */
+    void registerBeanDefinitions(Map<String, BeanDefinition> beanDefinitions);
+
     void removeBeanDefinition(String beanName) throws NoSuchBeanDefinitionException;
 
     BeanDefinition getBeanDefinition(String beanName) throws NoSuchBeanDefinitionException;
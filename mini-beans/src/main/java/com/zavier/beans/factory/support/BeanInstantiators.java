@@ -0,0 +1,222 @@
+package com.zavier.beans.factory.support;
+
+import com.zavier.beans.BeanInstantiationException;
+import com.zavier.beans.CachedIntrospectionResults;
+import com.zavier.util.ClassUtils;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 为构造器或工厂方法生成实例化器：只在首次使用时做一次反射解析，之后每次创建都是普通的接口调用。
+ * 构造器的实例化器按构造器缓存，同一个类的多个 bean 定义共享。
+ * <p>无参构造器在可访问时通过 {@link LambdaMetafactory} 生成 {@link Supplier}，
+ * 其它情况使用预先适配好的 {@link MethodHandle}
+ */
+final class BeanInstantiators {
+
+    private static final MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+    private static final MethodType SUPPLIER_FACTORY_TYPE = MethodType.methodType(Supplier.class);
+
+    private static final MethodType SUPPLIER_ERASED_TYPE = MethodType.methodType(Object.class);
+
+    private BeanInstantiators() {
+    }
+
+    /**
+     * Return a {@link Supplier} invoking the given no-arg constructor, shared
+     * per constructor through {@link CachedIntrospectionResults}.
+     * @param ctor the constructor to invoke
+     * @return a supplier returning a new instance on each call
+     * @throws BeanInstantiationException if the constructor cannot be made accessible
+     */
+    static Supplier<Object> forConstructor(Constructor<?> ctor) throws BeanInstantiationException {
+        return CachedIntrospectionResults.forClass(ctor.getDeclaringClass())
+                .getInstanceSupplier(ctor, BeanInstantiators::createConstructorSupplier);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Supplier<Object> createConstructorSupplier(Constructor<?> ctor) {
+        Class<?> beanClass = ctor.getDeclaringClass();
+        MethodHandle handle = unreflect(ctor);
+        if (isPubliclyAccessible(ctor)) {
+            try {
+                CallSite site = LambdaMetafactory.metafactory(lookup, "get", SUPPLIER_FACTORY_TYPE,
+                        SUPPLIER_ERASED_TYPE, handle, MethodType.methodType(beanClass));
+                return (Supplier<Object>) site.getTarget().invokeExact();
+            }
+            catch (Throwable ex) {
+                // 生成失败时退回到 MethodHandle 调用
+            }
+        }
+        MethodHandle adapted = handle.asType(SUPPLIER_ERASED_TYPE);
+        return () -> {
+            try {
+                return adapted.invokeExact();
+            }
+            catch (Throwable ex) {
+                throw instantiationFailure(beanClass, ex);
+            }
+        };
+    }
+
+    /**
+     * Return a {@link Function} invoking the given constructor with an argument
+     * array, shared per constructor through {@link CachedIntrospectionResults}.
+     * @param ctor the constructor to invoke
+     * @return a function returning a new instance for the given arguments on each call
+     * @throws BeanInstantiationException if the constructor cannot be made accessible
+     */
+    static Function<Object[], Object> forConstructorWithArgs(Constructor<?> ctor) throws BeanInstantiationException {
+        return CachedIntrospectionResults.forClass(ctor.getDeclaringClass())
+                .getConstructorInstantiator(ctor, BeanInstantiators::createConstructorInstantiator);
+    }
+
+    private static Function<Object[], Object> createConstructorInstantiator(Constructor<?> ctor) {
+        Class<?> beanClass = ctor.getDeclaringClass();
+        MethodHandle adapted = unreflect(ctor).asFixedArity()
+                .asSpreader(Object[].class, ctor.getParameterCount())
+                .asType(MethodType.methodType(Object.class, Object[].class));
+        return args -> {
+            try {
+                return adapted.invokeExact(args);
+            }
+            catch (Throwable ex) {
+                throw instantiationFailure(beanClass, ex);
+            }
+        };
+    }
+
+    /**
+     * Create a {@link Function} invoking the given static factory method with an argument array.
+     * @param factoryMethod the static factory method to invoke
+     * @return a function returning the factory method's result for the given arguments
+     * @throws BeanInstantiationException if the method cannot be made accessible
+     */
+    static Function<Object[], Object> forStaticFactoryMethod(Method factoryMethod) throws BeanInstantiationException {
+        Class<?> factoryClass = factoryMethod.getDeclaringClass();
+        MethodHandle adapted = unreflect(factoryMethod).asFixedArity()
+                .asSpreader(Object[].class, factoryMethod.getParameterCount())
+                .asType(MethodType.methodType(Object.class, Object[].class));
+        return args -> {
+            try {
+                return adapted.invokeExact(args);
+            }
+            catch (Throwable ex) {
+                throw factoryMethodFailure(factoryClass, factoryMethod, ex);
+            }
+        };
+    }
+
+    /**
+     * Create a {@link BiFunction} invoking the given factory method on a factory
+     * bean instance with an argument array.
+     * @param factoryMethod the instance factory method to invoke
+     * @return a function returning the factory method's result for the given
+     * factory bean and arguments
+     * @throws BeanInstantiationException if the method cannot be made accessible
+     */
+    static BiFunction<Object, Object[], Object> forInstanceFactoryMethod(Method factoryMethod)
+            throws BeanInstantiationException {
+        Class<?> factoryClass = factoryMethod.getDeclaringClass();
+        MethodHandle adapted = unreflect(factoryMethod).asFixedArity()
+                .asSpreader(Object[].class, factoryMethod.getParameterCount())
+                .asType(MethodType.methodType(Object.class, Object.class, Object[].class));
+        return (factoryBean, args) -> {
+            try {
+                return adapted.invokeExact(factoryBean, args);
+            }
+            catch (Throwable ex) {
+                throw factoryMethodFailure(factoryClass, factoryMethod, ex);
+            }
+        };
+    }
+
+    /**
+     * Create an invoker for the given single-argument setter method.
+     */
+    static BiConsumer<Object, Object> forSetter(Method setter) throws BeanInstantiationException {
+        Class<?> beanClass = setter.getDeclaringClass();
+        MethodHandle adapted = unreflect(setter)
+                .asType(MethodType.methodType(void.class, Object.class, Object.class));
+        return (bean, value) -> {
+            try {
+                adapted.invokeExact(bean, value);
+            }
+            catch (Throwable ex) {
+                if (ex instanceof Error) {
+                    throw (Error) ex;
+                }
+                throw new BeanInstantiationException(beanClass,
+                        "Setter method '" + setter.getName() + "' threw exception", ex);
+            }
+        };
+    }
+
+    /**
+     * 方法句柄按类缓存在 {@link CachedIntrospectionResults} 中，同一个类的 bean 定义共享
+     */
+    private static MethodHandle unreflect(Method method) {
+        return CachedIntrospectionResults.forClass(method.getDeclaringClass()).getMethodHandle(method);
+    }
+
+    private static MethodHandle unreflect(Constructor<?> ctor) {
+        try {
+            if (!isPubliclyAccessible(ctor)) {
+                ctor.setAccessible(true);
+            }
+            return lookup.unreflectConstructor(ctor);
+        }
+        catch (IllegalAccessException | RuntimeException ex) {
+            throw new BeanInstantiationException(ctor.getDeclaringClass(), "Is the constructor accessible?", ex);
+        }
+    }
+
+    /**
+     * 生成的类与本类位于同一类加载器中，只有公开且可见的构造器才能被其直接调用
+     */
+    private static boolean isPubliclyAccessible(Constructor<?> ctor) {
+        if (!Modifier.isPublic(ctor.getModifiers())) {
+            return false;
+        }
+        for (Class<?> clazz = ctor.getDeclaringClass(); clazz != null; clazz = clazz.getDeclaringClass()) {
+            if (!Modifier.isPublic(clazz.getModifiers())) {
+                return false;
+            }
+        }
+        return ClassUtils.isVisible(ctor.getDeclaringClass(), BeanInstantiators.class.getClassLoader());
+    }
+
+    private static RuntimeException instantiationFailure(Class<?> beanClass, Throwable ex) {
+        if (ex instanceof Error) {
+            throw (Error) ex;
+        }
+        if (ex instanceof BeanInstantiationException) {
+            return (BeanInstantiationException) ex;
+        }
+        return new BeanInstantiationException(beanClass, "Constructor threw exception", ex);
+    }
+
+    private static RuntimeException factoryMethodFailure(Class<?> factoryClass, Method factoryMethod, Throwable ex) {
+        if (ex instanceof Error) {
+            throw (Error) ex;
+        }
+        if (ex instanceof BeanInstantiationException) {
+            return (BeanInstantiationException) ex;
+        }
+        return new BeanInstantiationException(factoryClass,
+                "Factory method '" + factoryMethod.getName() + "' threw exception", ex);
+    }
+
+}
@@ -0,0 +1,108 @@
+package com.zavier.beans.factory.support;
+
+import com.zavier.core.io.FileSystemResource;
+import com.zavier.core.io.Resource;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.zip.CRC32;
+
+/**
+ * 预编译 bean 定义文件的格式常量，所有数值均为大端序：
+ * <pre>
+ * header   magic(int) version(short) reserved(short)
+ *          sourceCount(int) (sourceCrc(long) locationLength(int，-1 表示无位置) utf8-bytes) * sourceCount
+ *          stringCount(int) stringTableOffset(int) beanCount(int) beanTableOffset(int)
+ * strings  (length(int) utf8-bytes) * stringCount
+ * beans    recordOffset(int) * beanCount, 随后是各条记录：
+ *          name class parent scope factoryBean factoryMethod initMethod destroyMethod description
+ *          （均为字符串表下标，-1 表示 null）
+ *          flags(int) autowireMode(byte) dependencyCheck(byte)
+ *          dependsOnCount(int，-1 表示 null) dependsOn(int) * dependsOnCount
+ *          propertyCount(int) (name(int) value) * propertyCount
+ *          indexedArgCount(int) (index(int) type(int) name(int) value) * indexedArgCount
+ *          genericArgCount(int) (type(int) name(int) value) * genericArgCount
+ * values   kind(byte) 随后为 {@link #VALUE_TYPED_STRING}: value(int) targetType(int)，
+ *          或 {@link #VALUE_REFERENCE}: beanName(int)
+ * </pre>
+ * <p>源资源依次为直接加载的资源与经 {@code <import>} 导入的资源，位置为资源的 URL，
+ * 检查是否过期时据此重新读取调用方没有传入的资源
+ */
+final class BinaryBeanDefinitionFormat {
+
+    static final int MAGIC = 0x534D4244;
+
+    static final short VERSION = 3;
+
+    static final int NULL_STRING = -1;
+
+    static final int FLAG_ABSTRACT = 1;
+
+    static final int FLAG_LAZY_INIT = 1 << 1;
+
+    static final int FLAG_PRIMARY = 1 << 2;
+
+    static final int FLAG_AUTOWIRE_CANDIDATE = 1 << 3;
+
+    static final int FLAG_ENFORCE_INIT_METHOD = 1 << 4;
+
+    static final int FLAG_ENFORCE_DESTROY_METHOD = 1 << 5;
+
+    static final int FLAG_SYNTHETIC = 1 << 6;
+
+    static final byte VALUE_TYPED_STRING = 0;
+
+    static final byte VALUE_REFERENCE = 1;
+
+    private BinaryBeanDefinitionFormat() {
+    }
+
+    /**
+     * Compute the CRC32 checksum of the content of each given resource.
+     * @param sources the source resources
+     * @return the checksums, in resource order
+     * @throws IOException if a resource cannot be read
+     */
+    static long[] checksum(Resource... sources) throws IOException {
+        long[] checksums = new long[sources.length];
+        ByteBuffer buffer = ByteBuffer.allocateDirect(8192);
+        for (int i = 0; i < sources.length; i++) {
+            checksums[i] = checksum(sources[i], buffer);
+        }
+        return checksums;
+    }
+
+    private static long checksum(Resource source, ByteBuffer buffer) throws IOException {
+        CRC32 crc = new CRC32();
+        if (source instanceof FileSystemResource) {
+            // 文件直接映射到内存计算，不复制到堆内
+            crc.update(((FileSystemResource) source).getByteBuffer());
+        }
+        else {
+            try (ReadableByteChannel channel = source.readableChannel()) {
+                while (channel.read(buffer) != -1) {
+                    buffer.flip();
+                    crc.update(buffer);
+                    buffer.clear();
+                }
+            }
+        }
+        return crc.getValue();
+    }
+
+    /**
+     * Determine the location to record for the given source resource.
+     * @param source the source resource
+     * @return the URL of the resource, or {@code null} if it cannot be resolved to a URL
+     */
+    static String location(Resource source) {
+        try {
+            return source.getURL().toString();
+        }
+        catch (IOException ex) {
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,264 @@
+package com.zavier.beans.factory.support;
+
+import com.zavier.beans.BeansException;
+import com.zavier.beans.PropertyValue;
+import com.zavier.beans.factory.config.BeanDefinition;
+import com.zavier.beans.factory.config.ConstructorArgumentValues;
+import com.zavier.beans.factory.config.RuntimeBeanReference;
+import com.zavier.beans.factory.config.TypedStringValue;
+import com.zavier.core.io.DefaultResourceLoader;
+import com.zavier.core.io.Resource;
+import com.zavier.core.io.ResourceLoader;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static com.zavier.beans.factory.support.BinaryBeanDefinitionFormat.*;
+
+/**
+ * Bean definition reader for files written by {@link BinaryBeanDefinitionWriter}.
+ * <p>文件通过 {@link FileChannel#map} 映射到内存后直接解码，不涉及任何 XML 解析与校验，
+ * 解码出的定义通过 {@link BeanDefinitionRegistry#registerBeanDefinitions} 一次性注册
+ */
+public class BinaryBeanDefinitionReader {
+
+    private final BeanDefinitionRegistry registry;
+
+    private ResourceLoader resourceLoader = new DefaultResourceLoader();
+
+    public BinaryBeanDefinitionReader(BeanDefinitionRegistry registry) {
+        this.registry = registry;
+    }
+
+    public final BeanDefinitionRegistry getRegistry() {
+        return this.registry;
+    }
+
+    /**
+     * Set the ResourceLoader used to reopen recorded source resources that are
+     * not passed to {@link #isUpToDate}, such as imported resources.
+     * <p>Default is a {@link DefaultResourceLoader}.
+     */
+    public void setResourceLoader(ResourceLoader resourceLoader) {
+        this.resourceLoader = (resourceLoader != null ? resourceLoader : new DefaultResourceLoader());
+    }
+
+    /**
+     * Return the ResourceLoader used to reopen recorded source resources.
+     */
+    public ResourceLoader getResourceLoader() {
+        return this.resourceLoader;
+    }
+
+    /**
+     * Determine whether the given precompiled file was written from the current
+     * content of its source resources.
+     * <p>The given sources are compared with the first recorded sources in order;
+     * any further recorded source, typically a resource reached through an
+     * {@code <import>} element, is reopened from its recorded location.
+     * @param file the precompiled file
+     * @param sources the resources the file is expected to be compiled from
+     * @return {@code true} if the file exists, is readable by this version, and
+     * its recorded checksums match all of its sources
+     * @throws IOException if a given source resource cannot be read
+     */
+    public boolean isUpToDate(Path file, Resource... sources) throws IOException {
+        long[] recordedChecksums;
+        String[] recordedLocations;
+        try {
+            MappedByteBuffer buffer = map(file);
+            checkHeader(buffer, file);
+            recordedChecksums = new long[buffer.getInt()];
+            recordedLocations = new String[recordedChecksums.length];
+            for (int i = 0; i < recordedChecksums.length; i++) {
+                recordedChecksums[i] = buffer.getLong();
+                recordedLocations[i] = readLocation(buffer);
+            }
+        }
+        catch (IOException | BeansException | BufferUnderflowException ex) {
+            return false;
+        }
+        if (sources.length > recordedChecksums.length) {
+            return false;
+        }
+        long[] checksums = checksum(sources);
+        for (int i = 0; i < checksums.length; i++) {
+            if (checksums[i] != recordedChecksums[i]) {
+                return false;
+            }
+        }
+        // 调用方没有传入的源资源（被导入的资源）按记录的位置重新读取
+        for (int i = sources.length; i < recordedChecksums.length; i++) {
+            if (recordedLocations[i] == null) {
+                return false;
+            }
+            Resource source = this.resourceLoader.getResource(recordedLocations[i]);
+            try {
+                if (checksum(source)[0] != recordedChecksums[i]) {
+                    return false;
+                }
+            }
+            catch (IOException ex) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Load bean definitions from the given precompiled file.
+     * @param file the precompiled file
+     * @return the number of bean definitions found
+     * @throws BeansException in case of loading or format errors
+     */
+    public int loadBeanDefinitions(Path file) throws BeansException {
+        MappedByteBuffer buffer;
+        try {
+            buffer = map(file);
+        }
+        catch (IOException ex) {
+            throw new BeansException("IOException reading precompiled bean definitions from " + file, ex);
+        }
+        try {
+            checkHeader(buffer, file);
+            int sourceCount = buffer.getInt();
+            for (int i = 0; i < sourceCount; i++) {
+                buffer.getLong();
+                readLocation(buffer);
+            }
+            int stringCount = buffer.getInt();
+            int stringTableOffset = buffer.getInt();
+            int beanCount = buffer.getInt();
+            int beanTableOffset = buffer.getInt();
+
+            String[] strings = new String[stringCount];
+            buffer.position(stringTableOffset);
+            for (int i = 0; i < stringCount; i++) {
+                byte[] bytes = new byte[buffer.getInt()];
+                buffer.get(bytes);
+                strings[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+
+            Map<String, BeanDefinition> beanDefinitions = new LinkedHashMap<String, BeanDefinition>(beanCount * 2);
+            for (int i = 0; i < beanCount; i++) {
+                buffer.position(buffer.getInt(beanTableOffset + i * 4));
+                String beanName = string(strings, buffer.getInt());
+                if (beanDefinitions.put(beanName, readRecord(buffer, strings)) != null) {
+                    throw new BeansException("Duplicate bean name '" + beanName + "' in " + file);
+                }
+            }
+            this.registry.registerBeanDefinitions(beanDefinitions);
+            return beanCount;
+        }
+        catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException ex) {
+            throw new BeansException("Corrupt precompiled bean definition file " + file, ex);
+        }
+    }
+
+    private AbstractBeanDefinition readRecord(MappedByteBuffer buffer, String[] strings) {
+        GenericBeanDefinition bd = new GenericBeanDefinition();
+        bd.setBeanClassName(string(strings, buffer.getInt()));
+        bd.setParentName(string(strings, buffer.getInt()));
+        bd.setScope(string(strings, buffer.getInt()));
+        bd.setFactoryBeanName(string(strings, buffer.getInt()));
+        bd.setFactoryMethodName(string(strings, buffer.getInt()));
+        bd.setInitMethodName(string(strings, buffer.getInt()));
+        bd.setDestroyMethodName(string(strings, buffer.getInt()));
+        bd.setDescription(string(strings, buffer.getInt()));
+
+        int flags = buffer.getInt();
+        bd.setAbstract((flags & FLAG_ABSTRACT) != 0);
+        bd.setLazyInit((flags & FLAG_LAZY_INIT) != 0);
+        bd.setPrimary((flags & FLAG_PRIMARY) != 0);
+        bd.setAutowireCandidate((flags & FLAG_AUTOWIRE_CANDIDATE) != 0);
+        bd.setEnforceInitMethod((flags & FLAG_ENFORCE_INIT_METHOD) != 0);
+        bd.setEnforceDestroyMethod((flags & FLAG_ENFORCE_DESTROY_METHOD) != 0);
+        bd.setSynthetic((flags & FLAG_SYNTHETIC) != 0);
+        bd.setAutowireMode(buffer.get());
+        bd.setDependencyCheck(buffer.get());
+
+        int dependsOnCount = buffer.getInt();
+        if (dependsOnCount >= 0) {
+            String[] dependsOn = new String[dependsOnCount];
+            for (int i = 0; i < dependsOnCount; i++) {
+                dependsOn[i] = string(strings, buffer.getInt());
+            }
+            bd.setDependsOn(dependsOn);
+        }
+
+        int propertyCount = buffer.getInt();
+        for (int i = 0; i < propertyCount; i++) {
+            String propertyName = string(strings, buffer.getInt());
+            bd.getPropertyValues().addPropertyValue(new PropertyValue(propertyName, readValue(buffer, strings)));
+        }
+        int indexedArgCount = buffer.getInt();
+        for (int i = 0; i < indexedArgCount; i++) {
+            int index = buffer.getInt();
+            bd.getConstructorArgumentValues().addIndexedArgumentValue(index, readValueHolder(buffer, strings));
+        }
+        int genericArgCount = buffer.getInt();
+        for (int i = 0; i < genericArgCount; i++) {
+            bd.getConstructorArgumentValues().addGenericArgumentValue(readValueHolder(buffer, strings));
+        }
+        return bd;
+    }
+
+    private ConstructorArgumentValues.ValueHolder readValueHolder(MappedByteBuffer buffer, String[] strings) {
+        String type = string(strings, buffer.getInt());
+        String name = string(strings, buffer.getInt());
+        return new ConstructorArgumentValues.ValueHolder(readValue(buffer, strings), type, name);
+    }
+
+    private Object readValue(MappedByteBuffer buffer, String[] strings) {
+        byte kind = buffer.get();
+        if (kind == VALUE_TYPED_STRING) {
+            String value = string(strings, buffer.getInt());
+            return new TypedStringValue(value, string(strings, buffer.getInt()));
+        }
+        if (kind == VALUE_REFERENCE) {
+            return new RuntimeBeanReference(string(strings, buffer.getInt()));
+        }
+        throw new IllegalArgumentException("Unknown value kind " + kind);
+    }
+
+    private static String readLocation(MappedByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static String string(String[] strings, int index) {
+        return (index == NULL_STRING ? null : strings[index]);
+    }
+
+    private static MappedByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // 映射在通道关闭后依然有效
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    private static void checkHeader(MappedByteBuffer buffer, Path file) {
+        if (buffer.remaining() < 8 || buffer.getInt() != MAGIC) {
+            throw new BeansException("Not a precompiled bean definition file: " + file);
+        }
+        short version = buffer.getShort();
+        if (version != VERSION) {
+            throw new BeansException("Unsupported precompiled bean definition version " + version + " in " + file);
+        }
+        // reserved
+        buffer.getShort();
+    }
+
+}
@@ -0,0 +1,230 @@
+package com.zavier.beans.factory.support;
+
+import com.zavier.beans.BeansException;
+import com.zavier.beans.PropertyValue;
+import com.zavier.beans.factory.config.BeanDefinition;
+import com.zavier.beans.factory.config.ConstructorArgumentValues;
+import com.zavier.beans.factory.config.RuntimeBeanReference;
+import com.zavier.beans.factory.config.TypedStringValue;
+import com.zavier.core.io.Resource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.zavier.beans.factory.support.BinaryBeanDefinitionFormat.*;
+
+/**
+ * Precompiler that writes the bean definitions of a registry into the compact
+ * binary format read by {@link BinaryBeanDefinitionReader}.
+ * <p>文件中记录了源资源的位置与内容的 CRC32，读取前可用
+ * {@link BinaryBeanDefinitionReader#isUpToDate} 判断源文件（包括被导入的文件）是否已经修改
+ */
+public class BinaryBeanDefinitionWriter {
+
+    /**
+     * Write all bean definitions of the given registry to the given file.
+     * @param registry the registry holding the parsed bean definitions
+     * @param target the file to write
+     * @param sources the resources the definitions were parsed from, including the
+     * resources reached through {@code <import>} elements, as returned by
+     * {@code XmlBeanDefinitionReader#getLoadedResources()}
+     * @return the number of bean definitions written
+     * @throws BeansException if a definition cannot be represented in the binary format
+     * @throws IOException in case of I/O errors
+     */
+    public int write(BeanDefinitionRegistry registry, Path target, Resource... sources) throws IOException {
+        String[] beanNames = registry.getBeanDefinitionNames();
+        List<String> strings = new ArrayList<String>();
+        Map<String, Integer> stringIndex = new HashMap<String, Integer>();
+
+        ByteArrayOutputStream records = new ByteArrayOutputStream(beanNames.length * 64);
+        DataOutputStream recordOut = new DataOutputStream(records);
+        int[] recordOffsets = new int[beanNames.length];
+        for (int i = 0; i < beanNames.length; i++) {
+            BeanDefinition bd = registry.getBeanDefinition(beanNames[i]);
+            if (!(bd instanceof AbstractBeanDefinition)) {
+                throw new BeansException("Cannot precompile bean definition '" + beanNames[i] +
+                        "' of type [" + bd.getClass().getName() + "]");
+            }
+            recordOffsets[i] = recordOut.size();
+            writeRecord(recordOut, beanNames[i], (AbstractBeanDefinition) bd, strings, stringIndex);
+        }
+
+        ByteArrayOutputStream stringTable = new ByteArrayOutputStream(strings.size() * 32);
+        DataOutputStream stringOut = new DataOutputStream(stringTable);
+        for (String str : strings) {
+            byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+            stringOut.writeInt(bytes.length);
+            stringOut.write(bytes);
+        }
+
+        long[] checksums = checksum(sources);
+        ByteArrayOutputStream sourceTable = new ByteArrayOutputStream(sources.length * 64);
+        DataOutputStream sourceOut = new DataOutputStream(sourceTable);
+        for (int i = 0; i < sources.length; i++) {
+            sourceOut.writeLong(checksums[i]);
+            String location = location(sources[i]);
+            if (location == null) {
+                sourceOut.writeInt(-1);
+            }
+            else {
+                byte[] bytes = location.getBytes(StandardCharsets.UTF_8);
+                sourceOut.writeInt(bytes.length);
+                sourceOut.write(bytes);
+            }
+        }
+
+        int headerSize = 4 + 2 + 2 + 4 + sourceOut.size() + 4 * 4;
+        int stringTableOffset = headerSize;
+        int beanTableOffset = stringTableOffset + stringOut.size();
+        int recordsOffset = beanTableOffset + beanNames.length * 4;
+
+        ByteArrayOutputStream file = new ByteArrayOutputStream(recordsOffset + recordOut.size());
+        DataOutputStream out = new DataOutputStream(file);
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeShort(0);
+        out.writeInt(sources.length);
+        sourceTable.writeTo(out);
+        out.writeInt(strings.size());
+        out.writeInt(stringTableOffset);
+        out.writeInt(beanNames.length);
+        out.writeInt(beanTableOffset);
+        stringTable.writeTo(out);
+        for (int recordOffset : recordOffsets) {
+            out.writeInt(recordsOffset + recordOffset);
+        }
+        records.writeTo(out);
+        out.flush();
+
+        // 先写临时文件再替换，读取方不会看到写了一半的文件
+        Path tempFile = Files.createTempFile(target.toAbsolutePath().getParent(), target.getFileName().toString(), ".tmp");
+        try {
+            Files.write(tempFile, file.toByteArray());
+            Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        finally {
+            Files.deleteIfExists(tempFile);
+        }
+        return beanNames.length;
+    }
+
+    private void writeRecord(DataOutputStream out, String beanName, AbstractBeanDefinition bd,
+                             List<String> strings, Map<String, Integer> stringIndex) throws IOException {
+        out.writeInt(indexOf(beanName, strings, stringIndex));
+        out.writeInt(indexOf(bd.getBeanClassName(), strings, stringIndex));
+        out.writeInt(indexOf(bd.getParentName(), strings, stringIndex));
+        out.writeInt(indexOf(bd.getScope(), strings, stringIndex));
+        out.writeInt(indexOf(bd.getFactoryBeanName(), strings, stringIndex));
+        out.writeInt(indexOf(bd.getFactoryMethodName(), strings, stringIndex));
+        out.writeInt(indexOf(bd.getInitMethodName(), strings, stringIndex));
+        out.writeInt(indexOf(bd.getDestroyMethodName(), strings, stringIndex));
+        out.writeInt(indexOf(bd.getDescription(), strings, stringIndex));
+
+        int flags = 0;
+        if (bd.isAbstract()) {
+            flags |= FLAG_ABSTRACT;
+        }
+        if (bd.isLazyInit()) {
+            flags |= FLAG_LAZY_INIT;
+        }
+        if (bd.isPrimary()) {
+            flags |= FLAG_PRIMARY;
+        }
+        if (bd.isAutowireCandidate()) {
+            flags |= FLAG_AUTOWIRE_CANDIDATE;
+        }
+        if (bd.isEnforceInitMethod()) {
+            flags |= FLAG_ENFORCE_INIT_METHOD;
+        }
+        if (bd.isEnforceDestroyMethod()) {
+            flags |= FLAG_ENFORCE_DESTROY_METHOD;
+        }
+        if (bd.isSynthetic()) {
+            flags |= FLAG_SYNTHETIC;
+        }
+        out.writeInt(flags);
+        out.writeByte(bd.getAutowireMode());
+        out.writeByte(bd.getDependencyCheck());
+
+        String[] dependsOn = bd.getDependsOn();
+        if (dependsOn == null) {
+            out.writeInt(-1);
+        }
+        else {
+            out.writeInt(dependsOn.length);
+            for (String dep : dependsOn) {
+                out.writeInt(indexOf(dep, strings, stringIndex));
+            }
+        }
+
+        PropertyValue[] pvs = (bd.hasPropertyValues() ? bd.getPropertyValues().getPropertyValues() : new PropertyValue[0]);
+        out.writeInt(pvs.length);
+        for (PropertyValue pv : pvs) {
+            out.writeInt(indexOf(pv.getName(), strings, stringIndex));
+            writeValue(out, beanName, pv.getValue(), strings, stringIndex);
+        }
+        ConstructorArgumentValues cargs = (bd.hasConstructorArgumentValues() ?
+                bd.getConstructorArgumentValues() : new ConstructorArgumentValues());
+        out.writeInt(cargs.getIndexedArgumentValues().size());
+        for (Map.Entry<Integer, ConstructorArgumentValues.ValueHolder> entry : cargs.getIndexedArgumentValues().entrySet()) {
+            out.writeInt(entry.getKey());
+            writeValueHolder(out, beanName, entry.getValue(), strings, stringIndex);
+        }
+        out.writeInt(cargs.getGenericArgumentValues().size());
+        for (ConstructorArgumentValues.ValueHolder holder : cargs.getGenericArgumentValues()) {
+            writeValueHolder(out, beanName, holder, strings, stringIndex);
+        }
+    }
+
+    private void writeValueHolder(DataOutputStream out, String beanName, ConstructorArgumentValues.ValueHolder holder,
+                                  List<String> strings, Map<String, Integer> stringIndex) throws IOException {
+        out.writeInt(indexOf(holder.getType(), strings, stringIndex));
+        out.writeInt(indexOf(holder.getName(), strings, stringIndex));
+        writeValue(out, beanName, holder.getValue(), strings, stringIndex);
+    }
+
+    /**
+     * 只能写入 XML 配置中出现的值类型：字符串字面值与 bean 引用
+     */
+    private void writeValue(DataOutputStream out, String beanName, Object value,
+                            List<String> strings, Map<String, Integer> stringIndex) throws IOException {
+        if (value instanceof TypedStringValue) {
+            TypedStringValue typedValue = (TypedStringValue) value;
+            out.writeByte(VALUE_TYPED_STRING);
+            out.writeInt(indexOf(typedValue.getValue(), strings, stringIndex));
+            out.writeInt(indexOf(typedValue.getTargetTypeName(), strings, stringIndex));
+        }
+        else if (value instanceof RuntimeBeanReference) {
+            out.writeByte(VALUE_REFERENCE);
+            out.writeInt(indexOf(((RuntimeBeanReference) value).getBeanName(), strings, stringIndex));
+        }
+        else {
+            throw new BeansException("Cannot precompile bean definition '" + beanName + "': unsupported value [" +
+                    value + "]; only string literals and bean references can be precompiled");
+        }
+    }
+
+    private static int indexOf(String str, List<String> strings, Map<String, Integer> stringIndex) {
+        if (str == null) {
+            return NULL_STRING;
+        }
+        Integer index = stringIndex.get(str);
+        if (index == null) {
+            index = strings.size();
+            strings.add(str);
+            stringIndex.put(str, index);
+        }
+        return index;
+    }
+
+}
@@ -0,0 +1,77 @@
+package com.zavier.beans.factory.support;
+
+import java.util.Collection;
+
+/**
+ * 不可变的开放寻址散列索引：把一组固定的 key 映射到数组下标，
+ * 调用方用下标访问与之平行的值数组。
+ * <p>所有 key 存放在一个连续数组中，线性探测，负载因子不超过 0.5，
+ * 查找时没有节点对象的间接访问，也没有任何同步开销
+ */
+final class CompactHashIndex {
+
+    private final Object[] keys;
+
+    private final int mask;
+
+    private final int size;
+
+    /**
+     * Create an index for the given distinct, non-null keys.
+     * @param keys the keys to index
+     */
+    CompactHashIndex(Collection<?> keys) {
+        int capacity = 2;
+        while (capacity < keys.size() * 2) {
+            capacity <<= 1;
+        }
+        this.keys = new Object[capacity];
+        this.mask = capacity - 1;
+        for (Object key : keys) {
+            int slot = spread(key.hashCode()) & this.mask;
+            while (this.keys[slot] != null) {
+                if (this.keys[slot].equals(key)) {
+                    throw new IllegalArgumentException("Duplicate key: " + key);
+                }
+                slot = (slot + 1) & this.mask;
+            }
+            this.keys[slot] = key;
+        }
+        this.size = keys.size();
+    }
+
+    /**
+     * Return the slot of the given key, or {@code -1} if the key is not indexed.
+     */
+    int indexOf(Object key) {
+        Object[] keys = this.keys;
+        int slot = spread(key.hashCode()) & this.mask;
+        Object candidate;
+        while ((candidate = keys[slot]) != null) {
+            if (candidate == key || candidate.equals(key)) {
+                return slot;
+            }
+            slot = (slot + 1) & this.mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Return the length that value arrays parallel to this index must have.
+     */
+    int capacity() {
+        return this.keys.length;
+    }
+
+    /**
+     * Return the number of indexed keys.
+     */
+    int size() {
+        return this.size;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+}
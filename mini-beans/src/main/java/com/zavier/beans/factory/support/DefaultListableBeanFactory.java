@@ -1,29 +1,111 @@
 package com.zavier.beans.factory.support;
 
+import com.zavier.beans.BeanInstantiationException;
 import com.zavier.beans.BeansException;
+import com.zavier.beans.CachedIntrospectionResults;
+import com.zavier.beans.PropertyValue;
+import com.zavier.beans.TypeMismatchException;
+import com.zavier.beans.factory.BeanCreationException;
 import com.zavier.beans.factory.BeanFactory;
+import com.zavier.beans.factory.DisposableBean;
+import com.zavier.beans.factory.ListableBeanFactory;
 import com.zavier.beans.factory.NoSuchBeanDefinitionException;
+import com.zavier.beans.factory.NoUniqueBeanDefinitionException;
 import com.zavier.beans.factory.config.BeanDefinition;
+import com.zavier.beans.factory.config.ConstructorArgumentValues;
+import com.zavier.beans.factory.config.RuntimeBeanReference;
+import com.zavier.beans.factory.config.Scope;
+import com.zavier.util.ClassUtils;
+import com.zavier.util.StringUtils;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
-public class DefaultListableBeanFactory implements BeanFactory, BeanDefinitionRegistry {
+public class DefaultListableBeanFactory extends DefaultSingletonBeanRegistry
+        implements ListableBeanFactory, BeanDefinitionRegistry {
 
     private BeanFactory parentBeanFactory;
 
+    private ClassLoader beanClassLoader = ClassUtils.getDefaultClassLoader();
+
+    /** 预实例化单例时使用的线程池，为 null 时在调用线程上依次创建 */
+    private Executor bootstrapExecutor;
+
+    /** Map from scope identifier String to corresponding Scope */
+    private final Map<String, Scope> scopes = new ConcurrentHashMap<String, Scope>(8);
+
     private final Map<String, BeanDefinition> beanDefinitionMap = new ConcurrentHashMap<String, BeanDefinition>(64);
 
+    /** 批量写入 beanDefinitionMap 时持有写锁；无锁读取用乐观读校验，不会看到写了一半的批次 */
+    private final StampedLock batchLock = new StampedLock();
+
     /** Map of singleton and non-singleton bean names keyed by dependency type */
     private final Map<Class<?>, String[]> allBeanNamesByType = new ConcurrentHashMap<Class<?>, String[]>(64);
 
     /** Map of singleton-only bean names keyed by dependency type */
     private final Map<Class<?>, String[]> singletonBeanNamesByType = new ConcurrentHashMap<Class<?>, String[]>(64);
 
-    /** List of bean definition names, in registration order */
-    private final List<String> beanDefinitionNames = new ArrayList<String>();
+    /** Set of bean definition names, in registration order */
+    private final Set<String> beanDefinitionNames = new LinkedHashSet<String>(64);
+
+    /** 名称列表的只读快照，注册或移除定义后置为 null，下次读取时重建 */
+    private volatile List<String> frozenBeanDefinitionNames;
+
+    /** Map from bean name to merged RootBeanDefinition */
+    private final Map<String, RootBeanDefinition> mergedBeanDefinitions = new ConcurrentHashMap<String, RootBeanDefinition>(64);
+
+    /** 父定义名称 --> 直接子定义名称，用于定向清除合并缓存，由 beanDefinitionMap 锁保护 */
+    private final Map<String, Set<String>> childBeanNames = new HashMap<String, Set<String>>(16);
+
+    /** 正在合并的 bean 名称，用于检测父定义循环，由 mergedBeanDefinitions 锁保护 */
+    private final Set<String> currentlyMergedBeanNames = new LinkedHashSet<String>();
+
+    /** 类型索引：类型（含父类与接口） --> 按注册顺序排列的非抽象 bean 名称，由 beanDefinitionMap 锁保护 */
+    private final Map<Class<?>, Set<String>> beanNamesByType = new ConcurrentHashMap<Class<?>, Set<String>>(64);
+
+    /** bean 名称 --> 注册序号，类型索引据此排序，与类型何时解析无关。由 beanDefinitionMap 锁保护 */
+    private final Map<String, Integer> registrationOrder = new HashMap<String, Integer>(64);
+
+    private int registrationCounter = 0;
+
+    /** Map of bean name --> bean type predicted from its definition */
+    private final Map<String, Class<?>> resolvedBeanTypes = new ConcurrentHashMap<String, Class<?>>(64);
+
+    /** 注册时类型尚未解析的 bean 名称，在下一次按类型查找时再加入索引 */
+    private final Set<String> unindexedBeanNames = new LinkedHashSet<String>();
+
+    private volatile boolean hasUnindexedBeanNames = false;
+
+    /** 冻结后的只读注册表，为 null 表示仍可注册新的定义 */
+    private volatile FrozenConfiguration frozenConfiguration;
 
     public DefaultListableBeanFactory() {
     }
@@ -32,86 +114,1633 @@ public class DefaultListableBeanFactory implements BeanFactory, BeanDefinitionRe
         this.parentBeanFactory = parentBeanFactory;
     }
 
+    public BeanFactory getParentBeanFactory() {
+        return this.parentBeanFactory;
+    }
+
+    /**
+     * Set the class loader to use for loading bean classes.
+     * <p>Default is the thread context class loader.
+     */
+    public void setBeanClassLoader(ClassLoader beanClassLoader) {
+        this.beanClassLoader = (beanClassLoader != null ? beanClassLoader : ClassUtils.getDefaultClassLoader());
+    }
+
+    /**
+     * Return this factory's class loader for loading bean classes.
+     */
+    public ClassLoader getBeanClassLoader() {
+        return this.beanClassLoader;
+    }
+
+    /**
+     * Set the executor used by {@link #preInstantiateSingletons()} to create
+     * independent singletons concurrently, e.g. a {@link java.util.concurrent.ForkJoinPool}.
+     * <p>Default is none, creating all singletons one after another
+     * on the calling thread.
+     */
+    public void setBootstrapExecutor(Executor bootstrapExecutor) {
+        this.bootstrapExecutor = bootstrapExecutor;
+    }
+
+    /**
+     * Return the executor used for pre-instantiating singletons, if any.
+     */
+    public Executor getBootstrapExecutor() {
+        return this.bootstrapExecutor;
+    }
+
+    /**
+     * Register the given scope, backed by the given Scope implementation.
+     * @param scopeName the scope identifier
+     * @param scope the backing Scope implementation
+     */
+    public void registerScope(String scopeName, Scope scope) {
+        if (scopeName == null || scope == null) {
+            throw new IllegalArgumentException("Scope identifier and Scope must not be null");
+        }
+        if (BeanDefinition.SCOPE_SINGLETON.equals(scopeName) || BeanDefinition.SCOPE_PROTOTYPE.equals(scopeName)) {
+            throw new IllegalArgumentException("Cannot replace existing scopes 'singleton' and 'prototype'");
+        }
+        this.scopes.put(scopeName, scope);
+    }
+
+    /**
+     * Return the Scope implementation for the given scope name, if any.
+     * <p>This will only return explicitly registered scopes.
+     * Built-in scopes such as "singleton" and "prototype" won't be exposed.
+     * @param scopeName the name of the scope
+     * @return the registered Scope implementation, or {@code null} if none
+     */
+    public Scope getRegisteredScope(String scopeName) {
+        return this.scopes.get(scopeName);
+    }
+
+    /**
+     * Return the names of all currently registered scopes.
+     */
+    public String[] getRegisteredScopeNames() {
+        return this.scopes.keySet().toArray(new String[0]);
+    }
+
     @Override
     public Object getBean(String name) throws BeansException {
-        throw new UnsupportedOperationException();
+        // 热路径：已创建的单例只需一次 ConcurrentHashMap 读取
+        Object sharedInstance = getSingleton(name);
+        if (sharedInstance != null) {
+            return sharedInstance;
+        }
+        return doGetBean(name, null, null);
     }
 
     @Override
     public <T> T getBean(String name, Class<T> requiredType) throws BeansException {
-        throw new UnsupportedOperationException();
+        Object sharedInstance = getSingleton(name);
+        if (sharedInstance == null) {
+            sharedInstance = doGetBean(name, requiredType, null);
+        }
+        return adaptBeanInstance(name, sharedInstance, requiredType);
     }
 
     @Override
     public <T> T getBean(Class<T> requiredType) throws BeansException {
-        throw new UnsupportedOperationException();
+        if (requiredType == null) {
+            throw new IllegalArgumentException("Required type must not be null");
+        }
+        String[] candidateNames = getBeanNamesForType(requiredType);
+        if (candidateNames.length == 1) {
+            return getBean(candidateNames[0], requiredType);
+        }
+        if (candidateNames.length > 1) {
+            String primaryCandidate = determinePrimaryCandidate(candidateNames, requiredType);
+            return getBean(primaryCandidate, requiredType);
+        }
+        if (this.parentBeanFactory != null) {
+            return this.parentBeanFactory.getBean(requiredType);
+        }
+        throw new NoSuchBeanDefinitionException(requiredType);
     }
 
     @Override
     public Object getBean(String name, Object... args) throws BeansException {
-        throw new UnsupportedOperationException();
+        if (args == null || args.length == 0) {
+            return getBean(name);
+        }
+        return doGetBean(name, null, args);
+    }
+
+    /**
+     * Return an instance, which may be shared or independent, of the specified bean.
+     * @param name the name of the bean to retrieve
+     * @param requiredType the required type of the bean to retrieve
+     * @param args arguments to use when creating a bean instance using explicit arguments
+     * (only applied when creating a new instance as opposed to retrieving an existing one)
+     * @return an instance of the bean
+     */
+    protected Object doGetBean(String name, Class<?> requiredType, Object[] args) throws BeansException {
+        FrozenConfiguration frozen = this.frozenConfiguration;
+        RootBeanDefinition mbd = (frozen != null ? frozen.getMergedBeanDefinition(name) :
+                this.mergedBeanDefinitions.get(name));
+        if (mbd == null && !containsBeanDefinition(name)) {
+            if (this.parentBeanFactory != null) {
+                if (args != null) {
+                    return this.parentBeanFactory.getBean(name, args);
+                }
+                if (requiredType != null) {
+                    return this.parentBeanFactory.getBean(name, requiredType);
+                }
+                return this.parentBeanFactory.getBean(name);
+            }
+            throw new NoSuchBeanDefinitionException(name);
+        }
+        if (mbd == null) {
+            mbd = getMergedLocalBeanDefinition(name);
+        }
+        if (mbd.isAbstract()) {
+            throw new BeanCreationException(name, "Bean definition is abstract");
+        }
+
+        // Guarantee initialization of beans that the current bean depends on.
+        String[] dependsOn = mbd.getDependsOn();
+        if (dependsOn != null) {
+            for (String dep : dependsOn) {
+                if (isDependent(name, dep)) {
+                    throw new BeanCreationException(name,
+                            "Circular depends-on relationship between '" + name + "' and '" + dep + "'");
+                }
+                registerDependentBean(dep, name);
+                getBean(dep);
+            }
+        }
+        if (mbd.getFactoryBeanName() != null) {
+            registerDependentBean(mbd.getFactoryBeanName(), name);
+        }
+
+        RootBeanDefinition beanDefinition = mbd;
+        if (beanDefinition.isSingleton()) {
+            return getSingleton(name, () -> createBean(name, beanDefinition, args));
+        }
+        else if (beanDefinition.isPrototype()) {
+            return createBean(name, beanDefinition, args);
+        }
+        else {
+            String scopeName = beanDefinition.getScope();
+            Scope scope = this.scopes.get(scopeName);
+            if (scope == null) {
+                throw new IllegalStateException("No Scope registered for scope name '" + scopeName + "'");
+            }
+            if (scope instanceof SimpleThreadScope) {
+                // 编号只在第一次访问时按名称查找，之后随合并定义缓存
+                SimpleThreadScope.BeanSlot slot = beanDefinition.threadScopeSlot;
+                if (slot == null || slot.scope != scope) {
+                    slot = ((SimpleThreadScope) scope).getBeanSlot(name);
+                    beanDefinition.threadScopeSlot = slot;
+                }
+                return slot.get(() -> createBean(name, beanDefinition, args));
+            }
+            return scope.get(name, () -> createBean(name, beanDefinition, args));
+        }
+    }
+
+    /**
+     * Ensure that all non-lazy-init singletons are instantiated.
+     * <p>With a {@link #setBootstrapExecutor bootstrap executor} configured, the
+     * singletons are arranged in a graph by their {@link #getDependencyNames
+     * dependencies} and every bean is created as soon as all of its dependencies
+     * are available, so that independent parts of the graph are created
+     * concurrently. Once a bean fails, no further beans are started; the failure
+     * reported is the first one in registration order. Singletons created in
+     * the concurrent phase are registered in dependency order, independent of
+     * which thread finished first.
+     * @throws BeansException if one of the singleton beans could not be created
+     */
+    public void preInstantiateSingletons() throws BeansException {
+        Map<String, BeanDefinition> candidates = new LinkedHashMap<String, BeanDefinition>();
+        for (String beanName : getBeanDefinitionNameList()) {
+            RootBeanDefinition mbd = getMergedLocalBeanDefinition(beanName);
+            if (!mbd.isAbstract() && mbd.isSingleton() && !mbd.isLazyInit()) {
+                candidates.put(beanName, mbd);
+            }
+        }
+
+        Executor executor = this.bootstrapExecutor;
+        if (executor == null) {
+            for (String beanName : candidates.keySet()) {
+                getBean(beanName);
+            }
+            return;
+        }
+
+        List<String> sortedBeanNames = sortByDependencies(candidates);
+        Set<String> existingSingletons = new HashSet<String>(Arrays.asList(getSingletonNames()));
+        AtomicBoolean failed = new AtomicBoolean();
+        Map<String, CompletableFuture<Void>> futures = new HashMap<String, CompletableFuture<Void>>(candidates.size() * 2);
+        for (String beanName : sortedBeanNames) {
+            List<CompletableFuture<Void>> prerequisites = new ArrayList<CompletableFuture<Void>>();
+            for (String dep : getDependencyNames(beanName, candidates.get(beanName))) {
+                CompletableFuture<Void> depFuture = futures.get(dep);
+                if (depFuture != null) {
+                    prerequisites.add(depFuture);
+                }
+            }
+            CompletableFuture<Void> ready = (prerequisites.isEmpty() ? CompletableFuture.<Void>completedFuture(null) :
+                    CompletableFuture.allOf(prerequisites.toArray(new CompletableFuture<?>[0])));
+            futures.put(beanName, ready.thenRunAsync(() -> {
+                // 已有 bean 失败时不再创建新的 bean
+                if (failed.get()) {
+                    return;
+                }
+                try {
+                    getBean(beanName);
+                }
+                catch (RuntimeException | Error ex) {
+                    failed.set(true);
+                    throw ex;
+                }
+            }, executor));
+        }
+
+        // 按注册顺序等待，保证报告的失败与顺序启动时一致
+        BeansException failure = null;
+        for (String beanName : candidates.keySet()) {
+            try {
+                futures.get(beanName).join();
+            }
+            catch (CompletionException ex) {
+                if (failure == null) {
+                    Throwable cause = ex.getCause();
+                    failure = (cause instanceof BeansException ? (BeansException) cause :
+                            new BeanCreationException(beanName, "Pre-instantiation of singleton failed", cause));
+                }
+            }
+        }
+        reorderSingletonsCreatedConcurrently(existingSingletons, candidates.keySet(), sortedBeanNames);
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * 并发创建的单例按完成先后注册，顺序取决于线程调度。这里改为确定的顺序：
+     * 先是被顺带创建的非候选 bean（按定义注册顺序），再是按依赖排序的候选 bean
+     */
+    private void reorderSingletonsCreatedConcurrently(Set<String> existingSingletons, Set<String> candidateNames,
+            List<String> sortedBeanNames) {
+        Set<String> created = new HashSet<String>(Arrays.asList(getSingletonNames()));
+        created.removeAll(existingSingletons);
+        List<String> order = new ArrayList<String>(created.size());
+        for (String beanName : getBeanDefinitionNameList()) {
+            if (created.contains(beanName) && !candidateNames.contains(beanName)) {
+                order.add(beanName);
+            }
+        }
+        for (String beanName : sortedBeanNames) {
+            if (created.contains(beanName)) {
+                order.add(beanName);
+            }
+        }
+        reorderRegisteredSingletons(order);
+    }
+
+    /**
+     * Resolve the bean classes of all registered bean definitions on the given executor.
+     * <p>定义加载完成后即可调用，类加载在后台进行，调用方可以同时做其他启动工作；
+     * 之后创建 bean 时直接使用已解析的 Class。与创建 bean 时一样只加载类，
+     * 不触发静态初始化。
+     * @param executor the executor to load the classes on
+     * @return a future that completes once all bean classes have been resolved.
+     * If any could not be resolved, it completes exceptionally with a {@link BeansException}
+     * that carries every failure, in registration order, as a suppressed exception.
+     */
+    public CompletableFuture<Void> resolveBeanClassesAsync(Executor executor) {
+        List<String> beanNames = getBeanDefinitionNameList();
+        List<CompletableFuture<Void>> futures = new ArrayList<CompletableFuture<Void>>(beanNames.size());
+        for (String beanName : beanNames) {
+            CompletableFuture<Void> future;
+            try {
+                BeanDefinition bd = getBeanDefinition(beanName);
+                RootBeanDefinition mbd = getMergedLocalBeanDefinition(beanName);
+                future = CompletableFuture.runAsync(() -> {
+                    // 原始定义也解析，合并定义被重置后重新合并时可以直接复制 Class
+                    resolveBeanClass(beanName, bd);
+                    if (mbd != bd) {
+                        resolveBeanClass(beanName, mbd);
+                    }
+                }, executor);
+            }
+            catch (BeansException ex) {
+                future = new CompletableFuture<Void>();
+                future.completeExceptionally(ex);
+            }
+            futures.add(future);
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).handle((result, ex) -> {
+            if (ex == null) {
+                return null;
+            }
+            // 汇总全部失败，而不是只报告第一个
+            List<Throwable> failures = new ArrayList<Throwable>();
+            for (CompletableFuture<Void> future : futures) {
+                try {
+                    future.join();
+                }
+                catch (CompletionException failure) {
+                    failures.add(failure.getCause());
+                }
+            }
+            BeansException report = new BeansException("Failed to resolve " + failures.size() + " bean class(es)");
+            for (Throwable failure : failures) {
+                report.addSuppressed(failure);
+            }
+            throw report;
+        });
+    }
+
+    /**
+     * Return the names of the beans that need to be created before the given bean.
+     * <p>The default implementation returns the explicit
+     * {@link BeanDefinition#getDependsOn() depends-on} names, the
+     * factory bean, if any, and the beans referenced through a
+     * {@link RuntimeBeanReference} by constructor argument values
+     * and property values, in that order.
+     * @param beanName the name of the bean
+     * @param bd the bean definition of the bean
+     * @return the names of the dependencies (never {@code null})
+     */
+    protected String[] getDependencyNames(String beanName, BeanDefinition bd) {
+        List<String> dependencyNames = new ArrayList<String>();
+        if (bd.getDependsOn() != null) {
+            dependencyNames.addAll(Arrays.asList(bd.getDependsOn()));
+        }
+        if (bd.getFactoryBeanName() != null) {
+            dependencyNames.add(bd.getFactoryBeanName());
+        }
+        if (bd.hasConstructorArgumentValues()) {
+            ConstructorArgumentValues cargs = bd.getConstructorArgumentValues();
+            for (ConstructorArgumentValues.ValueHolder holder : cargs.getIndexedArgumentValues().values()) {
+                addReferencedBeanName(holder.getValue(), dependencyNames);
+            }
+            for (ConstructorArgumentValues.ValueHolder holder : cargs.getGenericArgumentValues()) {
+                addReferencedBeanName(holder.getValue(), dependencyNames);
+            }
+        }
+        if (bd.hasPropertyValues()) {
+            for (PropertyValue pv : bd.getPropertyValues().getPropertyValues()) {
+                addReferencedBeanName(pv.getValue(), dependencyNames);
+            }
+        }
+        return dependencyNames.toArray(new String[0]);
+    }
+
+    private static void addReferencedBeanName(Object value, List<String> dependencyNames) {
+        if (value instanceof RuntimeBeanReference) {
+            dependencyNames.add(((RuntimeBeanReference) value).getBeanName());
+        }
+    }
+
+    /**
+     * 拓扑排序：依赖总是排在依赖它的 bean 之前，相互独立的 bean 保持注册顺序
+     */
+    private List<String> sortByDependencies(Map<String, BeanDefinition> candidates) {
+        Map<String, Integer> inDegrees = new HashMap<String, Integer>(candidates.size() * 2);
+        Map<String, List<String>> dependents = new HashMap<String, List<String>>(candidates.size() * 2);
+        for (Map.Entry<String, BeanDefinition> entry : candidates.entrySet()) {
+            int inDegree = 0;
+            String[] dependencyNames = getDependencyNames(entry.getKey(), entry.getValue());
+            for (String dep : new LinkedHashSet<String>(Arrays.asList(dependencyNames))) {
+                if (candidates.containsKey(dep)) {
+                    inDegree++;
+                    List<String> depDependents = dependents.get(dep);
+                    if (depDependents == null) {
+                        depDependents = new ArrayList<String>(4);
+                        dependents.put(dep, depDependents);
+                    }
+                    depDependents.add(entry.getKey());
+                }
+            }
+            inDegrees.put(entry.getKey(), inDegree);
+        }
+
+        Deque<String> ready = new ArrayDeque<String>();
+        for (String beanName : candidates.keySet()) {
+            if (inDegrees.get(beanName) == 0) {
+                ready.add(beanName);
+            }
+        }
+        List<String> sorted = new ArrayList<String>(candidates.size());
+        while (!ready.isEmpty()) {
+            String beanName = ready.poll();
+            sorted.add(beanName);
+            List<String> beanDependents = dependents.get(beanName);
+            if (beanDependents != null) {
+                for (String dependent : beanDependents) {
+                    int remaining = inDegrees.get(dependent) - 1;
+                    inDegrees.put(dependent, remaining);
+                    if (remaining == 0) {
+                        ready.add(dependent);
+                    }
+                }
+            }
+        }
+        if (sorted.size() < candidates.size()) {
+            Set<String> cyclic = new LinkedHashSet<String>(candidates.keySet());
+            cyclic.removeAll(sorted);
+            throw new BeanCreationException(cyclic.iterator().next(),
+                    "Circular depends-on relationship between beans " + cyclic);
+        }
+        return sorted;
+    }
+
+    private String determinePrimaryCandidate(String[] candidateNames, Class<?> requiredType) {
+        String primaryBeanName = null;
+        for (String candidateName : candidateNames) {
+            if (getBeanDefinition(candidateName).isPrimary()) {
+                if (primaryBeanName != null) {
+                    throw new NoUniqueBeanDefinitionException(requiredType, candidateNames);
+                }
+                primaryBeanName = candidateName;
+            }
+        }
+        if (primaryBeanName == null) {
+            throw new NoUniqueBeanDefinitionException(requiredType, candidateNames);
+        }
+        return primaryBeanName;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T adaptBeanInstance(String name, Object bean, Class<?> requiredType) {
+        if (requiredType != null && !requiredType.isInstance(bean)) {
+            throw new BeansException("Bean named '" + name + "' is expected to be of type '" +
+                    requiredType.getName() + "' but was actually of type '" + bean.getClass().getName() + "'");
+        }
+        return (T) bean;
+    }
+
+    /**
+     * Create a bean instance for the given merged bean definition.
+     * @param beanName the name of the bean
+     * @param mbd the merged bean definition for the bean
+     * @param args explicit arguments to use for constructor invocation
+     * @return a new instance of the bean
+     */
+    protected Object createBean(String beanName, RootBeanDefinition mbd, Object[] args) throws BeanCreationException {
+        Object bean;
+        try {
+            bean = instantiateBean(beanName, mbd, args);
+        }
+        catch (BeanCreationException ex) {
+            throw ex;
+        }
+        catch (BeanInstantiationException ex) {
+            throw new BeanCreationException(beanName, "Instantiation of bean failed",
+                    (ex.getCause() != null ? ex.getCause() : ex));
+        }
+        catch (Throwable ex) {
+            throw new BeanCreationException(beanName, "Instantiation of bean failed", ex);
+        }
+        try {
+            populateBean(beanName, mbd, bean);
+        }
+        catch (BeanCreationException ex) {
+            throw ex;
+        }
+        catch (Throwable ex) {
+            throw new BeanCreationException(beanName, "Error setting property values", ex);
+        }
+        try {
+            invokeInitMethod(beanName, mbd, bean);
+        }
+        catch (BeanCreationException ex) {
+            throw ex;
+        }
+        catch (Throwable ex) {
+            throw new BeanCreationException(beanName, "Invocation of init method failed", ex);
+        }
+        registerDisposableBeanIfNecessary(beanName, bean, mbd);
+        return bean;
+    }
+
+    /**
+     * 使用定义上缓存的注入计划填充属性：setter 与字面值只在第一次创建时解析，
+     * 之后每次创建只获取引用的 bean。工厂方法可能返回不同的子类，实例的类与
+     * 缓存的计划不一致时重新解析
+     */
+    private void populateBean(String beanName, AbstractBeanDefinition bd, Object bean) {
+        if (!bd.hasPropertyValues()) {
+            return;
+        }
+        PropertyInjector injector = bd.propertyInjector;
+        if (injector == null || injector.getBeanClass() != bean.getClass()) {
+            injector = PropertyInjector.resolve(beanName, bean.getClass(), bd.getPropertyValues(),
+                    this::getReferencedBeanType, getBeanClassLoader());
+            bd.propertyInjector = injector;
+        }
+        injector.inject(beanName, bean, refName -> getReferencedBean(refName, beanName));
+    }
+
+    /**
+     * 初始化方法的句柄按类缓存在 {@link CachedIntrospectionResults} 中，每次创建只做一次调用
+     */
+    private void invokeInitMethod(String beanName, AbstractBeanDefinition bd, Object bean) throws Throwable {
+        String initMethodName = bd.getInitMethodName();
+        if (initMethodName == null) {
+            return;
+        }
+        MethodHandle initMethod =
+                CachedIntrospectionResults.forClass(bean.getClass()).getLifecycleMethodHandle(initMethodName);
+        if (initMethod == null) {
+            if (bd.isEnforceInitMethod()) {
+                throw new BeanCreationException(beanName, "Could not find an init method named '" +
+                        initMethodName + "' on bean with name '" + beanName + "'");
+            }
+            return;
+        }
+        initMethod.invokeExact(bean);
+    }
+
+    /**
+     * Register the given bean as disposable if it implements {@link DisposableBean}
+     * or has a destroy method: singletons with this factory, scoped beans with their scope.
+     * <p>原型 bean 的生命周期不由工厂管理，不会注册
+     */
+    private void registerDisposableBeanIfNecessary(String beanName, Object bean, RootBeanDefinition mbd) {
+        if (mbd.isPrototype()) {
+            return;
+        }
+        DisposableBeanAdapter adapter = DisposableBeanAdapter.forBean(beanName, bean, mbd);
+        if (adapter == null) {
+            return;
+        }
+        if (mbd.isSingleton()) {
+            registerDisposableBean(beanName, adapter);
+        }
+        else {
+            Scope scope = this.scopes.get(mbd.getScope());
+            if (scope == null) {
+                throw new IllegalStateException("No Scope registered for scope name '" + mbd.getScope() + "'");
+            }
+            scope.registerDestructionCallback(beanName, adapter);
+        }
+    }
+
+    private Object getReferencedBean(String refName, String beanName) {
+        registerDependentBean(refName, beanName);
+        return getBean(refName);
+    }
+
+    /**
+     * 预测被引用 bean 的类型，用于在重载的 setter、构造器之间选择；无法确定时返回 {@code null}
+     */
+    private Class<?> getReferencedBeanType(String refName) {
+        try {
+            return getType(refName);
+        }
+        catch (NoSuchBeanDefinitionException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * 使用定义上缓存的实例化器创建实例。构造器或工厂方法只在某组参数类型第一次出现时解析，
+     * 之后同样类型的参数直接调用缓存的实例化器。参数类型与上一次相同时直接逐个比较类型，
+     * 不分配缓存 key
+     */
+    private Object instantiateBean(String beanName, AbstractBeanDefinition bd, Object[] args) {
+        if (args == null || args.length == 0) {
+            Supplier<Object> instanceSupplier = bd.instanceSupplier;
+            if (instanceSupplier == null) {
+                instanceSupplier = resolveInstanceSupplier(beanName, bd);
+                bd.instanceSupplier = instanceSupplier;
+            }
+            return instanceSupplier.get();
+        }
+        Function<Object[], Object> instantiator = bd.getLastResolvedInstantiator(args);
+        if (instantiator != null) {
+            return instantiator.apply(args);
+        }
+        ArgumentTypes argumentTypes = new ArgumentTypes(args);
+        instantiator = bd.getResolvedInstantiator(argumentTypes);
+        if (instantiator == null) {
+            instantiator = bd.cacheResolvedInstantiator(argumentTypes, resolveInstantiator(beanName, bd, args));
+        }
+        return instantiator.apply(args);
+    }
+
+    private Supplier<Object> resolveInstanceSupplier(String beanName, AbstractBeanDefinition bd) {
+        if (bd.hasConstructorArgumentValues()) {
+            return resolveArgumentSupplier(beanName, bd);
+        }
+        if (bd.getFactoryMethodName() == null) {
+            Class<?> beanClass = resolveRequiredBeanClass(beanName, bd);
+            Constructor<?> ctor = (Constructor<?>) findBestCandidate(
+                    CachedIntrospectionResults.forClass(beanClass).getConstructors(), new Object[0]);
+            if (ctor == null) {
+                throw new BeanCreationException(beanName, "No default constructor found on class [" +
+                        bd.getBeanClassName() + "]");
+            }
+            return BeanInstantiators.forConstructor(ctor);
+        }
+        Function<Object[], Object> instantiator = resolveInstantiator(beanName, bd, new Object[0]);
+        Object[] noArgs = new Object[0];
+        return () -> instantiator.apply(noArgs);
+    }
+
+    /**
+     * 为给定参数解析最匹配的构造器或工厂方法，并生成对应的实例化器
+     */
+    private Function<Object[], Object> resolveInstantiator(String beanName, AbstractBeanDefinition bd, Object[] args) {
+        String factoryMethodName = bd.getFactoryMethodName();
+        if (factoryMethodName == null) {
+            Class<?> beanClass = resolveRequiredBeanClass(beanName, bd);
+            Constructor<?> ctor = (Constructor<?>) findBestCandidate(
+                    CachedIntrospectionResults.forClass(beanClass).getConstructors(), args);
+            if (ctor == null) {
+                throw new BeanCreationException(beanName, "No matching constructor found on class [" +
+                        beanClass.getName() + "] for argument types " + new ArgumentTypes(args));
+            }
+            return BeanInstantiators.forConstructorWithArgs(ctor);
+        }
+
+        String factoryBeanName = bd.getFactoryBeanName();
+        boolean isStatic = (factoryBeanName == null);
+        Method factoryMethod = (Method) findBestCandidate(getFactoryMethodCandidates(beanName, bd), args);
+        if (factoryMethod == null) {
+            throw new BeanCreationException(beanName, "No matching factory method found: " +
+                    (isStatic ? "factory method '" : "factory bean '" + factoryBeanName + "'; factory method '") +
+                    factoryMethodName + "' for argument types " + new ArgumentTypes(args));
+        }
+        return createInstantiator(bd, factoryMethod);
+    }
+
+    /**
+     * 为选定的构造器或工厂方法生成实例化器，实例工厂方法每次调用时获取工厂 bean
+     */
+    private Function<Object[], Object> createInstantiator(AbstractBeanDefinition bd, Executable executable) {
+        if (executable instanceof Constructor) {
+            return BeanInstantiators.forConstructorWithArgs((Constructor<?>) executable);
+        }
+        Method factoryMethod = (Method) executable;
+        String factoryBeanName = bd.getFactoryBeanName();
+        if (factoryBeanName == null) {
+            return BeanInstantiators.forStaticFactoryMethod(factoryMethod);
+        }
+        BiFunction<Object, Object[], Object> invoker = BeanInstantiators.forInstanceFactoryMethod(factoryMethod);
+        return factoryArgs -> invoker.apply(getBean(factoryBeanName), factoryArgs);
+    }
+
+    private Method[] getFactoryMethodCandidates(String beanName, AbstractBeanDefinition bd) {
+        String factoryMethodName = bd.getFactoryMethodName();
+        String factoryBeanName = bd.getFactoryBeanName();
+        Class<?> factoryClass;
+        if (factoryBeanName != null) {
+            if (factoryBeanName.equals(beanName)) {
+                throw new BeanCreationException(beanName, "factory-bean reference points back to the same bean definition");
+            }
+            factoryClass = getType(factoryBeanName);
+            if (factoryClass == null) {
+                throw new BeanCreationException(beanName, "Cannot determine type of factory bean '" + factoryBeanName + "'");
+            }
+        }
+        else {
+            factoryClass = resolveRequiredBeanClass(beanName, bd);
+        }
+        boolean isStatic = (factoryBeanName == null);
+        List<Method> candidates = new ArrayList<Method>();
+        for (Method method : CachedIntrospectionResults.forClass(factoryClass).getCandidateMethods()) {
+            if (method.getName().equals(factoryMethodName) && Modifier.isStatic(method.getModifiers()) == isStatic) {
+                candidates.add(method);
+            }
+        }
+        return candidates.toArray(new Method[0]);
+    }
+
+    /**
+     * 按定义中的构造参数选择构造器或工厂方法。字面值在这里按参数类型转换一次并保存为模板，
+     * 每次创建只复制模板并填入引用的 bean
+     */
+    private Supplier<Object> resolveArgumentSupplier(String beanName, AbstractBeanDefinition bd) {
+        ConstructorArgumentValues cargs = bd.getConstructorArgumentValues();
+        int argCount = cargs.getArgumentCount();
+        for (Integer index : cargs.getIndexedArgumentValues().keySet()) {
+            argCount = Math.max(argCount, index + 1);
+        }
+        Executable[] candidates = (bd.getFactoryMethodName() == null ?
+                CachedIntrospectionResults.forClass(resolveRequiredBeanClass(beanName, bd)).getConstructors() :
+                getFactoryMethodCandidates(beanName, bd));
+
+        Executable bestCandidate = null;
+        ResolvedValue[] bestArgs = null;
+        int bestWeight = Integer.MAX_VALUE;
+        TypeMismatchException mismatch = null;
+        for (Executable candidate : candidates) {
+            if (candidate.getParameterCount() != argCount) {
+                continue;
+            }
+            ResolvedValue[] resolvedArgs = new ResolvedValue[argCount];
+            int weight;
+            try {
+                weight = resolveArguments(candidate, cargs, resolvedArgs);
+            }
+            catch (TypeMismatchException ex) {
+                mismatch = ex;
+                continue;
+            }
+            if (weight >= 0 && weight < bestWeight) {
+                bestCandidate = candidate;
+                bestArgs = resolvedArgs;
+                bestWeight = weight;
+            }
+        }
+        if (bestCandidate == null) {
+            throw new BeanCreationException(beanName, "Could not resolve matching " +
+                    (bd.getFactoryMethodName() == null ? "constructor" : "factory method '" + bd.getFactoryMethodName() + "'") +
+                    " for " + argCount + " constructor argument(s)", mismatch);
+        }
+
+        Function<Object[], Object> instantiator = createInstantiator(bd, bestCandidate);
+        Class<?>[] paramTypes = bestCandidate.getParameterTypes();
+        Object[] template = new Object[argCount];
+        List<Integer> refIndexes = new ArrayList<Integer>();
+        for (int i = 0; i < argCount; i++) {
+            if (bestArgs[i].getBeanName() != null) {
+                refIndexes.add(i);
+            }
+            else {
+                template[i] = bestArgs[i].getValue();
+            }
+        }
+        if (refIndexes.isEmpty()) {
+            return () -> instantiator.apply(template.clone());
+        }
+        ResolvedValue[] resolvedArgs = bestArgs;
+        return () -> {
+            Object[] args = template.clone();
+            for (int index : refIndexes) {
+                Object ref = getReferencedBean(resolvedArgs[index].getBeanName(), beanName);
+                if (!ClassUtils.isAssignableValue(paramTypes[index], ref)) {
+                    throw new BeanCreationException(beanName, "Could not convert constructor argument " + index,
+                            new TypeMismatchException(ref, paramTypes[index]));
+                }
+                args[index] = ref;
+            }
+            return instantiator.apply(args);
+        };
+    }
+
+    /**
+     * 把构造参数分配到候选的各个参数上：优先使用指定了下标的参数，其余按顺序取未使用的通用参数
+     * @return 类型差距权重，不匹配时返回 -1
+     */
+    private int resolveArguments(Executable candidate, ConstructorArgumentValues cargs, ResolvedValue[] resolvedArgs) {
+        Class<?>[] paramTypes = candidate.getParameterTypes();
+        Parameter[] parameters = candidate.getParameters();
+        Map<Integer, ConstructorArgumentValues.ValueHolder> indexedArgs = cargs.getIndexedArgumentValues();
+        List<ConstructorArgumentValues.ValueHolder> genericArgs = cargs.getGenericArgumentValues();
+        boolean[] usedGenericArgs = new boolean[genericArgs.size()];
+        int weight = 0;
+        for (int i = 0; i < paramTypes.length; i++) {
+            ConstructorArgumentValues.ValueHolder holder = indexedArgs.get(i);
+            if (holder != null && !matchesParameter(holder, paramTypes[i], parameters[i])) {
+                return -1;
+            }
+            for (int j = 0; holder == null && j < genericArgs.size(); j++) {
+                if (!usedGenericArgs[j] && matchesParameter(genericArgs.get(j), paramTypes[i], parameters[i])) {
+                    holder = genericArgs.get(j);
+                    usedGenericArgs[j] = true;
+                }
+            }
+            if (holder == null) {
+                return -1;
+            }
+            resolvedArgs[i] = ResolvedValue.resolve(holder.getValue(), paramTypes[i], getBeanClassLoader());
+            if (resolvedArgs[i].getBeanName() != null) {
+                Class<?> refType = getReferencedBeanType(resolvedArgs[i].getBeanName());
+                if (refType != null && !ClassUtils.isAssignable(paramTypes[i], refType)) {
+                    return -1;
+                }
+            }
+            else {
+                weight += getTypeDifferenceWeight(paramTypes[i], resolvedArgs[i].getValue());
+            }
+        }
+        return weight;
+    }
+
+    private static boolean matchesParameter(ConstructorArgumentValues.ValueHolder holder, Class<?> paramType,
+                                            Parameter parameter) {
+        if (holder.getType() != null && !holder.getType().equals(paramType.getName()) &&
+                !holder.getType().equals(paramType.getSimpleName())) {
+            return false;
+        }
+        // 只有编译时保留了参数名（-parameters）才能按名称匹配
+        return (holder.getName() == null || !parameter.isNamePresent() || holder.getName().equals(parameter.getName()));
+    }
+
+    private Class<?> resolveRequiredBeanClass(String beanName, AbstractBeanDefinition bd) {
+        Class<?> beanClass = resolveBeanClass(beanName, bd);
+        if (beanClass == null) {
+            throw new BeanCreationException(beanName, "No bean class specified on bean definition");
+        }
+        return beanClass;
+    }
+
+    /**
+     * 在参数个数一致、参数可赋值的候选中选出类型差距最小的一个，差距相同时取先声明的
+     */
+    private static Executable findBestCandidate(Executable[] candidates, Object[] args) {
+        Executable bestCandidate = null;
+        int bestWeight = Integer.MAX_VALUE;
+        for (Executable candidate : candidates) {
+            if (candidate.getParameterCount() != args.length || candidate.isVarArgs() && args.length == 0) {
+                continue;
+            }
+            Class<?>[] paramTypes = candidate.getParameterTypes();
+            int weight = 0;
+            for (int i = 0; i < args.length && weight >= 0; i++) {
+                if (!ClassUtils.isAssignableValue(paramTypes[i], args[i])) {
+                    weight = -1;
+                }
+                else {
+                    weight += getTypeDifferenceWeight(paramTypes[i], args[i]);
+                }
+            }
+            if (weight >= 0 && weight < bestWeight) {
+                bestCandidate = candidate;
+                bestWeight = weight;
+            }
+        }
+        return bestCandidate;
+    }
+
+    private static int getTypeDifferenceWeight(Class<?> paramType, Object arg) {
+        return (arg != null ? ClassUtils.getTypeDifferenceWeight(paramType, arg.getClass()) : 0);
+    }
+
+    /**
+     * Resolve the bean class for the specified bean definition,
+     * resolving a bean class name into a Class reference (if necessary).
+     * @param beanName the name of the bean (for error handling purposes)
+     * @param bd the bean definition to determine the class for
+     * @return the resolved bean class (or {@code null} if none)
+     */
+    protected Class<?> resolveBeanClass(String beanName, BeanDefinition bd) throws BeanCreationException {
+        try {
+            if (bd instanceof AbstractBeanDefinition) {
+                AbstractBeanDefinition abd = (AbstractBeanDefinition) bd;
+                if (abd.hasBeanClass()) {
+                    return abd.getBeanClass();
+                }
+                return abd.resolveBeanClass(getBeanClassLoader());
+            }
+            String className = bd.getBeanClassName();
+            return (className != null ? ClassUtils.forName(className, getBeanClassLoader()) : null);
+        }
+        catch (ClassNotFoundException ex) {
+            throw new BeanCreationException(beanName, "Bean class [" + bd.getBeanClassName() + "] not found", ex);
+        }
+        catch (LinkageError err) {
+            throw new BeanCreationException(beanName, "Error loading bean class [" + bd.getBeanClassName() + "]", err);
+        }
     }
 
     @Override
     public boolean containsBean(String name) {
-        return false;
+        if (containsSingleton(name) || containsBeanDefinition(name)) {
+            return true;
+        }
+        return (this.parentBeanFactory != null && this.parentBeanFactory.containsBean(name));
     }
 
     @Override
     public boolean isSingleton(String name) throws NoSuchBeanDefinitionException {
-        throw new UnsupportedOperationException();
+        if (containsSingleton(name)) {
+            return true;
+        }
+        if (!containsBeanDefinition(name) && this.parentBeanFactory != null) {
+            return this.parentBeanFactory.isSingleton(name);
+        }
+        return getMergedLocalBeanDefinition(name).isSingleton();
     }
 
     @Override
     public boolean isPrototype(String name) throws NoSuchBeanDefinitionException {
-        throw new UnsupportedOperationException();
+        if (!containsBeanDefinition(name)) {
+            if (containsSingleton(name)) {
+                return false;
+            }
+            if (this.parentBeanFactory != null) {
+                return this.parentBeanFactory.isPrototype(name);
+            }
+            throw new NoSuchBeanDefinitionException(name);
+        }
+        return getMergedLocalBeanDefinition(name).isPrototype();
     }
 
     @Override
     public boolean isTypeMatch(String name, Class<?> targetType) throws NoSuchBeanDefinitionException {
-        throw new UnsupportedOperationException();
+        Class<?> beanType = getType(name);
+        return (beanType != null && (targetType == null || ClassUtils.isAssignable(targetType, beanType)));
     }
 
     @Override
     public Class<?> getType(String name) throws NoSuchBeanDefinitionException {
-        throw new UnsupportedOperationException();
+        Object beanInstance = getSingleton(name);
+        if (beanInstance != null) {
+            return beanInstance.getClass();
+        }
+        FrozenConfiguration frozen = this.frozenConfiguration;
+        if (frozen != null) {
+            return frozen.getType(name, this.parentBeanFactory);
+        }
+        if (this.hasUnindexedBeanNames) {
+            indexPendingBeanTypes();
+        }
+        Class<?> beanType = this.resolvedBeanTypes.get(name);
+        if (beanType != null) {
+            return beanType;
+        }
+        frozen = this.frozenConfiguration;
+        if (frozen != null) {
+            // 读取期间配置刚被冻结，可变索引可能已经清空
+            return frozen.getType(name, this.parentBeanFactory);
+        }
+        if (!containsBeanDefinition(name)) {
+            if (this.parentBeanFactory != null) {
+                return this.parentBeanFactory.getType(name);
+            }
+            throw new NoSuchBeanDefinitionException(name);
+        }
+        // 类型无法确定
+        return null;
+    }
+
+    @Override
+    public String[] getBeanNamesForType(Class<?> type) {
+        return getBeanNamesForType(type, true);
+    }
+
+    @Override
+    public String[] getBeanNamesForType(Class<?> type, boolean includeNonSingletons) {
+        if (type == null) {
+            return getBeanDefinitionNames();
+        }
+        // 缓存的数组是共享的，返回副本
+        return doGetBeanNamesForType(type, includeNonSingletons).clone();
+    }
+
+    private String[] doGetBeanNamesForType(Class<?> type, boolean includeNonSingletons) {
+        FrozenConfiguration frozen = this.frozenConfiguration;
+        if (frozen != null) {
+            return frozen.getBeanNamesForType(type, includeNonSingletons);
+        }
+        if (this.hasUnindexedBeanNames) {
+            indexPendingBeanTypes();
+        }
+        Map<Class<?>, String[]> cache =
+                (includeNonSingletons ? this.allBeanNamesByType : this.singletonBeanNamesByType);
+        String[] resolvedBeanNames = cache.get(type);
+        if (resolvedBeanNames != null) {
+            return resolvedBeanNames;
+        }
+        synchronized (this.beanDefinitionMap) {
+            frozen = this.frozenConfiguration;
+            if (frozen != null) {
+                return frozen.getBeanNamesForType(type, includeNonSingletons);
+            }
+            Set<String> beanNames = this.beanNamesByType.get(type);
+            List<String> result = new ArrayList<String>(beanNames != null ? beanNames.size() : 0);
+            if (beanNames != null) {
+                for (String beanName : beanNames) {
+                    if (includeNonSingletons || getMergedLocalBeanDefinition(beanName).isSingleton()) {
+                        result.add(beanName);
+                    }
+                }
+            }
+            resolvedBeanNames = result.toArray(new String[0]);
+            cache.put(type, resolvedBeanNames);
+        }
+        return resolvedBeanNames;
+    }
+
+    /**
+     * Predict the eventual bean type for the given bean definition,
+     * resolving its bean class if necessary.
+     * @param beanName the name of the bean
+     * @param bd the bean definition to determine the type for
+     * @return the type of the bean, or {@code null} if not predictable
+     */
+    protected Class<?> predictBeanType(String beanName, BeanDefinition bd) {
+        try {
+            if (bd.getFactoryMethodName() != null) {
+                return getTypeForFactoryMethod(beanName, bd);
+            }
+            return resolveBeanClass(beanName, bd);
+        }
+        catch (BeanCreationException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * 根据工厂方法的返回类型推断 bean 类型，同名工厂方法返回类型不一致时无法推断
+     */
+    private Class<?> getTypeForFactoryMethod(String beanName, BeanDefinition bd) {
+        String factoryBeanName = bd.getFactoryBeanName();
+        Class<?> factoryClass;
+        if (factoryBeanName != null) {
+            Object factoryBean = getSingleton(factoryBeanName);
+            if (factoryBean != null) {
+                factoryClass = factoryBean.getClass();
+            }
+            else {
+                factoryClass = (containsBeanDefinition(factoryBeanName) && !factoryBeanName.equals(beanName) ?
+                        predictBeanType(factoryBeanName, getMergedLocalBeanDefinition(factoryBeanName)) : null);
+            }
+        }
+        else {
+            factoryClass = resolveBeanClass(beanName, bd);
+        }
+        if (factoryClass == null) {
+            return null;
+        }
+        Class<?> returnType = null;
+        for (Method method : CachedIntrospectionResults.forClass(factoryClass).getCandidateMethods()) {
+            if (method.getName().equals(bd.getFactoryMethodName()) &&
+                    Modifier.isStatic(method.getModifiers()) == (factoryBeanName == null)) {
+                if (returnType != null && returnType != method.getReturnType()) {
+                    return null;
+                }
+                returnType = method.getReturnType();
+            }
+        }
+        return returnType;
+    }
+
+    /**
+     * 将 bean 类型及其所有父类、接口加入索引，并只清除这些类型的名称快照。
+     * 调用方需持有 beanDefinitionMap 锁
+     */
+    private void addToTypeIndex(String beanName, BeanDefinition bd, Class<?> beanType) {
+        this.resolvedBeanTypes.put(beanName, beanType);
+        if (bd.isAbstract()) {
+            return;
+        }
+        for (Class<?> type : getTypeHierarchy(beanType)) {
+            Set<String> beanNames = this.beanNamesByType.get(type);
+            if (beanNames == null) {
+                beanNames = new TreeSet<String>(Comparator.comparing(this.registrationOrder::get));
+                this.beanNamesByType.put(type, beanNames);
+            }
+            beanNames.add(beanName);
+            clearCachedBeanNamesForType(type);
+        }
+    }
+
+    /**
+     * 从类型索引中移除指定 bean。调用方需持有 beanDefinitionMap 锁
+     */
+    private void removeFromTypeIndex(String beanName) {
+        if (this.unindexedBeanNames.remove(beanName)) {
+            this.hasUnindexedBeanNames = !this.unindexedBeanNames.isEmpty();
+        }
+        Class<?> beanType = this.resolvedBeanTypes.remove(beanName);
+        if (beanType == null) {
+            return;
+        }
+        for (Class<?> type : getTypeHierarchy(beanType)) {
+            Set<String> beanNames = this.beanNamesByType.get(type);
+            if (beanNames != null && beanNames.remove(beanName)) {
+                if (beanNames.isEmpty()) {
+                    this.beanNamesByType.remove(type);
+                }
+                clearCachedBeanNamesForType(type);
+            }
+        }
+    }
+
+    /**
+     * 解析注册时尚未确定类型的 bean，并加入类型索引
+     */
+    private void indexPendingBeanTypes() {
+        synchronized (this.beanDefinitionMap) {
+            for (Iterator<String> it = this.unindexedBeanNames.iterator(); it.hasNext(); ) {
+                String beanName = it.next();
+                try {
+                    RootBeanDefinition mbd = getMergedLocalBeanDefinition(beanName);
+                    Class<?> beanType = predictBeanType(beanName, mbd);
+                    if (beanType != null) {
+                        addToTypeIndex(beanName, mbd, beanType);
+                    }
+                }
+                catch (BeansException ex) {
+                    // 父定义缺失等情况下类型无法确定，不加入索引
+                }
+                it.remove();
+            }
+            this.hasUnindexedBeanNames = false;
+        }
+    }
+
+    private void clearCachedBeanNamesForType(Class<?> type) {
+        this.allBeanNamesByType.remove(type);
+        this.singletonBeanNamesByType.remove(type);
+    }
+
+    private static Set<Class<?>> getTypeHierarchy(Class<?> beanType) {
+        Set<Class<?>> hierarchy = new LinkedHashSet<Class<?>>();
+        Class<?> current = beanType;
+        while (current != null) {
+            hierarchy.add(current);
+            collectInterfaces(current, hierarchy);
+            current = current.getSuperclass();
+        }
+        if (beanType.isInterface() || beanType.isArray()) {
+            hierarchy.add(Object.class);
+        }
+        return hierarchy;
+    }
+
+    private static void collectInterfaces(Class<?> clazz, Set<Class<?>> hierarchy) {
+        for (Class<?> ifc : clazz.getInterfaces()) {
+            if (hierarchy.add(ifc)) {
+                collectInterfaces(ifc, hierarchy);
+            }
+        }
+    }
+
+    /**
+     * Return the merged bean definition for the given bean name, merging a
+     * child bean definition with its parent if necessary.
+     * @param beanName the name of the bean to retrieve the merged definition for
+     * @return a (potentially merged) bean definition for the given bean
+     * @throws NoSuchBeanDefinitionException if there is no bean definition with the given name
+     */
+    public BeanDefinition getMergedBeanDefinition(String beanName) throws BeansException {
+        if (!containsBeanDefinition(beanName) &&
+                this.parentBeanFactory instanceof DefaultListableBeanFactory) {
+            return ((DefaultListableBeanFactory) this.parentBeanFactory).getMergedBeanDefinition(beanName);
+        }
+        return getMergedLocalBeanDefinition(beanName);
+    }
+
+    /**
+     * Return a merged RootBeanDefinition, traversing the parent bean definition
+     * if the specified bean corresponds to a child bean definition.
+     * <p>父定义链只在第一次访问时展开，之后直接读取缓存
+     * @param beanName the name of the bean to retrieve the merged definition for
+     * @return a (potentially merged) RootBeanDefinition for the given bean
+     */
+    protected RootBeanDefinition getMergedLocalBeanDefinition(String beanName) throws BeansException {
+        FrozenConfiguration frozen = this.frozenConfiguration;
+        RootBeanDefinition mbd = (frozen != null ? frozen.getMergedBeanDefinition(beanName) :
+                this.mergedBeanDefinitions.get(beanName));
+        if (mbd != null) {
+            return mbd;
+        }
+        return getMergedBeanDefinition(beanName, getBeanDefinition(beanName));
+    }
+
+    /**
+     * Return a RootBeanDefinition for the given bean, by merging with the
+     * parent if the given bean's definition is a child bean definition.
+     * @param beanName the name of the bean definition
+     * @param bd the original bean definition (Root/ChildBeanDefinition)
+     * @return a (potentially merged) RootBeanDefinition for the given bean
+     */
+    protected RootBeanDefinition getMergedBeanDefinition(String beanName, BeanDefinition bd) throws BeansException {
+        synchronized (this.mergedBeanDefinitions) {
+            FrozenConfiguration frozen = this.frozenConfiguration;
+            RootBeanDefinition mbd = (frozen != null ? frozen.getMergedBeanDefinition(beanName) :
+                    this.mergedBeanDefinitions.get(beanName));
+            if (mbd != null) {
+                return mbd;
+            }
+            if (!this.currentlyMergedBeanNames.add(beanName)) {
+                throw new BeanCreationException(beanName, "Circular parent relationship between bean definitions " +
+                        this.currentlyMergedBeanNames);
+            }
+            try {
+                String parentName = bd.getParentName();
+                if (parentName == null) {
+                    mbd = new RootBeanDefinition(bd);
+                }
+                else {
+                    BeanDefinition pbd;
+                    if (!parentName.equals(beanName) && containsBeanDefinition(parentName)) {
+                        pbd = getMergedLocalBeanDefinition(parentName);
+                    }
+                    else if (this.parentBeanFactory instanceof DefaultListableBeanFactory) {
+                        pbd = ((DefaultListableBeanFactory) this.parentBeanFactory).getMergedBeanDefinition(parentName);
+                    }
+                    else {
+                        throw new NoSuchBeanDefinitionException(parentName,
+                                "Could not resolve parent bean definition '" + parentName + "' for bean '" + beanName + "'");
+                    }
+                    mbd = new RootBeanDefinition(pbd);
+                    mbd.overrideFrom(bd);
+                }
+                if (!StringUtils.hasLength(mbd.getScope())) {
+                    mbd.setScope(BeanDefinition.SCOPE_SINGLETON);
+                }
+                this.mergedBeanDefinitions.put(beanName, mbd);
+                return mbd;
+            }
+            finally {
+                this.currentlyMergedBeanNames.remove(beanName);
+            }
+        }
+    }
+
+    /**
+     * 清除指定 bean 及其所有子孙定义的合并缓存，子孙的类型需要重新推断。
+     * 调用方需持有 beanDefinitionMap 锁；子孙已创建的单例只记录到 {@code staleSingletons}，
+     * 由调用方在释放锁之后通过 {@link #destroyStaleSingletons} 销毁
+     */
+    private void resetBeanDefinition(String beanName, List<String> staleSingletons) {
+        Deque<String> toReset = new ArrayDeque<String>();
+        Set<String> seen = new HashSet<String>();
+        toReset.add(beanName);
+        while (!toReset.isEmpty()) {
+            String name = toReset.poll();
+            if (!seen.add(name)) {
+                continue;
+            }
+            synchronized (this.mergedBeanDefinitions) {
+                this.mergedBeanDefinitions.remove(name);
+            }
+            if (!name.equals(beanName) && this.beanDefinitionMap.containsKey(name)) {
+                staleSingletons.add(name);
+                removeFromTypeIndex(name);
+                this.unindexedBeanNames.add(name);
+                this.hasUnindexedBeanNames = true;
+            }
+            Set<String> children = this.childBeanNames.get(name);
+            if (children != null) {
+                toReset.addAll(children);
+            }
+        }
+    }
+
+    /**
+     * 销毁定义被重置的子孙 bean 的单例，依赖它们的单例随之销毁。
+     * 不能在持有 beanDefinitionMap 锁时调用：销毁回调可能再访问注册表
+     */
+    private void destroyStaleSingletons(List<String> beanNames) {
+        for (String beanName : beanNames) {
+            destroySingleton(beanName);
+        }
     }
 
     @Override
     public void registerBeanDefinition(String beanName, BeanDefinition beanDefinition) {
+        List<String> staleSingletons = new ArrayList<String>();
         synchronized (this.beanDefinitionMap) {
+            assertConfigurationNotFrozen(beanName);
             BeanDefinition oldBeanDefinition = this.beanDefinitionMap.get(beanName);
             if (oldBeanDefinition != null) {
                 throw new BeansException("registerBeanDefinition error");
-            } else {
-                this.beanDefinitionNames.add(beanName);
             }
             this.beanDefinitionMap.put(beanName, beanDefinition);
+            doRegisterBeanDefinition(beanName, beanDefinition, staleSingletons);
+            this.frozenBeanDefinitionNames = null;
+        }
+        destroyStaleSingletons(staleSingletons);
+    }
+
+    /**
+     * 批量注册：先校验整批定义，任何一个名称冲突都不会注册其中任何定义；
+     * 校验通过后在批量写锁下一次写入全部定义，无锁的读取方要么看到整批，要么一个也看不到。
+     * 名称快照也只重建一次
+     */
+    @Override
+    public void registerBeanDefinitions(Map<String, BeanDefinition> beanDefinitions) {
+        for (Map.Entry<String, BeanDefinition> entry : beanDefinitions.entrySet()) {
+            if (!StringUtils.hasLength(entry.getKey())) {
+                throw new IllegalArgumentException("Bean name must not be empty");
+            }
+            if (entry.getValue() == null) {
+                throw new IllegalArgumentException("BeanDefinition for bean '" + entry.getKey() + "' must not be null");
+            }
+        }
+        List<String> staleSingletons = new ArrayList<String>();
+        synchronized (this.beanDefinitionMap) {
+            for (String beanName : beanDefinitions.keySet()) {
+                assertConfigurationNotFrozen(beanName);
+                if (this.beanDefinitionMap.containsKey(beanName)) {
+                    throw new BeansException("registerBeanDefinition error: bean name '" + beanName + "' is already in use");
+                }
+            }
+            long stamp = this.batchLock.writeLock();
+            try {
+                this.beanDefinitionMap.putAll(beanDefinitions);
+            }
+            finally {
+                this.batchLock.unlockWrite(stamp);
+            }
+            for (Map.Entry<String, BeanDefinition> entry : beanDefinitions.entrySet()) {
+                doRegisterBeanDefinition(entry.getKey(), entry.getValue(), staleSingletons);
+            }
+            this.frozenBeanDefinitionNames = null;
+        }
+        destroyStaleSingletons(staleSingletons);
+    }
+
+    /**
+     * 为已写入的定义维护名称、父子关系与类型索引。调用方需持有 beanDefinitionMap 锁
+     */
+    private void doRegisterBeanDefinition(String beanName, BeanDefinition beanDefinition,
+                                          List<String> staleSingletons) {
+        if (this.beanDefinitionNames.add(beanName)) {
+            this.registrationOrder.put(beanName, this.registrationCounter++);
+        }
+        resetBeanDefinition(beanName, staleSingletons);
+        String parentName = beanDefinition.getParentName();
+        if (parentName != null) {
+            Set<String> children = this.childBeanNames.get(parentName);
+            if (children == null) {
+                children = new LinkedHashSet<String>(4);
+                this.childBeanNames.put(parentName, children);
+            }
+            children.add(beanName);
+        }
+        if (beanDefinition instanceof AbstractBeanDefinition && parentName == null &&
+                beanDefinition.getFactoryMethodName() == null &&
+                ((AbstractBeanDefinition) beanDefinition).hasBeanClass()) {
+            addToTypeIndex(beanName, beanDefinition, ((AbstractBeanDefinition) beanDefinition).getBeanClass());
+        }
+        else {
+            // 仅有类名时不在注册阶段加载类，留到第一次按类型查找时解析
+            this.unindexedBeanNames.add(beanName);
+            this.hasUnindexedBeanNames = true;
         }
     }
 
     @Override
     public void removeBeanDefinition(String beanName) throws NoSuchBeanDefinitionException {
-        beanDefinitionMap.remove(beanName);
+        List<String> staleSingletons = new ArrayList<String>();
+        synchronized (this.beanDefinitionMap) {
+            assertConfigurationNotFrozen(beanName);
+            BeanDefinition bd = this.beanDefinitionMap.remove(beanName);
+            if (bd == null) {
+                throw new NoSuchBeanDefinitionException(beanName);
+            }
+            this.beanDefinitionNames.remove(beanName);
+            this.frozenBeanDefinitionNames = null;
+            removeFromTypeIndex(beanName);
+            String parentName = bd.getParentName();
+            if (parentName != null) {
+                Set<String> siblings = this.childBeanNames.get(parentName);
+                if (siblings != null && siblings.remove(beanName) && siblings.isEmpty()) {
+                    this.childBeanNames.remove(parentName);
+                }
+            }
+            resetBeanDefinition(beanName, staleSingletons);
+            this.registrationOrder.remove(beanName);
+        }
+        // 定义被移除后，对应的单例实例以及子孙定义的单例都不再有效，依赖它们的单例随之销毁
+        destroySingleton(beanName);
+        destroyStaleSingletons(staleSingletons);
     }
 
     @Override
     public BeanDefinition getBeanDefinition(String beanName) throws NoSuchBeanDefinitionException {
-        return beanDefinitionMap.get(beanName);
+        FrozenConfiguration frozen = this.frozenConfiguration;
+        BeanDefinition bd = (frozen != null ? frozen.getBeanDefinition(beanName) : getRegisteredBeanDefinition(beanName));
+        if (bd == null) {
+            throw new NoSuchBeanDefinitionException(beanName);
+        }
+        return bd;
     }
 
     @Override
     public boolean containsBeanDefinition(String beanName) {
-        return beanDefinitionNames.contains(beanName);
+        FrozenConfiguration frozen = this.frozenConfiguration;
+        return (frozen != null ? frozen.getBeanDefinition(beanName) : getRegisteredBeanDefinition(beanName)) != null;
+    }
+
+    /**
+     * 乐观读：读取期间有批量注册正在写入时，等批次写完再读一次。
+     * 读取期间配置刚被冻结时，可变表可能已经清空，改从冻结表读取
+     */
+    private BeanDefinition getRegisteredBeanDefinition(String beanName) {
+        long stamp = this.batchLock.tryOptimisticRead();
+        BeanDefinition bd = this.beanDefinitionMap.get(beanName);
+        if (!this.batchLock.validate(stamp)) {
+            stamp = this.batchLock.readLock();
+            try {
+                bd = this.beanDefinitionMap.get(beanName);
+            }
+            finally {
+                this.batchLock.unlockRead(stamp);
+            }
+        }
+        if (bd == null) {
+            FrozenConfiguration frozen = this.frozenConfiguration;
+            if (frozen != null) {
+                return frozen.getBeanDefinition(beanName);
+            }
+        }
+        return bd;
     }
 
+    /**
+     * Return the names of all beans defined in this factory, in registration order.
+     * <p>返回的是名称快照的副本，只做一次数组复制；只需遍历时使用
+     * {@link #getBeanDefinitionNameList()}，不产生复制
+     */
     @Override
     public String[] getBeanDefinitionNames() {
-        return beanDefinitionNames.toArray(new String[0]);
+        return getBeanDefinitionNameList().toArray(new String[0]);
+    }
+
+    /**
+     * Return an unmodifiable snapshot of the bean definition names, in registration order.
+     * <p>快照在两次注册之间被复用，遍历名称时不需要每次复制
+     * @return the names of all beans defined in this registry
+     */
+    public List<String> getBeanDefinitionNameList() {
+        FrozenConfiguration frozen = this.frozenConfiguration;
+        if (frozen != null) {
+            return frozen.beanDefinitionNameList;
+        }
+        List<String> names = this.frozenBeanDefinitionNames;
+        if (names == null) {
+            synchronized (this.beanDefinitionMap) {
+                frozen = this.frozenConfiguration;
+                if (frozen != null) {
+                    return frozen.beanDefinitionNameList;
+                }
+                names = this.frozenBeanDefinitionNames;
+                if (names == null) {
+                    names = Collections.unmodifiableList(
+                            Arrays.asList(this.beanDefinitionNames.toArray(new String[0])));
+                    this.frozenBeanDefinitionNames = names;
+                }
+            }
+        }
+        return names;
     }
 
     @Override
     public int getBeanDefinitionCount() {
-        return beanDefinitionMap.size();
+        return getBeanDefinitionNameList().size();
     }
+
+    /**
+     * Freeze all bean definitions, signalling that the registered bean definitions
+     * will not be modified or post-processed any further.
+     * <p>The definitions, merged definitions, names and type index are compacted
+     * into immutable array-backed tables that serve all subsequent lookups;
+     * the mutable definition map, merged definition cache, name set and type
+     * index are released, so that only the compact tables remain. Registering or removing bean
+     * definitions afterwards throws an {@link IllegalStateException}.
+     */
+    public void freezeConfiguration() {
+        synchronized (this.beanDefinitionMap) {
+            if (this.frozenConfiguration != null) {
+                return;
+            }
+            indexPendingBeanTypes();
+            List<String> beanNames = getBeanDefinitionNameList();
+            CompactHashIndex nameIndex = new CompactHashIndex(beanNames);
+            BeanDefinition[] definitions = new BeanDefinition[nameIndex.capacity()];
+            RootBeanDefinition[] mergedDefinitions = new RootBeanDefinition[nameIndex.capacity()];
+            Class<?>[] beanTypes = new Class<?>[nameIndex.capacity()];
+            for (String beanName : beanNames) {
+                int slot = nameIndex.indexOf(beanName);
+                definitions[slot] = this.beanDefinitionMap.get(beanName);
+                try {
+                    mergedDefinitions[slot] = getMergedLocalBeanDefinition(beanName);
+                }
+                catch (BeansException ex) {
+                    // 合并失败的定义保留原样，访问时再报告错误
+                }
+                beanTypes[slot] = this.resolvedBeanTypes.get(beanName);
+            }
+
+            CompactHashIndex typeIndex = new CompactHashIndex(this.beanNamesByType.keySet());
+            String[][] allBeanNames = new String[typeIndex.capacity()][];
+            String[][] singletonBeanNames = new String[typeIndex.capacity()][];
+            for (Map.Entry<Class<?>, Set<String>> entry : this.beanNamesByType.entrySet()) {
+                int slot = typeIndex.indexOf(entry.getKey());
+                String[] all = entry.getValue().toArray(new String[0]);
+                List<String> singletons = new ArrayList<String>(all.length);
+                for (String beanName : all) {
+                    RootBeanDefinition mbd = mergedDefinitions[nameIndex.indexOf(beanName)];
+                    if (mbd != null && mbd.isSingleton()) {
+                        singletons.add(beanName);
+                    }
+                }
+                allBeanNames[slot] = all;
+                singletonBeanNames[slot] = (singletons.size() == all.length ? all : singletons.toArray(new String[0]));
+            }
+
+            this.frozenConfiguration = new FrozenConfiguration(beanNames, nameIndex, definitions,
+                    mergedDefinitions, beanTypes, typeIndex, allBeanNames, singletonBeanNames);
+
+            // 以下结构只在注册阶段使用，冻结后由只读表代替，释放以免与只读表同时占用内存
+            long stamp = this.batchLock.writeLock();
+            try {
+                this.beanDefinitionMap.clear();
+            }
+            finally {
+                this.batchLock.unlockWrite(stamp);
+            }
+            synchronized (this.mergedBeanDefinitions) {
+                this.mergedBeanDefinitions.clear();
+            }
+            this.beanDefinitionNames.clear();
+            this.registrationOrder.clear();
+            this.beanNamesByType.clear();
+            this.allBeanNamesByType.clear();
+            this.singletonBeanNamesByType.clear();
+            this.resolvedBeanTypes.clear();
+            this.childBeanNames.clear();
+            this.frozenBeanDefinitionNames = null;
+        }
+    }
+
+    /**
+     * Return whether this factory's bean definitions are frozen,
+     * i.e. are not supposed to be modified or post-processed any further.
+     */
+    public boolean isConfigurationFrozen() {
+        return (this.frozenConfiguration != null);
+    }
+
+    private void assertConfigurationNotFrozen(String beanName) {
+        if (this.frozenConfiguration != null) {
+            throw new IllegalStateException("Cannot modify bean definition '" + beanName +
+                    "': bean factory configuration has been frozen");
+        }
+    }
+
+
+    /**
+     * 冻结后的注册表快照：名称与类型各用一个 {@link CompactHashIndex} 定位下标，
+     * 定义、合并定义、类型和按类型的名称数组都存放在平行数组中，创建后不再修改
+     */
+    private static final class FrozenConfiguration {
+
+        private static final String[] NO_BEAN_NAMES = new String[0];
+
+        final List<String> beanDefinitionNameList;
+
+        private final CompactHashIndex nameIndex;
+
+        private final BeanDefinition[] beanDefinitions;
+
+        private final RootBeanDefinition[] mergedBeanDefinitions;
+
+        private final Class<?>[] beanTypes;
+
+        private final CompactHashIndex typeIndex;
+
+        private final String[][] allBeanNamesByType;
+
+        private final String[][] singletonBeanNamesByType;
+
+        FrozenConfiguration(List<String> beanDefinitionNameList, CompactHashIndex nameIndex,
+                BeanDefinition[] beanDefinitions, RootBeanDefinition[] mergedBeanDefinitions, Class<?>[] beanTypes,
+                CompactHashIndex typeIndex, String[][] allBeanNamesByType, String[][] singletonBeanNamesByType) {
+            this.beanDefinitionNameList = beanDefinitionNameList;
+            this.nameIndex = nameIndex;
+            this.beanDefinitions = beanDefinitions;
+            this.mergedBeanDefinitions = mergedBeanDefinitions;
+            this.beanTypes = beanTypes;
+            this.typeIndex = typeIndex;
+            this.allBeanNamesByType = allBeanNamesByType;
+            this.singletonBeanNamesByType = singletonBeanNamesByType;
+        }
+
+        BeanDefinition getBeanDefinition(String beanName) {
+            int slot = this.nameIndex.indexOf(beanName);
+            return (slot >= 0 ? this.beanDefinitions[slot] : null);
+        }
+
+        RootBeanDefinition getMergedBeanDefinition(String beanName) {
+            int slot = this.nameIndex.indexOf(beanName);
+            return (slot >= 0 ? this.mergedBeanDefinitions[slot] : null);
+        }
+
+        Class<?> getType(String beanName, BeanFactory parentBeanFactory) {
+            int slot = this.nameIndex.indexOf(beanName);
+            if (slot >= 0) {
+                return this.beanTypes[slot];
+            }
+            if (parentBeanFactory != null) {
+                return parentBeanFactory.getType(beanName);
+            }
+            throw new NoSuchBeanDefinitionException(beanName);
+        }
+
+        String[] getBeanNamesForType(Class<?> type, boolean includeNonSingletons) {
+            int slot = this.typeIndex.indexOf(type);
+            if (slot < 0) {
+                return NO_BEAN_NAMES;
+            }
+            return (includeNonSingletons ? this.allBeanNamesByType[slot] : this.singletonBeanNamesByType[slot]);
+        }
+    }
+
 }
@@ -0,0 +1,651 @@
+package com.zavier.beans.factory.support;
+
+import com.zavier.beans.factory.BeanCreationException;
+import com.zavier.beans.factory.BeanCurrentlyInCreationException;
+import com.zavier.beans.factory.ObjectFactory;
+import com.zavier.beans.factory.DisposableBean;
+import com.zavier.beans.factory.config.SingletonBeanRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 单例注册表：已创建的单例通过一次无锁的 {@link ConcurrentHashMap} 读取返回，
+ * 尚未创建的单例只在自己的锁下创建，不同 bean 的创建互不阻塞
+ */
+public class DefaultSingletonBeanRegistry implements SingletonBeanRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(DefaultSingletonBeanRegistry.class);
+
+    /** Cache of singleton objects: bean name --> bean instance */
+    private final Map<String, Object> singletonObjects = new ConcurrentHashMap<String, Object>(256);
+
+    /** Per-bean creation locks: bean name --> lock, released when the singleton is removed */
+    private final Map<String, ReentrantLock> singletonLocks = new ConcurrentHashMap<String, ReentrantLock>(256);
+
+    /** Threads creating a singleton: bean name --> creating thread */
+    private final Map<String, Thread> singletonCreationThreads = new HashMap<String, Thread>(16);
+
+    /** Threads blocked on another thread's singleton creation: thread --> awaited bean name */
+    private final Map<Thread, String> singletonsAwaitedByThread = new HashMap<Thread, String>(16);
+
+    /** Set of registered singletons, containing the bean names in registration order */
+    private final Set<String> registeredSingletons = new LinkedHashSet<String>(256);
+
+    /** Names of beans that are currently in creation */
+    private final Set<String> singletonsCurrentlyInCreation =
+            Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>(16));
+
+    /** Map between dependent bean names: bean name --> Set of dependent bean names */
+    private final Map<String, Set<String>> dependentBeanMap = new ConcurrentHashMap<String, Set<String>>(64);
+
+    /** Map between depending bean names: bean name --> Set of bean names for the bean's dependencies */
+    private final Map<String, Set<String>> dependenciesForBeanMap = new ConcurrentHashMap<String, Set<String>>(64);
+
+    /** Disposable bean instances: bean name --> disposable instance */
+    private final Map<String, DisposableBean> disposableBeans = new LinkedHashMap<String, DisposableBean>();
+
+    private volatile Executor destructionExecutor;
+
+    private volatile long destructionTimeoutMillis;
+
+
+    @Override
+    public void registerSingleton(String beanName, Object singletonObject) {
+        if (beanName == null) {
+            throw new IllegalArgumentException("Bean name must not be null");
+        }
+        if (singletonObject == null) {
+            throw new IllegalArgumentException("Singleton object must not be null");
+        }
+        ReentrantLock lock = lockSingleton(beanName, false);
+        try {
+            Object oldObject = this.singletonObjects.get(beanName);
+            if (oldObject != null) {
+                throw new IllegalStateException("Could not register object [" + singletonObject +
+                        "] under bean name '" + beanName + "': there is already object [" + oldObject + "] bound");
+            }
+            addSingleton(beanName, singletonObject);
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Add the given singleton object to the singleton cache of this factory.
+     * @param beanName the name of the bean
+     * @param singletonObject the singleton object
+     */
+    protected void addSingleton(String beanName, Object singletonObject) {
+        this.singletonObjects.put(beanName, singletonObject);
+        synchronized (this.registeredSingletons) {
+            this.registeredSingletons.add(beanName);
+        }
+    }
+
+    /**
+     * 命中时只有一次 {@link ConcurrentHashMap#get} 读取，不加锁也不分配对象
+     */
+    @Override
+    public Object getSingleton(String beanName) {
+        return this.singletonObjects.get(beanName);
+    }
+
+    /**
+     * Return the (raw) singleton object registered under the given name,
+     * creating and registering a new one if none registered yet.
+     * <p>Creation happens under a lock for this bean name only, so that
+     * unrelated singletons can be created concurrently. A thread that would
+     * wait for a singleton whose creation in turn waits for this thread gets
+     * a {@link BeanCurrentlyInCreationException} instead of deadlocking.
+     * @param beanName the name of the bean
+     * @param singletonFactory the ObjectFactory to lazily create the singleton
+     * with, if necessary
+     * @return the registered singleton object
+     */
+    public Object getSingleton(String beanName, ObjectFactory<?> singletonFactory) {
+        Object singletonObject = this.singletonObjects.get(beanName);
+        if (singletonObject != null) {
+            return singletonObject;
+        }
+        ReentrantLock lock = lockSingleton(beanName, true);
+        try {
+            singletonObject = this.singletonObjects.get(beanName);
+            if (singletonObject == null) {
+                beforeSingletonCreation(beanName);
+                synchronized (this.singletonCreationThreads) {
+                    this.singletonCreationThreads.put(beanName, Thread.currentThread());
+                }
+                try {
+                    singletonObject = singletonFactory.getObject();
+                }
+                finally {
+                    synchronized (this.singletonCreationThreads) {
+                        this.singletonCreationThreads.remove(beanName);
+                    }
+                    afterSingletonCreation(beanName);
+                }
+                if (singletonObject == null) {
+                    throw new BeanCreationException(beanName, "Singleton factory returned null");
+                }
+                addSingleton(beanName, singletonObject);
+            }
+            return singletonObject;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 锁被其他线程持有时，先沿"创建线程 --> 其等待的 bean --> 该 bean 的创建线程"链查找，
+     * 链回到当前线程说明跨线程循环依赖，直接抛出异常而不是阻塞。
+     * 登记等待与检查在同一把监视器下完成，循环中最后一个进入等待的线程一定能发现它
+     */
+    private void acquireSingletonLock(String beanName, ReentrantLock lock) {
+        if (lock.tryLock()) {
+            return;
+        }
+        Thread currentThread = Thread.currentThread();
+        synchronized (this.singletonCreationThreads) {
+            List<String> chain = new ArrayList<String>();
+            String awaited = beanName;
+            while (awaited != null && !chain.contains(awaited)) {
+                chain.add(awaited);
+                Thread creationThread = this.singletonCreationThreads.get(awaited);
+                if (creationThread == null) {
+                    break;
+                }
+                if (creationThread == currentThread) {
+                    throw new BeanCurrentlyInCreationException(beanName, "Requested bean is currently in " +
+                            "creation on another thread that waits for this thread: Is there an unresolvable " +
+                            "circular reference between " + chain + "?");
+                }
+                awaited = this.singletonsAwaitedByThread.get(creationThread);
+            }
+            this.singletonsAwaitedByThread.put(currentThread, beanName);
+        }
+        try {
+            lock.lock();
+        }
+        finally {
+            synchronized (this.singletonCreationThreads) {
+                this.singletonsAwaitedByThread.remove(currentThread);
+            }
+        }
+    }
+
+    /**
+     * Remove the bean with the given name from the singleton cache of this factory.
+     * @param beanName the name of the bean
+     */
+    protected void removeSingleton(String beanName) {
+        // 没有锁说明从未创建或注册过该单例，不为它新建锁
+        ReentrantLock lock = (this.singletonLocks.containsKey(beanName) ? lockSingleton(beanName, false) : null);
+        try {
+            this.singletonObjects.remove(beanName);
+            synchronized (this.registeredSingletons) {
+                this.registeredSingletons.remove(beanName);
+            }
+            if (lock != null) {
+                this.singletonLocks.remove(beanName, lock);
+            }
+        }
+        finally {
+            if (lock != null) {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Move the given registered singletons to the end of the registration order,
+     * in the given order.
+     * <p>用于让并发创建的单例得到与线程调度无关的注册顺序
+     * @param beanNames the names of the singletons, in their intended order
+     */
+    protected void reorderRegisteredSingletons(List<String> beanNames) {
+        synchronized (this.registeredSingletons) {
+            List<String> ordered = new ArrayList<String>(beanNames.size());
+            for (String beanName : beanNames) {
+                if (this.registeredSingletons.remove(beanName)) {
+                    ordered.add(beanName);
+                }
+            }
+            this.registeredSingletons.addAll(ordered);
+        }
+    }
+
+    @Override
+    public boolean containsSingleton(String beanName) {
+        return this.singletonObjects.containsKey(beanName);
+    }
+
+    @Override
+    public String[] getSingletonNames() {
+        synchronized (this.registeredSingletons) {
+            return this.registeredSingletons.toArray(new String[0]);
+        }
+    }
+
+    @Override
+    public int getSingletonCount() {
+        synchronized (this.registeredSingletons) {
+            return this.registeredSingletons.size();
+        }
+    }
+
+    /**
+     * Return whether the specified singleton bean is currently in creation.
+     * @param beanName the name of the bean
+     */
+    public boolean isSingletonCurrentlyInCreation(String beanName) {
+        return this.singletonsCurrentlyInCreation.contains(beanName);
+    }
+
+    /**
+     * Callback before singleton creation.
+     * <p>Called while holding the bean's own creation lock, so a second entry
+     * can only come from the same thread, i.e. a circular reference.
+     * @param beanName the name of the singleton about to be created
+     */
+    protected void beforeSingletonCreation(String beanName) {
+        if (!this.singletonsCurrentlyInCreation.add(beanName)) {
+            throw new BeanCurrentlyInCreationException(beanName);
+        }
+    }
+
+    /**
+     * Callback after singleton creation.
+     * @param beanName the name of the singleton that has been created
+     */
+    protected void afterSingletonCreation(String beanName) {
+        if (!this.singletonsCurrentlyInCreation.remove(beanName)) {
+            throw new IllegalStateException("Singleton '" + beanName + "' isn't currently in creation");
+        }
+    }
+
+    /**
+     * Register a dependent bean for the given bean,
+     * to be destroyed before the given bean is destroyed.
+     * @param beanName the name of the bean
+     * @param dependentBeanName the name of the dependent bean
+     */
+    public void registerDependentBean(String beanName, String dependentBeanName) {
+        synchronized (this.dependentBeanMap) {
+            Set<String> dependentBeans = this.dependentBeanMap.get(beanName);
+            if (dependentBeans == null) {
+                dependentBeans = new LinkedHashSet<String>(8);
+                this.dependentBeanMap.put(beanName, dependentBeans);
+            }
+            if (!dependentBeans.add(dependentBeanName)) {
+                return;
+            }
+            Set<String> dependenciesForBean = this.dependenciesForBeanMap.get(dependentBeanName);
+            if (dependenciesForBean == null) {
+                dependenciesForBean = new LinkedHashSet<String>(8);
+                this.dependenciesForBeanMap.put(dependentBeanName, dependenciesForBean);
+            }
+            dependenciesForBean.add(beanName);
+        }
+    }
+
+    /**
+     * Determine whether the specified dependent bean has been registered as
+     * dependent on the given bean or on any of its transitive dependencies.
+     * @param beanName the name of the bean to check
+     * @param dependentBeanName the name of the dependent bean
+     */
+    protected boolean isDependent(String beanName, String dependentBeanName) {
+        synchronized (this.dependentBeanMap) {
+            return isDependent(beanName, dependentBeanName, null);
+        }
+    }
+
+    private boolean isDependent(String beanName, String dependentBeanName, Set<String> alreadySeen) {
+        if (alreadySeen != null && alreadySeen.contains(beanName)) {
+            return false;
+        }
+        Set<String> dependentBeans = this.dependentBeanMap.get(beanName);
+        if (dependentBeans == null) {
+            return false;
+        }
+        if (dependentBeans.contains(dependentBeanName)) {
+            return true;
+        }
+        for (String transitiveDependency : dependentBeans) {
+            if (alreadySeen == null) {
+                alreadySeen = new HashSet<String>();
+            }
+            alreadySeen.add(beanName);
+            if (isDependent(transitiveDependency, dependentBeanName, alreadySeen)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Return the names of all beans which depend on the specified bean, if any.
+     * @param beanName the name of the bean
+     * @return the array of dependent bean names, or an empty array if none
+     */
+    public String[] getDependentBeans(String beanName) {
+        synchronized (this.dependentBeanMap) {
+            Set<String> dependentBeans = this.dependentBeanMap.get(beanName);
+            return (dependentBeans != null ? dependentBeans.toArray(new String[0]) : new String[0]);
+        }
+    }
+
+    /**
+     * Return the names of all beans that the specified bean depends on, if any.
+     * @param beanName the name of the bean
+     * @return the array of names of beans which the bean depends on,
+     * or an empty array if none
+     */
+    public String[] getDependenciesForBean(String beanName) {
+        synchronized (this.dependentBeanMap) {
+            Set<String> dependenciesForBean = this.dependenciesForBeanMap.get(beanName);
+            return (dependenciesForBean != null ? dependenciesForBean.toArray(new String[0]) : new String[0]);
+        }
+    }
+
+    /**
+     * Set the executor used by {@link #destroySingletons()} to destroy
+     * independent singletons concurrently.
+     * <p>Default is none, destroying all singletons one after another
+     * on the calling thread.
+     */
+    public void setDestructionExecutor(Executor destructionExecutor) {
+        this.destructionExecutor = destructionExecutor;
+    }
+
+    /**
+     * Return the executor used for destroying singletons, if any.
+     */
+    public Executor getDestructionExecutor() {
+        return this.destructionExecutor;
+    }
+
+    /**
+     * Set how long {@link #destroySingletons()} waits for each wave of concurrently
+     * destroyed singletons before moving on to the next one, in milliseconds.
+     * <p>Only applies with a {@link #setDestructionExecutor destruction executor}.
+     * Default is 0, waiting as long as it takes.
+     * <p>A destroy method that is still running when the timeout passes is not
+     * interrupted and keeps running on the executor while later waves proceed.
+     * The beans it depends on, directly or indirectly, are therefore not destroyed
+     * at all, so that they are never shut down while still in use.
+     */
+    public void setDestructionTimeoutMillis(long destructionTimeoutMillis) {
+        this.destructionTimeoutMillis = destructionTimeoutMillis;
+    }
+
+    /**
+     * Return the timeout for each wave of concurrently destroyed singletons.
+     */
+    public long getDestructionTimeoutMillis() {
+        return this.destructionTimeoutMillis;
+    }
+
+    /**
+     * Add the given bean to the list of disposable beans in this registry,
+     * to be destroyed on shutdown of the registry.
+     * @param beanName the name of the bean
+     * @param bean the bean instance
+     */
+    public void registerDisposableBean(String beanName, DisposableBean bean) {
+        synchronized (this.disposableBeans) {
+            this.disposableBeans.put(beanName, bean);
+        }
+    }
+
+    /**
+     * Destroy all singleton beans in this registry, each bean only after all
+     * beans that depend on it.
+     * <p>The singletons are destroyed in waves: every wave contains the beans none
+     * of whose dependents is left. With a {@link #setDestructionExecutor destruction
+     * executor} the beans of a wave are destroyed concurrently, and the next wave
+     * starts once all of them are done or the {@link #setDestructionTimeoutMillis
+     * timeout} has passed; the dependencies of beans whose destruction did not
+     * finish in time are skipped. Exceptions thrown by destroy methods are logged.
+     * <p>循环依赖中剩下的 bean 按注册顺序的逆序逐个销毁
+     */
+    public void destroySingletons() {
+        Map<String, DisposableBean> disposables;
+        synchronized (this.disposableBeans) {
+            disposables = new LinkedHashMap<String, DisposableBean>(this.disposableBeans);
+            this.disposableBeans.clear();
+        }
+        Map<String, Set<String>> dependents = new HashMap<String, Set<String>>();
+        Set<String> remaining = new LinkedHashSet<String>(Arrays.asList(getSingletonNames()));
+        synchronized (this.dependentBeanMap) {
+            for (Map.Entry<String, Set<String>> entry : this.dependentBeanMap.entrySet()) {
+                dependents.put(entry.getKey(), new LinkedHashSet<String>(entry.getValue()));
+                remaining.add(entry.getKey());
+                remaining.addAll(entry.getValue());
+            }
+        }
+        remaining.addAll(disposables.keySet());
+
+        // 超时后仍在销毁的 bean，以及因此跳过的 bean：它们的依赖不能销毁
+        Set<String> unfinished = new HashSet<String>();
+        while (!remaining.isEmpty()) {
+            List<String> wave = new ArrayList<String>();
+            for (String beanName : remaining) {
+                if (Collections.disjoint(dependents.getOrDefault(beanName, Collections.<String>emptySet()), remaining)) {
+                    wave.add(beanName);
+                }
+            }
+            if (wave.isEmpty()) {
+                String last = null;
+                for (String beanName : remaining) {
+                    last = beanName;
+                }
+                wave.add(last);
+            }
+            Collections.reverse(wave);
+            remaining.removeAll(wave);
+            if (!unfinished.isEmpty()) {
+                List<String> skipped = new ArrayList<String>();
+                for (String beanName : wave) {
+                    if (!Collections.disjoint(dependents.getOrDefault(beanName, Collections.<String>emptySet()), unfinished)) {
+                        skipped.add(beanName);
+                    }
+                }
+                if (!skipped.isEmpty()) {
+                    logger.warn("Not destroying {}: beans depending on them are still being destroyed", skipped);
+                    wave.removeAll(skipped);
+                    unfinished.addAll(skipped);
+                }
+            }
+            unfinished.addAll(destroyWave(wave, disposables));
+        }
+
+        synchronized (this.registeredSingletons) {
+            this.singletonObjects.clear();
+            this.registeredSingletons.clear();
+        }
+        synchronized (this.dependentBeanMap) {
+            this.dependentBeanMap.clear();
+            this.dependenciesForBeanMap.clear();
+        }
+        // 正在创建中的单例仍持有自己的锁，只释放空闲的锁
+        for (Map.Entry<String, ReentrantLock> entry : this.singletonLocks.entrySet()) {
+            ReentrantLock lock = entry.getValue();
+            if (lock.tryLock()) {
+                try {
+                    this.singletonLocks.remove(entry.getKey(), lock);
+                }
+                finally {
+                    lock.unlock();
+                }
+            }
+        }
+    }
+
+    /**
+     * 同一波次中的 bean 互不依赖：有执行器时并发销毁并限时等待，否则依次销毁
+     * @return the names of the beans whose destruction has not finished
+     */
+    private List<String> destroyWave(List<String> wave, Map<String, DisposableBean> disposables) {
+        Executor executor = this.destructionExecutor;
+        Map<String, CompletableFuture<Void>> futures = new LinkedHashMap<String, CompletableFuture<Void>>();
+        for (String beanName : wave) {
+            DisposableBean bean = disposables.get(beanName);
+            if (bean == null) {
+                continue;
+            }
+            if (executor != null) {
+                futures.put(beanName, CompletableFuture.runAsync(() -> invokeDestroy(beanName, bean), executor));
+            }
+            else {
+                invokeDestroy(beanName, bean);
+            }
+        }
+        if (futures.isEmpty()) {
+            return Collections.emptyList();
+        }
+        CompletableFuture<Void> all = CompletableFuture.allOf(futures.values().toArray(new CompletableFuture<?>[0]));
+        long timeout = this.destructionTimeoutMillis;
+        try {
+            if (timeout > 0) {
+                all.get(timeout, TimeUnit.MILLISECONDS);
+            }
+            else {
+                all.get();
+            }
+        }
+        catch (TimeoutException ex) {
+            // 按超时时的状态判断，之后才完成的也视为未完成
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        catch (ExecutionException ex) {
+            // invokeDestroy 已记录异常，这里只可能是执行器拒绝了任务
+            logger.warn("Failed to destroy beans {}", wave, ex.getCause());
+        }
+        List<String> unfinished = new ArrayList<String>();
+        for (Map.Entry<String, CompletableFuture<Void>> entry : futures.entrySet()) {
+            if (!entry.getValue().isDone()) {
+                unfinished.add(entry.getKey());
+            }
+        }
+        if (!unfinished.isEmpty()) {
+            logger.warn("Gave up waiting for {} of {} bean(s) to be destroyed after {} ms: {}",
+                    unfinished.size(), futures.size(), timeout, unfinished);
+        }
+        return unfinished;
+    }
+
+    /**
+     * Destroy the given bean. Delegates to {@code destroyBean}
+     * if a corresponding disposable bean instance is found.
+     * @param beanName the name of the bean
+     * @see #destroyBean
+     */
+    public void destroySingleton(String beanName) {
+        removeSingleton(beanName);
+        DisposableBean disposableBean;
+        synchronized (this.disposableBeans) {
+            disposableBean = this.disposableBeans.remove(beanName);
+        }
+        destroyBean(beanName, disposableBean);
+    }
+
+    /**
+     * Destroy the given bean. Must destroy beans that depend on the given
+     * bean before the bean itself.
+     * @param beanName the name of the bean
+     * @param bean the bean instance to destroy, or {@code null} if none
+     */
+    protected void destroyBean(String beanName, DisposableBean bean) {
+        Set<String> dependencies;
+        synchronized (this.dependentBeanMap) {
+            dependencies = this.dependentBeanMap.remove(beanName);
+        }
+        if (dependencies != null) {
+            for (String dependentBeanName : dependencies) {
+                destroySingleton(dependentBeanName);
+            }
+        }
+        if (bean != null) {
+            invokeDestroy(beanName, bean);
+        }
+        synchronized (this.dependentBeanMap) {
+            for (Set<String> dependenciesToClean : this.dependentBeanMap.values()) {
+                dependenciesToClean.remove(beanName);
+            }
+            this.dependentBeanMap.values().removeIf(Set::isEmpty);
+            this.dependenciesForBeanMap.remove(beanName);
+        }
+    }
+
+    private static void invokeDestroy(String beanName, DisposableBean bean) {
+        try {
+            bean.destroy();
+        }
+        catch (Throwable ex) {
+            logger.warn("Destroy method on bean with name '{}' threw an exception", beanName, ex);
+        }
+    }
+
+    /**
+     * 获取指定 bean 专属的创建锁并返回它。锁可能在等待期间随单例一起被移除，
+     * 拿到锁后确认它仍是当前登记的锁，否则释放后重新获取
+     * @param detectCycles whether to check for cross-thread creation cycles before blocking
+     */
+    private ReentrantLock lockSingleton(String beanName, boolean detectCycles) {
+        while (true) {
+            ReentrantLock lock = getSingletonLock(beanName);
+            if (detectCycles) {
+                acquireSingletonLock(beanName, lock);
+            }
+            else {
+                lock.lock();
+            }
+            if (this.singletonLocks.get(beanName) == lock) {
+                return lock;
+            }
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 返回当前登记的单例创建锁数量，供测试确认锁会随单例一起释放
+     */
+    int getSingletonLockCount() {
+        return this.singletonLocks.size();
+    }
+
+    /**
+     * 返回指定 bean 专属的创建锁
+     */
+    private ReentrantLock getSingletonLock(String beanName) {
+        ReentrantLock lock = this.singletonLocks.get(beanName);
+        if (lock == null) {
+            lock = this.singletonLocks.computeIfAbsent(beanName, k -> new ReentrantLock());
+        }
+        return lock;
+    }
+
+}
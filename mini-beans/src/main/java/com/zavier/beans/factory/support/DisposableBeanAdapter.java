@@ -0,0 +1,107 @@
+package com.zavier.beans.factory.support;
+
+import com.zavier.beans.CachedIntrospectionResults;
+import com.zavier.beans.factory.BeanCreationException;
+import com.zavier.beans.factory.DisposableBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandle;
+
+/**
+ * Adapter that performs the destruction steps on a given bean instance:
+ * {@link DisposableBean#destroy()} if implemented, followed by the configured
+ * destroy method.
+ * <p>销毁方法句柄取自 {@link CachedIntrospectionResults}，同一个类只解析一次
+ */
+final class DisposableBeanAdapter implements DisposableBean, Runnable {
+
+    private static final Logger logger = LoggerFactory.getLogger(DisposableBeanAdapter.class);
+
+    private static final String CLOSE_METHOD_NAME = "close";
+
+    private static final String SHUTDOWN_METHOD_NAME = "shutdown";
+
+    private final String beanName;
+
+    private final Object bean;
+
+    private final boolean invokeDisposableBean;
+
+    private final MethodHandle destroyMethod;
+
+    private DisposableBeanAdapter(String beanName, Object bean, boolean invokeDisposableBean,
+            MethodHandle destroyMethod) {
+        this.beanName = beanName;
+        this.bean = bean;
+        this.invokeDisposableBean = invokeDisposableBean;
+        this.destroyMethod = destroyMethod;
+    }
+
+    /**
+     * Create an adapter for the given bean instance.
+     * @param beanName the name of the bean
+     * @param bean the bean instance
+     * @param bd the merged bean definition
+     * @return the adapter, or {@code null} if the bean has nothing to destroy
+     * @throws BeanCreationException if an explicitly specified destroy method does not exist
+     */
+    static DisposableBeanAdapter forBean(String beanName, Object bean, AbstractBeanDefinition bd) {
+        boolean invokeDisposableBean = (bean instanceof DisposableBean);
+        String destroyMethodName = bd.getDestroyMethodName();
+        MethodHandle destroyMethod = null;
+        if (destroyMethodName != null && !(invokeDisposableBean && "destroy".equals(destroyMethodName))) {
+            CachedIntrospectionResults results = CachedIntrospectionResults.forClass(bean.getClass());
+            if (AbstractBeanDefinition.INFER_METHOD.equals(destroyMethodName)) {
+                destroyMethod = results.getLifecycleMethodHandle(CLOSE_METHOD_NAME);
+                if (destroyMethod == null) {
+                    destroyMethod = results.getLifecycleMethodHandle(SHUTDOWN_METHOD_NAME);
+                }
+            }
+            else {
+                destroyMethod = results.getLifecycleMethodHandle(destroyMethodName);
+                if (destroyMethod == null && bd.isEnforceDestroyMethod()) {
+                    throw new BeanCreationException(beanName, "Could not find a destroy method named '" +
+                            destroyMethodName + "' on bean with name '" + beanName + "'");
+                }
+            }
+        }
+        if (!invokeDisposableBean && destroyMethod == null) {
+            return null;
+        }
+        return new DisposableBeanAdapter(beanName, bean, invokeDisposableBean, destroyMethod);
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (this.invokeDisposableBean) {
+            ((DisposableBean) this.bean).destroy();
+        }
+        if (this.destroyMethod != null) {
+            try {
+                this.destroyMethod.invokeExact(this.bean);
+            }
+            catch (Exception | Error ex) {
+                throw ex;
+            }
+            catch (Throwable ex) {
+                throw new IllegalStateException("Destroy method on bean with name '" + this.beanName +
+                        "' threw an exception", ex);
+            }
+        }
+    }
+
+    /**
+     * 作为作用域的销毁回调使用，异常只记录日志
+     */
+    @Override
+    public void run() {
+        try {
+            destroy();
+        }
+        catch (Throwable ex) {
+            logger.warn("Destroy method on bean with name '{}' threw an exception", this.beanName, ex);
+        }
+    }
+
+}
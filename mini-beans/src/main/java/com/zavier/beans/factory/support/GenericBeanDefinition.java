@@ -1,12 +1,31 @@
 package com.zavier.beans.factory.support;
 
+import com.zavier.beans.factory.config.BeanDefinition;
+
 public class GenericBeanDefinition extends AbstractBeanDefinition {
 
     private String parentName;
 
+    /**
+     * Create a new GenericBeanDefinition, to be configured through its bean
+     * properties and configuration methods.
+     */
+    public GenericBeanDefinition() {
+        super();
+    }
+
+    /**
+     * Create a new GenericBeanDefinition as deep copy of the given
+     * bean definition.
+     * @param original the original bean definition to copy from
+     */
+    public GenericBeanDefinition(BeanDefinition original) {
+        super(original);
+    }
+
     @Override
     public String getParentName() {
-        return null;
+        return this.parentName;
     }
 
     @Override
@@ -14,4 +33,9 @@ public class GenericBeanDefinition extends AbstractBeanDefinition {
         this.parentName = parentName;
     }
 
+    @Override
+    public AbstractBeanDefinition cloneBeanDefinition() {
+        return new GenericBeanDefinition(this);
+    }
+
 }
@@ -0,0 +1,181 @@
+package com.zavier.beans.factory.support;
+
+import com.zavier.beans.BeansException;
+import com.zavier.beans.CachedIntrospectionResults;
+import com.zavier.beans.PropertyValue;
+import com.zavier.beans.PropertyValues;
+import com.zavier.beans.TypeMismatchException;
+import com.zavier.beans.factory.BeanCreationException;
+import com.zavier.beans.factory.config.TypedStringValue;
+import com.zavier.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * 一个合并后 bean 定义的属性注入计划：setter 的句柄与参数类型、字面值的转换结果
+ * 都只在第一次创建实例时解析。之后每次创建（例如原型 bean）只需为 bean 引用
+ * 调用一次 getBean，其余属性直接赋予已转换的值
+ */
+final class PropertyInjector {
+
+    /** 字面值需要类型转换时的权重，总是比不需要转换的匹配差 */
+    private static final int CONVERSION_WEIGHT = Integer.MAX_VALUE / 2;
+
+    private final Class<?> beanClass;
+
+    private final String[] propertyNames;
+
+    private final Class<?>[] propertyTypes;
+
+    private final BiConsumer<Object, Object>[] setters;
+
+    private final ResolvedValue[] values;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private PropertyInjector(Class<?> beanClass, int size) {
+        this.beanClass = beanClass;
+        this.propertyNames = new String[size];
+        this.propertyTypes = new Class<?>[size];
+        this.setters = new BiConsumer[size];
+        this.values = new ResolvedValue[size];
+    }
+
+    /**
+     * Resolve the setters and values for the given property values.
+     * <p>属性有重载的 setter 时选择类型差距最小的一个：指定了类型的字面值优先匹配该类型，
+     * 未指定类型的字符串优先匹配无需转换的参数（如 {@code String}），bean 引用按被引用
+     * bean 的类型匹配。最小差距相同的 setter 不止一个时视为有歧义，抛出异常
+     * @param beanName the name of the bean (for error handling purposes)
+     * @param beanClass the class of the bean instances to inject
+     * @param pvs the property values of the bean definition
+     * @param typeResolver resolves the type of a referenced bean, if determinable
+     * @param classLoader the ClassLoader to resolve explicitly specified value types with
+     * @return the resolved injector
+     * @throws BeanCreationException if a property is not writable or a value cannot be converted
+     */
+    static PropertyInjector resolve(String beanName, Class<?> beanClass, PropertyValues pvs,
+                                    Function<String, Class<?>> typeResolver, ClassLoader classLoader) {
+        PropertyValue[] propertyValues = pvs.getPropertyValues();
+        PropertyInjector injector = new PropertyInjector(beanClass, propertyValues.length);
+        for (int i = 0; i < propertyValues.length; i++) {
+            PropertyValue pv = propertyValues[i];
+            List<Method> candidates = CachedIntrospectionResults.forClass(beanClass).getWriteMethods(pv.getName());
+            if (candidates.isEmpty()) {
+                throw new BeanCreationException(beanName, "Invalid property '" + pv.getName() + "' of bean class [" +
+                        beanClass.getName() + "]: Bean property '" + pv.getName() + "' is not writable");
+            }
+            Method setter = null;
+            ResolvedValue value = null;
+            int bestWeight = Integer.MAX_VALUE;
+            List<Method> ambiguousSetters = null;
+            TypeMismatchException mismatch = null;
+            for (Method candidate : candidates) {
+                Class<?> paramType = candidate.getParameterTypes()[0];
+                ResolvedValue resolved;
+                try {
+                    resolved = ResolvedValue.resolve(pv.getValue(), paramType, classLoader);
+                }
+                catch (TypeMismatchException ex) {
+                    mismatch = ex;
+                    continue;
+                }
+                int weight;
+                if (resolved.getBeanName() != null) {
+                    // 有重载的 setter 时按被引用 bean 的类型选择
+                    Class<?> refType = (candidates.size() > 1 ? typeResolver.apply(resolved.getBeanName()) : null);
+                    if (refType != null && !paramType.isAssignableFrom(refType)) {
+                        continue;
+                    }
+                    weight = (refType != null ? ClassUtils.getTypeDifferenceWeight(paramType, refType) : 0);
+                }
+                else {
+                    weight = getLiteralWeight(pv.getValue(), paramType, resolved.getValue());
+                }
+                if (weight < bestWeight) {
+                    setter = candidate;
+                    value = resolved;
+                    bestWeight = weight;
+                    ambiguousSetters = null;
+                }
+                else if (weight == bestWeight) {
+                    if (ambiguousSetters == null) {
+                        ambiguousSetters = new ArrayList<Method>(2);
+                        ambiguousSetters.add(setter);
+                    }
+                    ambiguousSetters.add(candidate);
+                }
+            }
+            if (setter == null) {
+                throw new BeanCreationException(beanName, "Failed to convert value of " + pv, mismatch);
+            }
+            if (ambiguousSetters != null) {
+                throw new BeanCreationException(beanName, "Ambiguous setter methods for property '" + pv.getName() +
+                        "' of bean class [" + beanClass.getName() + "]: " + ambiguousSetters +
+                        " - specify the value type to choose one");
+            }
+            injector.propertyNames[i] = pv.getName();
+            injector.propertyTypes[i] = setter.getParameterTypes()[0];
+            injector.setters[i] = BeanInstantiators.forSetter(setter);
+            injector.values[i] = value;
+        }
+        return injector;
+    }
+
+    /**
+     * 字面值与 setter 参数类型的差距：指定了类型的字面值按转换后的类型计算，
+     * 未指定类型的字符串只有在无需转换时才按类型计算
+     */
+    private static int getLiteralWeight(Object rawValue, Class<?> paramType, Object converted) {
+        if (converted == null) {
+            return 0;
+        }
+        boolean untypedString = (rawValue instanceof String ||
+                rawValue instanceof TypedStringValue && ((TypedStringValue) rawValue).getTargetTypeName() == null);
+        if (untypedString && !(converted instanceof String)) {
+            return CONVERSION_WEIGHT;
+        }
+        return ClassUtils.getTypeDifferenceWeight(paramType, converted.getClass());
+    }
+
+    /**
+     * Return the class of the bean instances this injector was resolved for.
+     */
+    Class<?> getBeanClass() {
+        return this.beanClass;
+    }
+
+    /**
+     * Apply the resolved property values to the given bean instance.
+     * @param beanName the name of the bean (for error handling purposes)
+     * @param bean the bean instance to inject
+     * @param beanResolver resolves referenced beans by name
+     */
+    void inject(String beanName, Object bean, Function<String, Object> beanResolver) {
+        for (int i = 0; i < this.setters.length; i++) {
+            ResolvedValue resolved = this.values[i];
+            Object value;
+            if (resolved.getBeanName() != null) {
+                value = beanResolver.apply(resolved.getBeanName());
+                if (!ClassUtils.isAssignableValue(this.propertyTypes[i], value)) {
+                    throw new BeanCreationException(beanName, "Failed to convert value of bean property '" +
+                            this.propertyNames[i] + "'", new TypeMismatchException(value, this.propertyTypes[i]));
+                }
+            }
+            else {
+                value = resolved.getValue();
+            }
+            try {
+                this.setters[i].accept(bean, value);
+            }
+            catch (BeansException ex) {
+                throw new BeanCreationException(beanName, "Error setting bean property '" +
+                        this.propertyNames[i] + "'", ex.getCause() != null ? ex.getCause() : ex);
+            }
+        }
+    }
+
+}
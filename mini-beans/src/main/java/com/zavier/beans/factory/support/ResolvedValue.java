@@ -0,0 +1,78 @@
+package com.zavier.beans.factory.support;
+
+import com.zavier.beans.SimpleTypeConverter;
+import com.zavier.beans.TypeMismatchException;
+import com.zavier.beans.factory.config.RuntimeBeanReference;
+import com.zavier.beans.factory.config.TypedStringValue;
+import com.zavier.util.ClassUtils;
+
+/**
+ * 注入点（setter 参数或构造器参数）上已解析的值：字面值在解析时按目标类型转换好，
+ * bean 引用只记录名称，每次创建实例时再获取
+ */
+final class ResolvedValue {
+
+    private final Object value;
+
+    private final String beanName;
+
+    private ResolvedValue(Object value, String beanName) {
+        this.value = value;
+        this.beanName = beanName;
+    }
+
+    /**
+     * Resolve the given bean definition value for an injection point of the given type.
+     * @param value the value as held by the bean definition
+     * @param requiredType the type of the injection point
+     * @param classLoader the ClassLoader to resolve explicitly specified types with
+     * @return the resolved value
+     * @throws TypeMismatchException if the value cannot be converted to the required type
+     */
+    static ResolvedValue resolve(Object value, Class<?> requiredType, ClassLoader classLoader)
+            throws TypeMismatchException {
+        if (value instanceof RuntimeBeanReference) {
+            return new ResolvedValue(null, ((RuntimeBeanReference) value).getBeanName());
+        }
+        SimpleTypeConverter converter = SimpleTypeConverter.getSharedInstance();
+        Object converted;
+        if (value instanceof TypedStringValue) {
+            TypedStringValue typedValue = (TypedStringValue) value;
+            Class<?> targetType = requiredType;
+            if (typedValue.getTargetTypeName() != null) {
+                try {
+                    targetType = ClassUtils.forName(typedValue.getTargetTypeName(), classLoader);
+                }
+                catch (ClassNotFoundException | LinkageError ex) {
+                    throw new TypeMismatchException(typedValue.getValue(), null, ex);
+                }
+            }
+            converted = converter.convert(typedValue.getValue(), targetType);
+        }
+        else if (value instanceof String && !requiredType.isInstance(value)) {
+            converted = converter.convert((String) value, requiredType);
+        }
+        else {
+            converted = value;
+        }
+        if (!ClassUtils.isAssignableValue(requiredType, converted)) {
+            throw new TypeMismatchException(converted, requiredType);
+        }
+        return new ResolvedValue(converted, null);
+    }
+
+    /**
+     * Return the name of the referenced bean, or {@code null} for a literal value.
+     */
+    String getBeanName() {
+        return this.beanName;
+    }
+
+    /**
+     * Return the converted literal value.
+     */
+    Object getValue() {
+        return this.value;
+    }
+
+}
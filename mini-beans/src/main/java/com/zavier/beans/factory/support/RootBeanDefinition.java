@@ -0,0 +1,53 @@
+package com.zavier.beans.factory.support;
+
+import com.zavier.beans.factory.config.BeanDefinition;
+
+/**
+ * 合并后的 bean 定义：父定义链已经展开，运行时（创建实例、类型推断等）只读取这种定义
+ */
+public class RootBeanDefinition extends AbstractBeanDefinition {
+
+    /**
+     * Create a new RootBeanDefinition, to be configured through its bean
+     * properties and configuration methods.
+     */
+    public RootBeanDefinition() {
+        super();
+    }
+
+    /**
+     * Create a new RootBeanDefinition for a singleton.
+     * @param beanClass the class of the bean to instantiate
+     */
+    public RootBeanDefinition(Class<?> beanClass) {
+        super();
+        setBeanClass(beanClass);
+    }
+
+    /**
+     * Create a new RootBeanDefinition as deep copy of the given
+     * bean definition.
+     * @param original the original bean definition to copy from
+     */
+    public RootBeanDefinition(BeanDefinition original) {
+        super(original);
+    }
+
+    @Override
+    public String getParentName() {
+        return null;
+    }
+
+    @Override
+    public void setParentName(String parentName) {
+        if (parentName != null) {
+            throw new IllegalArgumentException("Root bean cannot be changed into a child bean with parent reference");
+        }
+    }
+
+    @Override
+    public RootBeanDefinition cloneBeanDefinition() {
+        return new RootBeanDefinition(this);
+    }
+
+}
@@ -0,0 +1,132 @@
+package com.zavier.beans.factory.support;
+
+import com.zavier.beans.factory.BeanCreationException;
+import com.zavier.beans.factory.ObjectFactory;
+import com.zavier.beans.factory.config.Scope;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A simple thread-backed {@link Scope} implementation.
+ * <p>每个 bean 名称在第一次使用时分配一个固定编号，每个线程只保存一个按编号
+ * 索引的对象数组：命中时是一次 {@link ThreadLocal} 读取加一次数组下标访问，
+ * 不需要为每个线程维护一个 Map。bean 工厂把编号缓存在合并定义上
+ * （见 {@link BeanSlot}），命中时连按名称查找编号也省去
+ * <p><b>Note:</b> This thread scope does not clean up any objects associated
+ * with it, and destruction callbacks are not supported.
+ */
+public class SimpleThreadScope implements Scope {
+
+    public static final String SCOPE_THREAD = "thread";
+
+    private static final Logger logger = LoggerFactory.getLogger(SimpleThreadScope.class);
+
+    private static final Object[] EMPTY_SCOPE = new Object[0];
+
+    /** bean name --> 在线程数组中的下标 */
+    private final Map<String, Integer> beanIds = new ConcurrentHashMap<String, Integer>(16);
+
+    private final AtomicInteger nextBeanId = new AtomicInteger();
+
+    /** 已提示过不支持销毁回调的 bean 名称，每个名称只记录一次日志 */
+    private final Set<String> unsupportedCallbackBeanNames = ConcurrentHashMap.newKeySet();
+
+    private final ThreadLocal<Object[]> threadScope = new ThreadLocal<Object[]>() {
+        @Override
+        protected Object[] initialValue() {
+            return EMPTY_SCOPE;
+        }
+    };
+
+    @Override
+    public Object get(String name, ObjectFactory<?> objectFactory) {
+        return get(getBeanId(name), name, objectFactory);
+    }
+
+    private Object get(int beanId, String name, ObjectFactory<?> objectFactory) {
+        Object[] scope = this.threadScope.get();
+        if (beanId < scope.length && scope[beanId] != null) {
+            return scope[beanId];
+        }
+        Object scopedObject = objectFactory.getObject();
+        if (scopedObject == null) {
+            throw new BeanCreationException(name, "Scoped object factory returned null");
+        }
+        // 创建过程中可能有同一线程的其它作用域 bean 扩容了数组，需要重新读取
+        scope = this.threadScope.get();
+        if (beanId >= scope.length) {
+            scope = Arrays.copyOf(scope, Math.max(beanId + 1, this.nextBeanId.get()));
+            this.threadScope.set(scope);
+        }
+        scope[beanId] = scopedObject;
+        return scopedObject;
+    }
+
+    @Override
+    public Object remove(String name) {
+        Integer beanId = this.beanIds.get(name);
+        if (beanId == null) {
+            return null;
+        }
+        Object[] scope = this.threadScope.get();
+        if (beanId >= scope.length) {
+            return null;
+        }
+        Object scopedObject = scope[beanId];
+        scope[beanId] = null;
+        return scopedObject;
+    }
+
+    @Override
+    public void registerDestructionCallback(String name, Runnable callback) {
+        if (this.unsupportedCallbackBeanNames.add(name)) {
+            logger.warn("SimpleThreadScope does not support destruction callbacks. " +
+                    "Consider using a custom Scope implementation for bean '{}'.", name);
+        }
+    }
+
+    /**
+     * Return the slot assigned to the given bean name in this scope.
+     */
+    BeanSlot getBeanSlot(String name) {
+        return new BeanSlot(this, name, getBeanId(name));
+    }
+
+    private int getBeanId(String name) {
+        Integer beanId = this.beanIds.get(name);
+        if (beanId == null) {
+            beanId = this.beanIds.computeIfAbsent(name, k -> this.nextBeanId.getAndIncrement());
+        }
+        return beanId;
+    }
+
+
+    /**
+     * 一个 bean 名称在某个作用域实例中的固定编号，由调用方缓存并直接按编号访问
+     */
+    static final class BeanSlot {
+
+        final SimpleThreadScope scope;
+
+        private final String name;
+
+        private final int beanId;
+
+        BeanSlot(SimpleThreadScope scope, String name, int beanId) {
+            this.scope = scope;
+            this.name = name;
+            this.beanId = beanId;
+        }
+
+        Object get(ObjectFactory<?> objectFactory) {
+            return this.scope.get(this.beanId, this.name, objectFactory);
+        }
+    }
+
+}
@@ -0,0 +1,279 @@
+package com.zavier.beans.factory.xml;
+
+import com.zavier.beans.BeansException;
+import com.zavier.beans.PropertyValue;
+import com.zavier.beans.factory.config.BeanDefinition;
+import com.zavier.beans.factory.config.BeanDefinitionHolder;
+import com.zavier.beans.factory.config.ConstructorArgumentValues;
+import com.zavier.beans.factory.config.RuntimeBeanReference;
+import com.zavier.beans.factory.config.TypedStringValue;
+import com.zavier.beans.factory.support.AbstractBeanDefinition;
+import com.zavier.beans.factory.support.GenericBeanDefinition;
+import com.zavier.util.ClassUtils;
+import com.zavier.util.StringUtils;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static com.zavier.beans.factory.xml.DefaultBeanDefinitionDocumentReader.*;
+
+/**
+ * Stateful delegate class used to parse XML bean definitions.
+ * <p>解析逻辑只依赖 {@link AttributeSource}，DOM 与 StAX 两种读取方式共用同一套规则，
+ * 生成的 {@link BeanDefinitionHolder} 完全一致。每次加载使用一个新实例，用于检查重复的 bean 名称
+ */
+public class BeanDefinitionParserDelegate {
+
+    /**
+     * 元素属性的只读视图：属性不存在时返回 {@code null}
+     */
+    public interface AttributeSource {
+
+        String getAttribute(String name);
+    }
+
+
+    private final Set<String> usedNames = new HashSet<String>();
+
+    /**
+     * Determine whether the given namespace URI denotes the default beans namespace.
+     */
+    public static boolean isDefaultNamespace(String namespaceUri) {
+        // 未开启命名空间解析时（如关闭校验）元素没有命名空间，同样按默认命名空间处理
+        return (!StringUtils.hasLength(namespaceUri) || BEANS_NAMESPACE_URI.equals(namespaceUri));
+    }
+
+    /**
+     * Parse the attributes of a {@code <bean>} element.
+     * @param attributes the attributes of the element
+     * @param containingBean the containing bean definition, if any
+     * @return the parsed bean definition holder, or {@code null} if parsing failed
+     */
+    public BeanDefinitionHolder parseBeanDefinitionElement(AttributeSource attributes, BeanDefinition containingBean) {
+        String id = attributes.getAttribute(ID_ATTRIBUTE);
+
+        String beanName = (id != null ? id : "");
+
+        if (containingBean == null) {
+            checkNameUniqueness(beanName);
+        }
+
+        AbstractBeanDefinition beanDefinition = parseBeanDefinitionElement(attributes, beanName, containingBean);
+        if (beanDefinition != null) {
+            if (!StringUtils.hasText(beanName)) {
+                // 原本实现为判断是否有重复，有重复的名称依次 加#1，#2等
+                beanName = beanDefinition.getBeanClassName();
+            }
+            return new BeanDefinitionHolder(beanDefinition, beanName);
+        }
+
+        return null;
+    }
+
+    public void checkNameUniqueness(String beanName) {
+        String foundName = null;
+
+        if (StringUtils.hasText(beanName) && this.usedNames.contains(beanName)) {
+            foundName = beanName;
+        }
+        if (foundName != null) {
+            throw new BeansException("Bean name '" + foundName + "' is already used in this <beans> element");
+        }
+
+        this.usedNames.add(beanName);
+    }
+
+    public AbstractBeanDefinition parseBeanDefinitionElement(
+            AttributeSource attributes, String beanName, BeanDefinition containingBean) {
+
+        String className = attributes.getAttribute(CLASS_ATTRIBUTE);
+        if (className != null) {
+            className = className.trim();
+        }
+
+        try {
+            String parent = attributes.getAttribute(PARENT_ATTRIBUTE);
+            AbstractBeanDefinition bd = createBeanDefinition(className, parent, null);
+
+            parseBeanDefinitionAttributes(attributes, beanName, containingBean, bd);
+
+            // <constructor-arg>、<property> 子元素由读取器遍历后交给
+            // parseConstructorArgElement / parsePropertyElement 处理
+            return bd;
+        }
+        catch (ClassNotFoundException ex) {
+            throw new BeansException("Bean class [" + className + "] not found", ex);
+        }
+        catch (NoClassDefFoundError err) {
+            throw new BeansException("Class that bean class [" + className + "] depends on not found", err);
+        }
+        catch (Throwable ex) {
+            throw new BeansException("Unexpected failure during bean definition parsing", ex);
+        }
+    }
+
+    private AbstractBeanDefinition createBeanDefinition(String className, String parentName, ClassLoader classLoader) throws ClassNotFoundException {
+        GenericBeanDefinition bd = new GenericBeanDefinition();
+        bd.setParentName(parentName);
+        if (className != null) {
+            if (classLoader != null) {
+                bd.setBeanClass(ClassUtils.forName(className, classLoader));
+            }
+            else {
+                bd.setBeanClassName(className);
+            }
+        }
+        return bd;
+    }
+
+    private AbstractBeanDefinition parseBeanDefinitionAttributes(AttributeSource attributes, String beanName,
+                                                                BeanDefinition containingBean, AbstractBeanDefinition bd) {
+        String scope = attributes.getAttribute(SCOPE_ATTRIBUTE);
+        if (scope != null) {
+            bd.setScope(scope);
+        }
+
+        String isAbstract = attributes.getAttribute(ABSTRACT_ATTRIBUTE);
+        if (isAbstract != null) {
+            bd.setAbstract(TRUE_VALUE.equals(isAbstract));
+        }
+
+        String lazyInit = attributes.getAttribute(LAZY_INIT_ATTRIBUTE);
+        bd.setLazyInit(TRUE_VALUE.equals(lazyInit));
+
+        String dependsOn = attributes.getAttribute(DEPENDS_ON_ATTRIBUTE);
+        if (dependsOn != null) {
+            bd.setDependsOn(StringUtils.tokenizeToStringArray(dependsOn, MULTI_VALUE_ATTRIBUTE_DELIMITERS));
+        }
+
+        String factoryMethodName = attributes.getAttribute(FACTORY_METHOD_ATTRIBUTE);
+        if (factoryMethodName != null) {
+            bd.setFactoryMethodName(factoryMethodName);
+        }
+        String factoryBeanName = attributes.getAttribute(FACTORY_BEAN_ATTRIBUTE);
+        if (factoryBeanName != null) {
+            bd.setFactoryBeanName(factoryBeanName);
+        }
+
+        String initMethodName = attributes.getAttribute(INIT_METHOD_ATTRIBUTE);
+        if (initMethodName != null && !"".equals(initMethodName)) {
+            bd.setInitMethodName(initMethodName);
+        }
+
+        String destroyMethodName = attributes.getAttribute(DESTROY_METHOD_ATTRIBUTE);
+        if (destroyMethodName != null && !"".equals(destroyMethodName)) {
+            bd.setDestroyMethodName(destroyMethodName);
+        }
+        return bd;
+    }
+
+    /**
+     * Parse a {@code <property>} element and add it to the given bean definition.
+     * @param attributes the attributes of the element
+     * @param subElementValue the value of the nested value element, as returned by
+     * {@link #parseSubElement}, or {@code null} if none
+     * @param bd the bean definition to add the property value to
+     */
+    public void parsePropertyElement(AttributeSource attributes, Object subElementValue, AbstractBeanDefinition bd) {
+        String propertyName = attributes.getAttribute(NAME_ATTRIBUTE);
+        if (!StringUtils.hasLength(propertyName)) {
+            throw new BeansException("Tag 'property' must have a 'name' attribute");
+        }
+        if (bd.getPropertyValues().contains(propertyName)) {
+            throw new BeansException("Multiple 'property' definitions for property '" + propertyName + "'");
+        }
+        Object value = parsePropertyValue(attributes, subElementValue, "<property> element for property '" + propertyName + "'");
+        bd.getPropertyValues().addPropertyValue(new PropertyValue(propertyName, value));
+    }
+
+    /**
+     * Parse a {@code <constructor-arg>} element and add it to the given bean definition.
+     * @param attributes the attributes of the element
+     * @param subElementValue the value of the nested value element, as returned by
+     * {@link #parseSubElement}, or {@code null} if none
+     * @param bd the bean definition to add the argument value to
+     */
+    public void parseConstructorArgElement(AttributeSource attributes, Object subElementValue, AbstractBeanDefinition bd) {
+        String indexAttr = attributes.getAttribute(INDEX_ATTRIBUTE);
+        String typeAttr = attributes.getAttribute(TYPE_ATTRIBUTE);
+        String nameAttr = attributes.getAttribute(NAME_ATTRIBUTE);
+        Object value = parsePropertyValue(attributes, subElementValue, "<constructor-arg> element");
+        ConstructorArgumentValues.ValueHolder valueHolder = new ConstructorArgumentValues.ValueHolder(
+                value, StringUtils.hasLength(typeAttr) ? typeAttr : null, StringUtils.hasLength(nameAttr) ? nameAttr : null);
+        if (!StringUtils.hasLength(indexAttr)) {
+            bd.getConstructorArgumentValues().addGenericArgumentValue(valueHolder);
+            return;
+        }
+        int index;
+        try {
+            index = Integer.parseInt(indexAttr);
+        }
+        catch (NumberFormatException ex) {
+            throw new BeansException("Attribute 'index' of tag 'constructor-arg' must be an integer", ex);
+        }
+        if (index < 0) {
+            throw new BeansException("'index' cannot be lower than 0");
+        }
+        if (bd.getConstructorArgumentValues().hasIndexedArgumentValue(index)) {
+            throw new BeansException("Ambiguous constructor-arg entries for index " + index);
+        }
+        bd.getConstructorArgumentValues().addIndexedArgumentValue(index, valueHolder);
+    }
+
+    /**
+     * Get the value of a property or constructor argument element: exactly one of
+     * the {@code ref} attribute, the {@code value} attribute or a sub-element is allowed.
+     */
+    private Object parsePropertyValue(AttributeSource attributes, Object subElementValue, String elementName) {
+        String refName = attributes.getAttribute(REF_ATTRIBUTE);
+        String value = attributes.getAttribute(VALUE_ATTRIBUTE);
+        boolean hasRefAttribute = (refName != null);
+        boolean hasValueAttribute = (value != null);
+        if ((hasRefAttribute && hasValueAttribute) ||
+                ((hasRefAttribute || hasValueAttribute) && subElementValue != null)) {
+            throw new BeansException(elementName +
+                    " is only allowed to contain either 'ref' attribute OR 'value' attribute OR sub-element");
+        }
+        if (hasRefAttribute) {
+            if (!StringUtils.hasText(refName)) {
+                throw new BeansException(elementName + " contains empty 'ref' attribute");
+            }
+            return new RuntimeBeanReference(refName);
+        }
+        if (hasValueAttribute) {
+            return new TypedStringValue(value);
+        }
+        if (subElementValue != null) {
+            return subElementValue;
+        }
+        throw new BeansException(elementName + " must specify a ref or value");
+    }
+
+    /**
+     * Parse a value sub-element of a {@code <property>} or {@code <constructor-arg>} element.
+     * <p>只支持 {@code <value>}、{@code <ref>} 与 {@code <null>}，集合与内部 bean 尚未支持
+     * @param localName the local name of the sub-element
+     * @param attributes the attributes of the sub-element
+     * @param text the text content of the sub-element
+     * @return the parsed value (never {@code null}; {@code <null>} is represented
+     * as a {@link TypedStringValue} holding {@code null})
+     */
+    public Object parseSubElement(String localName, AttributeSource attributes, String text) {
+        if (VALUE_ELEMENT.equals(localName)) {
+            String typeName = attributes.getAttribute(TYPE_ATTRIBUTE);
+            return new TypedStringValue(text, StringUtils.hasText(typeName) ? typeName : null);
+        }
+        if (REF_ELEMENT.equals(localName)) {
+            String refName = attributes.getAttribute(BEAN_REF_ATTRIBUTE);
+            if (!StringUtils.hasLength(refName)) {
+                throw new BeansException("'bean' is required for <ref> element");
+            }
+            return new RuntimeBeanReference(refName);
+        }
+        if (NULL_ELEMENT.equals(localName)) {
+            return new TypedStringValue(null);
+        }
+        throw new BeansException("Unsupported property sub-element <" + localName + ">");
+    }
+
+}
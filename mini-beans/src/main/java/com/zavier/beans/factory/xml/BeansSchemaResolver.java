@@ -0,0 +1,73 @@
+package com.zavier.beans.factory.xml;
+
+import org.xml.sax.EntityResolver;
+import org.xml.sax.InputSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+
+/**
+ * {@link EntityResolver} implementation that resolves the spring-beans XSD
+ * from the classpath instead of fetching it over the network.
+ * <p>任何以 {@code spring-beans.xsd} 或带版本号的 {@code spring-beans-x.y.xsd} 结尾的
+ * systemId 都映射到类路径中的 {@link #BEANS_SCHEMA_LOCATION}，其它实体交给解析器默认处理
+ */
+public class BeansSchemaResolver implements EntityResolver {
+
+    /**
+     * Classpath location of the bundled spring-beans schema.
+     */
+    public static final String BEANS_SCHEMA_LOCATION = "com/zavier/beans/factory/xml/spring-beans.xsd";
+
+    private static final String BEANS_SCHEMA_NAME = "spring-beans";
+
+    private static final String XSD_SUFFIX = ".xsd";
+
+    private final ClassLoader classLoader;
+
+    public BeansSchemaResolver() {
+        this(BeansSchemaResolver.class.getClassLoader());
+    }
+
+    public BeansSchemaResolver(ClassLoader classLoader) {
+        this.classLoader = (classLoader != null ? classLoader : BeansSchemaResolver.class.getClassLoader());
+    }
+
+    @Override
+    public InputSource resolveEntity(String publicId, String systemId) throws IOException {
+        if (systemId == null || !isBeansSchema(systemId)) {
+            return null;
+        }
+        URL url = getBeansSchemaUrl(this.classLoader);
+        InputStream inputStream = url.openStream();
+        InputSource source = new InputSource(inputStream);
+        source.setPublicId(publicId);
+        source.setSystemId(systemId);
+        return source;
+    }
+
+    private static boolean isBeansSchema(String systemId) {
+        if (!systemId.endsWith(XSD_SUFFIX)) {
+            return false;
+        }
+        int nameIndex = systemId.lastIndexOf('/') + 1;
+        return systemId.startsWith(BEANS_SCHEMA_NAME, nameIndex);
+    }
+
+    /**
+     * 返回类路径中 spring-beans.xsd 的位置
+     * @throws IOException if the schema is missing from the classpath
+     */
+    static URL getBeansSchemaUrl(ClassLoader classLoader) throws IOException {
+        URL url = classLoader.getResource(BEANS_SCHEMA_LOCATION);
+        if (url == null) {
+            url = BeansSchemaResolver.class.getClassLoader().getResource(BEANS_SCHEMA_LOCATION);
+        }
+        if (url == null) {
+            throw new IOException("Could not find [" + BEANS_SCHEMA_LOCATION + "] on the classpath");
+        }
+        return url;
+    }
+
+}
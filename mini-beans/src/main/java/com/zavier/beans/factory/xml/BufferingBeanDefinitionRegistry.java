@@ -0,0 +1,99 @@
+package com.zavier.beans.factory.xml;
+
+import com.zavier.beans.factory.NoSuchBeanDefinitionException;
+import com.zavier.beans.factory.config.BeanDefinition;
+import com.zavier.beans.factory.config.BeanDefinitionHolder;
+import com.zavier.beans.factory.support.BeanDefinitionRegistry;
+import com.zavier.core.io.Resource;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 只记录注册顺序的临时注册表：每个资源的解析结果各存一个，解析结束后再按顺序
+ * 重放到真正的注册表中，重名等错误与顺序加载时完全相同。
+ * <p>{@code <import>} 只记录被导入的资源，重放到该位置时再注册被导入资源的定义
+ */
+class BufferingBeanDefinitionRegistry implements BeanDefinitionRegistry {
+
+    private final List<BeanDefinitionHolder> registrations = new ArrayList<BeanDefinitionHolder>();
+
+    /** bean 名称 --> 最后一次注册的定义，供按名称查找 */
+    private final Map<String, BeanDefinitionHolder> registrationsByName = new HashMap<String, BeanDefinitionHolder>();
+
+    /** 按文档顺序排列的注册项：{@link BeanDefinitionHolder} 或被导入的 {@link Resource} */
+    private final List<Object> entries = new ArrayList<Object>();
+
+    @Override
+    public void registerBeanDefinition(String beanName, BeanDefinition beanDefinition) {
+        BeanDefinitionHolder holder = new BeanDefinitionHolder(beanDefinition, beanName);
+        this.registrations.add(holder);
+        this.registrationsByName.put(beanName, holder);
+        this.entries.add(holder);
+    }
+
+    /**
+     * Record an import of the given resource at the current position.
+     */
+    void addImport(Resource importedResource) {
+        this.entries.add(importedResource);
+    }
+
+    /**
+     * Return the buffered bean definitions and imports, in document order.
+     */
+    List<Object> getEntries() {
+        return this.entries;
+    }
+
+    @Override
+    public void registerBeanDefinitions(Map<String, BeanDefinition> beanDefinitions) {
+        for (Map.Entry<String, BeanDefinition> entry : beanDefinitions.entrySet()) {
+            registerBeanDefinition(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * 移除该名称的全部注册记录，导入位置不受影响
+     */
+    @Override
+    public void removeBeanDefinition(String beanName) throws NoSuchBeanDefinitionException {
+        if (this.registrationsByName.remove(beanName) == null) {
+            throw new NoSuchBeanDefinitionException(beanName);
+        }
+        this.registrations.removeIf(holder -> holder.getBeanName().equals(beanName));
+        this.entries.removeIf(entry -> entry instanceof BeanDefinitionHolder &&
+                ((BeanDefinitionHolder) entry).getBeanName().equals(beanName));
+    }
+
+    @Override
+    public BeanDefinition getBeanDefinition(String beanName) throws NoSuchBeanDefinitionException {
+        BeanDefinitionHolder holder = this.registrationsByName.get(beanName);
+        if (holder == null) {
+            throw new NoSuchBeanDefinitionException(beanName);
+        }
+        return holder.getBeanDefinition();
+    }
+
+    @Override
+    public boolean containsBeanDefinition(String beanName) {
+        return this.registrationsByName.containsKey(beanName);
+    }
+
+    @Override
+    public String[] getBeanDefinitionNames() {
+        String[] names = new String[this.registrations.size()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = this.registrations.get(i).getBeanName();
+        }
+        return names;
+    }
+
+    @Override
+    public int getBeanDefinitionCount() {
+        return this.registrations.size();
+    }
+
+}
@@ -5,8 +5,8 @@ import com.zavier.beans.factory.config.BeanDefinition;
 import com.zavier.beans.factory.config.BeanDefinitionHolder;
 import com.zavier.beans.factory.support.AbstractBeanDefinition;
 import com.zavier.beans.factory.support.BeanDefinitionRegistry;
-import com.zavier.beans.factory.support.GenericBeanDefinition;
-import com.zavier.util.ClassUtils;
+import com.zavier.core.io.Resource;
+import com.zavier.core.io.ResourceLoader;
 import com.zavier.util.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -15,7 +15,7 @@ import org.w3c.dom.Element;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 
-import java.util.*;
+import java.io.IOException;
 
 public class DefaultBeanDefinitionDocumentReader implements BeanDefinitionDocumentReader {
 
@@ -186,19 +186,26 @@ public class DefaultBeanDefinitionDocumentReader implements BeanDefinitionDocume
     public static final String PROFILE_ATTRIBUTE = "profile";
 
 
-    private final Set<String> usedNames = new HashSet<String>();
+    private final BeanDefinitionParserDelegate delegate = new BeanDefinitionParserDelegate();
 
 
 
+    private XmlReaderContext readerContext;
+
     private BeanDefinitionRegistry beanDefinitionRegistry;
 
     @Override
-    public void registerBeanDefinitions(Document doc, BeanDefinitionRegistry beanDefinitionRegistry) {
+    public void registerBeanDefinitions(Document doc, XmlReaderContext readerContext) {
         Element root = doc.getDocumentElement();
-        this.beanDefinitionRegistry = beanDefinitionRegistry;
+        this.readerContext = readerContext;
+        this.beanDefinitionRegistry = readerContext.getRegistry();
         doRegisterBeanDefinitions(root);
     }
 
+    protected final XmlReaderContext getReaderContext() {
+        return this.readerContext;
+    }
+
     protected void doRegisterBeanDefinitions(Element root) {
         parseBeanDefinitions(root);
     }
@@ -226,7 +233,7 @@ public class DefaultBeanDefinitionDocumentReader implements BeanDefinitionDocume
 
     private void parseDefaultElement(Element ele) {
         if (nodeNameEquals(ele, IMPORT_ELEMENT)) {
-            //todo importBeanDefinitionResource(ele);
+            importBeanDefinitionResource(ele);
         }
         else if (nodeNameEquals(ele, ALIAS_ELEMENT)) {
             //todo processAliasRegistration(ele);
@@ -240,109 +247,114 @@ public class DefaultBeanDefinitionDocumentReader implements BeanDefinitionDocume
         }
     }
 
+    /**
+     * Parse an "import" element and load the bean definitions
+     * from the given resource into the bean factory.
+     * <p>以 {@code classpath:} 开头的位置交给 {@link ResourceLoader} 解析，
+     * 其余位置都相对于当前资源解析
+     */
+    protected void importBeanDefinitionResource(Element ele) {
+        String location = ele.getAttribute(RESOURCE_ATTRIBUTE);
+        if (!StringUtils.hasText(location)) {
+            throw new BeansException("Resource location must not be empty in " +
+                    getReaderContext().getResource().getDescription());
+        }
+        Resource importedResource = resolveImportedResource(location.trim(),
+                getReaderContext().getResource(), getReaderContext().getResourceLoader());
+        if (logger.isTraceEnabled()) {
+            logger.trace("Importing bean definitions from {}", importedResource.getDescription());
+        }
+        getReaderContext().importBeanDefinitions(importedResource);
+    }
+
+    /**
+     * Resolve the location of an "import" element against the importing resource.
+     * @param location the trimmed location of the imported resource
+     * @param resource the resource containing the import
+     * @param resourceLoader the loader for {@code classpath:} locations
+     * @return the imported resource
+     */
+    static Resource resolveImportedResource(String location, Resource resource, ResourceLoader resourceLoader) {
+        if (location.startsWith(ResourceLoader.CLASSPATH_URL_PREFIX)) {
+            return resourceLoader.getResource(location);
+        }
+        try {
+            return resource.createRelative(location);
+        }
+        catch (IOException ex) {
+            throw new BeansException("Failed to import bean definitions from relative location [" +
+                    location + "]", ex);
+        }
+    }
+
     protected void processBeanDefinition(Element ele) {
         BeanDefinitionHolder bdHolder = parseBeanDefinitionElement(ele, null);
         beanDefinitionRegistry.registerBeanDefinition(bdHolder.getBeanName(), bdHolder.getBeanDefinition());
     }
 
     public BeanDefinitionHolder parseBeanDefinitionElement(Element ele, BeanDefinition containingBean) {
-        String id = ele.getAttribute(ID_ATTRIBUTE);
-
-        String beanName = id;
-
-        if (containingBean == null) {
-            checkNameUniqueness(beanName);
+        BeanDefinitionHolder bdHolder = this.delegate.parseBeanDefinitionElement(asAttributeSource(ele), containingBean);
+        if (bdHolder != null) {
+            parseInjectionElements(ele, (AbstractBeanDefinition) bdHolder.getBeanDefinition());
         }
-
-        AbstractBeanDefinition beanDefinition = parseBeanDefinitionElement(ele, beanName, containingBean);
-        if (beanDefinition != null) {
-            if (!StringUtils.hasText(beanName)) {
-                // 原本实现为判断是否有重复，有重复的名称依次 加#1，#2等
-                beanName = beanDefinition.getBeanClassName();
-            }
-            return new BeanDefinitionHolder(beanDefinition, beanName);
-        }
-
-        return null;
+        return bdHolder;
     }
 
     protected void checkNameUniqueness(String beanName) {
-        String foundName = null;
-
-        if (StringUtils.hasText(beanName) && this.usedNames.contains(beanName)) {
-            foundName = beanName;
-        }
-        if (foundName != null) {
-            throw new BeansException("Bean name '" + foundName + "' is already used in this <beans> element");
-        }
-
-        this.usedNames.add(beanName);
+        this.delegate.checkNameUniqueness(beanName);
     }
 
     public AbstractBeanDefinition parseBeanDefinitionElement(
             Element ele, String beanName, BeanDefinition containingBean) {
-
-        String className = null;
-        if (ele.hasAttribute(CLASS_ATTRIBUTE)) {
-            className = ele.getAttribute(CLASS_ATTRIBUTE).trim();
-        }
-
-        try {
-            String parent = null;
-            if (ele.hasAttribute(PARENT_ATTRIBUTE)) {
-                parent = ele.getAttribute(PARENT_ATTRIBUTE);
-            }
-            AbstractBeanDefinition bd = createBeanDefinition(className, parent, null);
-
-            parseBeanDefinitionAttributes(ele, beanName, containingBean, bd);
-
-            //todo 属性、构造器注入处理
-//            parseConstructorArgElements(ele, bd);
-//            parsePropertyElements(ele, bd);
-
-            return bd;
-        }
-        catch (ClassNotFoundException ex) {
-            throw new BeansException("Bean class [" + className + "] not found", ex);
-        }
-        catch (NoClassDefFoundError err) {
-            throw new BeansException("Class that bean class [" + className + "] depends on not found", err);
-        }
-        catch (Throwable ex) {
-            throw new BeansException("Unexpected failure during bean definition parsing", ex);
+        AbstractBeanDefinition bd = this.delegate.parseBeanDefinitionElement(asAttributeSource(ele), beanName, containingBean);
+        if (bd != null) {
+            parseInjectionElements(ele, bd);
         }
+        return bd;
     }
 
-    private AbstractBeanDefinition createBeanDefinition(String className, String parentName, ClassLoader classLoader) throws ClassNotFoundException {
-        GenericBeanDefinition bd = new GenericBeanDefinition();
-        bd.setParentName(parentName);
-        if (className != null) {
-            if (classLoader != null) {
-                bd.setBeanClass(ClassUtils.forName(className, classLoader));
-            }
-            else {
-                bd.setBeanClassName(className);
+    /**
+     * 解析 bean 元素下的 {@code <constructor-arg>} 与 {@code <property>} 子元素
+     */
+    private void parseInjectionElements(Element beanEle, AbstractBeanDefinition bd) {
+        NodeList nl = beanEle.getChildNodes();
+        for (int i = 0; i < nl.getLength(); i++) {
+            Node node = nl.item(i);
+            if (node instanceof Element && isDefaultNamespace((Element) node)) {
+                Element ele = (Element) node;
+                if (nodeNameEquals(ele, CONSTRUCTOR_ARG_ELEMENT)) {
+                    this.delegate.parseConstructorArgElement(asAttributeSource(ele), parseValueSubElement(ele), bd);
+                }
+                else if (nodeNameEquals(ele, PROPERTY_ELEMENT)) {
+                    this.delegate.parsePropertyElement(asAttributeSource(ele), parseValueSubElement(ele), bd);
+                }
             }
         }
-        return bd;
     }
 
-    private AbstractBeanDefinition parseBeanDefinitionAttributes(Element ele, String beanName,
-                                                                BeanDefinition containingBean, AbstractBeanDefinition bd) {
-        if (ele.hasAttribute(INIT_METHOD_ATTRIBUTE)) {
-            String initMethodName = ele.getAttribute(INIT_METHOD_ATTRIBUTE);
-            if (!"".equals(initMethodName)) {
-                bd.setInitMethodName(initMethodName);
+    /**
+     * 解析 property 或 constructor-arg 元素中唯一的值子元素，没有时返回 {@code null}
+     */
+    private Object parseValueSubElement(Element ele) {
+        Object value = null;
+        NodeList nl = ele.getChildNodes();
+        for (int i = 0; i < nl.getLength(); i++) {
+            Node node = nl.item(i);
+            if (node instanceof Element && !nodeNameEquals((Element) node, DESCRIPTION_ELEMENT) &&
+                    !nodeNameEquals((Element) node, META_ELEMENT)) {
+                if (value != null) {
+                    throw new BeansException("<" + ele.getNodeName() + "> element must not contain more than one sub-element");
+                }
+                Element subElement = (Element) node;
+                String localName = (getLocalName(subElement) != null ? getLocalName(subElement) : subElement.getNodeName());
+                value = this.delegate.parseSubElement(localName, asAttributeSource(subElement), subElement.getTextContent());
             }
         }
+        return value;
+    }
 
-        if (ele.hasAttribute(DESTROY_METHOD_ATTRIBUTE)) {
-            String destroyMethodName = ele.getAttribute(DESTROY_METHOD_ATTRIBUTE);
-            if (!"".equals(destroyMethodName)) {
-                bd.setDestroyMethodName(destroyMethodName);
-            }
-        }
-        return bd;
+    private static BeanDefinitionParserDelegate.AttributeSource asAttributeSource(Element ele) {
+        return name -> (ele.hasAttribute(name) ? ele.getAttribute(name) : null);
     }
 
     private boolean isDefaultNamespace(Element element) {
@@ -351,7 +363,7 @@ public class DefaultBeanDefinitionDocumentReader implements BeanDefinitionDocume
     }
 
     private boolean isDefaultNamespace(String namespaceUri) {
-        return BEANS_NAMESPACE_URI.equals(namespaceUri);
+        return BeanDefinitionParserDelegate.isDefaultNamespace(namespaceUri);
     }
 
     private boolean nodeNameEquals(Element node, String desiredName) {
@@ -4,22 +4,29 @@ import org.w3c.dom.Document;
 import org.xml.sax.EntityResolver;
 import org.xml.sax.ErrorHandler;
 import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.Schema;
+import javax.xml.validation.SchemaFactory;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
 
 public class DefaultDocumentLoader implements DocumentLoader {
 
     /**
-     * JAXP attribute used to configure the schema language for validation.
+     * JAXP attribute value indicating the XSD schema language.
      */
-    private static final String SCHEMA_LANGUAGE_ATTRIBUTE = "http://java.sun.com/xml/jaxp/properties/schemaLanguage";
+    private static final String XSD_SCHEMA_LANGUAGE = "http://www.w3.org/2001/XMLSchema";
 
     /**
-     * JAXP attribute value indicating the XSD schema language.
+     * 类路径中的 spring-beans.xsd 只编译一次，{@link Schema} 是线程安全的，所有加载器共享同一个实例
      */
-    private static final String XSD_SCHEMA_LANGUAGE = "http://www.w3.org/2001/XMLSchema";
+    private static volatile Schema beansSchema;
 
     @Override
     public Document loadDocument(InputSource inputSource, EntityResolver entityResolver, ErrorHandler errorHandler,
@@ -34,18 +41,15 @@ public class DefaultDocumentLoader implements DocumentLoader {
 
         DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
         factory.setNamespaceAware(namespaceAware);
-        factory.setValidating(true);
-        // Enforce namespace aware for XSD...
-        factory.setNamespaceAware(true);
-        try {
-            factory.setAttribute(SCHEMA_LANGUAGE_ATTRIBUTE, XSD_SCHEMA_LANGUAGE);
-        } catch (IllegalArgumentException ex) {
-            ParserConfigurationException pcex = new ParserConfigurationException(
-                    "Unable to validate using XSD: Your JAXP provider [" + factory +
-                            "] does not support XML Schema. Are you running on Java 1.4 with Apache Crimson? " +
-                            "Upgrade to Apache Xerces (or Java 1.5) for full XSD support.");
-            pcex.initCause(ex);
-            throw pcex;
+        if (validationMode == XmlBeanDefinitionReader.VALIDATION_DTD) {
+            factory.setValidating(true);
+        }
+        else if (validationMode != XmlBeanDefinitionReader.VALIDATION_NONE) {
+            // Enforce namespace aware for XSD...
+            factory.setNamespaceAware(true);
+            // 预编译的 Schema 直接挂在工厂上，解析时不再读取 schemaLocation，也不需要 DTD 式校验
+            factory.setValidating(false);
+            factory.setSchema(getBeansSchema());
         }
         return factory;
     }
@@ -63,4 +67,38 @@ public class DefaultDocumentLoader implements DocumentLoader {
         }
         return docBuilder;
     }
+
+    /**
+     * Return the compiled spring-beans schema, loading it from the classpath on first access.
+     * @throws ParserConfigurationException if the schema cannot be found or compiled
+     */
+    static Schema getBeansSchema() throws ParserConfigurationException {
+        Schema schema = beansSchema;
+        if (schema == null) {
+            synchronized (DefaultDocumentLoader.class) {
+                schema = beansSchema;
+                if (schema == null) {
+                    schema = compileBeansSchema();
+                    beansSchema = schema;
+                }
+            }
+        }
+        return schema;
+    }
+
+    private static Schema compileBeansSchema() throws ParserConfigurationException {
+        try {
+            URL url = BeansSchemaResolver.getBeansSchemaUrl(DefaultDocumentLoader.class.getClassLoader());
+            SchemaFactory schemaFactory = SchemaFactory.newInstance(XSD_SCHEMA_LANGUAGE);
+            try (InputStream inputStream = url.openStream()) {
+                return schemaFactory.newSchema(new StreamSource(inputStream, url.toExternalForm()));
+            }
+        }
+        catch (IOException | SAXException | IllegalArgumentException ex) {
+            ParserConfigurationException pcex = new ParserConfigurationException(
+                    "Unable to compile XML schema [" + BeansSchemaResolver.BEANS_SCHEMA_LOCATION + "]: " + ex.getMessage());
+            pcex.initCause(ex);
+            throw pcex;
+        }
+    }
 }
@@ -0,0 +1,346 @@
+package com.zavier.beans.factory.xml;
+
+import com.zavier.beans.BeansException;
+import com.zavier.beans.factory.config.BeanDefinition;
+import com.zavier.beans.factory.support.BeanDefinitionRegistry;
+import com.zavier.core.io.Resource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link XmlBeanDefinitionReader} that keeps the bean definitions of the loaded
+ * resources in sync with their files.
+ * <p>加载过的资源（包括被导入的资源）中，凡是文件系统中的文件都由一个
+ * {@link WatchService} 监听。文件变化后只重新解析变化的文件，其余文件使用
+ * 解析缓存；新旧定义按 bean 名称比较，只把新增、删除和变化的定义应用到注册表
+ * <p>Call {@link #start()} to begin watching and {@link #close()} to stop.
+ */
+public class ReloadableXmlBeanDefinitionReader extends XmlBeanDefinitionReader implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReloadableXmlBeanDefinitionReader.class);
+
+    /** 文件变化后等待后续事件的时间，编辑器保存一次文件常常触发多个事件 */
+    private static final long DEFAULT_QUIET_PERIOD_MILLIS = 100;
+
+    private final Object reloadMonitor = new Object();
+
+    /** 直接加载的资源，按加载顺序 */
+    private final List<Resource> rootResources = new ArrayList<Resource>();
+
+    /** 由本读取器注册的定义：bean name --> 定义，按注册顺序 */
+    private Map<String, BeanDefinition> loadedDefinitions = Collections.emptyMap();
+
+    /** 被监听的文件 --> 对应的资源 */
+    private volatile Map<Path, Resource> watchedFiles = Collections.emptyMap();
+
+    private long quietPeriodMillis = DEFAULT_QUIET_PERIOD_MILLIS;
+
+    private WatchService watchService;
+
+    private Thread watchThread;
+
+    public ReloadableXmlBeanDefinitionReader(BeanDefinitionRegistry registry) {
+        super(registry);
+    }
+
+    /**
+     * Set the time to wait for further file events before reloading.
+     * <p>Default is 100 milliseconds.
+     */
+    public void setQuietPeriodMillis(long quietPeriodMillis) {
+        this.quietPeriodMillis = quietPeriodMillis;
+    }
+
+    /**
+     * Load bean definitions from the specified XML files and remember them
+     * for reloading.
+     * <p>Loading resources that have been loaded before is equivalent to a
+     * {@link #reload reload} of these resources.
+     */
+    @Override
+    public int loadBeanDefinitions(Resource... resources) throws BeansException {
+        synchronized (this.reloadMonitor) {
+            int countBefore = this.rootResources.size();
+            for (Resource resource : resources) {
+                if (!this.rootResources.contains(resource)) {
+                    this.rootResources.add(resource);
+                }
+            }
+            try {
+                return reload(Arrays.asList(resources));
+            }
+            catch (RuntimeException ex) {
+                this.rootResources.subList(countBefore, this.rootResources.size()).clear();
+                throw ex;
+            }
+        }
+    }
+
+    /**
+     * Re-parse the given changed resources and apply the differences to the registry.
+     * <p>Unchanged resources are not parsed again. The resulting set of bean
+     * definitions is compared by bean name with the previously loaded one:
+     * removed definitions are removed from the registry, added ones are
+     * registered, and changed ones are replaced. Definitions that did not
+     * change are left untouched, together with their singleton instances.
+     * @param changedResources the resources that have changed
+     * @return the number of bean definitions added, removed or replaced
+     * @throws BeansException in case of loading or parsing errors, in which
+     * case the registry is not modified
+     */
+    public int reload(Collection<Resource> changedResources) throws BeansException {
+        synchronized (this.reloadMonitor) {
+            for (Resource resource : changedResources) {
+                evictParsedResource(resource);
+            }
+            BufferingBeanDefinitionRegistry buffer = new BufferingBeanDefinitionRegistry();
+            Set<Resource> resources = new LinkedHashSet<Resource>();
+            loadBeanDefinitions(this.rootResources.toArray(new Resource[0]), false, buffer, resources);
+
+            Map<String, BeanDefinition> newDefinitions = new LinkedHashMap<String, BeanDefinition>(
+                    (int) (buffer.getBeanDefinitionCount() / 0.75f) + 1);
+            for (String beanName : buffer.getBeanDefinitionNames()) {
+                if (newDefinitions.put(beanName, buffer.getBeanDefinition(beanName)) != null) {
+                    throw new BeansException("registerBeanDefinition error: bean name '" + beanName + "' is already in use");
+                }
+            }
+            int count = applyChanges(this.loadedDefinitions, newDefinitions);
+            this.loadedDefinitions = newDefinitions;
+            updateWatchedFiles(resources);
+            if (count > 0 && logger.isDebugEnabled()) {
+                logger.debug("Applied {} bean definition change(s) after reloading {}", count, changedResources);
+            }
+            return count;
+        }
+    }
+
+    /**
+     * 按 bean 名称比较新旧定义，只修改有差异的定义。
+     * <p>修改前先检查新增的名称是否已被其他来源注册；修改过程中任何一步失败都会
+     * 撤销已做的修改，注册表恢复为重新加载前的状态
+     */
+    private int applyChanges(Map<String, BeanDefinition> oldDefinitions, Map<String, BeanDefinition> newDefinitions) {
+        BeanDefinitionRegistry registry = getRegistry();
+        for (Map.Entry<String, BeanDefinition> entry : newDefinitions.entrySet()) {
+            if (!oldDefinitions.containsKey(entry.getKey()) && registry.containsBeanDefinition(entry.getKey())) {
+                throw new BeansException("registerBeanDefinition error: bean name '" + entry.getKey() + "' is already in use");
+            }
+        }
+
+        Map<String, BeanDefinition> removed = new LinkedHashMap<String, BeanDefinition>();
+        List<String> registered = new ArrayList<String>();
+        int count = 0;
+        try {
+            for (Map.Entry<String, BeanDefinition> entry : oldDefinitions.entrySet()) {
+                BeanDefinition newDefinition = newDefinitions.get(entry.getKey());
+                if (!entry.getValue().equals(newDefinition)) {
+                    registry.removeBeanDefinition(entry.getKey());
+                    removed.put(entry.getKey(), entry.getValue());
+                    if (newDefinition == null) {
+                        count++;
+                    }
+                }
+            }
+            for (Map.Entry<String, BeanDefinition> entry : newDefinitions.entrySet()) {
+                BeanDefinition oldDefinition = oldDefinitions.get(entry.getKey());
+                if (!entry.getValue().equals(oldDefinition)) {
+                    registry.registerBeanDefinition(entry.getKey(), entry.getValue());
+                    registered.add(entry.getKey());
+                    count++;
+                }
+            }
+        }
+        catch (RuntimeException ex) {
+            rollback(registry, removed, registered, ex);
+            throw ex;
+        }
+        for (Map.Entry<String, BeanDefinition> entry : newDefinitions.entrySet()) {
+            BeanDefinition oldDefinition = oldDefinitions.get(entry.getKey());
+            if (oldDefinition != null && oldDefinition != entry.getValue() && oldDefinition.equals(entry.getValue())) {
+                // 内容相同，保留注册表中的旧定义，下次仍与它比较
+                entry.setValue(oldDefinition);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 撤销 {@link #applyChanges} 已做的修改：移除新注册的定义，重新注册被移除的旧定义
+     */
+    private void rollback(BeanDefinitionRegistry registry, Map<String, BeanDefinition> removed,
+                          List<String> registered, RuntimeException failure) {
+        for (int i = registered.size() - 1; i >= 0; i--) {
+            try {
+                registry.removeBeanDefinition(registered.get(i));
+            }
+            catch (RuntimeException ex) {
+                failure.addSuppressed(ex);
+            }
+        }
+        for (Map.Entry<String, BeanDefinition> entry : removed.entrySet()) {
+            try {
+                registry.registerBeanDefinition(entry.getKey(), entry.getValue());
+            }
+            catch (RuntimeException ex) {
+                failure.addSuppressed(ex);
+            }
+        }
+    }
+
+    private void updateWatchedFiles(Set<Resource> resources) {
+        Map<Path, Resource> files = new HashMap<Path, Resource>(resources.size() * 2);
+        for (Resource resource : resources) {
+            try {
+                File file = resource.getFile();
+                files.put(file.toPath().toAbsolutePath().normalize(), resource);
+            }
+            catch (IOException ex) {
+                // 不在文件系统中的资源无法监听，只在显式 reload 时重新解析
+                logger.debug("Not watching {}: {}", resource.getDescription(), ex.getMessage());
+            }
+        }
+        this.watchedFiles = files;
+        WatchService watchService = this.watchService;
+        if (watchService != null) {
+            registerDirectories(watchService, files.keySet());
+        }
+    }
+
+    private void registerDirectories(WatchService watchService, Collection<Path> files) {
+        Set<Path> directories = new HashSet<Path>();
+        for (Path file : files) {
+            if (file.getParent() != null) {
+                directories.add(file.getParent());
+            }
+        }
+        for (Path directory : directories) {
+            try {
+                // 同一目录重复注册返回同一个 WatchKey
+                directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+            }
+            catch (IOException ex) {
+                logger.warn("Failed to watch directory {}", directory, ex);
+            }
+        }
+    }
+
+    /**
+     * Start watching the files of all loaded resources on a daemon thread.
+     * @throws IOException if the watch service cannot be created
+     */
+    public void start() throws IOException {
+        synchronized (this.reloadMonitor) {
+            if (this.watchService != null) {
+                return;
+            }
+            this.watchService = FileSystems.getDefault().newWatchService();
+            registerDirectories(this.watchService, this.watchedFiles.keySet());
+            WatchService watchService = this.watchService;
+            this.watchThread = new Thread(() -> watch(watchService), "bean-definition-watcher");
+            this.watchThread.setDaemon(true);
+            this.watchThread.start();
+        }
+    }
+
+    /**
+     * Stop watching the files of the loaded resources.
+     */
+    @Override
+    public void close() throws IOException {
+        Thread watchThread;
+        synchronized (this.reloadMonitor) {
+            if (this.watchService == null) {
+                return;
+            }
+            this.watchService.close();
+            this.watchService = null;
+            watchThread = this.watchThread;
+            this.watchThread = null;
+        }
+        try {
+            watchThread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void watch(WatchService watchService) {
+        try {
+            while (true) {
+                Set<Resource> changed = new LinkedHashSet<Resource>();
+                collectChanges(watchService.take(), changed);
+                // 合并短时间内的后续事件，一次保存只重新加载一次
+                WatchKey key;
+                while ((key = watchService.poll(this.quietPeriodMillis, TimeUnit.MILLISECONDS)) != null) {
+                    collectChanges(key, changed);
+                }
+                if (!changed.isEmpty()) {
+                    try {
+                        reload(changed);
+                    }
+                    catch (RuntimeException ex) {
+                        // 保留旧定义，文件修正后的下一次变化会再次重新加载
+                        logger.error("Failed to reload bean definitions from {}", changed, ex);
+                    }
+                }
+            }
+        }
+        catch (ClosedWatchServiceException ex) {
+            // closed
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void collectChanges(WatchKey key, Set<Resource> changed) {
+        Path directory = (Path) key.watchable();
+        Map<Path, Resource> watchedFiles = this.watchedFiles;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            Object context = event.context();
+            if (context instanceof Path) {
+                Resource resource = watchedFiles.get(directory.resolve((Path) context));
+                if (resource != null) {
+                    changed.add(resource);
+                }
+            }
+        }
+        key.reset();
+    }
+
+    /**
+     * Return the names of the bean definitions currently loaded by this reader,
+     * in registration order.
+     */
+    public Set<String> getLoadedBeanNames() {
+        synchronized (this.reloadMonitor) {
+            return Collections.unmodifiableSet(new LinkedHashSet<String>(this.loadedDefinitions.keySet()));
+        }
+    }
+
+}
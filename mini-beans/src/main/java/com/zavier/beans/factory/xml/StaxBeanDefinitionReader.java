@@ -0,0 +1,301 @@
+package com.zavier.beans.factory.xml;
+
+import com.zavier.beans.BeansException;
+import com.zavier.beans.factory.config.BeanDefinitionHolder;
+import com.zavier.beans.factory.support.AbstractBeanDefinition;
+import com.zavier.beans.factory.support.BeanDefinitionRegistry;
+import com.zavier.core.io.DefaultResourceLoader;
+import com.zavier.core.io.Resource;
+import com.zavier.core.io.ResourceLoader;
+import com.zavier.util.StringUtils;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static com.zavier.beans.factory.xml.DefaultBeanDefinitionDocumentReader.*;
+
+/**
+ * Bean definition reader for XML bean definitions that consumes the document
+ * as a StAX event stream and never builds an {@code org.w3c.dom.Document}.
+ * <p>与 {@link XmlBeanDefinitionReader} 共用 {@link BeanDefinitionParserDelegate}，生成相同的
+ * {@link BeanDefinitionHolder}；每解析完一个 {@code <bean>} 元素就立即注册，内存占用与文件大小无关。
+ * <p>{@code <import>} 元素与 {@link XmlBeanDefinitionReader} 一样按 {@link ResourceLoader}
+ * 或相对于当前资源解析，被导入的资源在导入位置立即注册；暂不支持 {@code <alias>} 元素，遇到时抛出异常
+ * <p><b>Note:</b> StAX 解析不做 XSD 校验，需要校验的配置请使用 {@link XmlBeanDefinitionReader}
+ */
+public class StaxBeanDefinitionReader {
+
+    private final BeanDefinitionRegistry registry;
+
+    private XMLInputFactory inputFactory;
+
+    private ResourceLoader resourceLoader = new DefaultResourceLoader();
+
+    /** 正在解析的资源，栈顶为当前资源，用于解析相对位置与检测循环导入 */
+    private final Deque<Resource> resourcesCurrentlyBeingLoaded = new ArrayDeque<Resource>();
+
+    /** 定义已注册到注册表的资源，重复导入时跳过 */
+    private final Set<Resource> registeredResources = new HashSet<Resource>();
+
+    public StaxBeanDefinitionReader(BeanDefinitionRegistry registry) {
+        this.registry = registry;
+    }
+
+    public final BeanDefinitionRegistry getRegistry() {
+        return this.registry;
+    }
+
+    /**
+     * Set the ResourceLoader to use for resource locations such as
+     * {@code classpath:} imports.
+     * <p>Default is a {@link DefaultResourceLoader}.
+     */
+    public void setResourceLoader(ResourceLoader resourceLoader) {
+        this.resourceLoader = (resourceLoader != null ? resourceLoader : new DefaultResourceLoader());
+    }
+
+    /**
+     * Return the ResourceLoader to use for resource locations.
+     */
+    public ResourceLoader getResourceLoader() {
+        return this.resourceLoader;
+    }
+
+    /**
+     * Load bean definitions from the specified XML file.
+     * @param resource the resource descriptor for the XML file
+     * @return the number of bean definitions found
+     * @throws BeansException in case of loading or parsing errors
+     */
+    public int loadBeanDefinitions(Resource resource) throws BeansException {
+        this.registeredResources.add(resource);
+        this.resourcesCurrentlyBeingLoaded.push(resource);
+        try (InputStream inputStream = resource.getInputStream()) {
+            XMLStreamReader reader = getInputFactory().createXMLStreamReader(inputStream);
+            try {
+                return registerBeanDefinitions(reader);
+            }
+            finally {
+                reader.close();
+            }
+        } catch (IOException | XMLStreamException e) {
+            throw new BeansException(e.getMessage(), e);
+        }
+        finally {
+            this.resourcesCurrentlyBeingLoaded.pop();
+        }
+    }
+
+    /**
+     * Register the bean definitions contained in the given stream.
+     * <p>The reader is expected to be positioned before or at the root element.
+     * @param reader the StAX reader to consume
+     * @return the number of bean definitions found
+     * @throws XMLStreamException in case of malformed XML
+     */
+    public int registerBeanDefinitions(XMLStreamReader reader) throws XMLStreamException {
+        int countBefore = getRegistry().getBeanDefinitionCount();
+        BeanDefinitionParserDelegate delegate = new BeanDefinitionParserDelegate();
+        BeanDefinitionParserDelegate.AttributeSource attributes = name -> reader.getAttributeValue(null, name);
+        if (!nextStartElement(reader) || !BeanDefinitionParserDelegate.isDefaultNamespace(reader.getNamespaceURI())) {
+            // 不支持自定义命名空间，与 DOM 读取方式一样忽略
+            return 0;
+        }
+        // 当前所在的 <beans> 层级，只有 <beans> 的直接子元素才会被解析，与 DOM 读取方式一致
+        int beansDepth = 1;
+        while (beansDepth > 0 && reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.END_ELEMENT) {
+                beansDepth--;
+            }
+            else if (event == XMLStreamConstants.START_ELEMENT) {
+                String localName = reader.getLocalName();
+                if (!BeanDefinitionParserDelegate.isDefaultNamespace(reader.getNamespaceURI())) {
+                    skipElement(reader);
+                }
+                else if (NESTED_BEANS_ELEMENT.equals(localName)) {
+                    // recurse
+                    beansDepth++;
+                }
+                else if (BEAN_ELEMENT.equals(localName)) {
+                    BeanDefinitionHolder bdHolder = delegate.parseBeanDefinitionElement(attributes, null);
+                    parseInjectionElements(reader, delegate, (AbstractBeanDefinition) bdHolder.getBeanDefinition());
+                    this.registry.registerBeanDefinition(bdHolder.getBeanName(), bdHolder.getBeanDefinition());
+                }
+                else if (IMPORT_ELEMENT.equals(localName)) {
+                    String location = reader.getAttributeValue(null, RESOURCE_ATTRIBUTE);
+                    skipElement(reader);
+                    importBeanDefinitionResource(location);
+                }
+                else if (DESCRIPTION_ELEMENT.equals(localName)) {
+                    skipElement(reader);
+                }
+                else {
+                    throw new BeansException("Unsupported element <" + localName + "> in " +
+                            StaxBeanDefinitionReader.class.getSimpleName());
+                }
+            }
+        }
+        return getRegistry().getBeanDefinitionCount() - countBefore;
+    }
+
+    /**
+     * Load the bean definitions of an "import" element into the registry,
+     * at the position of the element.
+     * <p>以 {@code classpath:} 开头的位置交给 {@link ResourceLoader} 解析，
+     * 其余位置都相对于当前资源解析；同一资源只在第一次导入时注册
+     */
+    protected void importBeanDefinitionResource(String location) {
+        Resource currentResource = this.resourcesCurrentlyBeingLoaded.peek();
+        if (!StringUtils.hasText(location)) {
+            throw new BeansException("Resource location must not be empty" +
+                    (currentResource != null ? " in " + currentResource.getDescription() : ""));
+        }
+        location = location.trim();
+        if (currentResource == null && !location.startsWith(ResourceLoader.CLASSPATH_URL_PREFIX)) {
+            throw new BeansException("Cannot resolve relative import location [" + location +
+                    "] without a current resource");
+        }
+        Resource importedResource = DefaultBeanDefinitionDocumentReader.resolveImportedResource(
+                location, currentResource, getResourceLoader());
+        if (this.resourcesCurrentlyBeingLoaded.contains(importedResource)) {
+            throw new BeansException("Detected cyclic loading of " + importedResource.getDescription() +
+                    " - check your import definitions!");
+        }
+        if (!this.registeredResources.contains(importedResource)) {
+            loadBeanDefinitions(importedResource);
+        }
+    }
+
+    protected XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+
+    private XMLInputFactory getInputFactory() {
+        if (this.inputFactory == null) {
+            this.inputFactory = createInputFactory();
+        }
+        return this.inputFactory;
+    }
+
+    private static boolean nextStartElement(XMLStreamReader reader) throws XMLStreamException {
+        while (!reader.isStartElement()) {
+            if (!reader.hasNext()) {
+                return false;
+            }
+            reader.next();
+        }
+        return true;
+    }
+
+    /**
+     * 解析当前 bean 元素下的 {@code <constructor-arg>} 与 {@code <property>} 子元素，
+     * 结束时停在 bean 元素的 END_ELEMENT 上
+     */
+    private static void parseInjectionElements(XMLStreamReader reader, BeanDefinitionParserDelegate delegate,
+                                               AbstractBeanDefinition bd) throws XMLStreamException {
+        while (true) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.END_ELEMENT) {
+                return;
+            }
+            if (event != XMLStreamConstants.START_ELEMENT) {
+                continue;
+            }
+            String localName = reader.getLocalName();
+            if (BeanDefinitionParserDelegate.isDefaultNamespace(reader.getNamespaceURI()) &&
+                    (CONSTRUCTOR_ARG_ELEMENT.equals(localName) || PROPERTY_ELEMENT.equals(localName))) {
+                // 读取子元素后 reader 不再指向当前元素，属性需要先复制出来
+                BeanDefinitionParserDelegate.AttributeSource attributes = copyAttributes(reader);
+                Object subElementValue = parseValueSubElement(reader, delegate);
+                if (CONSTRUCTOR_ARG_ELEMENT.equals(localName)) {
+                    delegate.parseConstructorArgElement(attributes, subElementValue, bd);
+                }
+                else {
+                    delegate.parsePropertyElement(attributes, subElementValue, bd);
+                }
+            }
+            else {
+                skipElement(reader);
+            }
+        }
+    }
+
+    /**
+     * 解析 property 或 constructor-arg 元素中唯一的值子元素，没有时返回 {@code null}；
+     * 结束时停在该元素的 END_ELEMENT 上
+     */
+    private static Object parseValueSubElement(XMLStreamReader reader, BeanDefinitionParserDelegate delegate)
+            throws XMLStreamException {
+        String elementName = reader.getLocalName();
+        Object value = null;
+        while (true) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.END_ELEMENT) {
+                return value;
+            }
+            if (event != XMLStreamConstants.START_ELEMENT) {
+                continue;
+            }
+            String localName = reader.getLocalName();
+            if (DESCRIPTION_ELEMENT.equals(localName) || META_ELEMENT.equals(localName)) {
+                skipElement(reader);
+                continue;
+            }
+            if (value != null) {
+                throw new BeansException("<" + elementName + "> element must not contain more than one sub-element");
+            }
+            BeanDefinitionParserDelegate.AttributeSource attributes = copyAttributes(reader);
+            String text = null;
+            if (VALUE_ELEMENT.equals(localName)) {
+                text = reader.getElementText();
+            }
+            else {
+                skipElement(reader);
+            }
+            value = delegate.parseSubElement(localName, attributes, text);
+        }
+    }
+
+    private static BeanDefinitionParserDelegate.AttributeSource copyAttributes(XMLStreamReader reader) {
+        int count = reader.getAttributeCount();
+        Map<String, String> attributes = new HashMap<String, String>(count * 2);
+        for (int i = 0; i < count; i++) {
+            if (!StringUtils.hasLength(reader.getAttributeNamespace(i))) {
+                attributes.put(reader.getAttributeLocalName(i), reader.getAttributeValue(i));
+            }
+        }
+        return attributes::get;
+    }
+
+    /**
+     * 跳过当前元素的全部内容，结束时停在与之匹配的 END_ELEMENT 上
+     */
+    private static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            }
+            else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+}
@@ -1,21 +1,83 @@
 package com.zavier.beans.factory.xml;
 
 import com.zavier.beans.BeansException;
+import com.zavier.beans.factory.config.BeanDefinitionHolder;
 import com.zavier.beans.factory.support.BeanDefinitionRegistry;
+import com.zavier.core.io.DefaultResourceLoader;
 import com.zavier.core.io.Resource;
+import com.zavier.core.io.ResourceLoader;
+import com.zavier.util.xml.SimpleSaxErrorHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.w3c.dom.Document;
+import org.xml.sax.EntityResolver;
+import org.xml.sax.ErrorHandler;
 import org.xml.sax.InputSource;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 
 public class XmlBeanDefinitionReader {
+
+    /**
+     * Indicates that the validation should be disabled.
+     */
+    public static final int VALIDATION_NONE = 0;
+
+    /**
+     * Indicates that the validation mode should be detected automatically.
+     * <p>目前只支持 XSD，自动模式按 XSD 校验
+     */
+    public static final int VALIDATION_AUTO = 1;
+
+    /**
+     * Indicates that DTD validation should be used.
+     */
+    public static final int VALIDATION_DTD = 2;
+
+    /**
+     * Indicates that XSD validation should be used.
+     */
+    public static final int VALIDATION_XSD = 3;
+
+    private static final Logger logger = LoggerFactory.getLogger(XmlBeanDefinitionReader.class);
+
     private final BeanDefinitionRegistry registry;
 
-    private DocumentLoader documentLoader = new DefaultDocumentLoader();
+    private DocumentLoader documentLoader = new PooledDocumentLoader();
 
     private boolean namespaceAware = false;
 
+    private int validationMode = VALIDATION_AUTO;
+
+    private EntityResolver entityResolver;
+
+    private ErrorHandler errorHandler = new SimpleSaxErrorHandler(logger);
+
+    /** 并行解析多个资源时使用的线程池，为 null 时依次解析 */
+    private Executor executor;
+
+    private ResourceLoader resourceLoader = new DefaultResourceLoader();
+
+    /** 已解析（或正在解析）的资源 --> 解析结果，被导入的资源只解析一次 */
+    private final Map<Resource, CompletableFuture<BufferingBeanDefinitionRegistry>> parsedResources =
+            new ConcurrentHashMap<Resource, CompletableFuture<BufferingBeanDefinitionRegistry>>(16);
+
+    /** 定义已注册到注册表的资源（含被导入的资源），按注册顺序排列，重复导入时跳过 */
+    private final Set<Resource> registeredResources = Collections.synchronizedSet(new LinkedHashSet<Resource>(16));
+
     public XmlBeanDefinitionReader(BeanDefinitionRegistry registry) {
         this.registry = registry;
     }
@@ -24,34 +86,317 @@ public class XmlBeanDefinitionReader {
         return this.namespaceAware;
     }
 
+    /**
+     * Specify the {@link DocumentLoader} to use.
+     * <p>The default implementation is {@link PooledDocumentLoader}, which reuses
+     * one {@code DocumentBuilder} per thread and configuration.
+     */
+    public void setDocumentLoader(DocumentLoader documentLoader) {
+        this.documentLoader = (documentLoader != null ? documentLoader : new PooledDocumentLoader());
+    }
+
+    /**
+     * Set the validation mode to use. Defaults to {@link #VALIDATION_AUTO}.
+     */
+    public void setValidationMode(int validationMode) {
+        this.validationMode = validationMode;
+    }
+
+    /**
+     * Return the validation mode to use.
+     */
+    public int getValidationMode() {
+        return this.validationMode;
+    }
+
+    /**
+     * Set a SAX entity resolver to be used for parsing.
+     * <p>By default, a {@link BeansSchemaResolver} will be used, resolving
+     * the spring-beans schema from the classpath.
+     */
+    public void setEntityResolver(EntityResolver entityResolver) {
+        this.entityResolver = entityResolver;
+    }
+
+    /**
+     * Return the EntityResolver to use, building a default resolver if none specified.
+     */
+    protected EntityResolver getEntityResolver() {
+        if (this.entityResolver == null) {
+            this.entityResolver = new BeansSchemaResolver();
+        }
+        return this.entityResolver;
+    }
+
+    /**
+     * Set an implementation of the {@code org.xml.sax.ErrorHandler}
+     * interface for custom handling of XML parsing errors and warnings.
+     * <p>If not set, a default SimpleSaxErrorHandler is used that simply
+     * logs warnings and rethrows errors to discontinue the XML transformation.
+     */
+    public void setErrorHandler(ErrorHandler errorHandler) {
+        this.errorHandler = errorHandler;
+    }
+
+    /**
+     * Set the executor used by {@link #loadBeanDefinitions(Resource...)} to parse
+     * several resources concurrently.
+     * <p>Default is none, parsing all resources one after another on the calling thread.
+     */
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Return the executor used for parsing several resources, if any.
+     */
+    public Executor getExecutor() {
+        return this.executor;
+    }
+
+    /**
+     * Set the ResourceLoader to use for resource locations such as
+     * {@code classpath:} imports.
+     * <p>Default is a {@link DefaultResourceLoader}.
+     */
+    public void setResourceLoader(ResourceLoader resourceLoader) {
+        this.resourceLoader = (resourceLoader != null ? resourceLoader : new DefaultResourceLoader());
+    }
+
+    /**
+     * Return the ResourceLoader to use for resource locations.
+     */
+    public ResourceLoader getResourceLoader() {
+        return this.resourceLoader;
+    }
+
+    /**
+     * Return the resources whose bean definitions have been registered by this
+     * reader, including the resources reached through {@code <import>} elements,
+     * in registration order.
+     * <p>可直接传给 {@code BinaryBeanDefinitionWriter#write}，使预编译文件记录完整的源资源
+     */
+    public Resource[] getLoadedResources() {
+        synchronized (this.registeredResources) {
+            return this.registeredResources.toArray(new Resource[0]);
+        }
+    }
+
     public int loadBeanDefinitions(Resource resource) {
+        return loadBeanDefinitions(new Resource[] {resource});
+    }
+
+    /**
+     * Load bean definitions from the specified XML files.
+     * <p>With an {@link #setExecutor executor} configured, the files are parsed
+     * concurrently, each into its own buffer. The buffered definitions are then
+     * registered in resource order, so that the resulting registry and any
+     * error reported (e.g. a duplicate bean name) are the same as for a sequential load.
+     * <p>Resources reached through {@code <import>} elements are parsed only once
+     * per reader and registered at the position of their first import only.
+     * @param resources the resource descriptors for the XML files
+     * @return the number of bean definitions found
+     * @throws BeansException in case of loading or parsing errors
+     */
+    public int loadBeanDefinitions(Resource... resources) throws BeansException {
+        return loadBeanDefinitions(resources, true, getRegistry(), this.registeredResources);
+    }
+
+    /**
+     * Load bean definitions from the specified XML files into the given registry.
+     * @param resources the resource descriptors for the XML files
+     * @param reparse whether to parse the given resources again even if cached
+     * @param registry the registry to register the bean definitions with
+     * @param registeredResources the resources already registered with the registry,
+     * to be updated with the resources registered by this call
+     * @return the number of bean definitions found
+     */
+    int loadBeanDefinitions(Resource[] resources, boolean reparse, BeanDefinitionRegistry registry,
+                            Set<Resource> registeredResources) {
+        // 在调用线程上初始化共享的解析配置，避免多个解析任务同时初始化
+        getEntityResolver();
+        List<CompletableFuture<BufferingBeanDefinitionRegistry>> futures =
+                new ArrayList<CompletableFuture<BufferingBeanDefinitionRegistry>>(resources.length);
+        boolean success = false;
+        try {
+            for (Resource resource : resources) {
+                futures.add(parse(resource, reparse));
+            }
+            int count = 0;
+            for (int i = 0; i < resources.length; i++) {
+                registeredResources.add(resources[i]);
+                count += replay(resources[i], futures.get(i), registry, registeredResources,
+                        new ArrayDeque<Resource>());
+            }
+            success = true;
+            return count;
+        }
+        finally {
+            if (!success) {
+                for (CompletableFuture<BufferingBeanDefinitionRegistry> future : futures) {
+                    future.cancel(false);
+                }
+                // 解析失败的资源不缓存，下次加载时重新解析
+                this.parsedResources.values().removeIf(CompletableFuture::isCompletedExceptionally);
+            }
+        }
+    }
+
+    /**
+     * Discard the cached parse result of the given resource, so that the
+     * next load parses it again.
+     */
+    void evictParsedResource(Resource resource) {
+        this.parsedResources.remove(resource);
+    }
+
+    /**
+     * Parse the given resource imported from another resource into the given
+     * buffer. Called by {@link XmlReaderContext#importBeanDefinitions}.
+     * <p>只记录导入位置并确保被导入资源已开始解析，不等待解析结束：
+     * 被导入资源的定义在重放到该位置时才注册
+     */
+    void importBeanDefinitions(Resource importedResource, BeanDefinitionRegistry registry) {
+        if (!(registry instanceof BufferingBeanDefinitionRegistry)) {
+            throw new IllegalStateException("Imports can only be processed while parsing into a buffer");
+        }
+        ((BufferingBeanDefinitionRegistry) registry).addImport(importedResource);
+        parse(importedResource, false);
+    }
+
+    /**
+     * Start parsing the given resource into a new buffer, on the configured
+     * executor if any, else on the calling thread.
+     * @param resource the resource to parse
+     * @param reparse whether to parse the resource again even if it has been parsed before
+     * @return the future buffer of the parsed resource
+     */
+    private CompletableFuture<BufferingBeanDefinitionRegistry> parse(Resource resource, boolean reparse) {
+        CompletableFuture<BufferingBeanDefinitionRegistry> future = new CompletableFuture<BufferingBeanDefinitionRegistry>();
+        if (reparse) {
+            this.parsedResources.put(resource, future);
+        }
+        else {
+            CompletableFuture<BufferingBeanDefinitionRegistry> existing = this.parsedResources.putIfAbsent(resource, future);
+            if (existing != null) {
+                return existing;
+            }
+        }
+        Runnable task = () -> {
+            try {
+                BufferingBeanDefinitionRegistry buffer = new BufferingBeanDefinitionRegistry();
+                loadBeanDefinitions(resource, buffer);
+                future.complete(buffer);
+            }
+            catch (Throwable ex) {
+                future.completeExceptionally(ex);
+            }
+        };
+        if (this.executor != null) {
+            this.executor.execute(task);
+        }
+        else {
+            task.run();
+        }
+        return future;
+    }
+
+    /**
+     * Register the buffered bean definitions of the given resource with the
+     * given registry, replaying imports at their position.
+     * @param resource the resource to replay
+     * @param future the future buffer of the resource
+     * @param registry the registry to register the bean definitions with
+     * @param registeredResources the resources already registered with the registry
+     * @param importStack the resources currently being replayed, for cycle detection
+     * @return the number of bean definitions registered
+     */
+    private int replay(Resource resource, CompletableFuture<BufferingBeanDefinitionRegistry> future,
+                       BeanDefinitionRegistry registry, Set<Resource> registeredResources,
+                       Deque<Resource> importStack) {
+        importStack.push(resource);
+        int count = 0;
+        for (Object entry : join(future).getEntries()) {
+            if (entry instanceof BeanDefinitionHolder) {
+                BeanDefinitionHolder holder = (BeanDefinitionHolder) entry;
+                registry.registerBeanDefinition(holder.getBeanName(), holder.getBeanDefinition());
+                count++;
+                continue;
+            }
+            Resource importedResource = (Resource) entry;
+            if (importStack.contains(importedResource)) {
+                throw new BeansException("Detected cyclic loading of " + importedResource.getDescription() +
+                        " - check your import definitions!");
+            }
+            // 同一资源经多条路径导入时只在第一次出现的位置注册
+            // 被导入资源的缓存可能已单独失效（如重新加载时只淘汰了变化的文件），此时重新解析
+            if (registeredResources.add(importedResource)) {
+                count += replay(importedResource, parse(importedResource, false),
+                        registry, registeredResources, importStack);
+            }
+        }
+        importStack.pop();
+        return count;
+    }
+
+    private static BufferingBeanDefinitionRegistry join(CompletableFuture<BufferingBeanDefinitionRegistry> future) {
+        try {
+            return future.join();
+        }
+        catch (CompletionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new BeansException(cause.getMessage(), cause);
+        }
+    }
+
+    private int loadBeanDefinitions(Resource resource, BeanDefinitionRegistry registry) {
         try (InputStream inputStream = resource.getInputStream()) {
             final InputSource inputSource = new InputSource(inputStream);
-            return doLoadBeanDefinitions(inputSource, resource);
+            return doLoadBeanDefinitions(inputSource, resource, registry);
         } catch (IOException e) {
             throw new BeansException(e.getMessage(), e);
         }
     }
 
-    private int doLoadBeanDefinitions(InputSource inputSource, Resource resource) {
+    private int doLoadBeanDefinitions(InputSource inputSource, Resource resource, BeanDefinitionRegistry registry) {
         try {
             Document doc = doLoadDocument(inputSource, resource);
-            return registerBeanDefinitions(doc, resource);
+            return registerBeanDefinitions(doc, resource, registry);
+        } catch (BeansException e) {
+            throw e;
         } catch (Exception e) {
-            throw new BeansException(e.getMessage());
+            throw new BeansException(e.getMessage(), e);
         }
     }
 
     protected Document doLoadDocument(InputSource inputSource, Resource resource) throws Exception {
-        return this.documentLoader.loadDocument(inputSource, null, null,
-                1, isNamespaceAware());
+        return this.documentLoader.loadDocument(inputSource, getEntityResolver(), this.errorHandler,
+                getValidationMode(), isNamespaceAware());
     }
 
     public int registerBeanDefinitions(Document doc, Resource resource) {
+        BufferingBeanDefinitionRegistry buffer = new BufferingBeanDefinitionRegistry();
+        registerBeanDefinitions(doc, resource, buffer);
+        this.registeredResources.add(resource);
+        return replay(resource, CompletableFuture.completedFuture(buffer), getRegistry(),
+                this.registeredResources, new ArrayDeque<Resource>());
+    }
+
+    private int registerBeanDefinitions(Document doc, Resource resource, BeanDefinitionRegistry registry) {
         BeanDefinitionDocumentReader documentReader = createBeanDefinitionDocumentReader();
-        int countBefore = getRegistry().getBeanDefinitionCount();
-        documentReader.registerBeanDefinitions(doc, registry);
-        return getRegistry().getBeanDefinitionCount() - countBefore;
+        int countBefore = registry.getBeanDefinitionCount();
+        documentReader.registerBeanDefinitions(doc, createReaderContext(resource, registry));
+        return registry.getBeanDefinitionCount() - countBefore;
+    }
+
+    protected XmlReaderContext createReaderContext(Resource resource, BeanDefinitionRegistry registry) {
+        return new XmlReaderContext(resource, this, registry);
     }
 
     public final BeanDefinitionRegistry getRegistry() {
@@ -0,0 +1,50 @@
+package com.zavier.beans.factory.xml;
+
+import com.zavier.beans.factory.support.BeanDefinitionRegistry;
+import com.zavier.core.io.Resource;
+import com.zavier.core.io.ResourceLoader;
+
+/**
+ * Context that gets passed along a bean definition reading process,
+ * encapsulating the resource being read, the reader and the registry
+ * that receives the parsed definitions.
+ */
+public class XmlReaderContext {
+
+    private final Resource resource;
+
+    private final XmlBeanDefinitionReader reader;
+
+    private final BeanDefinitionRegistry registry;
+
+    public XmlReaderContext(Resource resource, XmlBeanDefinitionReader reader, BeanDefinitionRegistry registry) {
+        this.resource = resource;
+        this.reader = reader;
+        this.registry = registry;
+    }
+
+    public final Resource getResource() {
+        return this.resource;
+    }
+
+    public final XmlBeanDefinitionReader getReader() {
+        return this.reader;
+    }
+
+    public final BeanDefinitionRegistry getRegistry() {
+        return this.registry;
+    }
+
+    public final ResourceLoader getResourceLoader() {
+        return this.reader.getResourceLoader();
+    }
+
+    /**
+     * Import the bean definitions of the given resource at the current position.
+     * <p>同一个读取器中每个资源只解析一次，也只注册一次
+     * @param importedResource the resource to import
+     */
+    public void importBeanDefinitions(Resource importedResource) {
+        this.reader.importBeanDefinitions(importedResource, this.registry);
+    }
+}
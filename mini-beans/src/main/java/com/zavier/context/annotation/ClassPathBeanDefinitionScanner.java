@@ -0,0 +1,253 @@
+package com.zavier.context.annotation;
+
+import com.zavier.beans.BeansException;
+import com.zavier.beans.factory.config.BeanDefinition;
+import com.zavier.beans.factory.support.BeanDefinitionRegistry;
+import com.zavier.beans.factory.support.GenericBeanDefinition;
+import com.zavier.context.index.CandidateComponentsIndex;
+import com.zavier.context.index.CandidateComponentsIndexLoader;
+import com.zavier.core.io.Resource;
+import com.zavier.core.io.ResourceLoader;
+import com.zavier.core.io.support.PathMatchingResourcePatternResolver;
+import com.zavier.core.io.support.ResourcePatternResolver;
+import com.zavier.core.type.classreading.ClassFileMetadata;
+import com.zavier.stereotype.Component;
+import com.zavier.util.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.beans.Introspector;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A bean definition scanner that detects bean candidates on the classpath,
+ * registering corresponding bean definitions with a given registry.
+ * <p>Candidate classes are detected through {@link Component @Component},
+ * either declared directly or as a meta-annotation on another annotation.
+ * <p>候选类通过 {@link ClassFileMetadata} 直接读取 class 文件判断，扫描过程不加载、
+ * 不初始化任何类；注册的 {@link GenericBeanDefinition} 只包含类名，创建 bean 时才加载类。
+ * <p>类路径中存在编译时生成的组件索引（见 {@link CandidateComponentsIndexLoader}）时，
+ * 只读取索引列出的候选类，不再遍历包下的所有 class 文件
+ */
+public class ClassPathBeanDefinitionScanner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClassPathBeanDefinitionScanner.class);
+
+    static final String DEFAULT_RESOURCE_PATTERN = "**/*.class";
+
+    private static final String COMPONENT_ANNOTATION = Component.class.getName();
+
+    private final BeanDefinitionRegistry registry;
+
+    private ResourcePatternResolver resourcePatternResolver;
+
+    private CandidateComponentsIndex componentsIndex;
+
+    /** 注解类型名称 --> 是否为组件注解（直接或间接被 @Component 标注） */
+    private final Map<String, Boolean> stereotypeCache = new ConcurrentHashMap<String, Boolean>(16);
+
+    public ClassPathBeanDefinitionScanner(BeanDefinitionRegistry registry) {
+        this(registry, new PathMatchingResourcePatternResolver());
+    }
+
+    public ClassPathBeanDefinitionScanner(BeanDefinitionRegistry registry, ResourcePatternResolver resourcePatternResolver) {
+        this.registry = registry;
+        this.resourcePatternResolver = resourcePatternResolver;
+        this.componentsIndex = CandidateComponentsIndexLoader.loadIndex(resourcePatternResolver.getClassLoader());
+    }
+
+    public final BeanDefinitionRegistry getRegistry() {
+        return this.registry;
+    }
+
+    /**
+     * Set the ResourceLoader to use for resource locations.
+     * <p>Default is a {@link PathMatchingResourcePatternResolver}.
+     */
+    public void setResourceLoader(ResourceLoader resourceLoader) {
+        this.resourcePatternResolver = (resourceLoader instanceof ResourcePatternResolver ?
+                (ResourcePatternResolver) resourceLoader : new PathMatchingResourcePatternResolver(resourceLoader));
+        this.componentsIndex = CandidateComponentsIndexLoader.loadIndex(this.resourcePatternResolver.getClassLoader());
+        this.stereotypeCache.clear();
+    }
+
+    /**
+     * Perform a scan within the specified base packages.
+     * @param basePackages the packages to check for annotated classes
+     * @return number of beans registered
+     * @throws BeansException if the class path cannot be read or a bean name
+     * conflicts with an existing, incompatible bean definition
+     */
+    public int scan(String... basePackages) throws BeansException {
+        int beanCountAtScanStart = this.registry.getBeanDefinitionCount();
+        for (String basePackage : basePackages) {
+            for (Map.Entry<String, BeanDefinition> candidate : findCandidateComponents(basePackage).entrySet()) {
+                if (checkCandidate(candidate.getKey(), candidate.getValue())) {
+                    this.registry.registerBeanDefinition(candidate.getKey(), candidate.getValue());
+                }
+            }
+        }
+        return this.registry.getBeanDefinitionCount() - beanCountAtScanStart;
+    }
+
+    /**
+     * Scan the class path for candidate components.
+     * @param basePackage the package to check for annotated classes
+     * @return the candidate bean definitions by bean name, in class path order
+     */
+    public Map<String, BeanDefinition> findCandidateComponents(String basePackage) throws BeansException {
+        if (this.componentsIndex != null) {
+            return addCandidateComponentsFromIndex(this.componentsIndex, basePackage);
+        }
+        return scanCandidateComponents(basePackage);
+    }
+
+    private Map<String, BeanDefinition> addCandidateComponentsFromIndex(CandidateComponentsIndex index, String basePackage) {
+        Map<String, BeanDefinition> candidates = new LinkedHashMap<String, BeanDefinition>();
+        for (String type : index.getCandidateTypes(basePackage, COMPONENT_ANNOTATION)) {
+            Resource resource = this.resourcePatternResolver.getResource(
+                    ResourceLoader.CLASSPATH_URL_PREFIX + type.replace('.', '/') + ".class");
+            addCandidateComponent(candidates, resource);
+        }
+        return candidates;
+    }
+
+    private Map<String, BeanDefinition> scanCandidateComponents(String basePackage) {
+        String packageSearchPath = ResourcePatternResolver.CLASSPATH_ALL_URL_PREFIX +
+                basePackage.replace('.', '/') + '/' + DEFAULT_RESOURCE_PATTERN;
+        Resource[] resources;
+        try {
+            resources = this.resourcePatternResolver.getResources(packageSearchPath);
+        }
+        catch (IOException ex) {
+            throw new BeansException("I/O failure during classpath scanning of package '" + basePackage + "'", ex);
+        }
+        Map<String, BeanDefinition> candidates = new LinkedHashMap<String, BeanDefinition>();
+        for (Resource resource : resources) {
+            addCandidateComponent(candidates, resource);
+        }
+        return candidates;
+    }
+
+    private void addCandidateComponent(Map<String, BeanDefinition> candidates, Resource resource) {
+        ClassFileMetadata metadata;
+        try {
+            metadata = ClassFileMetadata.read(resource);
+        }
+        catch (IOException ex) {
+            throw new BeansException("Failed to read candidate component class: " + resource.getDescription(), ex);
+        }
+        if (isCandidateComponent(metadata)) {
+            GenericBeanDefinition bd = new GenericBeanDefinition();
+            bd.setBeanClassName(metadata.getClassName());
+            bd.setResource(resource);
+            String beanName = generateBeanName(metadata);
+            BeanDefinition existing = candidates.put(beanName, bd);
+            if (existing != null && !existing.getBeanClassName().equals(bd.getBeanClassName())) {
+                throw new BeansException("Annotation-specified bean name '" + beanName + "' for bean class [" +
+                        bd.getBeanClassName() + "] conflicts with existing, non-compatible bean definition of same name " +
+                        "and class [" + existing.getBeanClassName() + "]");
+            }
+            if (logger.isDebugEnabled()) {
+                logger.debug("Identified candidate component class: {}", resource.getDescription());
+            }
+        }
+    }
+
+    /**
+     * Determine whether the given class is a concrete, independent class
+     * annotated as a component.
+     */
+    protected boolean isCandidateComponent(ClassFileMetadata metadata) {
+        if (!metadata.isConcrete() || !metadata.isIndependent()) {
+            return false;
+        }
+        for (String annotationType : metadata.getAnnotationTypes()) {
+            if (isStereotype(annotationType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 判断注解类型是否为组件注解：注解的 class 文件同样直接读取，不加载注解类
+     */
+    private boolean isStereotype(String annotationType) {
+        if (COMPONENT_ANNOTATION.equals(annotationType)) {
+            return true;
+        }
+        Boolean cached = this.stereotypeCache.get(annotationType);
+        if (cached == null) {
+            cached = isMetaAnnotatedWithComponent(annotationType, new HashSet<String>());
+            this.stereotypeCache.put(annotationType, cached);
+        }
+        return cached;
+    }
+
+    private boolean isMetaAnnotatedWithComponent(String annotationType, Set<String> visited) {
+        if (annotationType.startsWith("java.") || !visited.add(annotationType)) {
+            return false;
+        }
+        Resource resource = this.resourcePatternResolver.getResource(ResourceLoader.CLASSPATH_URL_PREFIX +
+                annotationType.replace('.', '/') + ".class");
+        ClassFileMetadata metadata;
+        try {
+            if (!resource.exists()) {
+                return false;
+            }
+            metadata = ClassFileMetadata.read(resource);
+        }
+        catch (IOException ex) {
+            logger.debug("Could not read annotation class {}: {}", annotationType, ex.getMessage());
+            return false;
+        }
+        for (String metaAnnotationType : metadata.getAnnotationTypes()) {
+            if (COMPONENT_ANNOTATION.equals(metaAnnotationType) ||
+                    isMetaAnnotatedWithComponent(metaAnnotationType, visited)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Derive a bean name from the {@code value} of a component annotation, or
+     * else from the short class name, e.g. {@code "myService"} for {@code com.foo.MyService}.
+     */
+    protected String generateBeanName(ClassFileMetadata metadata) {
+        for (String annotationType : metadata.getAnnotationTypes()) {
+            if (isStereotype(annotationType)) {
+                Object value = metadata.getAnnotationAttributes(annotationType).get("value");
+                if (value instanceof String && StringUtils.hasLength((String) value)) {
+                    return (String) value;
+                }
+            }
+        }
+        String className = metadata.getClassName();
+        String shortName = className.substring(className.lastIndexOf('.') + 1).replace('$', '.');
+        return Introspector.decapitalize(shortName);
+    }
+
+    /**
+     * 名称已被占用时：同一个类的定义（例如重复扫描）直接跳过，否则报告冲突
+     */
+    private boolean checkCandidate(String beanName, BeanDefinition beanDefinition) {
+        if (!this.registry.containsBeanDefinition(beanName)) {
+            return true;
+        }
+        BeanDefinition existing = this.registry.getBeanDefinition(beanName);
+        if (beanDefinition.getBeanClassName().equals(existing.getBeanClassName())) {
+            return false;
+        }
+        throw new BeansException("Annotation-specified bean name '" + beanName + "' for bean class [" +
+                beanDefinition.getBeanClassName() + "] conflicts with existing, non-compatible bean definition of same name " +
+                "and class [" + existing.getBeanClassName() + "]");
+    }
+
+}
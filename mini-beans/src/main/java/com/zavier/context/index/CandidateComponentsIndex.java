@@ -0,0 +1,72 @@
+package com.zavier.context.index;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * Provide access to the candidates that are defined in {@code META-INF/spring-mini.components}.
+ * <p>An arbitrary number of stereotypes can be registered (and queried) on the index:
+ * a typical example is the fully qualified name of an annotation that flags the
+ * class for a certain use case.
+ */
+public class CandidateComponentsIndex {
+
+    /** 按类文件路径排序，与类路径扫描时同一目录下资源的顺序一致 */
+    private static final Comparator<String> CLASS_FILE_ORDER =
+            Comparator.comparing(type -> type.replace('.', '/') + ".class");
+
+    /** 构造型 --> 标注了该构造型的类名 */
+    private final Map<String, List<String>> index;
+
+    /**
+     * Create an index from the given index files, in class path order.
+     * <p>{@link Properties} 不保留文件中的顺序，每个索引文件中的类按类文件路径排序，
+     * 使注册顺序与类路径扫描一致
+     */
+    CandidateComponentsIndex(List<Properties> content) {
+        Map<String, List<String>> index = new HashMap<String, List<String>>();
+        for (Properties entry : content) {
+            List<String> types = new ArrayList<String>(entry.stringPropertyNames());
+            types.sort(CLASS_FILE_ORDER);
+            for (String type : types) {
+                for (String stereotype : entry.getProperty(type).split(",")) {
+                    stereotype = stereotype.trim();
+                    if (!stereotype.isEmpty()) {
+                        index.computeIfAbsent(stereotype, key -> new ArrayList<String>()).add(type);
+                    }
+                }
+            }
+        }
+        this.index = index;
+    }
+
+    /**
+     * Return the candidate types that are associated with the specified stereotype.
+     * @param basePackage the package to check for candidates
+     * @param stereotype the stereotype to use
+     * @return the candidate types associated with the specified {@code stereotype}
+     * or an empty set if none has been found for the specified {@code basePackage}
+     */
+    public Set<String> getCandidateTypes(String basePackage, String stereotype) {
+        List<String> candidates = this.index.get(stereotype);
+        if (candidates == null) {
+            return Collections.emptySet();
+        }
+        String packagePrefix = basePackage + '.';
+        Set<String> result = new LinkedHashSet<String>();
+        for (String candidate : candidates) {
+            if (candidate.startsWith(packagePrefix)) {
+                result.add(candidate);
+            }
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,97 @@
+package com.zavier.context.index;
+
+import com.zavier.util.ClassUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.WeakHashMap;
+
+/**
+ * Candidate components index loading mechanism for internal use within the framework.
+ * <p>索引由 mini-index 模块中的注解处理器在编译时生成。只要类路径中存在任何一个索引文件，
+ * 扫描就完全以索引为准，因此所有包含组件的 jar 都应当生成索引；否则可以设置系统属性
+ * {@value #IGNORE_INDEX} 为 {@code true} 回退到类路径扫描
+ */
+public final class CandidateComponentsIndexLoader {
+
+    /**
+     * The location to look for components.
+     * <p>Can be present in multiple JAR files.
+     */
+    public static final String COMPONENTS_RESOURCE_LOCATION = "META-INF/spring-mini.components";
+
+    /**
+     * System property that instructs to ignore the index, i.e. to always
+     * return {@code null} from {@link #loadIndex(ClassLoader)}.
+     */
+    public static final String IGNORE_INDEX = "spring-mini.index.ignore";
+
+    private static final Logger logger = LoggerFactory.getLogger(CandidateComponentsIndexLoader.class);
+
+    /** 每个类加载器只读取一次；值中只有字符串，不会阻止类加载器被回收 */
+    private static final Map<ClassLoader, CandidateComponentsIndex> cache =
+            Collections.synchronizedMap(new WeakHashMap<ClassLoader, CandidateComponentsIndex>());
+
+    /** 表示类路径中没有索引 */
+    private static final CandidateComponentsIndex NO_INDEX = new CandidateComponentsIndex(Collections.emptyList());
+
+    private CandidateComponentsIndexLoader() {
+    }
+
+    /**
+     * Load and instantiate the {@link CandidateComponentsIndex} from
+     * {@value #COMPONENTS_RESOURCE_LOCATION}, using the given class loader. If no
+     * index is available, return {@code null}.
+     * @param classLoader the ClassLoader to use for loading (can be {@code null} to use the default)
+     * @return the index to use or {@code null} if no index was found
+     * @throws IllegalArgumentException if any module index cannot be loaded
+     */
+    public static CandidateComponentsIndex loadIndex(ClassLoader classLoader) {
+        if (Boolean.getBoolean(IGNORE_INDEX)) {
+            return null;
+        }
+        ClassLoader classLoaderToUse = (classLoader != null ? classLoader : ClassUtils.getDefaultClassLoader());
+        CandidateComponentsIndex index = cache.get(classLoaderToUse);
+        if (index == null) {
+            index = doLoadIndex(classLoaderToUse);
+            cache.put(classLoaderToUse, index);
+        }
+        return (index != NO_INDEX ? index : null);
+    }
+
+    private static CandidateComponentsIndex doLoadIndex(ClassLoader classLoader) {
+        try {
+            Enumeration<URL> urls = classLoader.getResources(COMPONENTS_RESOURCE_LOCATION);
+            if (!urls.hasMoreElements()) {
+                return NO_INDEX;
+            }
+            List<Properties> result = new ArrayList<Properties>();
+            while (urls.hasMoreElements()) {
+                URL url = urls.nextElement();
+                Properties properties = new Properties();
+                try (InputStream is = url.openStream()) {
+                    properties.load(is);
+                }
+                result.add(properties);
+            }
+            if (logger.isDebugEnabled()) {
+                logger.debug("Loaded {} index(es)", result.size());
+            }
+            return new CandidateComponentsIndex(result);
+        }
+        catch (IOException ex) {
+            throw new IllegalArgumentException("Unable to load indexes from location [" +
+                    COMPONENTS_RESOURCE_LOCATION + "]", ex);
+        }
+    }
+
+}
@@ -0,0 +1,131 @@
+package com.zavier.core.io;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Abstract base class for resources which resolve URLs into File references,
+ * such as {@link UrlResource} or {@link ClassPathResource}.
+ * <p>{@code file:} 资源直接访问文件系统（读取属性不打开文件，读取内容使用
+ * {@link FileChannel}）；其他协议（例如 {@code jar:}）通过 {@link URLConnection} 访问
+ */
+public abstract class AbstractFileResolvingResource extends AbstractResource {
+
+    /** URL protocol for a file in the file system: "file" */
+    public static final String URL_PROTOCOL_FILE = "file";
+
+    @Override
+    public abstract URL getURL() throws IOException;
+
+    @Override
+    public boolean exists() {
+        try {
+            URL url = getURL();
+            if (isFileURL(url)) {
+                return getFile(url).exists();
+            }
+            URLConnection con = url.openConnection();
+            if (con instanceof HttpURLConnection) {
+                HttpURLConnection httpCon = (HttpURLConnection) con;
+                httpCon.setRequestMethod("HEAD");
+                int code = httpCon.getResponseCode();
+                httpCon.disconnect();
+                return (code == HttpURLConnection.HTTP_OK);
+            }
+            if (con.getContentLengthLong() > 0) {
+                return true;
+            }
+            // 长度为 0 的资源只能通过打开输入流确认是否存在
+            con.getInputStream().close();
+            return true;
+        }
+        catch (IOException ex) {
+            return false;
+        }
+    }
+
+    @Override
+    public File getFile() throws IOException {
+        return getFile(getURL());
+    }
+
+    /**
+     * This implementation returns a FileChannel for a file system resource,
+     * and a channel over the InputStream otherwise.
+     */
+    @Override
+    public ReadableByteChannel readableChannel() throws IOException {
+        URL url = getURL();
+        if (isFileURL(url)) {
+            return FileChannel.open(getFile(url).toPath(), StandardOpenOption.READ);
+        }
+        return super.readableChannel();
+    }
+
+    @Override
+    public long contentLength() throws IOException {
+        URL url = getURL();
+        if (isFileURL(url)) {
+            File file = getFile(url);
+            long length = file.length();
+            if (length == 0L && !file.exists()) {
+                throw new FileNotFoundException(getDescription() +
+                        " cannot be resolved in the file system for checking its content length");
+            }
+            return length;
+        }
+        URLConnection con = url.openConnection();
+        if (con instanceof HttpURLConnection) {
+            ((HttpURLConnection) con).setRequestMethod("HEAD");
+        }
+        return con.getContentLengthLong();
+    }
+
+    @Override
+    public long lastModified() throws IOException {
+        URL url = getURL();
+        if (isFileURL(url)) {
+            return super.lastModified();
+        }
+        URLConnection con = url.openConnection();
+        if (con instanceof HttpURLConnection) {
+            ((HttpURLConnection) con).setRequestMethod("HEAD");
+        }
+        long lastModified = con.getLastModified();
+        if (lastModified == 0L && con.getContentLengthLong() <= 0) {
+            throw new FileNotFoundException(getDescription() +
+                    " cannot be resolved in the file system for checking its last-modified timestamp");
+        }
+        return lastModified;
+    }
+
+    static boolean isFileURL(URL url) {
+        return URL_PROTOCOL_FILE.equals(url.getProtocol());
+    }
+
+    /**
+     * Resolve the given URL into a File, provided that it refers to a file in the file system.
+     */
+    File getFile(URL url) throws FileNotFoundException {
+        if (!isFileURL(url)) {
+            throw new FileNotFoundException(getDescription() + " cannot be resolved to absolute file path " +
+                    "because it does not reside in the file system: " + url);
+        }
+        try {
+            return new File(url.toURI().getSchemeSpecificPart());
+        }
+        catch (URISyntaxException ex) {
+            // 非标准 URL，退回到原始文件路径
+            return new File(url.getFile());
+        }
+    }
+
+}
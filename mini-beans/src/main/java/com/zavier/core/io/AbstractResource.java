@@ -0,0 +1,38 @@
+package com.zavier.core.io;
+
+/**
+ * Convenience base class for {@link Resource} implementations.
+ * <p>资源的身份由描述决定：{@link #equals} 与 {@link #hashCode} 比较描述，
+ * {@link #toString} 返回描述
+ */
+public abstract class AbstractResource implements Resource {
+
+    @Override
+    public abstract String getDescription();
+
+    /**
+     * This implementation compares description strings.
+     */
+    @Override
+    public boolean equals(Object other) {
+        return (this == other || (other instanceof Resource &&
+                ((Resource) other).getDescription().equals(getDescription())));
+    }
+
+    /**
+     * This implementation returns the description's hash code.
+     */
+    @Override
+    public int hashCode() {
+        return getDescription().hashCode();
+    }
+
+    /**
+     * This implementation returns the description of this resource.
+     */
+    @Override
+    public String toString() {
+        return getDescription();
+    }
+
+}
@@ -1,10 +1,14 @@
 package com.zavier.core.io;
 
+import com.zavier.util.ClassUtils;
+import com.zavier.util.StringUtils;
+
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.URL;
 
-public class ClassPathResource implements Resource {
+public class ClassPathResource extends AbstractFileResolvingResource {
     private final String path;
 
     private ClassLoader classLoader;
@@ -12,16 +16,52 @@ public class ClassPathResource implements Resource {
     private Class<?> clazz;
 
     public ClassPathResource(String path) {
-        this.path = path;
+        this(path, null);
     }
 
     public ClassPathResource(String path, ClassLoader classLoader) {
-        String pathToUse = path;
+        String pathToUse = StringUtils.cleanPath(path);
         if (pathToUse.startsWith("/")) {
             pathToUse = pathToUse.substring(1);
         }
         this.path = pathToUse;
-        this.classLoader = (classLoader != null ? classLoader : getDefaultClassLoader());
+        this.classLoader = (classLoader != null ? classLoader : ClassUtils.getDefaultClassLoader());
+    }
+
+    /**
+     * Return the path for this resource (as resource path within the class path).
+     */
+    public final String getPath() {
+        return this.path;
+    }
+
+    /**
+     * Return the ClassLoader that this resource will be obtained from.
+     */
+    public final ClassLoader getClassLoader() {
+        return (this.clazz != null ? this.clazz.getClassLoader() : this.classLoader);
+    }
+
+    /**
+     * This implementation checks for the resolution of a resource URL.
+     */
+    @Override
+    public boolean exists() {
+        return (resolveURL() != null);
+    }
+
+    /**
+     * Resolves a URL for the underlying class path resource.
+     * @return the resolved URL, or {@code null} if not resolvable
+     */
+    protected URL resolveURL() {
+        if (this.clazz != null) {
+            return this.clazz.getResource(this.path);
+        } else if (this.classLoader != null) {
+            return this.classLoader.getResource(this.path);
+        } else {
+            return ClassLoader.getSystemResource(this.path);
+        }
     }
 
     public InputStream getInputStream() throws IOException {
@@ -34,19 +74,62 @@ public class ClassPathResource implements Resource {
             is = ClassLoader.getSystemResourceAsStream(path);
         }
         if (is == null) {
-            throw new FileNotFoundException(path + " cannot be opened because it does not exist");
+            throw new FileNotFoundException(getDescription() + " cannot be opened because it does not exist");
         }
         return is;
     }
 
-    private ClassLoader getDefaultClassLoader() {
-        ClassLoader cl = Thread.currentThread().getContextClassLoader();
-        if (cl == null) {
-            cl = ClassPathResource.class.getClassLoader();
-            if (cl == null) {
-                cl = ClassLoader.getSystemClassLoader();
-            }
+    /**
+     * This implementation returns a URL for the underlying class path resource,
+     * if available.
+     */
+    @Override
+    public URL getURL() throws IOException {
+        URL url = resolveURL();
+        if (url == null) {
+            throw new FileNotFoundException(getDescription() + " cannot be resolved to URL because it does not exist");
         }
-        return cl;
+        return url;
+    }
+
+    /**
+     * This implementation creates a ClassPathResource, applying the given path
+     * relative to the path of the underlying resource of this descriptor.
+     */
+    @Override
+    public Resource createRelative(String relativePath) {
+        String pathToUse = StringUtils.applyRelativePath(this.path, relativePath);
+        return new ClassPathResource(pathToUse, this.classLoader);
+    }
+
+    @Override
+    public String getDescription() {
+        return "class path resource [" + this.path + "]";
+    }
+
+    /**
+     * 同一类加载器下路径相同的资源视为同一个资源
+     */
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof ClassPathResource)) {
+            return false;
+        }
+        ClassPathResource otherRes = (ClassPathResource) other;
+        return (this.path.equals(otherRes.path) &&
+                equalsNullable(this.classLoader, otherRes.classLoader) &&
+                equalsNullable(this.clazz, otherRes.clazz));
+    }
+
+    @Override
+    public int hashCode() {
+        return this.path.hashCode();
+    }
+
+    private static boolean equalsNullable(Object o1, Object o2) {
+        return (o1 == o2 || (o1 != null && o1.equals(o2)));
     }
 }
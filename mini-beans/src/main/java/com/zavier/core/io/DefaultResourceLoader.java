@@ -0,0 +1,61 @@
+package com.zavier.core.io;
+
+import com.zavier.util.ClassUtils;
+
+import java.io.File;
+import java.net.MalformedURLException;
+import java.net.URISyntaxException;
+import java.net.URL;
+
+/**
+ * Default implementation of the {@link ResourceLoader} interface.
+ * <p>{@code classpath:} 前缀与不带协议的位置按类路径解析，{@code file:} URL
+ * 解析为 {@link FileSystemResource}，其他 URL 解析为 {@link UrlResource}
+ */
+public class DefaultResourceLoader implements ResourceLoader {
+
+    private ClassLoader classLoader;
+
+    public DefaultResourceLoader() {
+        this.classLoader = ClassUtils.getDefaultClassLoader();
+    }
+
+    public DefaultResourceLoader(ClassLoader classLoader) {
+        this.classLoader = classLoader;
+    }
+
+    public void setClassLoader(ClassLoader classLoader) {
+        this.classLoader = classLoader;
+    }
+
+    @Override
+    public ClassLoader getClassLoader() {
+        return (this.classLoader != null ? this.classLoader : ClassUtils.getDefaultClassLoader());
+    }
+
+    @Override
+    public Resource getResource(String location) {
+        if (location == null) {
+            throw new IllegalArgumentException("Location must not be null");
+        }
+        if (location.startsWith(CLASSPATH_URL_PREFIX)) {
+            return new ClassPathResource(location.substring(CLASSPATH_URL_PREFIX.length()), getClassLoader());
+        }
+        try {
+            URL url = new URL(location);
+            if (AbstractFileResolvingResource.isFileURL(url)) {
+                try {
+                    return new FileSystemResource(new File(url.toURI()));
+                }
+                catch (URISyntaxException | IllegalArgumentException ex) {
+                    return new UrlResource(url);
+                }
+            }
+            return new UrlResource(url);
+        }
+        catch (MalformedURLException ex) {
+            // 不是 URL，按类路径解析
+            return new ClassPathResource(location, getClassLoader());
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.zavier.core.io;
+
+import com.zavier.util.StringUtils;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * {@link Resource} implementation for {@code java.io.File} and
+ * {@code java.nio.file.Path} handles with a file system target.
+ * <p>内容通过 NIO 读取：{@link #readableChannel()} 返回 {@link FileChannel}，
+ * {@link #getByteBuffer()} 把整个文件映射到内存，读取时不经过堆内缓冲区
+ */
+public class FileSystemResource extends AbstractResource {
+
+    private final String path;
+
+    private final Path filePath;
+
+    /**
+     * Create a new FileSystemResource from a file path.
+     * @param path a file path
+     */
+    public FileSystemResource(String path) {
+        this.path = StringUtils.cleanPath(path);
+        this.filePath = Paths.get(path);
+    }
+
+    /**
+     * Create a new FileSystemResource from a {@link File} handle.
+     * @param file a File handle
+     */
+    public FileSystemResource(File file) {
+        this(file.toPath());
+    }
+
+    /**
+     * Create a new FileSystemResource from a {@link Path} handle.
+     * @param filePath a Path handle to a file
+     */
+    public FileSystemResource(Path filePath) {
+        this.path = StringUtils.cleanPath(filePath.toString());
+        this.filePath = filePath;
+    }
+
+    /**
+     * Return the file path for this resource.
+     */
+    public final String getPath() {
+        return this.path;
+    }
+
+    /**
+     * This implementation returns whether the underlying file exists.
+     */
+    @Override
+    public boolean exists() {
+        return Files.exists(this.filePath);
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        try {
+            return Files.newInputStream(this.filePath);
+        }
+        catch (NoSuchFileException ex) {
+            throw new FileNotFoundException(ex.getMessage());
+        }
+    }
+
+    /**
+     * This implementation opens a FileChannel for the underlying file.
+     */
+    @Override
+    public ReadableByteChannel readableChannel() throws IOException {
+        try {
+            return FileChannel.open(this.filePath, StandardOpenOption.READ);
+        }
+        catch (NoSuchFileException ex) {
+            throw new FileNotFoundException(ex.getMessage());
+        }
+    }
+
+    /**
+     * Map the content of the underlying file into memory.
+     * <p>The returned buffer is read-only and stays valid after this call;
+     * changes of the file may or may not be visible through it.
+     * @return the mapped content of the file
+     * @throws IOException if the file cannot be opened or mapped
+     */
+    public ByteBuffer getByteBuffer() throws IOException {
+        try (FileChannel channel = FileChannel.open(this.filePath, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        catch (NoSuchFileException ex) {
+            throw new FileNotFoundException(ex.getMessage());
+        }
+    }
+
+    /**
+     * This implementation returns the underlying File's length.
+     */
+    @Override
+    public long contentLength() throws IOException {
+        try {
+            return Files.size(this.filePath);
+        }
+        catch (NoSuchFileException ex) {
+            throw new FileNotFoundException(ex.getMessage());
+        }
+    }
+
+    /**
+     * This implementation returns the underlying File's timestamp.
+     */
+    @Override
+    public long lastModified() throws IOException {
+        try {
+            return Files.getLastModifiedTime(this.filePath).toMillis();
+        }
+        catch (NoSuchFileException ex) {
+            throw new FileNotFoundException(ex.getMessage());
+        }
+    }
+
+    /**
+     * This implementation returns a URL for the underlying file.
+     */
+    @Override
+    public URL getURL() throws IOException {
+        return this.filePath.toUri().toURL();
+    }
+
+    /**
+     * This implementation returns the underlying File reference.
+     */
+    @Override
+    public File getFile() {
+        return this.filePath.toFile();
+    }
+
+    /**
+     * This implementation creates a FileSystemResource, applying the given path
+     * relative to the path of the underlying file of this resource descriptor.
+     */
+    @Override
+    public Resource createRelative(String relativePath) {
+        String pathToUse = StringUtils.applyRelativePath(this.path, relativePath);
+        return new FileSystemResource(pathToUse);
+    }
+
+    /**
+     * This implementation returns a description that includes the absolute
+     * path of the file.
+     */
+    @Override
+    public String getDescription() {
+        return "file [" + this.filePath.toAbsolutePath() + "]";
+    }
+
+    /**
+     * This implementation compares the underlying file paths.
+     */
+    @Override
+    public boolean equals(Object other) {
+        return (this == other || (other instanceof FileSystemResource &&
+                this.path.equals(((FileSystemResource) other).path)));
+    }
+
+    /**
+     * This implementation returns the hash code of the underlying file path.
+     */
+    @Override
+    public int hashCode() {
+        return this.path.hashCode();
+    }
+
+}
@@ -1,8 +1,114 @@
 package com.zavier.core.io;
 
+import java.io.File;
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.URL;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
 
+/**
+ * Interface for a resource descriptor that abstracts from the actual
+ * type of underlying resource, such as a file or class path resource.
+ * <p>除 {@link #getInputStream()} 外的方法都有默认实现，只提供输入流的
+ * 资源（例如 lambda）同样可用；具体实现见 {@link AbstractResource} 的子类
+ */
 public interface Resource {
+
     InputStream getInputStream() throws IOException;
+
+    /**
+     * Determine whether this resource actually exists in physical form.
+     * <p>The default implementation tries to open an InputStream.
+     */
+    default boolean exists() {
+        try {
+            getInputStream().close();
+            return true;
+        }
+        catch (IOException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Return a {@link ReadableByteChannel}.
+     * <p>It is expected that each call creates a <i>fresh</i> channel.
+     * <p>The default implementation returns {@link Channels#newChannel(InputStream)}
+     * with the result of {@link #getInputStream()}.
+     * @throws java.io.FileNotFoundException if the underlying resource doesn't exist
+     * @throws IOException if the content channel could not be opened
+     */
+    default ReadableByteChannel readableChannel() throws IOException {
+        return Channels.newChannel(getInputStream());
+    }
+
+    /**
+     * Determine the content length for this resource.
+     * <p>The default implementation reads the entire InputStream.
+     * @throws IOException if the resource cannot be resolved
+     */
+    default long contentLength() throws IOException {
+        try (InputStream is = getInputStream()) {
+            long size = 0;
+            byte[] buf = new byte[256];
+            int read;
+            while ((read = is.read(buf)) != -1) {
+                size += read;
+            }
+            return size;
+        }
+    }
+
+    /**
+     * Determine the last-modified timestamp for this resource.
+     * <p>The default implementation checks the timestamp of the {@link #getFile() file}.
+     * @throws IOException if the resource cannot be resolved
+     */
+    default long lastModified() throws IOException {
+        long lastModified = getFile().lastModified();
+        if (lastModified == 0L) {
+            throw new FileNotFoundException(getDescription() +
+                    " cannot be resolved in the file system for checking its last-modified timestamp");
+        }
+        return lastModified;
+    }
+
+    /**
+     * Return a URL handle for this resource.
+     * @throws IOException if the resource cannot be resolved as URL,
+     * i.e. if the resource is not available as descriptor
+     */
+    default URL getURL() throws IOException {
+        throw new FileNotFoundException(getDescription() + " cannot be resolved to URL");
+    }
+
+    /**
+     * Return a File handle for this resource.
+     * @throws java.io.FileNotFoundException if the resource cannot be resolved as
+     * absolute file path, i.e. if the resource is not available in a file system
+     * @throws IOException in case of general resolution/reading failures
+     */
+    default File getFile() throws IOException {
+        throw new FileNotFoundException(getDescription() + " cannot be resolved to absolute file path");
+    }
+
+    /**
+     * Create a resource relative to this resource.
+     * @param relativePath the relative path (relative to this resource)
+     * @return the resource handle for the relative resource
+     * @throws IOException if the relative resource cannot be determined
+     */
+    default Resource createRelative(String relativePath) throws IOException {
+        throw new FileNotFoundException("Cannot create a relative resource for " + getDescription());
+    }
+
+    /**
+     * Return a description for this resource,
+     * to be used for error output when working with the resource.
+     */
+    default String getDescription() {
+        return toString();
+    }
 }
@@ -0,0 +1,24 @@
+package com.zavier.core.io;
+
+/**
+ * Strategy interface for loading resources (e.g. class path or file system resources).
+ */
+public interface ResourceLoader {
+
+    /** Pseudo URL prefix for loading from the class path: "classpath:" */
+    String CLASSPATH_URL_PREFIX = "classpath:";
+
+    /**
+     * Return a Resource handle for the specified resource location.
+     * <p>Supports fully qualified pseudo-URLs, e.g. "classpath:test.dat",
+     * and plain paths, which are interpreted as class path locations.
+     * @param location the resource location
+     * @return a corresponding Resource handle (never {@code null})
+     */
+    Resource getResource(String location);
+
+    /**
+     * Expose the ClassLoader used by this ResourceLoader.
+     */
+    ClassLoader getClassLoader();
+}
@@ -0,0 +1,106 @@
+package com.zavier.core.io;
+
+import com.zavier.util.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLConnection;
+
+/**
+ * {@link Resource} implementation for {@code java.net.URL} locators.
+ * Supports resolution as a {@code URL} and also as a {@code File} in
+ * case of the {@code "file:"} protocol.
+ */
+public class UrlResource extends AbstractFileResolvingResource {
+
+    private final URL url;
+
+    /** 清理过路径的 URL，用于比较 */
+    private final String cleanedUrl;
+
+    /**
+     * Create a new UrlResource based on the given URL object.
+     * @param url a URL
+     */
+    public UrlResource(URL url) {
+        if (url == null) {
+            throw new IllegalArgumentException("URL must not be null");
+        }
+        this.url = url;
+        this.cleanedUrl = StringUtils.cleanPath(url.toString());
+    }
+
+    /**
+     * Create a new UrlResource based on a URL path.
+     * @param path a URL path
+     * @throws MalformedURLException if the given URL path is not valid
+     */
+    public UrlResource(String path) throws MalformedURLException {
+        this(new URL(path));
+    }
+
+    /**
+     * This implementation opens an InputStream for the given URL.
+     */
+    @Override
+    public InputStream getInputStream() throws IOException {
+        URLConnection con = this.url.openConnection();
+        try {
+            return con.getInputStream();
+        }
+        catch (IOException ex) {
+            // Close the HTTP connection (if applicable).
+            if (con instanceof HttpURLConnection) {
+                ((HttpURLConnection) con).disconnect();
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * This implementation returns the underlying URL reference.
+     */
+    @Override
+    public URL getURL() {
+        return this.url;
+    }
+
+    /**
+     * This implementation creates a {@code UrlResource}, delegating to
+     * {@link URL#URL(URL, String)} and applying the given path relative to
+     * the path of the underlying URL of this resource descriptor.
+     */
+    @Override
+    public Resource createRelative(String relativePath) throws MalformedURLException {
+        if (relativePath.startsWith("/")) {
+            relativePath = relativePath.substring(1);
+        }
+        return new UrlResource(new URL(this.url, relativePath));
+    }
+
+    @Override
+    public String getDescription() {
+        return "URL [" + this.url + "]";
+    }
+
+    /**
+     * This implementation compares the underlying URL references.
+     */
+    @Override
+    public boolean equals(Object other) {
+        return (this == other || (other instanceof UrlResource &&
+                this.cleanedUrl.equals(((UrlResource) other).cleanedUrl)));
+    }
+
+    /**
+     * This implementation returns the hash code of the underlying URL reference.
+     */
+    @Override
+    public int hashCode() {
+        return this.cleanedUrl.hashCode();
+    }
+
+}
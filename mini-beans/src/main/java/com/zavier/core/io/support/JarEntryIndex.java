@@ -0,0 +1,170 @@
+package com.zavier.core.io.support;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/**
+ * jar 文件的条目名称索引，以 jar 的大小和最后修改时间判断是否过期。
+ * <p>索引先缓存在内存中；指定了索引目录时再持久化到磁盘，每个 jar 一个文件，
+ * 之后的启动只读取索引文件，不再打开并遍历 jar
+ */
+final class JarEntryIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(JarEntryIndex.class);
+
+    private static final int MAGIC = 0x534D4A49;
+
+    private static final int VERSION = 1;
+
+    private final Path indexDirectory;
+
+    /** jar 绝对路径 --> 条目索引 */
+    private final Map<String, Entries> cache = new ConcurrentHashMap<String, Entries>(64);
+
+    /**
+     * Create a new index.
+     * @param indexDirectory the directory to persist the index to,
+     * or {@code null} to keep it in memory only
+     */
+    JarEntryIndex(Path indexDirectory) {
+        this.indexDirectory = indexDirectory;
+    }
+
+    /**
+     * Return the names of all entries of the given jar file, in jar order.
+     * @param jarFile the jar file
+     * @return the entry names (never {@code null})
+     * @throws IOException if the jar file cannot be read
+     */
+    List<String> getEntryNames(File jarFile) throws IOException {
+        String jarPath = jarFile.getAbsolutePath();
+        long size = jarFile.length();
+        long lastModified = jarFile.lastModified();
+        Entries entries = this.cache.get(jarPath);
+        if (entries != null && entries.isValid(size, lastModified)) {
+            return entries.names;
+        }
+        Path indexFile = (this.indexDirectory != null ? this.indexDirectory.resolve(indexFileName(jarPath)) : null);
+        if (indexFile != null) {
+            entries = readIndex(indexFile, jarPath);
+        }
+        if (entries == null || !entries.isValid(size, lastModified)) {
+            entries = new Entries(size, lastModified, readEntryNames(jarFile));
+            if (indexFile != null) {
+                writeIndex(indexFile, jarPath, entries);
+            }
+        }
+        this.cache.put(jarPath, entries);
+        return entries.names;
+    }
+
+    private static List<String> readEntryNames(File jarFile) throws IOException {
+        try (JarFile jar = new JarFile(jarFile)) {
+            List<String> names = new ArrayList<String>(jar.size());
+            for (Enumeration<JarEntry> en = jar.entries(); en.hasMoreElements(); ) {
+                names.add(en.nextElement().getName());
+            }
+            return Collections.unmodifiableList(names);
+        }
+    }
+
+    private static String indexFileName(String jarPath) {
+        String name = new File(jarPath).getName().replaceAll("[^A-Za-z0-9._-]", "_");
+        return name + "-" + Integer.toHexString(jarPath.hashCode()) + ".idx";
+    }
+
+    /**
+     * 读取索引文件；文件不存在、格式不符或属于另一个同名 jar 时返回 null
+     */
+    private static Entries readIndex(Path indexFile, String jarPath) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile)))) {
+            if (in.readInt() != MAGIC || in.readShort() != VERSION || !in.readUTF().equals(jarPath)) {
+                return null;
+            }
+            long size = in.readLong();
+            long lastModified = in.readLong();
+            int count = in.readInt();
+            List<String> names = new ArrayList<String>(count);
+            for (int i = 0; i < count; i++) {
+                names.add(in.readUTF());
+            }
+            return new Entries(size, lastModified, Collections.unmodifiableList(names));
+        }
+        catch (NoSuchFileException ex) {
+            return null;
+        }
+        catch (IOException ex) {
+            logger.debug("Ignoring unreadable jar index {}", indexFile, ex);
+            return null;
+        }
+    }
+
+    /**
+     * 先写临时文件再原子替换，并发启动的进程不会读到写了一半的索引；写入失败只影响下次启动
+     */
+    private static void writeIndex(Path indexFile, String jarPath, Entries entries) {
+        try {
+            Files.createDirectories(indexFile.getParent());
+            Path tempFile = Files.createTempFile(indexFile.getParent(), indexFile.getFileName().toString(), ".tmp");
+            try {
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                    out.writeInt(MAGIC);
+                    out.writeShort(VERSION);
+                    out.writeUTF(jarPath);
+                    out.writeLong(entries.size);
+                    out.writeLong(entries.lastModified);
+                    out.writeInt(entries.names.size());
+                    for (String name : entries.names) {
+                        out.writeUTF(name);
+                    }
+                }
+                Files.move(tempFile, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            finally {
+                Files.deleteIfExists(tempFile);
+            }
+        }
+        catch (IOException ex) {
+            logger.warn("Failed to write jar index {}", indexFile, ex);
+        }
+    }
+
+    private static final class Entries {
+
+        final long size;
+
+        final long lastModified;
+
+        final List<String> names;
+
+        Entries(long size, long lastModified, List<String> names) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.names = names;
+        }
+
+        boolean isValid(long size, long lastModified) {
+            return (this.size == size && this.lastModified == lastModified);
+        }
+    }
+
+}
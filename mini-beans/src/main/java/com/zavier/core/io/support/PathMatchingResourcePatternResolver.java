@@ -0,0 +1,384 @@
+package com.zavier.core.io.support;
+
+import com.zavier.core.io.DefaultResourceLoader;
+import com.zavier.core.io.FileSystemResource;
+import com.zavier.core.io.Resource;
+import com.zavier.core.io.ResourceLoader;
+import com.zavier.core.io.UrlResource;
+import com.zavier.util.AntPathMatcher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/**
+ * A {@link ResourcePatternResolver} implementation that is able to resolve a
+ * specified resource location path into one or more matching Resources.
+ * <p>Supported locations are plain locations (handled by the underlying
+ * {@link ResourceLoader}), Ant-style patterns such as
+ * {@code classpath:META-INF/beans/*.xml}, and {@code classpath*:} locations
+ * which find all class path resources with the given name, with or without
+ * a pattern.
+ * <p>模式中不含通配符的根目录先解析为一个或多个根资源（目录或 jar 中的目录），
+ * 每个根资源作为一个任务在线程池中遍历；jar 的条目名称通过 {@link JarEntryIndex}
+ * 读取，设置了 {@link #setIndexDirectory 索引目录}时，jar 未变化就不再打开遍历
+ */
+public class PathMatchingResourcePatternResolver implements ResourcePatternResolver {
+
+    private static final Logger logger = LoggerFactory.getLogger(PathMatchingResourcePatternResolver.class);
+
+    /** Separator between JAR URL and file path within the JAR: "!/" */
+    private static final String JAR_URL_SEPARATOR = "!/";
+
+    private final ResourceLoader resourceLoader;
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    private Executor executor = ForkJoinPool.commonPool();
+
+    private volatile JarEntryIndex jarEntryIndex = new JarEntryIndex(null);
+
+    public PathMatchingResourcePatternResolver() {
+        this.resourceLoader = new DefaultResourceLoader();
+    }
+
+    public PathMatchingResourcePatternResolver(ResourceLoader resourceLoader) {
+        if (resourceLoader == null) {
+            throw new IllegalArgumentException("ResourceLoader must not be null");
+        }
+        this.resourceLoader = resourceLoader;
+    }
+
+    public PathMatchingResourcePatternResolver(ClassLoader classLoader) {
+        this.resourceLoader = new DefaultResourceLoader(classLoader);
+    }
+
+    /**
+     * Return the ResourceLoader that this pattern resolver works with.
+     */
+    public ResourceLoader getResourceLoader() {
+        return this.resourceLoader;
+    }
+
+    @Override
+    public ClassLoader getClassLoader() {
+        return getResourceLoader().getClassLoader();
+    }
+
+    /**
+     * Set the executor used to walk the root directories and jars of a pattern
+     * concurrently.
+     * <p>Default is the common {@link ForkJoinPool}; {@code null} walks all roots
+     * one after another on the calling thread.
+     */
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Set the directory to persist the jar entry index to.
+     * <p>Default is none, keeping the index in memory for the lifetime of this
+     * resolver only. With a directory, the entries of a jar are read again only
+     * when its size or last-modified timestamp changes.
+     */
+    public void setIndexDirectory(Path indexDirectory) {
+        this.jarEntryIndex = new JarEntryIndex(indexDirectory);
+    }
+
+    @Override
+    public Resource getResource(String location) {
+        return getResourceLoader().getResource(location);
+    }
+
+    @Override
+    public Resource[] getResources(String locationPattern) throws IOException {
+        if (locationPattern == null) {
+            throw new IllegalArgumentException("Location pattern must not be null");
+        }
+        if (locationPattern.startsWith(CLASSPATH_ALL_URL_PREFIX)) {
+            if (this.pathMatcher.isPattern(locationPattern.substring(CLASSPATH_ALL_URL_PREFIX.length()))) {
+                return findPathMatchingResources(locationPattern);
+            }
+            return findAllClassPathResources(locationPattern.substring(CLASSPATH_ALL_URL_PREFIX.length()));
+        }
+        int prefixEnd = locationPattern.indexOf(':') + 1;
+        if (this.pathMatcher.isPattern(locationPattern.substring(prefixEnd))) {
+            return findPathMatchingResources(locationPattern);
+        }
+        return new Resource[] {getResourceLoader().getResource(locationPattern)};
+    }
+
+    /**
+     * Find all class location resources with the given location via the ClassLoader.
+     * @param location the absolute path within the classpath
+     * @return the result as Resource array
+     * @throws IOException in case of I/O errors
+     */
+    protected Resource[] findAllClassPathResources(String location) throws IOException {
+        String path = (location.startsWith("/") ? location.substring(1) : location);
+        Set<Resource> result = new LinkedHashSet<Resource>(16);
+        ClassLoader cl = getClassLoader();
+        Enumeration<URL> resourceUrls = (cl != null ? cl.getResources(path) : ClassLoader.getSystemResources(path));
+        while (resourceUrls.hasMoreElements()) {
+            result.add(new UrlResource(resourceUrls.nextElement()));
+        }
+        if (path.isEmpty()) {
+            // ClassLoader#getResources("") 不返回 jar 的根目录，需要从类路径中补充
+            addClassPathJarRoots(result);
+        }
+        return result.toArray(new Resource[0]);
+    }
+
+    private void addClassPathJarRoots(Set<Resource> result) {
+        String classPath = System.getProperty("java.class.path");
+        if (classPath == null) {
+            return;
+        }
+        for (String entry : classPath.split(File.pathSeparator)) {
+            File file = new File(entry);
+            if (file.isFile() && entry.endsWith(".jar")) {
+                try {
+                    result.add(new UrlResource("jar:" + file.toURI().toURL() + JAR_URL_SEPARATOR));
+                }
+                catch (IOException ex) {
+                    logger.debug("Cannot search for matching files underneath [{}]", entry, ex);
+                }
+            }
+        }
+    }
+
+    /**
+     * Find all resources that match the given location pattern via the
+     * Ant-style PathMatcher, walking the root directories and jars concurrently.
+     * @param locationPattern the location pattern to match
+     * @return the result as Resource array, in class path order
+     * @throws IOException in case of I/O errors
+     */
+    protected Resource[] findPathMatchingResources(String locationPattern) throws IOException {
+        String rootDirPath = determineRootDir(locationPattern);
+        String subPattern = locationPattern.substring(rootDirPath.length());
+        Resource[] rootDirResources = getResources(rootDirPath);
+
+        List<CompletableFuture<List<Resource>>> futures = new ArrayList<CompletableFuture<List<Resource>>>(rootDirResources.length);
+        for (Resource rootDirResource : rootDirResources) {
+            if (this.executor != null && rootDirResources.length > 1) {
+                futures.add(CompletableFuture.supplyAsync(() -> findMatchingResources(rootDirResource, subPattern), this.executor));
+            }
+            else {
+                futures.add(CompletableFuture.completedFuture(findMatchingResources(rootDirResource, subPattern)));
+            }
+        }
+        Set<Resource> result = new LinkedHashSet<Resource>(16);
+        try {
+            for (CompletableFuture<List<Resource>> future : futures) {
+                result.addAll(future.join());
+            }
+        }
+        catch (CompletionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) cause).getCause();
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause.getMessage(), cause);
+        }
+        finally {
+            for (CompletableFuture<List<Resource>> future : futures) {
+                future.cancel(false);
+            }
+        }
+        if (logger.isTraceEnabled()) {
+            logger.trace("Resolved location pattern [{}] to resources {}", locationPattern, result);
+        }
+        return result.toArray(new Resource[0]);
+    }
+
+    /**
+     * Determine the root directory for the given location.
+     * <p>Used for determining the starting point for file matching, resolving the
+     * root directory location and passing the remaining pattern on.
+     * <p>例如 "classpath*:META-INF/beans/**&#47;*.xml" 的根目录为 "classpath*:META-INF/beans/"
+     */
+    protected String determineRootDir(String location) {
+        int prefixEnd = location.indexOf(':') + 1;
+        int rootDirEnd = location.length();
+        while (rootDirEnd > prefixEnd && this.pathMatcher.isPattern(location.substring(prefixEnd, rootDirEnd))) {
+            rootDirEnd = location.lastIndexOf('/', rootDirEnd - 2) + 1;
+        }
+        if (rootDirEnd == 0) {
+            rootDirEnd = prefixEnd;
+        }
+        return location.substring(0, rootDirEnd);
+    }
+
+    /**
+     * 遍历一个根资源；在线程池中执行，受检异常包装为 {@link UncheckedIOException}
+     */
+    private List<Resource> findMatchingResources(Resource rootDirResource, String subPattern) {
+        URL rootDirUrl;
+        try {
+            rootDirUrl = rootDirResource.getURL();
+        }
+        catch (FileNotFoundException ex) {
+            // 根目录不存在，没有匹配的资源
+            return Collections.emptyList();
+        }
+        catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        try {
+            String protocol = rootDirUrl.getProtocol();
+            if ("jar".equals(protocol) || "zip".equals(protocol)) {
+                return doFindPathMatchingJarResources(rootDirUrl, subPattern);
+            }
+            if ("file".equals(protocol)) {
+                return doFindPathMatchingFileResources(rootDirUrl, subPattern);
+            }
+            logger.debug("Skipping [{}]: unsupported URL protocol", rootDirUrl);
+            return Collections.emptyList();
+        }
+        catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Find all resources in jar files that match the given location pattern.
+     * <p>本地 jar 的条目名称从索引读取，其他 jar URL 通过 {@link JarURLConnection} 遍历
+     */
+    protected List<Resource> doFindPathMatchingJarResources(URL rootDirUrl, String subPattern) throws IOException {
+        String urlFile = rootDirUrl.getFile();
+        int separatorIndex = urlFile.indexOf(JAR_URL_SEPARATOR);
+        if (separatorIndex == -1) {
+            return Collections.emptyList();
+        }
+        String rootEntryPath = urlFile.substring(separatorIndex + JAR_URL_SEPARATOR.length());
+        if (!rootEntryPath.isEmpty() && !rootEntryPath.endsWith("/")) {
+            rootEntryPath += "/";
+        }
+        URL jarRootUrl = new URL("jar:" + urlFile.substring(0, separatorIndex) + JAR_URL_SEPARATOR);
+
+        List<String> entryNames;
+        File jarFile = toFile(urlFile.substring(0, separatorIndex));
+        if (jarFile != null) {
+            entryNames = this.jarEntryIndex.getEntryNames(jarFile);
+        }
+        else {
+            URLConnection con = rootDirUrl.openConnection();
+            if (!(con instanceof JarURLConnection)) {
+                return Collections.emptyList();
+            }
+            entryNames = new ArrayList<String>();
+            JarFile jar = ((JarURLConnection) con).getJarFile();
+            for (Enumeration<JarEntry> en = jar.entries(); en.hasMoreElements(); ) {
+                entryNames.add(en.nextElement().getName());
+            }
+        }
+
+        List<Resource> result = new ArrayList<Resource>();
+        for (String entryPath : entryNames) {
+            if (entryPath.startsWith(rootEntryPath)) {
+                String relativePath = entryPath.substring(rootEntryPath.length());
+                if (this.pathMatcher.match(subPattern, relativePath)) {
+                    result.add(new UrlResource(new URL(jarRootUrl, entryPath)));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Find all resources in the file system that match the given location pattern.
+     * @return the matching resources, sorted by path
+     */
+    protected List<Resource> doFindPathMatchingFileResources(URL rootDirUrl, String subPattern) throws IOException {
+        File rootDir = toFile(rootDirUrl.toString());
+        if (rootDir == null || !rootDir.isDirectory()) {
+            return Collections.emptyList();
+        }
+        Path rootPath = rootDir.toPath();
+        List<String> matches = new ArrayList<String>();
+        Files.walkFileTree(rootPath, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                String relativePath = relativePath(rootPath, dir);
+                // 模式不可能匹配该目录下的文件时跳过整个子目录
+                if (!relativePath.isEmpty() && !pathMatcher.matchStart(subPattern, relativePath + "/")) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                String relativePath = relativePath(rootPath, file);
+                if (attrs.isRegularFile() && pathMatcher.match(subPattern, relativePath)) {
+                    matches.add(relativePath);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException ex) {
+                logger.debug("Skipping unreadable file [{}]", file, ex);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        Collections.sort(matches);
+        List<Resource> result = new ArrayList<Resource>(matches.size());
+        for (String relativePath : matches) {
+            result.add(new FileSystemResource(rootPath.resolve(relativePath)));
+        }
+        return result;
+    }
+
+    private static String relativePath(Path rootPath, Path path) {
+        return rootPath.relativize(path).toString().replace(File.separatorChar, '/');
+    }
+
+    /**
+     * Resolve the given {@code file:} URL into a File, or return {@code null}
+     * for other URLs.
+     */
+    private static File toFile(String url) {
+        if (!url.startsWith("file:")) {
+            return null;
+        }
+        try {
+            return new File(new URL(url).toURI());
+        }
+        catch (IOException | URISyntaxException | IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+}
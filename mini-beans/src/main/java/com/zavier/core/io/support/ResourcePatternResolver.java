@@ -0,0 +1,32 @@
+package com.zavier.core.io.support;
+
+import com.zavier.core.io.Resource;
+import com.zavier.core.io.ResourceLoader;
+
+import java.io.IOException;
+
+/**
+ * Strategy interface for resolving a location pattern (for example,
+ * an Ant-style path pattern) into {@link Resource} objects.
+ * <p>{@code classpath*:} 前缀表示类路径上所有同名资源，例如
+ * {@code classpath*:META-INF/beans/**}{@code /*.xml}
+ */
+public interface ResourcePatternResolver extends ResourceLoader {
+
+    /**
+     * Pseudo URL prefix for all matching resources from the class path: "classpath*:".
+     * <p>This differs from ResourceLoader's "classpath:" URL prefix in that it
+     * retrieves all matching resources for a given name (e.g. "/beans.xml"),
+     * for example in the root of all deployed JAR files.
+     */
+    String CLASSPATH_ALL_URL_PREFIX = "classpath*:";
+
+    /**
+     * Resolve the given location pattern into {@code Resource} objects.
+     * @param locationPattern the location pattern to resolve
+     * @return the corresponding {@code Resource} objects
+     * @throws IOException in case of I/O errors
+     */
+    Resource[] getResources(String locationPattern) throws IOException;
+
+}
@@ -0,0 +1,404 @@
+package com.zavier.core.type.classreading;
+
+import com.zavier.core.io.Resource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Class metadata read directly from the bytes of a {@code .class} file,
+ * without loading the class.
+ * <p>只解析常量池、类的访问标志、父类与接口、{@code InnerClasses} 属性以及
+ * {@code RuntimeVisibleAnnotations} 属性；字段与方法只跳过不解析。注解属性
+ * 只保留字符串值（及字符串数组），其他类型的属性值被忽略
+ */
+public final class ClassFileMetadata {
+
+    private static final int MAGIC = 0xCAFEBABE;
+
+    private static final int ACC_STATIC = 0x0008;
+
+    private static final int ACC_INTERFACE = 0x0200;
+
+    private static final int ACC_ABSTRACT = 0x0400;
+
+    private static final int ACC_ANNOTATION = 0x2000;
+
+    private final String className;
+
+    private final int access;
+
+    private final String superClassName;
+
+    private final String[] interfaceNames;
+
+    private final boolean independent;
+
+    /** 注解类型名称 --> 字符串属性 */
+    private final Map<String, Map<String, Object>> annotations;
+
+    private ClassFileMetadata(String className, int access, String superClassName, String[] interfaceNames,
+                              boolean independent, Map<String, Map<String, Object>> annotations) {
+        this.className = className;
+        this.access = access;
+        this.superClassName = superClassName;
+        this.interfaceNames = interfaceNames;
+        this.independent = independent;
+        this.annotations = annotations;
+    }
+
+    /**
+     * Read the metadata of the class file held by the given resource.
+     * @param resource the {@code .class} file resource
+     * @return the parsed metadata
+     * @throws IOException if the resource cannot be read or is not a valid class file
+     */
+    public static ClassFileMetadata read(Resource resource) throws IOException {
+        try (InputStream is = resource.getInputStream()) {
+            return read(is);
+        }
+        catch (IOException ex) {
+            throw new IOException("Could not read class file " + resource.getDescription() + ": " + ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Read the metadata of the class file contained in the given stream.
+     * @param is the stream to read (not closed by this method)
+     * @return the parsed metadata
+     * @throws IOException if the stream cannot be read or does not contain a valid class file
+     */
+    public static ClassFileMetadata read(InputStream is) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(4096);
+        byte[] buffer = new byte[4096];
+        int read;
+        while ((read = is.read(buffer)) != -1) {
+            bytes.write(buffer, 0, read);
+        }
+        try {
+            return new Parser(ByteBuffer.wrap(bytes.toByteArray())).parse();
+        }
+        catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException ex) {
+            throw new IOException("Malformed class file", ex);
+        }
+    }
+
+    /**
+     * Return the fully qualified name of the class, e.g. {@code com.foo.Outer$Inner}.
+     */
+    public String getClassName() {
+        return this.className;
+    }
+
+    /**
+     * Return the name of the super class, or {@code null} for {@code java.lang.Object}
+     * and interfaces without a declared super class.
+     */
+    public String getSuperClassName() {
+        return this.superClassName;
+    }
+
+    public String[] getInterfaceNames() {
+        return this.interfaceNames.clone();
+    }
+
+    public boolean isInterface() {
+        return (this.access & ACC_INTERFACE) != 0;
+    }
+
+    public boolean isAnnotation() {
+        return (this.access & ACC_ANNOTATION) != 0;
+    }
+
+    public boolean isAbstract() {
+        return (this.access & ACC_ABSTRACT) != 0;
+    }
+
+    /**
+     * Return whether the class is neither an interface nor abstract.
+     */
+    public boolean isConcrete() {
+        return !(isInterface() || isAbstract());
+    }
+
+    /**
+     * Determine whether the class is independent, i.e. a top-level class
+     * or a static nested class that can be constructed without an
+     * enclosing instance.
+     */
+    public boolean isIndependent() {
+        return this.independent;
+    }
+
+    /**
+     * Return the names of the runtime-visible annotations declared directly on the class.
+     */
+    public Set<String> getAnnotationTypes() {
+        return Collections.unmodifiableSet(this.annotations.keySet());
+    }
+
+    public boolean hasAnnotation(String annotationType) {
+        return this.annotations.containsKey(annotationType);
+    }
+
+    /**
+     * Return the String-valued attributes of the given annotation declared
+     * directly on the class.
+     * @return the attributes (String or String[] values), or {@code null}
+     * if the class does not declare the annotation
+     */
+    public Map<String, Object> getAnnotationAttributes(String annotationType) {
+        Map<String, Object> attributes = this.annotations.get(annotationType);
+        return (attributes != null ? Collections.unmodifiableMap(attributes) : null);
+    }
+
+    @Override
+    public String toString() {
+        return "ClassFileMetadata for [" + this.className + "]";
+    }
+
+
+    /**
+     * 按 JVM 规范第 4 章顺序读取 class 文件；UTF-8 常量只记录位置，用到时才解码
+     */
+    private static final class Parser {
+
+        private final ByteBuffer buffer;
+
+        private int[] constantOffsets;
+
+        private String[] utf8Cache;
+
+        Parser(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        ClassFileMetadata parse() {
+            if (this.buffer.getInt() != MAGIC) {
+                throw new IllegalArgumentException("Not a class file");
+            }
+            // minor_version, major_version
+            skip(4);
+            readConstantPool();
+
+            int access = u2();
+            String className = className(u2());
+            int superIndex = u2();
+            String superClassName = (superIndex != 0 ? className(superIndex) : null);
+            if ("java.lang.Object".equals(superClassName)) {
+                superClassName = null;
+            }
+            String[] interfaceNames = new String[u2()];
+            for (int i = 0; i < interfaceNames.length; i++) {
+                interfaceNames[i] = className(u2());
+            }
+            // fields and methods
+            for (int member = 0; member < 2; member++) {
+                int count = u2();
+                for (int i = 0; i < count; i++) {
+                    skip(6);
+                    skipAttributes();
+                }
+            }
+
+            boolean independent = true;
+            Map<String, Map<String, Object>> annotations = Collections.emptyMap();
+            int attributeCount = u2();
+            for (int i = 0; i < attributeCount; i++) {
+                String attributeName = utf8(u2());
+                int length = this.buffer.getInt();
+                int end = this.buffer.position() + length;
+                if ("RuntimeVisibleAnnotations".equals(attributeName)) {
+                    annotations = readAnnotations();
+                }
+                else if ("InnerClasses".equals(attributeName)) {
+                    independent = isIndependent(className);
+                }
+                else if ("EnclosingMethod".equals(attributeName)) {
+                    // 局部类或匿名类
+                    independent = false;
+                }
+                this.buffer.position(end);
+            }
+            return new ClassFileMetadata(className, access, superClassName, interfaceNames, independent, annotations);
+        }
+
+        private void readConstantPool() {
+            int count = u2();
+            this.constantOffsets = new int[count];
+            this.utf8Cache = new String[count];
+            for (int i = 1; i < count; i++) {
+                this.constantOffsets[i] = this.buffer.position();
+                int tag = this.buffer.get();
+                switch (tag) {
+                    case 1:
+                        skip(u2());
+                        break;
+                    case 7: case 8: case 16: case 19: case 20:
+                        skip(2);
+                        break;
+                    case 15:
+                        skip(3);
+                        break;
+                    case 3: case 4: case 9: case 10: case 11: case 12: case 17: case 18:
+                        skip(4);
+                        break;
+                    case 5: case 6:
+                        // long 与 double 占用两个常量池位置
+                        skip(8);
+                        i++;
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown constant pool tag " + tag);
+                }
+            }
+        }
+
+        private boolean isIndependent(String className) {
+            int count = u2();
+            for (int i = 0; i < count; i++) {
+                int innerIndex = u2();
+                int outerIndex = u2();
+                // inner_name_index
+                skip(2);
+                int innerAccess = u2();
+                if (innerIndex != 0 && className.equals(className(innerIndex))) {
+                    return (outerIndex != 0 && (innerAccess & ACC_STATIC) != 0);
+                }
+            }
+            return true;
+        }
+
+        private Map<String, Map<String, Object>> readAnnotations() {
+            int count = u2();
+            Map<String, Map<String, Object>> annotations = new LinkedHashMap<String, Map<String, Object>>(count * 2);
+            for (int i = 0; i < count; i++) {
+                String type = descriptorToClassName(utf8(u2()));
+                annotations.put(type, readAnnotationAttributes());
+            }
+            return annotations;
+        }
+
+        private Map<String, Object> readAnnotationAttributes() {
+            int pairs = u2();
+            Map<String, Object> attributes = new HashMap<String, Object>(pairs * 2);
+            for (int i = 0; i < pairs; i++) {
+                String name = utf8(u2());
+                Object value = readElementValue();
+                if (value != null) {
+                    attributes.put(name, value);
+                }
+            }
+            return attributes;
+        }
+
+        /**
+         * 读取一个 element_value，只返回字符串与字符串数组，其他类型跳过后返回 {@code null}
+         */
+        private Object readElementValue() {
+            int tag = this.buffer.get();
+            switch (tag) {
+                case 's':
+                    return utf8(u2());
+                case 'B': case 'C': case 'D': case 'F': case 'I': case 'J': case 'S': case 'Z': case 'c':
+                    skip(2);
+                    return null;
+                case 'e':
+                    skip(4);
+                    return null;
+                case '@':
+                    // 嵌套注解：类型后跟属性对
+                    skip(2);
+                    readAnnotationAttributes();
+                    return null;
+                case '[':
+                    int count = u2();
+                    String[] values = new String[count];
+                    boolean allStrings = true;
+                    for (int i = 0; i < count; i++) {
+                        Object value = readElementValue();
+                        if (value instanceof String) {
+                            values[i] = (String) value;
+                        }
+                        else {
+                            allStrings = false;
+                        }
+                    }
+                    return (allStrings ? values : null);
+                default:
+                    throw new IllegalArgumentException("Unknown element value tag " + (char) tag);
+            }
+        }
+
+        private void skipAttributes() {
+            int count = u2();
+            for (int i = 0; i < count; i++) {
+                skip(2);
+                skip(this.buffer.getInt());
+            }
+        }
+
+        private String className(int classIndex) {
+            int nameIndex = this.buffer.getShort(this.constantOffsets[classIndex] + 1) & 0xFFFF;
+            return utf8(nameIndex).replace('/', '.');
+        }
+
+        private static String descriptorToClassName(String descriptor) {
+            // "Lcom/foo/Bar;" --> "com.foo.Bar"
+            return descriptor.substring(1, descriptor.length() - 1).replace('/', '.');
+        }
+
+        /**
+         * 解码 class 文件中的 modified UTF-8 常量
+         */
+        private String utf8(int index) {
+            String cached = this.utf8Cache[index];
+            if (cached != null) {
+                return cached;
+            }
+            int offset = this.constantOffsets[index];
+            if (this.buffer.get(offset) != 1) {
+                throw new IllegalArgumentException("Constant " + index + " is not a UTF-8 entry");
+            }
+            int length = this.buffer.getShort(offset + 1) & 0xFFFF;
+            int pos = offset + 3;
+            int end = pos + length;
+            char[] chars = new char[length];
+            int count = 0;
+            while (pos < end) {
+                int b = this.buffer.get(pos++) & 0xFF;
+                if (b < 0x80) {
+                    chars[count++] = (char) b;
+                }
+                else if ((b & 0xE0) == 0xC0) {
+                    chars[count++] = (char) (((b & 0x1F) << 6) | (this.buffer.get(pos++) & 0x3F));
+                }
+                else {
+                    int b2 = this.buffer.get(pos++) & 0x3F;
+                    int b3 = this.buffer.get(pos++) & 0x3F;
+                    chars[count++] = (char) (((b & 0x0F) << 12) | (b2 << 6) | b3);
+                }
+            }
+            String value = new String(chars, 0, count);
+            this.utf8Cache[index] = value;
+            return value;
+        }
+
+        private int u2() {
+            return this.buffer.getShort() & 0xFFFF;
+        }
+
+        private void skip(int bytes) {
+            this.buffer.position(this.buffer.position() + bytes);
+        }
+    }
+
+}
@@ -0,0 +1,26 @@
+package com.zavier.stereotype;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Indicates that an annotated class is a "component". Such classes are
+ * considered as candidates for auto-detection when using classpath scanning.
+ * <p>也可以作为元注解使用：被 {@code @Component} 标注的注解同样表示组件
+ */
+@Target({ElementType.TYPE, ElementType.ANNOTATION_TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Component {
+
+    /**
+     * The value may indicate a suggestion for a logical component name,
+     * to be turned into a bean name in case of an autodetected component.
+     * @return the suggested component name, if any (or empty String otherwise)
+     */
+    String value() default "";
+
+}
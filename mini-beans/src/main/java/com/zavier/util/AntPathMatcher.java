@@ -0,0 +1,197 @@
+package com.zavier.util;
+
+/**
+ * Ant-style path pattern matcher, using "/" as separator.
+ * <p>The mapping matches URLs using the following rules:
+ * <ul>
+ * <li>{@code ?} matches one character</li>
+ * <li>{@code *} matches zero or more characters</li>
+ * <li>{@code **} matches zero or more <em>directories</em> in a path</li>
+ * </ul>
+ * <p>只支持上述三种通配符，不支持 {@code {name:regex}} 形式的 URI 模板变量
+ */
+public class AntPathMatcher {
+
+    /** Default path separator: "/" */
+    public static final String DEFAULT_PATH_SEPARATOR = "/";
+
+    /**
+     * Does the given {@code path} represent a pattern that can be matched?
+     */
+    public boolean isPattern(String path) {
+        return (path != null && (path.indexOf('*') != -1 || path.indexOf('?') != -1));
+    }
+
+    /**
+     * Match the given {@code path} against the given {@code pattern}.
+     * @param pattern the pattern to match against
+     * @param path the path to test
+     * @return {@code true} if the supplied {@code path} matched
+     */
+    public boolean match(String pattern, String path) {
+        return doMatch(pattern, path, true);
+    }
+
+    /**
+     * Match the given {@code path} against the corresponding part of the given
+     * {@code pattern}, i.e. determine whether the pattern matches at least as
+     * far as the given base path goes.
+     * <p>用于遍历目录时判断能否跳过整个子目录
+     */
+    public boolean matchStart(String pattern, String path) {
+        return doMatch(pattern, path, false);
+    }
+
+    /**
+     * Actually match the given {@code path} against the given {@code pattern}.
+     * @param fullMatch whether a full pattern match is required (else a pattern match
+     * as far as the given base path goes is sufficient)
+     */
+    protected boolean doMatch(String pattern, String path, boolean fullMatch) {
+        if (path.startsWith(DEFAULT_PATH_SEPARATOR) != pattern.startsWith(DEFAULT_PATH_SEPARATOR)) {
+            return false;
+        }
+        String[] pattDirs = StringUtils.tokenizeToStringArray(pattern, DEFAULT_PATH_SEPARATOR);
+        String[] pathDirs = StringUtils.tokenizeToStringArray(path, DEFAULT_PATH_SEPARATOR);
+
+        int pattIdxStart = 0;
+        int pattIdxEnd = pattDirs.length - 1;
+        int pathIdxStart = 0;
+        int pathIdxEnd = pathDirs.length - 1;
+
+        // 匹配第一个 ** 之前的部分
+        while (pattIdxStart <= pattIdxEnd && pathIdxStart <= pathIdxEnd) {
+            String pattDir = pattDirs[pattIdxStart];
+            if ("**".equals(pattDir)) {
+                break;
+            }
+            if (!matchStrings(pattDir, pathDirs[pathIdxStart])) {
+                return false;
+            }
+            pattIdxStart++;
+            pathIdxStart++;
+        }
+
+        if (pathIdxStart > pathIdxEnd) {
+            // 路径已用完，剩余的模式只能是 **
+            if (pattIdxStart > pattIdxEnd) {
+                return (pattern.endsWith(DEFAULT_PATH_SEPARATOR) == path.endsWith(DEFAULT_PATH_SEPARATOR));
+            }
+            if (!fullMatch) {
+                return true;
+            }
+            if (pattIdxStart == pattIdxEnd && pattDirs[pattIdxStart].equals("*") &&
+                    path.endsWith(DEFAULT_PATH_SEPARATOR)) {
+                return true;
+            }
+            return onlyDoubleWildcards(pattDirs, pattIdxStart, pattIdxEnd);
+        }
+        else if (pattIdxStart > pattIdxEnd) {
+            // 模式已用完，路径还有剩余
+            return false;
+        }
+        else if (!fullMatch && "**".equals(pattDirs[pattIdxStart])) {
+            return true;
+        }
+
+        // 从后向前匹配最后一个 ** 之后的部分
+        while (pattIdxStart <= pattIdxEnd && pathIdxStart <= pathIdxEnd) {
+            String pattDir = pattDirs[pattIdxEnd];
+            if (pattDir.equals("**")) {
+                break;
+            }
+            if (!matchStrings(pattDir, pathDirs[pathIdxEnd])) {
+                return false;
+            }
+            pattIdxEnd--;
+            pathIdxEnd--;
+        }
+        if (pathIdxStart > pathIdxEnd) {
+            return onlyDoubleWildcards(pattDirs, pattIdxStart, pattIdxEnd);
+        }
+
+        // 两个 ** 之间的部分在剩余路径中查找第一个匹配位置
+        while (pattIdxStart != pattIdxEnd && pathIdxStart <= pathIdxEnd) {
+            int patIdxTmp = -1;
+            for (int i = pattIdxStart + 1; i <= pattIdxEnd; i++) {
+                if (pattDirs[i].equals("**")) {
+                    patIdxTmp = i;
+                    break;
+                }
+            }
+            if (patIdxTmp == pattIdxStart + 1) {
+                // '**/**' situation, so skip one
+                pattIdxStart++;
+                continue;
+            }
+            int patLength = (patIdxTmp - pattIdxStart - 1);
+            int strLength = (pathIdxEnd - pathIdxStart + 1);
+            int foundIdx = -1;
+
+            strLoop:
+            for (int i = 0; i <= strLength - patLength; i++) {
+                for (int j = 0; j < patLength; j++) {
+                    String subPat = pattDirs[pattIdxStart + j + 1];
+                    String subStr = pathDirs[pathIdxStart + i + j];
+                    if (!matchStrings(subPat, subStr)) {
+                        continue strLoop;
+                    }
+                }
+                foundIdx = pathIdxStart + i;
+                break;
+            }
+
+            if (foundIdx == -1) {
+                return false;
+            }
+            pattIdxStart = patIdxTmp;
+            pathIdxStart = foundIdx + patLength;
+        }
+
+        return onlyDoubleWildcards(pattDirs, pattIdxStart, pattIdxEnd);
+    }
+
+    private static boolean onlyDoubleWildcards(String[] pattDirs, int from, int to) {
+        for (int i = from; i <= to; i++) {
+            if (!pattDirs[i].equals("**")) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Test whether or not a string matches against a pattern without
+     * path separators, where {@code *} means zero or more characters
+     * and {@code ?} means exactly one character.
+     */
+    private static boolean matchStrings(String pattern, String str) {
+        int p = 0;
+        int s = 0;
+        // 最近一个 * 的位置及其匹配到的字符串位置，失配时回溯到这里
+        int starIdx = -1;
+        int starMatch = 0;
+        while (s < str.length()) {
+            if (p < pattern.length() && (pattern.charAt(p) == '?' || pattern.charAt(p) == str.charAt(s))) {
+                p++;
+                s++;
+            }
+            else if (p < pattern.length() && pattern.charAt(p) == '*') {
+                starIdx = p++;
+                starMatch = s;
+            }
+            else if (starIdx != -1) {
+                p = starIdx + 1;
+                s = ++starMatch;
+            }
+            else {
+                return false;
+            }
+        }
+        while (p < pattern.length() && pattern.charAt(p) == '*') {
+            p++;
+        }
+        return (p == pattern.length());
+    }
+
+}
@@ -1,7 +1,12 @@
 package com.zavier.util;
 
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Array;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 public class ClassUtils {
 
@@ -54,6 +59,24 @@ public class ClassUtils {
      */
     private static final Map<String, Class<?>> commonClassCache = new HashMap<String, Class<?>>(32);
 
+    /**
+     * Cache of {@link #forName} results per ClassLoader: class name --> weakly held
+     * Class, or {@link #CLASS_NOT_FOUND} for names that could not be loaded.
+     * <p>ClassLoader 作为弱引用键，不会阻止类加载器被回收；值中的 Class 也是弱引用，
+     * 否则 Class 对其加载器的强引用会让键永远无法回收
+     */
+    private static final ConcurrentMap<ClassLoaderKey, ConcurrentMap<String, Object>> resolvedClassCache =
+            new ConcurrentHashMap<ClassLoaderKey, ConcurrentMap<String, Object>>(16);
+
+    /** 被回收的类加载器的键，在创建新的加载器缓存时清理 */
+    private static final ReferenceQueue<ClassLoader> staleClassLoaders = new ReferenceQueue<ClassLoader>();
+
+    /** Cache for the bootstrap ClassLoader, which cannot be held weakly */
+    private static final ConcurrentMap<String, Object> bootstrapClassCache = new ConcurrentHashMap<String, Object>(64);
+
+    /** Marker for cached misses */
+    private static final Object CLASS_NOT_FOUND = new Object();
+
 
     static {
         primitiveWrapperTypeMap.put(Boolean.class, boolean.class);
@@ -129,6 +152,7 @@ public class ClassUtils {
         return cl;
     }
 
+    @SuppressWarnings("unchecked")
     public static Class<?> forName(String name, ClassLoader classLoader) throws ClassNotFoundException, LinkageError {
         Class<?> clazz = resolvePrimitiveClassName(name);
         if (clazz == null) {
@@ -163,8 +187,32 @@ public class ClassUtils {
         if (clToUse == null) {
             clToUse = getDefaultClassLoader();
         }
+        ConcurrentMap<String, Object> classCache = getClassCache(clToUse);
+        Object cached = classCache.get(name);
+        if (cached == CLASS_NOT_FOUND) {
+            throw new CachedClassNotFoundException(name);
+        }
+        if (cached != null) {
+            clazz = ((Reference<Class<?>>) cached).get();
+            if (clazz != null) {
+                return clazz;
+            }
+        }
         try {
-            return (clToUse != null ? clToUse.loadClass(name) : Class.forName(name));
+            clazz = loadClass(name, clToUse);
+        }
+        catch (ClassNotFoundException ex) {
+            // LinkageError 不缓存：它通常意味着类路径有问题，应当每次都报告出来
+            classCache.put(name, CLASS_NOT_FOUND);
+            throw ex;
+        }
+        classCache.put(name, new WeakReference<Class<?>>(clazz));
+        return clazz;
+    }
+
+    private static Class<?> loadClass(String name, ClassLoader classLoader) throws ClassNotFoundException {
+        try {
+            return (classLoader != null ? classLoader.loadClass(name) : Class.forName(name));
         }
         catch (ClassNotFoundException ex) {
             int lastDotIndex = name.lastIndexOf(PACKAGE_SEPARATOR);
@@ -172,7 +220,7 @@ public class ClassUtils {
                 String innerClassName =
                         name.substring(0, lastDotIndex) + INNER_CLASS_SEPARATOR + name.substring(lastDotIndex + 1);
                 try {
-                    return (clToUse != null ? clToUse.loadClass(innerClassName) : Class.forName(innerClassName));
+                    return (classLoader != null ? classLoader.loadClass(innerClassName) : Class.forName(innerClassName));
                 }
                 catch (ClassNotFoundException ex2) {
                     // Swallow - let original exception get through
@@ -181,4 +229,176 @@ public class ClassUtils {
             throw ex;
         }
     }
+
+    private static ConcurrentMap<String, Object> getClassCache(ClassLoader classLoader) {
+        if (classLoader == null) {
+            return bootstrapClassCache;
+        }
+        ConcurrentMap<String, Object> classCache = resolvedClassCache.get(new ClassLoaderKey(classLoader, null));
+        if (classCache == null) {
+            Reference<? extends ClassLoader> stale;
+            while ((stale = staleClassLoaders.poll()) != null) {
+                resolvedClassCache.remove(stale);
+            }
+            classCache = resolvedClassCache.computeIfAbsent(new ClassLoaderKey(classLoader, staleClassLoaders),
+                    key -> new ConcurrentHashMap<String, Object>(64));
+        }
+        return classCache;
+    }
+
+    /**
+     * Clear the class resolution cache of {@link #forName}, for example after
+     * classes have been added to a ClassLoader that previously could not load them.
+     * <p>已缓存的"找不到类"结果不会自动失效
+     */
+    public static void clearClassCache() {
+        resolvedClassCache.clear();
+        bootstrapClassCache.clear();
+    }
+
+    /**
+     * 以 ClassLoader 的对象标识作为键的弱引用
+     */
+    private static final class ClassLoaderKey extends WeakReference<ClassLoader> {
+
+        private final int hash;
+
+        ClassLoaderKey(ClassLoader classLoader, ReferenceQueue<ClassLoader> queue) {
+            super(classLoader, queue);
+            this.hash = System.identityHashCode(classLoader);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof ClassLoaderKey)) {
+                return false;
+            }
+            ClassLoader classLoader = get();
+            return (classLoader != null && classLoader == ((ClassLoaderKey) other).get());
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+    }
+
+    /**
+     * 重复查找同一个不存在的类时抛出，不再填充异常栈，
+     * 否则每次都要付出构造栈信息的代价
+     */
+    private static final class CachedClassNotFoundException extends ClassNotFoundException {
+
+        CachedClassNotFoundException(String className) {
+            super(className);
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+
+    /**
+     * Resolve the given class if it is a primitive class,
+     * returning the corresponding primitive wrapper type instead.
+     * @param clazz the class to check
+     * @return the original class, or a primitive wrapper for the original primitive type
+     */
+    public static Class<?> resolvePrimitiveIfNecessary(Class<?> clazz) {
+        return (clazz.isPrimitive() && clazz != void.class ? primitiveTypeToWrapperMap.get(clazz) : clazz);
+    }
+
+    /**
+     * Check if the right-hand side type may be assigned to the left-hand side
+     * type, assuming setting by reflection. Considers primitive wrapper
+     * classes as assignable to the corresponding primitive types.
+     * @param lhsType the target type
+     * @param rhsType the value type that should be assigned to the target type
+     * @return if the target type is assignable from the value type
+     */
+    public static boolean isAssignable(Class<?> lhsType, Class<?> rhsType) {
+        if (lhsType.isAssignableFrom(rhsType)) {
+            return true;
+        }
+        if (lhsType.isPrimitive()) {
+            Class<?> resolvedPrimitive = primitiveWrapperTypeMap.get(rhsType);
+            if (lhsType == resolvedPrimitive) {
+                return true;
+            }
+        }
+        else {
+            Class<?> resolvedWrapper = primitiveTypeToWrapperMap.get(rhsType);
+            if (resolvedWrapper != null && lhsType.isAssignableFrom(resolvedWrapper)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Determine how far the given value type is from the given parameter type:
+     * 0 for the same type (or its primitive wrapper), 2 per superclass step,
+     * and one more step once an implemented interface is reached.
+     * <p>值越小匹配越精确，用于在重载的方法之间选择；调用方需先确认类型可赋值
+     * @param paramType the parameter type
+     * @param valueType the type of the value to pass
+     * @return the type difference weight
+     */
+    public static int getTypeDifferenceWeight(Class<?> paramType, Class<?> valueType) {
+        Class<?> targetType = resolvePrimitiveIfNecessary(paramType);
+        int weight = 0;
+        Class<?> superClass = valueType;
+        while (superClass != null && !targetType.equals(superClass)) {
+            if (targetType.isInterface() && targetType.isAssignableFrom(superClass)) {
+                // 接口匹配比具体类匹配稍差一些
+                weight++;
+                break;
+            }
+            weight += 2;
+            superClass = superClass.getSuperclass();
+        }
+        return weight;
+    }
+
+    /**
+     * Determine if the given type is assignable from the given value,
+     * assuming setting by reflection. Considers primitive wrapper classes
+     * as assignable to the corresponding primitive types.
+     * @param type the target type
+     * @param value the value that should be assigned to the type
+     * @return if the type is assignable from the value
+     */
+    public static boolean isAssignableValue(Class<?> type, Object value) {
+        return (value != null ? isAssignable(type, value.getClass()) : !type.isPrimitive());
+    }
+
+    /**
+     * Check whether the given class is visible in the given ClassLoader.
+     * @param clazz the class to check (typically an interface)
+     * @param classLoader the ClassLoader to check against
+     * (may be {@code null} in which case this method will always return {@code true})
+     */
+    public static boolean isVisible(Class<?> clazz, ClassLoader classLoader) {
+        if (classLoader == null) {
+            return true;
+        }
+        try {
+            if (clazz.getClassLoader() == classLoader) {
+                return true;
+            }
+        }
+        catch (SecurityException ex) {
+            // Fall through to loadable check below
+        }
+        try {
+            return (clazz == classLoader.loadClass(clazz.getName()));
+        }
+        catch (ClassNotFoundException ex) {
+            return false;
+        }
+    }
 }
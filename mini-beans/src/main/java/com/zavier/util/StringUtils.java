@@ -1,5 +1,9 @@
 package com.zavier.util;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringTokenizer;
+
 public class StringUtils {
     public static boolean hasText(CharSequence str) {
         if (!hasLength(str)) {
@@ -17,4 +21,104 @@ public class StringUtils {
     public static boolean hasLength(CharSequence str) {
         return (str != null && str.length() > 0);
     }
+
+    /**
+     * Tokenize the given String into a String array via a StringTokenizer.
+     * Trims tokens and omits empty tokens.
+     * @param str the String to tokenize
+     * @param delimiters the delimiter characters, assembled as String
+     * (each of those characters is individually considered as delimiter)
+     * @return an array of the tokens
+     */
+    public static String[] tokenizeToStringArray(String str, String delimiters) {
+        if (str == null) {
+            return new String[0];
+        }
+        StringTokenizer st = new StringTokenizer(str, delimiters);
+        List<String> tokens = new ArrayList<String>();
+        while (st.hasMoreTokens()) {
+            String token = st.nextToken().trim();
+            if (token.length() > 0) {
+                tokens.add(token);
+            }
+        }
+        return tokens.toArray(new String[0]);
+    }
+
+    /**
+     * Apply the given relative path to the given path,
+     * assuming standard Java folder separation (i.e. "/" separators).
+     * @param path the path to start from (usually a full file path)
+     * @param relativePath the relative path to apply
+     * (relative to the full file path above)
+     * @return the full file path that results from applying the relative path
+     */
+    public static String applyRelativePath(String path, String relativePath) {
+        int separatorIndex = path.lastIndexOf('/');
+        if (separatorIndex != -1) {
+            String newPath = path.substring(0, separatorIndex);
+            if (!relativePath.startsWith("/")) {
+                newPath += "/";
+            }
+            return newPath + relativePath;
+        }
+        else {
+            return relativePath;
+        }
+    }
+
+    /**
+     * Normalize the path by suppressing sequences like "path/.." and
+     * inner simple dots.
+     * @param path the original path
+     * @return the normalized path
+     */
+    public static String cleanPath(String path) {
+        if (!hasLength(path)) {
+            return path;
+        }
+        String pathToUse = path.replace('\\', '/');
+        String prefix = "";
+        int prefixIndex = pathToUse.indexOf(':');
+        if (prefixIndex != -1 && pathToUse.indexOf('/') > prefixIndex) {
+            prefix = pathToUse.substring(0, prefixIndex + 1);
+            pathToUse = pathToUse.substring(prefixIndex + 1);
+        }
+        if (pathToUse.startsWith("/")) {
+            prefix = prefix + "/";
+            pathToUse = pathToUse.substring(1);
+        }
+
+        String[] pathArray = tokenizeToStringArray(pathToUse, "/");
+        List<String> pathElements = new ArrayList<String>();
+        int tops = 0;
+        // 从后往前处理，遇到 ".." 时跳过它前面的一个路径元素
+        for (int i = pathArray.length - 1; i >= 0; i--) {
+            String element = pathArray[i];
+            if (".".equals(element)) {
+                continue;
+            }
+            if ("..".equals(element)) {
+                tops++;
+            }
+            else if (tops > 0) {
+                tops--;
+            }
+            else {
+                pathElements.add(0, element);
+            }
+        }
+        // 无法抵消的 ".." 保留在最前面
+        for (int i = 0; i < tops; i++) {
+            pathElements.add(0, "..");
+        }
+        StringBuilder sb = new StringBuilder(prefix);
+        for (int i = 0; i < pathElements.size(); i++) {
+            if (i > 0) {
+                sb.append('/');
+            }
+            sb.append(pathElements.get(i));
+        }
+        return sb.toString();
+    }
 }
@@ -0,0 +1,39 @@
+package com.zavier.util.xml;
+
+import org.slf4j.Logger;
+import org.xml.sax.ErrorHandler;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
+
+/**
+ * Simple {@code org.xml.sax.ErrorHandler} implementation:
+ * logs warnings using the given logger, and rethrows errors to discontinue
+ * the XML transformation.
+ */
+public class SimpleSaxErrorHandler implements ErrorHandler {
+
+    private final Logger logger;
+
+    /**
+     * Create a new SimpleSaxErrorHandler for the given logger.
+     */
+    public SimpleSaxErrorHandler(Logger logger) {
+        this.logger = logger;
+    }
+
+    @Override
+    public void warning(SAXParseException ex) throws SAXException {
+        logger.warn("Ignored XML validation warning", ex);
+    }
+
+    @Override
+    public void error(SAXParseException ex) throws SAXException {
+        throw ex;
+    }
+
+    @Override
+    public void fatalError(SAXParseException ex) throws SAXException {
+        throw ex;
+    }
+
+}
@@ -0,0 +1,78 @@
+package com.zavier.beans.factory.support;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class CountingBean {
+
+    public static final AtomicInteger instances = new AtomicInteger();
+
+    private String name;
+
+    private boolean closed;
+
+    public CountingBean() {
+        instances.incrementAndGet();
+    }
+
+    public CountingBean(String name) {
+        this();
+        this.name = name;
+    }
+
+    public static CountingBean create(String name) {
+        return new CountingBean("static:" + name);
+    }
+
+    public static CountingBean create(Object name) {
+        return new CountingBean("object:" + name);
+    }
+
+    /**
+     * 交替返回两个互不相关的子类，它们各自声明同名的 setter
+     */
+    public static CountingBean nextVariant() {
+        return (instances.get() % 2 == 0 ? new Red() : new Blue());
+    }
+
+    public CountingBean derive(String suffix) {
+        return new CountingBean(this.name + suffix);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void close() {
+        closed = true;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    public static class Red extends CountingBean {
+
+        private String label;
+
+        public String getLabel() {
+            return label;
+        }
+
+        public void setLabel(String label) {
+            this.label = label;
+        }
+    }
+
+    public static class Blue extends CountingBean {
+
+        private String label;
+
+        public String getLabel() {
+            return label;
+        }
+
+        public void setLabel(String label) {
+            this.label = label;
+        }
+    }
+}
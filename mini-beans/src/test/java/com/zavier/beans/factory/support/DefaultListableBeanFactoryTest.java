@@ -1,9 +1,53 @@
 package com.zavier.beans.factory.support;
 
+import com.zavier.beans.BeansException;
+import com.zavier.beans.CachedIntrospectionResults;
+import com.zavier.beans.TypeMismatchException;
+import com.zavier.beans.factory.BeanCreationException;
+import com.zavier.beans.factory.BeanCurrentlyInCreationException;
+import com.zavier.beans.factory.NoSuchBeanDefinitionException;
+import com.zavier.beans.factory.NoUniqueBeanDefinitionException;
 import com.zavier.beans.factory.config.BeanDefinition;
+import com.zavier.beans.factory.xml.PooledDocumentLoader;
+import com.zavier.beans.factory.xml.ReloadableXmlBeanDefinitionReader;
+import com.zavier.beans.factory.xml.StaxBeanDefinitionReader;
 import com.zavier.beans.factory.xml.XmlBeanDefinitionReader;
+import com.zavier.context.annotation.ClassPathBeanDefinitionScanner;
+import com.zavier.context.index.CandidateComponentsIndex;
+import com.zavier.context.index.CandidateComponentsIndexLoader;
 import com.zavier.core.io.ClassPathResource;
+import com.zavier.core.io.FileSystemResource;
+import com.zavier.core.io.Resource;
+import com.zavier.stereotype.Component;
 import org.junit.Test;
+import org.xml.sax.SAXParseException;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Vector;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 import static org.junit.Assert.*;
 
@@ -18,5 +62,1258 @@ public class DefaultListableBeanFactoryTest {
 
         final BeanDefinition simpleBean = beanFactory.getBeanDefinition("simpleBean");
         System.out.println(simpleBean);
+
+        Object bean = beanFactory.getBean("simpleBean");
+        assertTrue(bean instanceof SimpleBean);
+        assertSame(bean, beanFactory.getBean("simpleBean", SimpleBean.class));
+        assertSame(bean, beanFactory.getBean(SimpleBean.class));
+
+        assertTrue(beanFactory.isPrototype("prototypeBean"));
+        assertNotSame(beanFactory.getBean("prototypeBean"), beanFactory.getBean("prototypeBean"));
+        assertEquals("x", ((CountingBean) beanFactory.getBean("prototypeBean", "x")).getName());
+    }
+
+    @Test
+    public void testConcurrentSingletonCreation() throws Exception {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        GenericBeanDefinition bd = new GenericBeanDefinition();
+        bd.setBeanClass(CountingBean.class);
+        beanFactory.registerBeanDefinition("counting", bd);
+
+        int before = CountingBean.instances.get();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Object>> futures = new ArrayList<Future<Object>>();
+            for (int i = 0; i < 64; i++) {
+                futures.add(executor.submit(new Callable<Object>() {
+                    @Override
+                    public Object call() {
+                        return beanFactory.getBean("counting");
+                    }
+                }));
+            }
+            Object first = futures.get(0).get();
+            for (Future<Object> future : futures) {
+                assertSame(first, future.get());
+            }
+        }
+        finally {
+            executor.shutdown();
+        }
+        assertEquals(before + 1, CountingBean.instances.get());
+        assertTrue(beanFactory.containsSingleton("counting"));
+
+        beanFactory.removeBeanDefinition("counting");
+        assertFalse(beanFactory.containsBean("counting"));
+    }
+
+    @Test
+    public void testSingletonLocksAreReleasedWithSingletons() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        new XmlBeanDefinitionReader(beanFactory).loadBeanDefinitions(xmlResource(
+                "<bean id=\"a\" class=\"com.zavier.beans.factory.support.SimpleBean\"/>" +
+                "<bean id=\"b\" class=\"com.zavier.beans.factory.support.SimpleBean\"/>" +
+                "<bean id=\"p\" class=\"com.zavier.beans.factory.support.SimpleBean\" scope=\"prototype\"/>"));
+        beanFactory.getBean("a");
+        beanFactory.getBean("b");
+        beanFactory.getBean("p");
+        beanFactory.registerSingleton("manual", new Object());
+        // 原型不创建锁
+        assertEquals(3, beanFactory.getSingletonLockCount());
+
+        beanFactory.destroySingleton("a");
+        assertEquals(2, beanFactory.getSingletonLockCount());
+        beanFactory.getBean("a");
+        assertEquals(3, beanFactory.getSingletonLockCount());
+
+        beanFactory.destroySingletons();
+        assertEquals(0, beanFactory.getSingletonLockCount());
+        // 从未创建过的单例移除时也不留下锁
+        beanFactory.destroySingleton("b");
+        assertEquals(0, beanFactory.getSingletonLockCount());
+    }
+
+    @Test
+    public void testCrossThreadCircularReferenceFailsInsteadOfDeadlocking() throws Exception {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        new XmlBeanDefinitionReader(beanFactory).loadBeanDefinitions(xmlResource(
+                "<bean id=\"a\" class=\"com.zavier.beans.factory.support.LifecycleBean\"" +
+                " factory-method=\"createInPair\"><constructor-arg value=\"a\"/>" +
+                "<property name=\"dependency\" ref=\"b\"/></bean>" +
+                "<bean id=\"b\" class=\"com.zavier.beans.factory.support.LifecycleBean\"" +
+                " factory-method=\"createInPair\"><constructor-arg value=\"b\"/>" +
+                "<property name=\"dependency\" ref=\"a\"/></bean>"));
+        LifecycleBean.pairBarrier.reset();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Object> a = executor.submit(() -> beanFactory.getBean("a"));
+            Future<Object> b = executor.submit(() -> beanFactory.getBean("b"));
+            boolean crossThreadCycle = false;
+            for (Future<Object> future : Arrays.asList(a, b)) {
+                try {
+                    future.get(10, TimeUnit.SECONDS);
+                    fail("Should have thrown BeanCreationException");
+                }
+                catch (ExecutionException ex) {
+                    for (Throwable cause = ex.getCause(); cause != null; cause = cause.getCause()) {
+                        crossThreadCycle |= (cause instanceof BeanCurrentlyInCreationException &&
+                                cause.getMessage().contains("another thread"));
+                    }
+                }
+            }
+            assertTrue(crossThreadCycle);
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testTypeIndex() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        GenericBeanDefinition first = new GenericBeanDefinition();
+        first.setBeanClassName(ArrayList.class.getName());
+        beanFactory.registerBeanDefinition("first", first);
+
+        assertArrayEquals(new String[] {"first"}, beanFactory.getBeanNamesForType(List.class));
+        assertTrue(beanFactory.isTypeMatch("first", Iterable.class));
+        assertEquals(ArrayList.class, beanFactory.getType("first"));
+
+        GenericBeanDefinition second = new GenericBeanDefinition();
+        second.setBeanClass(LinkedList.class);
+        second.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+        beanFactory.registerBeanDefinition("second", second);
+
+        assertArrayEquals(new String[] {"first", "second"}, beanFactory.getBeanNamesForType(List.class));
+        assertArrayEquals(new String[] {"first"}, beanFactory.getBeanNamesForType(List.class, false));
+        try {
+            beanFactory.getBean(List.class);
+            fail("Should have thrown NoUniqueBeanDefinitionException");
+        }
+        catch (NoUniqueBeanDefinitionException ex) {
+            assertEquals(2, ex.getBeanNamesFound().length);
+        }
+
+        second.setPrimary(true);
+        assertTrue(beanFactory.getBean(List.class) instanceof LinkedList);
+
+        beanFactory.removeBeanDefinition("second");
+        assertArrayEquals(new String[] {"first"}, beanFactory.getBeanNamesForType(List.class));
+        assertTrue(beanFactory.getBean(List.class) instanceof ArrayList);
+
+        // 仅有类名的定义延迟索引，但仍按注册顺序排在后注册的定义之前
+        GenericBeanDefinition lazy = new GenericBeanDefinition();
+        lazy.setBeanClassName(LinkedList.class.getName());
+        beanFactory.registerBeanDefinition("lazy", lazy);
+        GenericBeanDefinition eager = new GenericBeanDefinition();
+        eager.setBeanClass(Vector.class);
+        beanFactory.registerBeanDefinition("eager", eager);
+        String[] beanNames = beanFactory.getBeanNamesForType(List.class);
+        assertArrayEquals(new String[] {"first", "lazy", "eager"}, beanNames);
+        beanNames[0] = "modified";
+        assertArrayEquals(new String[] {"first", "lazy", "eager"}, beanFactory.getBeanNamesForType(List.class));
+    }
+
+    @Test
+    public void testParallelPreInstantiateSingletons() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        registerCountingBean(beanFactory, "a", false, "b", "c");
+        registerCountingBean(beanFactory, "b", false, "d");
+        registerCountingBean(beanFactory, "c", false, "d");
+        registerCountingBean(beanFactory, "d", false);
+        registerCountingBean(beanFactory, "lazy", true);
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            beanFactory.setBootstrapExecutor(pool);
+            beanFactory.preInstantiateSingletons();
+        }
+        finally {
+            pool.shutdown();
+        }
+        for (String beanName : new String[] {"a", "b", "c", "d"}) {
+            assertTrue(beanFactory.containsSingleton(beanName));
+        }
+        assertFalse(beanFactory.containsSingleton("lazy"));
+        assertArrayEquals(new String[] {"b", "c"}, beanFactory.getDependenciesForBean("a"));
+        // b 与 c 并发创建，登记依赖的先后不确定
+        String[] dependentBeans = beanFactory.getDependentBeans("d");
+        Arrays.sort(dependentBeans);
+        assertArrayEquals(new String[] {"b", "c"}, dependentBeans);
+        // 单例的注册顺序与线程调度无关
+        assertArrayEquals(new String[] {"d", "b", "c", "a"}, beanFactory.getSingletonNames());
+    }
+
+    @Test(expected = BeanCreationException.class)
+    public void testPreInstantiateSingletonsWithCircularDependsOn() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        registerCountingBean(beanFactory, "a", false, "b");
+        registerCountingBean(beanFactory, "b", false, "a");
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            beanFactory.setBootstrapExecutor(executor);
+            beanFactory.preInstantiateSingletons();
+        }
+        finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testParallelPreInstantiationStopsAfterFailure() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        GenericBeanDefinition broken = new GenericBeanDefinition();
+        broken.setBeanClassName("com.zavier.beans.factory.support.NoSuchBean");
+        beanFactory.registerBeanDefinition("broken", broken);
+        registerCountingBean(beanFactory, "a", false);
+        registerCountingBean(beanFactory, "b", false);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            beanFactory.setBootstrapExecutor(executor);
+            beanFactory.preInstantiateSingletons();
+            fail("Should have thrown BeanCreationException");
+        }
+        catch (BeanCreationException ex) {
+            assertEquals("broken", ex.getBeanName());
+        }
+        finally {
+            executor.shutdown();
+        }
+        assertEquals(0, beanFactory.getSingletonCount());
+    }
+
+    private void registerCountingBean(DefaultListableBeanFactory beanFactory, String beanName,
+                                      boolean lazyInit, String... dependsOn) {
+        GenericBeanDefinition bd = new GenericBeanDefinition();
+        bd.setBeanClass(CountingBean.class);
+        bd.setLazyInit(lazyInit);
+        bd.setDependsOn(dependsOn);
+        beanFactory.registerBeanDefinition(beanName, bd);
+    }
+
+    @Test
+    public void testPrototypeInstantiatorIsGeneratedOnce() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        GenericBeanDefinition bd = new GenericBeanDefinition();
+        bd.setBeanClassName(CountingBean.class.getName());
+        bd.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+        beanFactory.registerBeanDefinition("prototype", bd);
+
+        Object first = beanFactory.getBean("prototype");
+        RootBeanDefinition mbd = beanFactory.getMergedLocalBeanDefinition("prototype");
+        Supplier<Object> instanceSupplier = mbd.instanceSupplier;
+        assertNotNull(instanceSupplier);
+        Object second = beanFactory.getBean("prototype");
+        assertNotSame(first, second);
+        assertSame(instanceSupplier, mbd.instanceSupplier);
+
+        CountingBean named = (CountingBean) beanFactory.getBean("prototype", "named");
+        assertEquals("named", named.getName());
+        assertEquals(1, mbd.resolvedInstantiators.size());
+    }
+
+    @Test
+    public void testConstructorInstantiatorsAreSharedAcrossDefinitions() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        for (String beanName : Arrays.asList("a", "b")) {
+            GenericBeanDefinition bd = new GenericBeanDefinition();
+            bd.setBeanClass(CountingBean.class);
+            bd.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+            beanFactory.registerBeanDefinition(beanName, bd);
+        }
+        beanFactory.getBean("a");
+        beanFactory.getBean("b");
+        // 同一构造器只生成一个 lambda，两个定义引用同一个实例
+        Supplier<Object> supplier = beanFactory.getMergedLocalBeanDefinition("a").instanceSupplier;
+        assertNotNull(supplier);
+        assertSame(supplier, beanFactory.getMergedLocalBeanDefinition("b").instanceSupplier);
+
+        beanFactory.getBean("a", "x");
+        beanFactory.getBean("b", "y");
+        assertSame(beanFactory.getMergedLocalBeanDefinition("a").resolvedInstantiators.values().iterator().next(),
+                beanFactory.getMergedLocalBeanDefinition("b").resolvedInstantiators.values().iterator().next());
+    }
+
+    @Test
+    public void testFactoryMethodResolutionIsCachedByArgumentTypes() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        GenericBeanDefinition staticFactory = new GenericBeanDefinition();
+        staticFactory.setBeanClass(CountingBean.class);
+        staticFactory.setFactoryMethodName("create");
+        staticFactory.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+        beanFactory.registerBeanDefinition("staticFactory", staticFactory);
+
+        assertEquals("static:a", ((CountingBean) beanFactory.getBean("staticFactory", "a")).getName());
+        assertEquals("object:1", ((CountingBean) beanFactory.getBean("staticFactory", 1)).getName());
+        assertEquals("static:b", ((CountingBean) beanFactory.getBean("staticFactory", "b")).getName());
+        RootBeanDefinition mbd = beanFactory.getMergedLocalBeanDefinition("staticFactory");
+        assertEquals(2, mbd.resolvedInstantiators.size());
+        // 参数类型与上一次相同时复用同一个快路径条目，不重新构建 key
+        AbstractBeanDefinition.LastResolvedInstantiator last = mbd.lastResolvedInstantiator;
+        assertTrue(last.argumentTypes.matches(new Object[] {"c"}));
+        assertEquals("static:c", ((CountingBean) beanFactory.getBean("staticFactory", "c")).getName());
+        assertSame(last, mbd.lastResolvedInstantiator);
+        assertFalse(last.argumentTypes.matches(new Object[] {1}));
+        assertEquals("object:2", ((CountingBean) beanFactory.getBean("staticFactory", 2)).getName());
+        assertSame(mbd.resolvedInstantiators.get(new ArgumentTypes(new Object[] {2})),
+                mbd.lastResolvedInstantiator.instantiator);
+
+        GenericBeanDefinition factoryBean = new GenericBeanDefinition();
+        factoryBean.setBeanClass(CountingBean.class);
+        beanFactory.registerBeanDefinition("factoryBean", factoryBean);
+        beanFactory.getBean("factoryBean", "base");
+
+        GenericBeanDefinition instanceFactory = new GenericBeanDefinition();
+        instanceFactory.setFactoryBeanName("factoryBean");
+        instanceFactory.setFactoryMethodName("derive");
+        instanceFactory.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+        beanFactory.registerBeanDefinition("instanceFactory", instanceFactory);
+
+        assertEquals("base-1", ((CountingBean) beanFactory.getBean("instanceFactory", "-1")).getName());
+        assertEquals(CountingBean.class, beanFactory.getType("instanceFactory"));
+        assertArrayEquals(new String[] {"instanceFactory"}, beanFactory.getDependentBeans("factoryBean"));
+    }
+
+    @Test
+    public void testMergedBeanDefinitionInvalidation() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        GenericBeanDefinition parent = new GenericBeanDefinition();
+        parent.setBeanClass(CountingBean.class);
+        parent.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+        parent.setAbstract(true);
+        beanFactory.registerBeanDefinition("parent", parent);
+
+        GenericBeanDefinition child = new GenericBeanDefinition();
+        child.setParentName("parent");
+        child.setLazyInit(true);
+        beanFactory.registerBeanDefinition("child", child);
+
+        GenericBeanDefinition grandChild = new GenericBeanDefinition();
+        grandChild.setParentName("child");
+        grandChild.setScope(BeanDefinition.SCOPE_SINGLETON);
+        beanFactory.registerBeanDefinition("grandChild", grandChild);
+
+        BeanDefinition mergedChild = beanFactory.getMergedBeanDefinition("child");
+        assertEquals(CountingBean.class.getName(), mergedChild.getBeanClassName());
+        assertTrue(mergedChild.isPrototype());
+        assertFalse(mergedChild.isAbstract());
+        assertSame(mergedChild, beanFactory.getMergedBeanDefinition("child"));
+        assertTrue(beanFactory.getMergedBeanDefinition("grandChild").isSingleton());
+        assertNotSame(beanFactory.getBean("child"), beanFactory.getBean("child"));
+        assertSame(beanFactory.getBean("grandChild"), beanFactory.getBean("grandChild"));
+        assertArrayEquals(new String[] {"child", "grandChild"}, beanFactory.getBeanNamesForType(CountingBean.class));
+
+        GenericBeanDefinition unrelated = new GenericBeanDefinition();
+        unrelated.setBeanClass(Object.class);
+        beanFactory.registerBeanDefinition("unrelated", unrelated);
+        assertSame(mergedChild, beanFactory.getMergedBeanDefinition("child"));
+
+        beanFactory.removeBeanDefinition("parent");
+        GenericBeanDefinition newParent = new GenericBeanDefinition();
+        newParent.setBeanClass(StringBuilder.class);
+        beanFactory.registerBeanDefinition("parent", newParent);
+        assertNotSame(mergedChild, beanFactory.getMergedBeanDefinition("child"));
+        assertEquals(StringBuilder.class.getName(), beanFactory.getMergedBeanDefinition("grandChild").getBeanClassName());
+        // 重新注册的 parent 排在最后，与 getBeanDefinitionNames 的顺序一致
+        assertArrayEquals(new String[] {"child", "grandChild", "parent"}, beanFactory.getBeanNamesForType(StringBuilder.class, false));
+        assertEquals(StringBuilder.class, beanFactory.getType("grandChild"));
+    }
+
+    @Test
+    public void testRegisterBeanDefinitions() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        registerCountingBean(beanFactory, "existing", true);
+        List<String> names = beanFactory.getBeanDefinitionNameList();
+        assertSame(names, beanFactory.getBeanDefinitionNameList());
+
+        Map<String, BeanDefinition> batch = new LinkedHashMap<String, BeanDefinition>();
+        for (int i = 0; i < 3; i++) {
+            GenericBeanDefinition bd = new GenericBeanDefinition();
+            bd.setBeanClass(CountingBean.class);
+            batch.put("bean" + i, bd);
+        }
+        batch.put("existing", new GenericBeanDefinition());
+        try {
+            beanFactory.registerBeanDefinitions(batch);
+            fail("Should have thrown BeansException");
+        }
+        catch (BeansException ex) {
+            // expected
+        }
+        assertEquals(1, beanFactory.getBeanDefinitionCount());
+        assertFalse(beanFactory.containsBeanDefinition("bean0"));
+        assertSame(names, beanFactory.getBeanDefinitionNameList());
+
+        batch.remove("existing");
+        beanFactory.registerBeanDefinitions(batch);
+        assertTrue(beanFactory.containsBeanDefinition("bean2"));
+        assertEquals(Arrays.asList("existing", "bean0", "bean1", "bean2"),
+                beanFactory.getBeanDefinitionNameList());
+        assertArrayEquals(new String[] {"existing", "bean0", "bean1", "bean2"},
+                beanFactory.getBeanNamesForType(CountingBean.class));
+
+        beanFactory.removeBeanDefinition("bean1");
+        assertEquals(Arrays.asList("existing", "bean0", "bean2"), beanFactory.getBeanDefinitionNameList());
+    }
+
+    @Test
+    public void testBatchRegistrationIsAtomicForReaders() throws Exception {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            for (int round = 0; round < 10; round++) {
+                String prefix = "round" + round + "-";
+                Map<String, BeanDefinition> batch = new LinkedHashMap<String, BeanDefinition>();
+                for (int i = 0; i < 20000; i++) {
+                    batch.put(prefix + i, new GenericBeanDefinition());
+                }
+                String first = prefix + 0;
+                String last = prefix + 19999;
+                Future<Boolean> reader = executor.submit(() -> {
+                    // 先看到批次中的第一个定义，就必须也能看到最后一个
+                    while (!beanFactory.containsBeanDefinition(first)) {
+                        Thread.yield();
+                    }
+                    return beanFactory.containsBeanDefinition(last);
+                });
+                beanFactory.registerBeanDefinitions(batch);
+                assertTrue(reader.get(10, TimeUnit.SECONDS));
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testFreezeConfiguration() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        registerCountingBean(beanFactory, "eager", false);
+        GenericBeanDefinition prototype = new GenericBeanDefinition();
+        prototype.setBeanClassName(CountingBean.class.getName());
+        prototype.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+        beanFactory.registerBeanDefinition("prototype", prototype);
+        GenericBeanDefinition child = new GenericBeanDefinition();
+        child.setParentName("prototype");
+        child.setScope(BeanDefinition.SCOPE_SINGLETON);
+        beanFactory.registerBeanDefinition("child", child);
+
+        beanFactory.freezeConfiguration();
+        assertTrue(beanFactory.isConfigurationFrozen());
+        try {
+            registerCountingBean(beanFactory, "late", true);
+            fail("Should have thrown IllegalStateException");
+        }
+        catch (IllegalStateException ex) {
+            // expected
+        }
+        try {
+            beanFactory.removeBeanDefinition("eager");
+            fail("Should have thrown IllegalStateException");
+        }
+        catch (IllegalStateException ex) {
+            // expected
+        }
+
+        assertTrue(beanFactory.containsBeanDefinition("child"));
+        assertFalse(beanFactory.containsBeanDefinition("late"));
+        assertEquals(3, beanFactory.getBeanDefinitionCount());
+        assertSame(beanFactory.getMergedBeanDefinition("child"), beanFactory.getMergedBeanDefinition("child"));
+        assertSame(prototype, beanFactory.getBeanDefinition("prototype"));
+        assertEquals(Arrays.asList("eager", "prototype", "child"), beanFactory.getBeanDefinitionNameList());
+        String[] names = beanFactory.getBeanNamesForType(CountingBean.class);
+        assertArrayEquals(new String[] {"eager", "prototype", "child"}, names);
+        names[0] = "modified";
+        assertArrayEquals(new String[] {"eager", "prototype", "child"}, beanFactory.getBeanNamesForType(CountingBean.class));
+        assertArrayEquals(new String[] {"eager", "child"}, beanFactory.getBeanNamesForType(Object.class, false));
+        assertEquals(0, beanFactory.getBeanNamesForType(List.class).length);
+        assertEquals(CountingBean.class, beanFactory.getType("child"));
+        assertTrue(beanFactory.isPrototype("prototype"));
+
+        beanFactory.preInstantiateSingletons();
+        assertTrue(beanFactory.containsSingleton("eager"));
+        assertNotSame(beanFactory.getBean("prototype"), beanFactory.getBean("prototype"));
+        assertSame(beanFactory.getBean("child"), beanFactory.getBean("child"));
+        try {
+            beanFactory.getBean("late");
+            fail("Should have thrown NoSuchBeanDefinitionException");
+        }
+        catch (NoSuchBeanDefinitionException ex) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testThreadScope() throws Exception {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        GenericBeanDefinition bd = new GenericBeanDefinition();
+        bd.setBeanClass(CountingBean.class);
+        bd.setScope(SimpleThreadScope.SCOPE_THREAD);
+        beanFactory.registerBeanDefinition("threadBean", bd);
+        try {
+            beanFactory.getBean("threadBean");
+            fail("Should have thrown IllegalStateException");
+        }
+        catch (IllegalStateException ex) {
+            // expected
+        }
+
+        SimpleThreadScope scope = new SimpleThreadScope();
+        beanFactory.registerScope(SimpleThreadScope.SCOPE_THREAD, scope);
+        assertSame(scope, beanFactory.getRegisteredScope(SimpleThreadScope.SCOPE_THREAD));
+        Object bean = beanFactory.getBean("threadBean");
+        SimpleThreadScope.BeanSlot slot = beanFactory.getMergedLocalBeanDefinition("threadBean").threadScopeSlot;
+        assertSame(scope, slot.scope);
+        assertSame(bean, beanFactory.getBean("threadBean"));
+        assertSame(slot, beanFactory.getMergedLocalBeanDefinition("threadBean").threadScopeSlot);
+        assertFalse(beanFactory.isSingleton("threadBean"));
+        assertFalse(beanFactory.isPrototype("threadBean"));
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Object otherThreadBean = executor.submit(() -> beanFactory.getBean("threadBean")).get();
+            assertNotSame(bean, otherThreadBean);
+            assertSame(otherThreadBean, executor.submit(() -> beanFactory.getBean("threadBean")).get());
+        }
+        finally {
+            executor.shutdown();
+        }
+
+        assertSame(bean, scope.remove("threadBean"));
+        assertNull(scope.remove("threadBean"));
+        assertNotSame(bean, beanFactory.getBean("threadBean"));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testXsdValidationUsesBundledSchema() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        XmlBeanDefinitionReader reader = new XmlBeanDefinitionReader(beanFactory);
+        // schema 已直接挂在解析器上，EntityResolver 不应被询问，任何外部实体请求都视为失败
+        AtomicInteger resolverCalls = new AtomicInteger();
+        reader.setEntityResolver((publicId, systemId) -> {
+            resolverCalls.incrementAndGet();
+            throw new IOException("Unexpected external entity " + systemId);
+        });
+        assertEquals(2, reader.loadBeanDefinitions(new ClassPathResource("spring-beans.xml")));
+
+        // schemaLocation 指向不可达地址，仍然只能使用内置的 XSD 完成校验
+        String unreachable = "<beans xmlns=\"http://www.springframework.org/schema/beans\"" +
+                " xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\"" +
+                " xsi:schemaLocation=\"http://www.springframework.org/schema/beans" +
+                " http://unreachable.invalid/spring-beans.xsd\">" +
+                "<bean id=\"offline\" class=\"java.lang.Object\"/></beans>";
+        assertEquals(1, reader.loadBeanDefinitions(() -> new ByteArrayInputStream(unreachable.getBytes("UTF-8"))));
+
+        String invalid = "<beans xmlns=\"http://www.springframework.org/schema/beans\">" +
+                "<bean id=\"invalid\" class=\"java.lang.Object\" lazy-init=\"maybe\"/></beans>";
+        try {
+            reader.loadBeanDefinitions(() -> new ByteArrayInputStream(invalid.getBytes("UTF-8")));
+            fail("Should have thrown BeansException");
+        }
+        catch (BeansException ex) {
+            assertTrue(ex.getCause() instanceof SAXParseException);
+        }
+        assertFalse(beanFactory.containsBeanDefinition("invalid"));
+        assertEquals(0, resolverCalls.get());
+
+        reader.setValidationMode(XmlBeanDefinitionReader.VALIDATION_NONE);
+        assertEquals(1, reader.loadBeanDefinitions(() -> new ByteArrayInputStream(invalid.getBytes("UTF-8"))));
+    }
+
+    @Test
+    public void testStaxReaderMatchesDomReader() {
+        String xml = "<beans xmlns=\"http://www.springframework.org/schema/beans\">" +
+                "<description>ignored</description>" +
+                "<bean id=\"parent\" class=\"com.zavier.beans.factory.support.CountingBean\" abstract=\"true\"" +
+                " scope=\"prototype\"><description>nested</description></bean>" +
+                "<bean id=\"child\" parent=\"parent\" lazy-init=\"true\" depends-on=\"a, b;c\"/>" +
+                "<bean id=\"derived\" factory-bean=\"factory\" factory-method=\"derive\"/>" +
+                "<bean class=\"java.util.ArrayList\"/>" +
+                "<beans><bean id=\"factory\" class=\"com.zavier.beans.factory.support.CountingBean\"" +
+                " factory-method=\"create\" init-method=\"init\" destroy-method=\"\"/></beans>" +
+                "</beans>";
+        Resource resource = () -> new ByteArrayInputStream(xml.getBytes());
+
+        DefaultListableBeanFactory domFactory = new DefaultListableBeanFactory();
+        assertEquals(5, new XmlBeanDefinitionReader(domFactory).loadBeanDefinitions(resource));
+        DefaultListableBeanFactory staxFactory = new DefaultListableBeanFactory();
+        assertEquals(5, new StaxBeanDefinitionReader(staxFactory).loadBeanDefinitions(resource));
+
+        assertEquals(domFactory.getBeanDefinitionNameList(), staxFactory.getBeanDefinitionNameList());
+        for (String beanName : domFactory.getBeanDefinitionNames()) {
+            AbstractBeanDefinition expected = (AbstractBeanDefinition) domFactory.getBeanDefinition(beanName);
+            AbstractBeanDefinition actual = (AbstractBeanDefinition) staxFactory.getBeanDefinition(beanName);
+            assertEquals(beanName, expected.getBeanClassName(), actual.getBeanClassName());
+            assertEquals(beanName, expected.getParentName(), actual.getParentName());
+            assertEquals(beanName, expected.getScope(), actual.getScope());
+            assertEquals(beanName, expected.isAbstract(), actual.isAbstract());
+            assertEquals(beanName, expected.isLazyInit(), actual.isLazyInit());
+            assertArrayEquals(beanName, expected.getDependsOn(), actual.getDependsOn());
+            assertEquals(beanName, expected.getFactoryBeanName(), actual.getFactoryBeanName());
+            assertEquals(beanName, expected.getFactoryMethodName(), actual.getFactoryMethodName());
+            assertEquals(beanName, expected.getInitMethodName(), actual.getInitMethodName());
+            assertEquals(beanName, expected.getDestroyMethodName(), actual.getDestroyMethodName());
+        }
+        assertArrayEquals(new String[] {"a", "b", "c"}, staxFactory.getBeanDefinition("child").getDependsOn());
+        assertTrue(staxFactory.getBeanDefinition("parent").isAbstract());
+        assertTrue(staxFactory.containsBeanDefinition("java.util.ArrayList"));
+
+        // <import> 与 DOM 读取方式一样按相对路径和 classpath: 解析，同一资源只注册一次
+        DefaultListableBeanFactory importFactory = new DefaultListableBeanFactory();
+        assertEquals(4, new StaxBeanDefinitionReader(importFactory).loadBeanDefinitions(
+                new ClassPathResource("imports/root.xml")));
+        assertEquals(Arrays.asList("shared", "a", "b", "root"), importFactory.getBeanDefinitionNameList());
+        try {
+            new StaxBeanDefinitionReader(new DefaultListableBeanFactory()).loadBeanDefinitions(
+                    new ClassPathResource("imports/cycle-a.xml"));
+            fail("Should have thrown BeansException");
+        }
+        catch (BeansException ex) {
+            assertTrue(ex.getMessage().contains("cyclic"));
+        }
+
+        // 不支持的元素不再静默跳过
+        try {
+            new StaxBeanDefinitionReader(new DefaultListableBeanFactory()).loadBeanDefinitions(
+                    xmlResource("<bean id=\"a\" class=\"java.lang.Object\"/><alias name=\"a\" alias=\"b\"/>"));
+            fail("Should have thrown BeansException");
+        }
+        catch (BeansException ex) {
+            assertTrue(ex.getMessage().contains("<alias>"));
+        }
+    }
+
+    @Test
+    public void testParallelLoadBeanDefinitions() {
+        Resource[] resources = new Resource[8];
+        for (int i = 0; i < resources.length; i++) {
+            resources[i] = xmlResource("<bean id=\"bean" + i + "a\" class=\"java.lang.Object\"/>" +
+                    "<bean id=\"bean" + i + "b\" class=\"java.lang.Object\"/>");
+        }
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        XmlBeanDefinitionReader reader = new XmlBeanDefinitionReader(beanFactory);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            reader.setExecutor(executor);
+            assertEquals(16, reader.loadBeanDefinitions(resources));
+            List<String> expectedNames = new ArrayList<String>();
+            for (int i = 0; i < resources.length; i++) {
+                expectedNames.add("bean" + i + "a");
+                expectedNames.add("bean" + i + "b");
+            }
+            assertEquals(expectedNames, beanFactory.getBeanDefinitionNameList());
+
+            // 与顺序加载相同：重名之前的定义已注册，之后的资源不再注册
+            DefaultListableBeanFactory duplicateFactory = new DefaultListableBeanFactory();
+            XmlBeanDefinitionReader duplicateReader = new XmlBeanDefinitionReader(duplicateFactory);
+            duplicateReader.setExecutor(executor);
+            try {
+                duplicateReader.loadBeanDefinitions(resources[0],
+                        xmlResource("<bean id=\"other\" class=\"java.lang.Object\"/>" +
+                                "<bean id=\"bean0b\" class=\"java.lang.Object\"/>"),
+                        resources[1]);
+                fail("Should have thrown BeansException");
+            }
+            catch (BeansException ex) {
+                // expected
+            }
+            assertEquals(Arrays.asList("bean0a", "bean0b", "other"), duplicateFactory.getBeanDefinitionNameList());
+        }
+        finally {
+            executor.shutdown();
+        }
+    }
+
+    private static Resource xmlResource(String beans) {
+        String xml = "<beans xmlns=\"http://www.springframework.org/schema/beans\">" + beans + "</beans>";
+        return () -> new ByteArrayInputStream(xml.getBytes());
+    }
+
+    @Test
+    public void testBinaryBeanDefinitionRoundTrip() throws Exception {
+        Resource source = xmlResource(
+                "<bean id=\"parent\" class=\"com.zavier.beans.factory.support.CountingBean\" abstract=\"true\"/>" +
+                "<bean id=\"child\" parent=\"parent\" scope=\"prototype\" depends-on=\"other\"/>" +
+                "<bean id=\"other\" class=\"com.zavier.beans.factory.support.CountingBean\" lazy-init=\"true\"" +
+                " destroy-method=\"close\"/>" +
+                "<bean id=\"factory\" class=\"com.zavier.beans.factory.support.CountingBean\" factory-method=\"create\"/>");
+        DefaultListableBeanFactory xmlFactory = new DefaultListableBeanFactory();
+        new XmlBeanDefinitionReader(xmlFactory).loadBeanDefinitions(source);
+        ((AbstractBeanDefinition) xmlFactory.getBeanDefinition("other")).setPrimary(true);
+
+        Path dir = Files.createTempDirectory("mini-beans");
+        Path file = dir.resolve("beans.bin");
+        try {
+            assertEquals(4, new BinaryBeanDefinitionWriter().write(xmlFactory, file, source));
+            DefaultListableBeanFactory binaryFactory = new DefaultListableBeanFactory();
+            BinaryBeanDefinitionReader reader = new BinaryBeanDefinitionReader(binaryFactory);
+            assertTrue(reader.isUpToDate(file, source));
+            assertFalse(reader.isUpToDate(file, xmlResource("")));
+            assertFalse(reader.isUpToDate(dir.resolve("missing.bin"), source));
+
+            assertEquals(4, reader.loadBeanDefinitions(file));
+            assertEquals(xmlFactory.getBeanDefinitionNameList(), binaryFactory.getBeanDefinitionNameList());
+            for (String beanName : xmlFactory.getBeanDefinitionNames()) {
+                AbstractBeanDefinition expected = (AbstractBeanDefinition) xmlFactory.getBeanDefinition(beanName);
+                AbstractBeanDefinition actual = (AbstractBeanDefinition) binaryFactory.getBeanDefinition(beanName);
+                assertEquals(beanName, expected.getBeanClassName(), actual.getBeanClassName());
+                assertEquals(beanName, expected.getParentName(), actual.getParentName());
+                assertEquals(beanName, expected.getScope(), actual.getScope());
+                assertEquals(beanName, expected.isAbstract(), actual.isAbstract());
+                assertEquals(beanName, expected.isLazyInit(), actual.isLazyInit());
+                assertEquals(beanName, expected.isPrimary(), actual.isPrimary());
+                assertArrayEquals(beanName, expected.getDependsOn(), actual.getDependsOn());
+                assertEquals(beanName, expected.getFactoryMethodName(), actual.getFactoryMethodName());
+                assertEquals(beanName, expected.getDestroyMethodName(), actual.getDestroyMethodName());
+            }
+            assertNotSame(binaryFactory.getBean("child"), binaryFactory.getBean("child"));
+
+            // 被导入的资源也记录在文件中，只修改被导入的文件同样会使预编译文件过期
+            Path root = dir.resolve("root.xml");
+            Path imported = dir.resolve("imported.xml");
+            writeBeans(root, "<import resource=\"imported.xml\"/><bean id=\"root\" class=\"java.lang.Object\"/>");
+            writeBeans(imported, "<bean id=\"imported\" class=\"java.lang.Object\"/>");
+            try {
+                Resource rootResource = new FileSystemResource(root.toFile());
+                DefaultListableBeanFactory importFactory = new DefaultListableBeanFactory();
+                XmlBeanDefinitionReader xmlReader = new XmlBeanDefinitionReader(importFactory);
+                xmlReader.loadBeanDefinitions(rootResource);
+                assertEquals(2, xmlReader.getLoadedResources().length);
+                assertEquals(2, new BinaryBeanDefinitionWriter().write(importFactory, file, xmlReader.getLoadedResources()));
+                assertTrue(reader.isUpToDate(file, rootResource));
+
+                writeBeans(imported, "<bean id=\"changed\" class=\"java.lang.Object\"/>");
+                assertFalse(reader.isUpToDate(file, rootResource));
+                Files.delete(imported);
+                assertFalse(reader.isUpToDate(file, rootResource));
+            }
+            finally {
+                Files.deleteIfExists(root);
+                Files.deleteIfExists(imported);
+            }
+        }
+        finally {
+            Files.deleteIfExists(file);
+            Files.delete(dir);
+        }
+    }
+
+    @Test
+    public void testPropertyAndConstructorArgumentInjection() throws Exception {
+        Resource source = xmlResource(
+                "<bean id=\"bean\" class=\"com.zavier.beans.factory.support.PropertyBean\" scope=\"prototype\">" +
+                "<constructor-arg index=\"1\" value=\"3\"/>" +
+                "<constructor-arg index=\"0\"><value>first</value></constructor-arg>" +
+                "<property name=\"enabled\" value=\"yes\"/>" +
+                "<property name=\"unit\" value=\"SECONDS\"/>" +
+                "<property name=\"value\"><value type=\"java.lang.Long\">42</value></property>" +
+                "<property name=\"delegate\" ref=\"counting\"/>" +
+                "<property name=\"description\"><null/></property>" +
+                "</bean>" +
+                "<bean id=\"counting\" class=\"com.zavier.beans.factory.support.CountingBean\">" +
+                "<constructor-arg><ref bean=\"name\"/></constructor-arg></bean>" +
+                "<bean id=\"name\" class=\"java.lang.String\"><constructor-arg value=\"shared\"/></bean>");
+        DefaultListableBeanFactory domFactory = new DefaultListableBeanFactory();
+        assertEquals(3, new XmlBeanDefinitionReader(domFactory).loadBeanDefinitions(source));
+        DefaultListableBeanFactory staxFactory = new DefaultListableBeanFactory();
+        assertEquals(3, new StaxBeanDefinitionReader(staxFactory).loadBeanDefinitions(source));
+        for (String beanName : domFactory.getBeanDefinitionNames()) {
+            assertEquals(beanName, domFactory.getBeanDefinition(beanName), staxFactory.getBeanDefinition(beanName));
+        }
+
+        PropertyBean bean = (PropertyBean) domFactory.getBean("bean");
+        assertEquals("first", bean.getName());
+        assertEquals(3, bean.getCount());
+        assertTrue(bean.isEnabled());
+        assertEquals(TimeUnit.SECONDS, bean.getUnit());
+        assertEquals(42L, bean.getValue());
+        assertNull(bean.getDescription());
+        assertEquals("shared", bean.getDelegate().getName());
+        assertSame(domFactory.getBean("counting"), bean.getDelegate());
+        assertArrayEquals(new String[] {"bean"}, domFactory.getDependentBeans("counting"));
+
+        // 原型再次创建时复用已解析的注入计划与转换后的字面值
+        RootBeanDefinition mbd = domFactory.getMergedLocalBeanDefinition("bean");
+        PropertyInjector injector = mbd.propertyInjector;
+        assertNotNull(injector);
+        PropertyBean other = (PropertyBean) domFactory.getBean("bean");
+        assertNotSame(bean, other);
+        assertSame(injector, mbd.propertyInjector);
+        assertSame(bean.getValue(), other.getValue());
+        assertSame(bean.getDelegate(), other.getDelegate());
+
+        // 工厂方法交替返回不同子类：每个实例都使用与自身类匹配的 setter
+        DefaultListableBeanFactory variantFactory = new DefaultListableBeanFactory();
+        new XmlBeanDefinitionReader(variantFactory).loadBeanDefinitions(xmlResource(
+                "<bean id=\"variant\" class=\"com.zavier.beans.factory.support.CountingBean\"" +
+                " factory-method=\"nextVariant\" scope=\"prototype\">" +
+                "<property name=\"label\" value=\"painted\"/></bean>"));
+        Object first = variantFactory.getBean("variant");
+        Object second = variantFactory.getBean("variant");
+        assertNotSame(first.getClass(), second.getClass());
+        for (Object variant : Arrays.asList(first, second, variantFactory.getBean("variant"))) {
+            String label = (variant instanceof CountingBean.Red ?
+                    ((CountingBean.Red) variant).getLabel() : ((CountingBean.Blue) variant).getLabel());
+            assertEquals("painted", label);
+        }
+
+        Path dir = Files.createTempDirectory("mini-beans");
+        Path file = dir.resolve("beans.bin");
+        try {
+            new BinaryBeanDefinitionWriter().write(domFactory, file, source);
+            DefaultListableBeanFactory binaryFactory = new DefaultListableBeanFactory();
+            new BinaryBeanDefinitionReader(binaryFactory).loadBeanDefinitions(file);
+            for (String beanName : domFactory.getBeanDefinitionNames()) {
+                assertEquals(beanName, domFactory.getBeanDefinition(beanName), binaryFactory.getBeanDefinition(beanName));
+            }
+            assertEquals(42L, ((PropertyBean) binaryFactory.getBean("bean")).getValue());
+        }
+        finally {
+            Files.deleteIfExists(file);
+            Files.delete(dir);
+        }
+
+        DefaultListableBeanFactory invalidFactory = new DefaultListableBeanFactory();
+        new XmlBeanDefinitionReader(invalidFactory).loadBeanDefinitions(xmlResource(
+                "<bean id=\"unknown\" class=\"com.zavier.beans.factory.support.CountingBean\">" +
+                "<property name=\"missing\" value=\"1\"/></bean>" +
+                "<bean id=\"mismatch\" class=\"com.zavier.beans.factory.support.PropertyBean\">" +
+                "<constructor-arg value=\"name\"/><constructor-arg value=\"many\"/></bean>"));
+        try {
+            invalidFactory.getBean("unknown");
+            fail("Should have thrown BeanCreationException");
+        }
+        catch (BeanCreationException ex) {
+            // expected
+        }
+        try {
+            invalidFactory.getBean("mismatch");
+            fail("Should have thrown BeanCreationException");
+        }
+        catch (BeanCreationException ex) {
+            assertTrue(ex.getCause() instanceof TypeMismatchException);
+        }
+    }
+
+    @Test
+    public void testOverloadedSetterSelection() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        new XmlBeanDefinitionReader(beanFactory).loadBeanDefinitions(xmlResource(
+                "<bean id=\"literal\" class=\"com.zavier.beans.factory.support.PropertyBean\">" +
+                "<constructor-arg value=\"a\"/><constructor-arg value=\"1\"/>" +
+                "<property name=\"limit\" value=\"42\"/>" +
+                "<property name=\"size\"><value type=\"long\">42</value></property></bean>" +
+                "<bean id=\"typed\" class=\"com.zavier.beans.factory.support.PropertyBean\">" +
+                "<constructor-arg value=\"b\"/><constructor-arg value=\"1\"/>" +
+                "<property name=\"limit\"><value type=\"int\">42</value></property></bean>" +
+                "<bean id=\"ambiguous\" class=\"com.zavier.beans.factory.support.PropertyBean\">" +
+                "<constructor-arg value=\"c\"/><constructor-arg value=\"1\"/>" +
+                "<property name=\"size\" value=\"42\"/></bean>"));
+        // 未指定类型的字面值优先选择 String 参数，指定类型时选择对应的重载
+        PropertyBean literal = (PropertyBean) beanFactory.getBean("literal");
+        assertEquals("42", literal.getLimit());
+        assertEquals(42L, literal.getSize());
+        assertEquals(42, ((PropertyBean) beanFactory.getBean("typed")).getLimit());
+        try {
+            beanFactory.getBean("ambiguous");
+            fail("Should have thrown BeanCreationException");
+        }
+        catch (BeanCreationException ex) {
+            assertTrue(ex.getMessage(), ex.getMessage().contains("Ambiguous setter methods for property 'size'"));
+        }
+    }
+
+    @Test
+    public void testResolveBeanClassesAsync() throws Exception {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        new XmlBeanDefinitionReader(beanFactory).loadBeanDefinitions(xmlResource(
+                "<bean id=\"parent\" class=\"com.zavier.beans.factory.support.CountingBean\" abstract=\"true\"/>" +
+                "<bean id=\"child\" parent=\"parent\"/>" +
+                "<bean id=\"missingA\" class=\"com.zavier.beans.factory.support.MissingA\"/>" +
+                "<bean id=\"simple\" class=\"com.zavier.beans.factory.support.SimpleBean\"/>" +
+                "<bean id=\"missingB\" class=\"com.zavier.beans.factory.support.MissingB\"/>"));
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            beanFactory.resolveBeanClassesAsync(executor).join();
+            fail("Should have thrown CompletionException");
+        }
+        catch (CompletionException ex) {
+            // 全部失败都被报告，按注册顺序
+            Throwable[] failures = ex.getCause().getSuppressed();
+            assertEquals(2, failures.length);
+            assertEquals("missingA", ((BeanCreationException) failures[0]).getBeanName());
+            assertEquals("missingB", ((BeanCreationException) failures[1]).getBeanName());
+        }
+        finally {
+            executor.shutdown();
+        }
+        assertTrue(((AbstractBeanDefinition) beanFactory.getBeanDefinition("simple")).hasBeanClass());
+        assertTrue(beanFactory.getMergedLocalBeanDefinition("child").hasBeanClass());
+
+        beanFactory.removeBeanDefinition("missingA");
+        beanFactory.removeBeanDefinition("missingB");
+        beanFactory.resolveBeanClassesAsync(ForkJoinPool.commonPool()).join();
+    }
+
+    @Test
+    public void testClassPathComponentScanning() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        ClassPathBeanDefinitionScanner scanner =
+                new ClassPathBeanDefinitionScanner(beanFactory);
+        assertEquals(4, scanner.scan("com.zavier.beans.factory.support.scan"));
+        assertEquals(new HashSet<String>(Arrays.asList(
+                "scannedService", "custom", "users", "outer.StaticNested")),
+                new HashSet<String>(beanFactory.getBeanDefinitionNameList()));
+        // 扫描只读取 class 文件，不加载、不初始化候选类
+        AbstractBeanDefinition bd = (AbstractBeanDefinition) beanFactory.getBeanDefinition("scannedService");
+        assertFalse(bd.hasBeanClass());
+        assertEquals("com.zavier.beans.factory.support.scan.ScannedService", bd.getBeanClassName());
+        assertNull(System.getProperty("scan.ScannedService.initialized"));
+
+        // 重复扫描同一个包不会报重名
+        assertEquals(0, scanner.scan("com.zavier.beans.factory.support.scan"));
+        assertEquals("com.zavier.beans.factory.support.scan.Outer$StaticNested",
+                beanFactory.getBean("outer.StaticNested").getClass().getName());
+        beanFactory.getBean("scannedService");
+        assertEquals("true", System.clearProperty("scan.ScannedService.initialized"));
+    }
+
+    @Test
+    public void testComponentIndexMatchesClassPathScanning() {
+        // 索引由 mini-index 的注解处理器在编译测试代码时生成
+        CandidateComponentsIndex index =
+                CandidateComponentsIndexLoader.loadIndex(getClass().getClassLoader());
+        assertNotNull(index);
+        String basePackage = "com.zavier.beans.factory.support.scan";
+        assertEquals(new HashSet<String>(Arrays.asList(basePackage + ".ScannedService",
+                basePackage + ".NamedComponent", basePackage + ".UserRepository", basePackage + ".Outer$StaticNested")),
+                index.getCandidateTypes(basePackage, Component.class.getName()));
+        assertEquals(Collections.singleton(basePackage + ".UserRepository"),
+                index.getCandidateTypes(basePackage, basePackage + ".Repository"));
+
+        DefaultListableBeanFactory indexedFactory = new DefaultListableBeanFactory();
+        new ClassPathBeanDefinitionScanner(indexedFactory).scan(basePackage);
+        DefaultListableBeanFactory scannedFactory = new DefaultListableBeanFactory();
+        System.setProperty(CandidateComponentsIndexLoader.IGNORE_INDEX, "true");
+        try {
+            new ClassPathBeanDefinitionScanner(scannedFactory).scan(basePackage);
+        }
+        finally {
+            System.clearProperty(CandidateComponentsIndexLoader.IGNORE_INDEX);
+        }
+        assertEquals(4, indexedFactory.getBeanDefinitionCount());
+        // 注册顺序与类路径扫描一致
+        assertEquals(scannedFactory.getBeanDefinitionNameList(), indexedFactory.getBeanDefinitionNameList());
+        for (String beanName : scannedFactory.getBeanDefinitionNames()) {
+            assertEquals(scannedFactory.getBeanDefinition(beanName).getBeanClassName(),
+                    indexedFactory.getBeanDefinition(beanName).getBeanClassName());
+        }
+    }
+
+    @Test
+    public void testIntrospectionResultsSharedPerClass() {
+        CachedIntrospectionResults results =
+                CachedIntrospectionResults.forClass(PropertyBean.class);
+        assertSame(results, CachedIntrospectionResults.forClass(PropertyBean.class));
+        assertSame(results.getConstructors(), results.getConstructors());
+        assertSame(results.getWriteMethods("enabled"), results.getWriteMethods("enabled"));
+        assertEquals(1, results.getWriteMethods("enabled").size());
+        assertTrue(results.getWriteMethods("name").isEmpty());
+        assertEquals("getName", results.getLifecycleMethod("getName").getName());
+        assertNull(results.getLifecycleMethod("missing"));
+        assertNull(results.getLifecycleMethod("missing"));
+
+        DefaultListableBeanFactory factory = new DefaultListableBeanFactory();
+        new XmlBeanDefinitionReader(factory).loadBeanDefinitions(xmlResource(
+                "<bean id=\"a\" class=\"com.zavier.beans.factory.support.PropertyBean\">" +
+                "<constructor-arg value=\"a\"/><constructor-arg value=\"1\"/>" +
+                "<property name=\"enabled\" value=\"true\"/></bean>" +
+                "<bean id=\"b\" class=\"com.zavier.beans.factory.support.PropertyBean\">" +
+                "<constructor-arg value=\"b\"/><constructor-arg value=\"1\"/>" +
+                "<property name=\"enabled\" value=\"false\"/></bean>"));
+        assertTrue(((PropertyBean) factory.getBean("a")).isEnabled());
+        assertFalse(((PropertyBean) factory.getBean("b")).isEnabled());
+        assertSame(results, CachedIntrospectionResults.forClass(PropertyBean.class));
+    }
+
+    @Test
+    public void testInitAndParallelDestroyInReverseDependencyOrder() throws Exception {
+        LifecycleBean.events.clear();
+        DefaultListableBeanFactory factory = new DefaultListableBeanFactory();
+        new XmlBeanDefinitionReader(factory).loadBeanDefinitions(xmlResource(
+                "<bean id=\"a\" class=\"com.zavier.beans.factory.support.LifecycleBean\"" +
+                " init-method=\"init\" destroy-method=\"close\">" +
+                "<constructor-arg value=\"a\"/><property name=\"dependency\" ref=\"b\"/></bean>" +
+                "<bean id=\"b\" class=\"com.zavier.beans.factory.support.LifecycleBean\"" +
+                " init-method=\"init\" destroy-method=\"close\">" +
+                "<constructor-arg value=\"b\"/><property name=\"dependency\" ref=\"c\"/></bean>" +
+                "<bean id=\"c\" class=\"com.zavier.beans.factory.support.LifecycleBean\"" +
+                " init-method=\"init\" destroy-method=\"(inferred)\"><constructor-arg value=\"c\"/></bean>" +
+                "<bean id=\"d\" class=\"com.zavier.beans.factory.support.LifecycleBean\"" +
+                " destroy-method=\"close\"><constructor-arg value=\"d\"/></bean>" +
+                "<bean id=\"missing\" class=\"com.zavier.beans.factory.support.LifecycleBean\"" +
+                " init-method=\"start\" lazy-init=\"true\"><constructor-arg value=\"e\"/></bean>"));
+        factory.preInstantiateSingletons();
+        assertEquals(Arrays.asList("init:c", "init:b", "init:a"), LifecycleBean.events);
+        try {
+            factory.getBean("missing");
+            fail("Should have thrown BeanCreationException");
+        }
+        catch (BeanCreationException ex) {
+            assertTrue(ex.getMessage().contains("'start'"));
+        }
+
+        LifecycleBean.events.clear();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            factory.setDestructionExecutor(executor);
+            factory.setDestructionTimeoutMillis(5000);
+            factory.destroySingletons();
+        }
+        finally {
+            executor.shutdown();
+        }
+        List<String> events = LifecycleBean.events;
+        assertEquals(4, events.size());
+        assertTrue(events.contains("close:d"));
+        assertTrue(events.indexOf("close:a") < events.indexOf("close:b"));
+        assertTrue(events.indexOf("close:b") < events.indexOf("close:c"));
+        assertEquals(0, factory.getSingletonCount());
+    }
+
+    @Test
+    public void testDestructionTimeoutSkipsDependenciesOfUnfinishedBeans() throws Exception {
+        LifecycleBean.events.clear();
+        DefaultListableBeanFactory factory = new DefaultListableBeanFactory();
+        new XmlBeanDefinitionReader(factory).loadBeanDefinitions(xmlResource(
+                "<bean id=\"slow\" class=\"com.zavier.beans.factory.support.LifecycleBean\"" +
+                " destroy-method=\"closeSlowly\">" +
+                "<constructor-arg value=\"slow\"/><property name=\"dependency\" ref=\"used\"/></bean>" +
+                "<bean id=\"used\" class=\"com.zavier.beans.factory.support.LifecycleBean\"" +
+                " destroy-method=\"close\"><constructor-arg value=\"used\"/></bean>" +
+                "<bean id=\"other\" class=\"com.zavier.beans.factory.support.LifecycleBean\"" +
+                " destroy-method=\"close\"><constructor-arg value=\"other\"/></bean>"));
+        factory.preInstantiateSingletons();
+
+        LifecycleBean.closeGate = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            factory.setDestructionExecutor(executor);
+            factory.setDestructionTimeoutMillis(200);
+            factory.destroySingletons();
+            // slow 超时后仍在销毁，它依赖的 used 不能销毁；无关的 other 照常销毁
+            assertEquals(Collections.singletonList("close:other"), LifecycleBean.events);
+            assertEquals(0, factory.getSingletonCount());
+        }
+        finally {
+            LifecycleBean.closeGate.countDown();
+            executor.shutdown();
+        }
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList("close:other", "close:slow"), LifecycleBean.events);
+    }
+
+    @Test
+    public void testRemovingParentDestroysDescendantSingletons() {
+        LifecycleBean.events.clear();
+        DefaultListableBeanFactory factory = new DefaultListableBeanFactory();
+        new XmlBeanDefinitionReader(factory).loadBeanDefinitions(xmlResource(
+                "<bean id=\"parent\" class=\"com.zavier.beans.factory.support.LifecycleBean\"" +
+                " abstract=\"true\" destroy-method=\"close\"/>" +
+                "<bean id=\"child\" parent=\"parent\"><constructor-arg index=\"0\" value=\"child\"/></bean>" +
+                "<bean id=\"grandChild\" parent=\"child\"><constructor-arg index=\"0\" value=\"grandChild\"/></bean>"));
+        Object child = factory.getBean("child");
+        factory.getBean("grandChild");
+
+        // 子孙的单例按正常流程销毁，执行销毁回调
+        factory.removeBeanDefinition("parent");
+        assertEquals(Arrays.asList("close:child", "close:grandChild"), LifecycleBean.events);
+        assertFalse(factory.containsSingleton("child"));
+        assertFalse(factory.containsSingleton("grandChild"));
+        assertTrue(factory.containsBeanDefinition("child"));
+
+        GenericBeanDefinition newParent = new GenericBeanDefinition();
+        newParent.setBeanClass(LifecycleBean.class);
+        factory.registerBeanDefinition("parent", newParent);
+        assertNotSame(child, factory.getBean("child"));
+    }
+
+    @Test
+    public void testImportParsesSharedResourceOnce() {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (ExecutorService parseExecutor : new ExecutorService[] {null, executor}) {
+                DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+                XmlBeanDefinitionReader reader = new XmlBeanDefinitionReader(beanFactory);
+                AtomicInteger parseCount = new AtomicInteger();
+                PooledDocumentLoader documentLoader = new PooledDocumentLoader();
+                reader.setDocumentLoader((inputSource, entityResolver, errorHandler, validationMode, namespaceAware) -> {
+                    parseCount.incrementAndGet();
+                    return documentLoader.loadDocument(inputSource, entityResolver, errorHandler, validationMode, namespaceAware);
+                });
+                reader.setExecutor(parseExecutor);
+
+                // shared.xml 分别以相对路径和 classpath: 路径导入，只解析、注册一次
+                assertEquals(4, reader.loadBeanDefinitions(new ClassPathResource("imports/root.xml")));
+                assertEquals(4, parseCount.get());
+                assertEquals(Arrays.asList("shared", "a", "b", "root"), beanFactory.getBeanDefinitionNameList());
+            }
+        }
+        finally {
+            executor.shutdown();
+        }
+
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        try {
+            new XmlBeanDefinitionReader(beanFactory).loadBeanDefinitions(new ClassPathResource("imports/cycle-a.xml"));
+            fail("Should have thrown BeansException");
+        }
+        catch (BeansException ex) {
+            assertTrue(ex.getMessage().contains("cyclic"));
+        }
+    }
+
+    @Test
+    public void testReloadAppliesOnlyChangedDefinitions() throws Exception {
+        Path dir = Files.createTempDirectory("mini-beans");
+        Path file = dir.resolve("beans.xml");
+        Resource resource = new Resource() {
+            @Override
+            public InputStream getInputStream() throws IOException {
+                return Files.newInputStream(file);
+            }
+            @Override
+            public File getFile() {
+                return file.toFile();
+            }
+        };
+        writeBeans(file, "<bean id=\"a\" class=\"com.zavier.beans.factory.support.SimpleBean\"/>" +
+                "<bean id=\"b\" class=\"com.zavier.beans.factory.support.SimpleBean\"/>" +
+                "<bean id=\"c\" class=\"com.zavier.beans.factory.support.SimpleBean\"/>");
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        ReloadableXmlBeanDefinitionReader reader = new ReloadableXmlBeanDefinitionReader(beanFactory);
+        reader.setQuietPeriodMillis(20);
+        try {
+            assertEquals(3, reader.loadBeanDefinitions(resource));
+            Object a = beanFactory.getBean("a");
+
+            // b 改为原型，删除 c，新增 d：a 的定义与单例保持不变
+            writeBeans(file, "<bean id=\"a\" class=\"com.zavier.beans.factory.support.SimpleBean\"/>" +
+                    "<bean id=\"b\" class=\"com.zavier.beans.factory.support.SimpleBean\" scope=\"prototype\"/>" +
+                    "<bean id=\"d\" class=\"com.zavier.beans.factory.support.SimpleBean\"/>");
+            assertEquals(3, reader.reload(Collections.singleton(resource)));
+            assertSame(a, beanFactory.getBean("a"));
+            assertTrue(beanFactory.getBeanDefinition("b").isPrototype());
+            assertFalse(beanFactory.containsBeanDefinition("c"));
+            assertTrue(beanFactory.containsBeanDefinition("d"));
+            assertEquals(0, reader.reload(Collections.singleton(resource)));
+
+            // 新增的名称已被其他来源注册：重新加载失败，注册表与已加载的定义都不变
+            beanFactory.registerBeanDefinition("x", new GenericBeanDefinition());
+            writeBeans(file, "<bean id=\"a\" class=\"com.zavier.beans.factory.support.SimpleBean\"/>" +
+                    "<bean id=\"b\" class=\"com.zavier.beans.factory.support.SimpleBean\"/>" +
+                    "<bean id=\"x\" class=\"com.zavier.beans.factory.support.SimpleBean\"/>");
+            try {
+                reader.reload(Collections.singleton(resource));
+                fail("Should have thrown BeansException");
+            }
+            catch (BeansException ex) {
+                assertTrue(ex.getMessage().contains("'x'"));
+            }
+            assertTrue(beanFactory.getBeanDefinition("b").isPrototype());
+            assertTrue(beanFactory.containsBeanDefinition("d"));
+            assertEquals(new HashSet<String>(Arrays.asList("a", "b", "d")), reader.getLoadedBeanNames());
+            beanFactory.removeBeanDefinition("x");
+
+            reader.start();
+            writeBeans(file, "<bean id=\"a\" class=\"com.zavier.beans.factory.support.SimpleBean\"/>" +
+                    "<bean id=\"e\" class=\"com.zavier.beans.factory.support.SimpleBean\"/>");
+            long deadline = System.currentTimeMillis() + 10000;
+            while (!beanFactory.containsBeanDefinition("e") && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            assertEquals(Arrays.asList("a", "e"), beanFactory.getBeanDefinitionNameList());
+            assertSame(a, beanFactory.getBean("a"));
+        }
+        finally {
+            reader.close();
+            Files.deleteIfExists(file);
+            Files.delete(dir);
+        }
+    }
+
+    @Test
+    public void testReloadChangedImportedResource() throws Exception {
+        Path dir = Files.createTempDirectory("mini-beans");
+        Path root = dir.resolve("beans.xml");
+        Path shared = dir.resolve("shared.xml");
+        writeBeans(root, "<import resource=\"shared.xml\"/>" +
+                "<bean id=\"a\" class=\"com.zavier.beans.factory.support.SimpleBean\"/>");
+        writeBeans(shared, "<bean id=\"s\" class=\"com.zavier.beans.factory.support.SimpleBean\"/>");
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        ReloadableXmlBeanDefinitionReader reader = new ReloadableXmlBeanDefinitionReader(beanFactory);
+        try {
+            assertEquals(2, reader.loadBeanDefinitions(new FileSystemResource(root.toFile())));
+            Object a = beanFactory.getBean("a");
+
+            // 只有被导入的文件变化：根文件沿用缓存，被导入文件重新解析
+            writeBeans(shared, "<bean id=\"t\" class=\"com.zavier.beans.factory.support.SimpleBean\"/>");
+            assertEquals(2, reader.reload(Collections.singleton(new FileSystemResource(shared.toFile()))));
+            assertFalse(beanFactory.containsBeanDefinition("s"));
+            assertTrue(beanFactory.containsBeanDefinition("t"));
+            assertSame(a, beanFactory.getBean("a"));
+        }
+        finally {
+            reader.close();
+            Files.deleteIfExists(root);
+            Files.deleteIfExists(shared);
+            Files.delete(dir);
+        }
+    }
+
+    @Test
+    public void testReloadRollsBackOnRegistrationFailure() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory() {
+            @Override
+            public void registerBeanDefinition(String beanName, BeanDefinition beanDefinition) {
+                if ("broken".equals(beanName)) {
+                    throw new BeansException("Cannot register bean 'broken'");
+                }
+                super.registerBeanDefinition(beanName, beanDefinition);
+            }
+        };
+        String[] beans = {"<bean id=\"a\" class=\"java.lang.Object\"/><bean id=\"b\" class=\"java.lang.Object\"/>"};
+        Resource resource = () -> new ByteArrayInputStream(("<beans xmlns=\"http://www.springframework.org/schema/beans\">" +
+                beans[0] + "</beans>").getBytes());
+        ReloadableXmlBeanDefinitionReader reader = new ReloadableXmlBeanDefinitionReader(beanFactory);
+        assertEquals(2, reader.loadBeanDefinitions(resource));
+        BeanDefinition b = beanFactory.getBeanDefinition("b");
+
+        // 删除 a、修改 b 之后注册 broken 失败：已做的修改全部撤销
+        beans[0] = "<bean id=\"b\" class=\"java.lang.Object\" scope=\"prototype\"/>" +
+                "<bean id=\"broken\" class=\"java.lang.Object\"/>";
+        try {
+            reader.reload(Collections.singleton(resource));
+            fail("Should have thrown BeansException");
+        }
+        catch (BeansException ex) {
+            assertEquals("Cannot register bean 'broken'", ex.getMessage());
+        }
+        assertTrue(beanFactory.containsBeanDefinition("a"));
+        assertSame(b, beanFactory.getBeanDefinition("b"));
+        assertFalse(beanFactory.containsBeanDefinition("broken"));
+        assertEquals(new HashSet<String>(Arrays.asList("a", "b")), reader.getLoadedBeanNames());
+
+        beans[0] = "<bean id=\"b\" class=\"java.lang.Object\" scope=\"prototype\"/>";
+        assertEquals(2, reader.reload(Collections.singleton(resource)));
+        assertFalse(beanFactory.containsBeanDefinition("a"));
+        assertTrue(beanFactory.getBeanDefinition("b").isPrototype());
+    }
+
+    private static void writeBeans(Path file, String beans) throws IOException {
+        String xml = "<beans xmlns=\"http://www.springframework.org/schema/beans\">" + beans + "</beans>";
+        Files.write(file, xml.getBytes());
+    }
+
+}
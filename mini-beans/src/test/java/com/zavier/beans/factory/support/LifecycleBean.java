@@ -0,0 +1,51 @@
+package com.zavier.beans.factory.support;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+public class LifecycleBean {
+
+    public static final List<String> events = new CopyOnWriteArrayList<>();
+
+    public static final CyclicBarrier pairBarrier = new CyclicBarrier(2);
+
+    /** {@link #closeSlowly()} 在此放行之前一直阻塞 */
+    public static volatile CountDownLatch closeGate = new CountDownLatch(0);
+
+    private final String name;
+
+    private LifecycleBean dependency;
+
+    public LifecycleBean(String name) {
+        this.name = name;
+    }
+
+    public static LifecycleBean createInPair(String name) throws Exception {
+        pairBarrier.await(5, TimeUnit.SECONDS);
+        return new LifecycleBean(name);
+    }
+
+    public void setDependency(LifecycleBean dependency) {
+        this.dependency = dependency;
+    }
+
+    public LifecycleBean getDependency() {
+        return dependency;
+    }
+
+    private void init() {
+        events.add("init:" + name);
+    }
+
+    public void close() {
+        events.add("close:" + name);
+    }
+
+    public void closeSlowly() throws InterruptedException {
+        closeGate.await(5, TimeUnit.SECONDS);
+        events.add("close:" + name);
+    }
+}
@@ -0,0 +1,101 @@
+package com.zavier.beans.factory.support;
+
+import java.util.concurrent.TimeUnit;
+
+public class PropertyBean {
+
+    private final String name;
+
+    private final int count;
+
+    private boolean enabled;
+
+    private TimeUnit unit;
+
+    private Object value;
+
+    private CountingBean delegate;
+
+    private String description = "default";
+
+    private Object limit;
+
+    private Object size;
+
+    public PropertyBean(String name, int count) {
+        this.name = name;
+        this.count = count;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public TimeUnit getUnit() {
+        return unit;
+    }
+
+    public void setUnit(TimeUnit unit) {
+        this.unit = unit;
+    }
+
+    public Object getValue() {
+        return value;
+    }
+
+    public void setValue(Object value) {
+        this.value = value;
+    }
+
+    public CountingBean getDelegate() {
+        return delegate;
+    }
+
+    public void setDelegate(CountingBean delegate) {
+        this.delegate = delegate;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public Object getLimit() {
+        return limit;
+    }
+
+    public void setLimit(int limit) {
+        this.limit = limit;
+    }
+
+    public void setLimit(String limit) {
+        this.limit = limit;
+    }
+
+    public Object getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public void setSize(long size) {
+        this.size = size;
+    }
+}
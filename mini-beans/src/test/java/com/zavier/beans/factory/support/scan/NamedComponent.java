@@ -0,0 +1,7 @@
+package com.zavier.beans.factory.support.scan;
+
+import com.zavier.stereotype.Component;
+
+@Component("custom")
+public class NamedComponent {
+}
@@ -0,0 +1,14 @@
+package com.zavier.beans.factory.support.scan;
+
+import com.zavier.stereotype.Component;
+
+public class Outer {
+
+    @Component
+    public static class StaticNested {
+    }
+
+    @Component
+    public class Inner {
+    }
+}
@@ -0,0 +1,16 @@
+package com.zavier.beans.factory.support.scan;
+
+import com.zavier.stereotype.Component;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Component
+public @interface Repository {
+
+    String value() default "";
+}
@@ -0,0 +1,11 @@
+package com.zavier.beans.factory.support.scan;
+
+import com.zavier.stereotype.Component;
+
+@Component
+public class ScannedService {
+
+    static {
+        System.setProperty("scan.ScannedService.initialized", "true");
+    }
+}
@@ -0,0 +1,5 @@
+package com.zavier.beans.factory.support.scan;
+
+@Repository("users")
+public class UserRepository {
+}
@@ -0,0 +1,50 @@
+package com.zavier.beans.factory.xml;
+
+import com.zavier.beans.factory.NoSuchBeanDefinitionException;
+import com.zavier.beans.factory.config.BeanDefinition;
+import com.zavier.beans.factory.config.BeanDefinitionHolder;
+import com.zavier.beans.factory.support.GenericBeanDefinition;
+import com.zavier.core.io.ClassPathResource;
+import com.zavier.core.io.Resource;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class BufferingBeanDefinitionRegistryTest {
+
+    @Test
+    public void testLookupAndRemoval() {
+        BufferingBeanDefinitionRegistry buffer = new BufferingBeanDefinitionRegistry();
+        BeanDefinition first = new GenericBeanDefinition();
+        BeanDefinition second = new GenericBeanDefinition();
+        Resource imported = new ClassPathResource("imports/shared.xml");
+        buffer.registerBeanDefinition("a", first);
+        buffer.addImport(imported);
+        buffer.registerBeanDefinition("b", second);
+
+        assertTrue(buffer.containsBeanDefinition("a"));
+        assertSame(second, buffer.getBeanDefinition("b"));
+        assertFalse(buffer.containsBeanDefinition("c"));
+
+        buffer.removeBeanDefinition("a");
+        assertFalse(buffer.containsBeanDefinition("a"));
+        assertArrayEquals(new String[] {"b"}, buffer.getBeanDefinitionNames());
+        assertEquals(1, buffer.getBeanDefinitionCount());
+        // 导入位置保留，被移除的定义不再重放
+        List<Object> entries = buffer.getEntries();
+        assertEquals(2, entries.size());
+        assertSame(imported, entries.get(0));
+        assertEquals("b", ((BeanDefinitionHolder) entries.get(1)).getBeanName());
+
+        try {
+            buffer.removeBeanDefinition("a");
+            fail("Should have thrown NoSuchBeanDefinitionException");
+        }
+        catch (NoSuchBeanDefinitionException ex) {
+            // expected
+        }
+    }
+
+}
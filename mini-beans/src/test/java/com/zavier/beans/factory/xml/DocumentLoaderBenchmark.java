@@ -0,0 +1,50 @@
+package com.zavier.beans.factory.xml;
+
+import org.xml.sax.InputSource;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 对比 {@link DefaultDocumentLoader} 与 {@link PooledDocumentLoader} 解析小文件时每个文件的开销。
+ * <p>不是单元测试，手动运行：
+ * {@code mvn -pl mini-beans test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.zavier.beans.factory.xml.DocumentLoaderBenchmark}
+ * 或直接在 IDE 中运行 main 方法
+ */
+public class DocumentLoaderBenchmark {
+
+    private static final byte[] DOCUMENT = ("<?xml version=\"1.0\" encoding=\"UTF-8\"?>" +
+            "<beans xmlns=\"http://www.springframework.org/schema/beans\">" +
+            "<bean id=\"first\" class=\"java.util.ArrayList\"/>" +
+            "<bean id=\"second\" class=\"java.util.LinkedList\" scope=\"prototype\"/>" +
+            "</beans>").getBytes(StandardCharsets.UTF_8);
+
+    public static void main(String[] args) throws Exception {
+        int iterations = (args.length > 0 ? Integer.parseInt(args[0]) : 20000);
+        DocumentLoader[] loaders = {new DefaultDocumentLoader(), new PooledDocumentLoader()};
+        int[] modes = {XmlBeanDefinitionReader.VALIDATION_NONE, XmlBeanDefinitionReader.VALIDATION_XSD};
+        for (int mode : modes) {
+            for (DocumentLoader loader : loaders) {
+                // 预热
+                run(loader, mode, iterations);
+                long nanos = run(loader, mode, iterations);
+                System.out.printf("%-22s validationMode=%d: %8.2f us/file%n",
+                        loader.getClass().getSimpleName(), mode, nanos / 1000.0 / iterations);
+            }
+        }
+    }
+
+    private static long run(DocumentLoader loader, int validationMode, int iterations) throws Exception {
+        BeansSchemaResolver entityResolver = new BeansSchemaResolver();
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            InputSource inputSource = new InputSource(new ByteArrayInputStream(DOCUMENT));
+            if (loader.loadDocument(inputSource, entityResolver, null, validationMode, true) == null) {
+                throw new IllegalStateException("No document parsed");
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+}
@@ -0,0 +1,55 @@
+package com.zavier.core.io;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.*;
+
+public class ResourceTest {
+
+    @Test
+    public void testFileSystemAndUrlResources() throws Exception {
+        Path dir = Files.createTempDirectory("mini-beans");
+        Path file = dir.resolve("beans.xml");
+        byte[] content = "<beans/>".getBytes();
+        Files.write(file, content);
+        try {
+            FileSystemResource resource = new FileSystemResource(file);
+            assertTrue(resource.exists());
+            assertEquals(content.length, resource.contentLength());
+            assertEquals(file.toFile().lastModified(), resource.lastModified());
+            ByteBuffer buffer = resource.getByteBuffer();
+            assertEquals(content.length, buffer.remaining());
+            assertEquals('<', buffer.get(0));
+            ByteBuffer read = ByteBuffer.allocate(64);
+            try (ReadableByteChannel channel = resource.readableChannel()) {
+                assertTrue(channel instanceof FileChannel);
+                channel.read(read);
+            }
+            assertEquals(content.length, read.position());
+            assertFalse(resource.createRelative("missing.xml").exists());
+
+            // file: URL 解析为文件资源，其他 URL 解析为 UrlResource，其余按类路径解析
+            DefaultResourceLoader loader = new DefaultResourceLoader();
+            assertEquals(resource, loader.getResource(file.toUri().toString()));
+            Resource classpath = loader.getResource("imports/shared.xml");
+            assertTrue(classpath instanceof ClassPathResource);
+            assertTrue(classpath.exists());
+            assertFalse(loader.getResource("classpath:imports/missing.xml").exists());
+            UrlResource url = new UrlResource(classpath.getURL());
+            assertEquals(classpath.contentLength(), url.contentLength());
+            assertEquals(classpath.lastModified(), url.lastModified());
+            assertEquals(url, url.createRelative("root.xml").createRelative("shared.xml"));
+        }
+        finally {
+            Files.deleteIfExists(file);
+            Files.delete(dir);
+        }
+    }
+
+}
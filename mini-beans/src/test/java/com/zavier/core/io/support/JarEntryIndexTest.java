@@ -0,0 +1,58 @@
+package com.zavier.core.io.support;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+public class JarEntryIndexTest {
+
+    @Test
+    public void testIndexIsPersistedAndRefreshedWhenJarChanges() throws IOException {
+        Path dir = Files.createTempDirectory("mini-beans");
+        Path indexDir = dir.resolve("index");
+        File jar = dir.resolve("beans.jar").toFile();
+        try {
+            writeJar(jar, "a.xml", "sub/b.xml");
+            assertEquals(Arrays.asList("a.xml", "sub/b.xml"), new JarEntryIndex(indexDir).getEntryNames(jar));
+            try (Stream<Path> indexFiles = Files.list(indexDir)) {
+                assertEquals(1, indexFiles.count());
+            }
+            // 新实例从索引文件读取
+            assertEquals(Arrays.asList("a.xml", "sub/b.xml"), new JarEntryIndex(indexDir).getEntryNames(jar));
+
+            // jar 变化后索引过期，重新遍历
+            long lastModified = jar.lastModified();
+            writeJar(jar, "c.xml");
+            assertTrue(jar.setLastModified(lastModified + 2000));
+            assertEquals(Arrays.asList("c.xml"), new JarEntryIndex(indexDir).getEntryNames(jar));
+
+            JarEntryIndex inMemory = new JarEntryIndex(null);
+            assertSame(inMemory.getEntryNames(jar), inMemory.getEntryNames(jar));
+        }
+        finally {
+            try (Stream<Path> paths = Files.walk(dir)) {
+                paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    private static void writeJar(File jar, String... names) throws IOException {
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar.toPath()))) {
+            for (String name : names) {
+                out.putNextEntry(new JarEntry(name));
+                out.closeEntry();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,87 @@
+package com.zavier.core.io.support;
+
+import com.zavier.core.io.Resource;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+public class PathMatchingResourcePatternResolverTest {
+
+    private Path dir;
+
+    private Path indexDir;
+
+    private URLClassLoader classLoader;
+
+    @Before
+    public void setUp() throws IOException {
+        this.dir = Files.createTempDirectory("mini-beans");
+        Path jar = this.dir.resolve("beans.jar");
+        Path classes = this.dir.resolve("classes");
+        this.indexDir = this.dir.resolve("index");
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar))) {
+            for (String name : new String[] {"META-INF/", "META-INF/beans/", "META-INF/beans/a.xml",
+                    "META-INF/beans/sub/", "META-INF/beans/sub/b.xml", "META-INF/beans/readme.txt"}) {
+                out.putNextEntry(new JarEntry(name));
+                out.closeEntry();
+            }
+        }
+        Files.createDirectories(classes.resolve("META-INF/beans/other"));
+        Files.write(classes.resolve("META-INF/beans/c.xml"), new byte[0]);
+        Files.write(classes.resolve("META-INF/beans/other/d.txt"), new byte[0]);
+        this.classLoader = new URLClassLoader(new URL[] {jar.toUri().toURL(), classes.toUri().toURL()}, null);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        this.classLoader.close();
+        try (Stream<Path> paths = Files.walk(this.dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void testClassPathAllPatternResolution() throws IOException {
+        List<String> expected = Arrays.asList("a.xml", "b.xml", "c.xml");
+        for (int i = 0; i < 2; i++) {
+            PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver(this.classLoader);
+            resolver.setIndexDirectory(this.indexDir);
+            Resource[] resources = resolver.getResources("classpath*:META-INF/beans/**/*.xml");
+            List<String> names = new ArrayList<String>();
+            for (Resource resource : resources) {
+                assertTrue(resource.getDescription(), resource.exists());
+                String url = resource.getURL().toString();
+                names.add(url.substring(url.lastIndexOf('/') + 1));
+            }
+            assertEquals(expected, names);
+            // 第一次遍历 jar 后写入索引，第二次直接读取索引
+            try (Stream<Path> indexFiles = Files.list(this.indexDir)) {
+                assertEquals(1, indexFiles.count());
+            }
+        }
+    }
+
+    @Test
+    public void testNonPatternLocations() throws IOException {
+        PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver(this.classLoader);
+        resolver.setExecutor(null);
+        assertEquals(1, resolver.getResources("classpath:META-INF/beans/*.xml").length);
+        assertEquals(2, resolver.getResources("classpath*:META-INF/beans/").length);
+    }
+
+}
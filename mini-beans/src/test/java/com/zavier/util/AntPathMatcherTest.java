@@ -0,0 +1,25 @@
+package com.zavier.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class AntPathMatcherTest {
+
+    @Test
+    public void testMatch() {
+        AntPathMatcher matcher = new AntPathMatcher();
+        assertTrue(matcher.match("**/*.xml", "a.xml"));
+        assertTrue(matcher.match("**/*.xml", "sub/dir/b.xml"));
+        assertTrue(matcher.match("sub/**/b?.xml", "sub/x/y/b1.xml"));
+        assertFalse(matcher.match("*.xml", "sub/b.xml"));
+    }
+
+    @Test
+    public void testMatchStart() {
+        AntPathMatcher matcher = new AntPathMatcher();
+        assertTrue(matcher.matchStart("sub/**/*.xml", "sub/x/"));
+        assertFalse(matcher.matchStart("sub/*.xml", "other/"));
+    }
+
+}
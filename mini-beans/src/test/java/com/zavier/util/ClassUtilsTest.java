@@ -0,0 +1,39 @@
+package com.zavier.util;
+
+import org.junit.Test;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class ClassUtilsTest {
+
+    @Test
+    public void testClassResolutionCache() throws Exception {
+        ClassLoader classLoader = new URLClassLoader(new URL[0], getClass().getClassLoader());
+        assertSame(ClassUtilsTest.class, ClassUtils.forName(ClassUtilsTest.class.getName(), classLoader));
+        assertSame(Map.Entry.class, ClassUtils.forName("java.util.Map.Entry", classLoader));
+        assertSame(Map.Entry.class, ClassUtils.forName("java.util.Map.Entry", classLoader));
+
+        String missing = "com.zavier.util.MissingClass";
+        try {
+            ClassUtils.forName(missing, classLoader);
+            fail("Should have thrown ClassNotFoundException");
+        }
+        catch (ClassNotFoundException ex) {
+            assertTrue(ex.getStackTrace().length > 0);
+        }
+        // 缓存的未命中不再访问类加载器，也不再填充异常栈
+        try {
+            ClassUtils.forName(missing, classLoader);
+            fail("Should have thrown ClassNotFoundException");
+        }
+        catch (ClassNotFoundException ex) {
+            assertEquals(missing, ex.getMessage());
+            assertEquals(0, ex.getStackTrace().length);
+        }
+    }
+
+}
@@ -0,0 +1,203 @@
+package com.zavier.index.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.Elements;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Annotation {@link javax.annotation.processing.Processor} that writes the
+ * candidate components of a compilation unit to {@value #COMPONENTS_RESOURCE_LOCATION}.
+ * <p>每一行为 {@code 类名=构造型[,构造型]}，构造型总是包含 {@value #COMPONENT_ANNOTATION}，
+ * 通过元注解标注的组件还会列出直接使用的注解。运行时读取该索引即可得到候选组件，
+ * 不需要遍历类路径。
+ * <p>只按名称识别 {@code @Component}，处理器本身不依赖 mini-beans。增量编译时保留
+ * 上次索引中仍然存在、但本次未参与编译的类
+ */
+public class CandidateComponentsIndexer extends AbstractProcessor {
+
+    /** The location of the index file within a jar or class output directory */
+    public static final String COMPONENTS_RESOURCE_LOCATION = "META-INF/spring-mini.components";
+
+    static final String COMPONENT_ANNOTATION = "com.zavier.stereotype.Component";
+
+    /** 类的二进制名称 --> 构造型 */
+    private final Map<String, Set<String>> components = new TreeMap<String, Set<String>>();
+
+    /** 本次编译处理过的全部类型的二进制名称，无论是否为组件 */
+    private final Set<String> processedTypes = new HashSet<String>();
+
+    /** 注解类型名称 --> 是否直接或间接被 @Component 标注 */
+    private final Map<String, Boolean> stereotypeCache = new HashMap<String, Boolean>();
+
+    private Elements elements;
+
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        this.elements = processingEnv.getElementUtils();
+    }
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Collections.singleton("*");
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getRootElements()) {
+            if (element instanceof TypeElement) {
+                collect((TypeElement) element);
+            }
+        }
+        if (roundEnv.processingOver()) {
+            writeIndex();
+        }
+        // 不占用任何注解，其他处理器照常处理
+        return false;
+    }
+
+    private void collect(TypeElement type) {
+        this.processedTypes.add(this.elements.getBinaryName(type).toString());
+        if (isIndependentConcreteClass(type)) {
+            Set<String> stereotypes = new LinkedHashSet<String>();
+            for (AnnotationMirror annotation : type.getAnnotationMirrors()) {
+                TypeElement annotationType = (TypeElement) annotation.getAnnotationType().asElement();
+                String annotationName = annotationType.getQualifiedName().toString();
+                if (COMPONENT_ANNOTATION.equals(annotationName)) {
+                    stereotypes.add(COMPONENT_ANNOTATION);
+                }
+                else if (isStereotype(annotationType, new HashSet<String>())) {
+                    stereotypes.add(COMPONENT_ANNOTATION);
+                    stereotypes.add(annotationName);
+                }
+            }
+            if (!stereotypes.isEmpty()) {
+                this.components.put(this.elements.getBinaryName(type).toString(), stereotypes);
+            }
+        }
+        for (Element enclosed : type.getEnclosedElements()) {
+            if (enclosed instanceof TypeElement) {
+                collect((TypeElement) enclosed);
+            }
+        }
+    }
+
+    /**
+     * 与运行时扫描一致：只收录非抽象的顶层类或静态嵌套类
+     */
+    private static boolean isIndependentConcreteClass(TypeElement type) {
+        if (type.getKind() != ElementKind.CLASS || type.getModifiers().contains(Modifier.ABSTRACT)) {
+            return false;
+        }
+        NestingKind nestingKind = type.getNestingKind();
+        return (nestingKind == NestingKind.TOP_LEVEL ||
+                (nestingKind == NestingKind.MEMBER && type.getModifiers().contains(Modifier.STATIC)));
+    }
+
+    private boolean isStereotype(TypeElement annotationType, Set<String> visited) {
+        String annotationName = annotationType.getQualifiedName().toString();
+        Boolean cached = this.stereotypeCache.get(annotationName);
+        if (cached != null) {
+            return cached;
+        }
+        if (annotationName.startsWith("java.") || !visited.add(annotationName)) {
+            return false;
+        }
+        boolean stereotype = false;
+        for (AnnotationMirror metaAnnotation : annotationType.getAnnotationMirrors()) {
+            TypeElement metaAnnotationType = (TypeElement) metaAnnotation.getAnnotationType().asElement();
+            if (COMPONENT_ANNOTATION.equals(metaAnnotationType.getQualifiedName().toString()) ||
+                    isStereotype(metaAnnotationType, visited)) {
+                stereotype = true;
+                break;
+            }
+        }
+        this.stereotypeCache.put(annotationName, stereotype);
+        return stereotype;
+    }
+
+    private void writeIndex() {
+        // 旧索引中的组件可能全部失效，此时仍需写出空索引覆盖旧文件
+        if (!mergeExistingIndex() && this.components.isEmpty()) {
+            return;
+        }
+        try {
+            FileObject file = this.processingEnv.getFiler().createResource(
+                    StandardLocation.CLASS_OUTPUT, "", COMPONENTS_RESOURCE_LOCATION);
+            // 按类名排序、不写时间戳注释，相同的输入总是生成相同的文件
+            try (Writer writer = new OutputStreamWriter(file.openOutputStream(), StandardCharsets.UTF_8)) {
+                for (Map.Entry<String, Set<String>> entry : this.components.entrySet()) {
+                    writer.write(entry.getKey());
+                    writer.write('=');
+                    writer.write(String.join(",", entry.getValue()));
+                    writer.write('\n');
+                }
+            }
+        }
+        catch (IOException ex) {
+            this.processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Unable to write component index " + COMPONENTS_RESOURCE_LOCATION + ": " + ex);
+        }
+    }
+
+    /**
+     * 增量编译时只有变化的源文件参与处理，上次索引中未重新编译且仍然存在的类需要保留；
+     * 本次重新编译过的类以本次结果为准，即使它已不再是组件
+     * @return whether an index from a previous compilation exists
+     */
+    private boolean mergeExistingIndex() {
+        Properties existing = new Properties();
+        try {
+            FileObject file = this.processingEnv.getFiler().getResource(
+                    StandardLocation.CLASS_OUTPUT, "", COMPONENTS_RESOURCE_LOCATION);
+            try (InputStream is = file.openInputStream()) {
+                existing.load(is);
+            }
+        }
+        catch (IOException | IllegalArgumentException ex) {
+            // 没有旧索引
+            return false;
+        }
+        for (String className : existing.stringPropertyNames()) {
+            if (!this.processedTypes.contains(className) &&
+                    this.elements.getTypeElement(className.replace('$', '.')) != null) {
+                Set<String> stereotypes = new LinkedHashSet<String>();
+                for (String stereotype : existing.getProperty(className).split(",")) {
+                    stereotypes.add(stereotype.trim());
+                }
+                this.components.put(className, stereotypes);
+            }
+        }
+        return true;
+    }
+
+}